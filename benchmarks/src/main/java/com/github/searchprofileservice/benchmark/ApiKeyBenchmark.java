@@ -0,0 +1,56 @@
+package com.github.searchprofileservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifying an api key the way the external endpoints do, by bcrypt-checking it against the
+ * hashed keys of the application one after the other. Keys are hashed with cost 14 by the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ApiKeyBenchmark {
+
+  @Param({ "10", "14" })
+  private int cost;
+
+  /** api keys of the application, the matching one is checked last */
+  @Param({ "1", "3" })
+  private int apiKeys;
+
+  private final String apiKey = UUID.randomUUID().toString();
+  private List<String> hashedKeys;
+
+  @Setup
+  public void setUp() {
+    hashedKeys = new ArrayList<>(apiKeys);
+    for (int i = 1; i < apiKeys; i++) {
+      hashedKeys.add(BCrypt.hashpw(UUID.randomUUID().toString(), BCrypt.gensalt(cost)));
+    }
+    hashedKeys.add(BCrypt.hashpw(apiKey, BCrypt.gensalt(cost)));
+  }
+
+  @Benchmark
+  public boolean verifyApiKey() {
+    return hashedKeys.stream().anyMatch(hashedKey -> BCrypt.checkpw(apiKey, hashedKey));
+  }
+}
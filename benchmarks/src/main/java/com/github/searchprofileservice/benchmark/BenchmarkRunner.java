@@ -0,0 +1,40 @@
+package com.github.searchprofileservice.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the gc profiler, so that allocations per operation are reported next
+ * to the throughput. Takes the usual JMH command line options, e.g. a benchmark name regex,
+ * '-l' to list the benchmarks or '-h' for help.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() { }
+
+  public static void main(String[] args)
+      throws RunnerException, CommandLineOptionException, IOException {
+
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp()) {
+      commandLine.showHelp();
+      return;
+    }
+
+    Runner runner = new Runner(new OptionsBuilder()
+        .parent(commandLine)
+        .addProfiler(GCProfiler.class)
+        .build());
+    if (commandLine.shouldList()) {
+      runner.list();
+    } else {
+      runner.run();
+    }
+  }
+}
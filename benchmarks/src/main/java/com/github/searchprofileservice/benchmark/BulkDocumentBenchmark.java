@@ -0,0 +1,109 @@
+package com.github.searchprofileservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.repository.ApplicationRepository;
+import com.github.searchprofileservice.service.ApplicationService;
+import com.github.searchprofileservice.service.AuthenticationService;
+import com.github.searchprofileservice.service.CacheInvalidationService;
+import com.github.searchprofileservice.service.ElasticSearchClientService;
+import com.github.searchprofileservice.service.SearchProfileService;
+import com.github.searchprofileservice.service.impl.ApplicationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and validating ingested documents: the request body parsing spring does for the
+ * external document endpoints, {@link ApplicationService#isJsonValid(String)} and extracting the
+ * documents of a bulk upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkDocumentBenchmark {
+
+  /** documents per bulk upload */
+  @Param({ "100", "1000" })
+  private int documents;
+
+  /** fields per document, each holding about 64 characters */
+  @Param({ "10", "100" })
+  private int fields;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final UUID applicationId = UUID.randomUUID();
+
+  private ApplicationService applicationService;
+  private byte[] bulkBody;
+  private String singleDocument;
+
+  @Setup
+  public void setUp() throws IOException {
+    ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CachingConfig.APPLICATION_CACHE);
+    Application application = new Application(
+        applicationId, new Date(), new ArrayList<>(), "benchmark", true, new ArrayList<>());
+    cacheManager.getCache(CachingConfig.APPLICATION_CACHE).put(applicationId.toString(), application);
+
+    applicationService = new ApplicationServiceImpl(
+        Stubs.of(ApplicationRepository.class),
+        Stubs.of(SearchProfileService.class),
+        Stubs.of(ElasticSearchClientService.class, Map.of(
+            "bulkUploadRawJsonToApplication", args -> List.of())),
+        Stubs.of(AuthenticationService.class),
+        objectMapper,
+        Stubs.of(CacheInvalidationService.class),
+        cacheManager);
+
+    ArrayNode array = objectMapper.createArrayNode();
+    for (int i = 0; i < documents; i++) {
+      array.add(createDocument(i));
+    }
+    ObjectNode bulk = objectMapper.createObjectNode();
+    bulk.set("Documents", array);
+    bulkBody = objectMapper.writeValueAsBytes(bulk);
+    singleDocument = objectMapper.writeValueAsString(createDocument(0));
+  }
+
+  @Benchmark
+  public List<String> parseBulkUpload() throws IOException {
+    ObjectNode body = (ObjectNode) objectMapper.readTree(bulkBody);
+    return applicationService.bulkUploadDocuments(body, applicationId);
+  }
+
+  @Benchmark
+  public boolean isJsonValid() {
+    return applicationService.isJsonValid(singleDocument);
+  }
+
+  private ObjectNode createDocument(int number) {
+    ObjectNode document = objectMapper.createObjectNode();
+    for (int i = 0; i < fields; i++) {
+      document.put("field" + i, String.valueOf((char) ('a' + (number + i) % 26)).repeat(64));
+    }
+    return document;
+  }
+}
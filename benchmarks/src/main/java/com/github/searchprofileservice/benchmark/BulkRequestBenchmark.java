@@ -0,0 +1,133 @@
+package com.github.searchprofileservice.benchmark;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.json.NdJsonpSerializable;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.json.stream.JsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the bodies of the two bulk requests of an ingest, one for the partial word index and
+ * one for the standard index, the way the rest client transport writes them. Either the parsed
+ * documents are streamed into each body, as the service does, or they are serialized once up
+ * front and the json is copied into both bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkRequestBenchmark {
+
+  /** documents per bulk upload */
+  @Param({ "100", "1000" })
+  private int documents;
+
+  /** fields per document, each holding about 64 characters */
+  @Param({ "10", "100" })
+  private int fields;
+
+  private final JacksonJsonpMapper jsonpMapper = new JacksonJsonpMapper();
+
+  private List<ObjectNode> parsedDocuments;
+  private List<String> documentIds;
+
+  @Setup
+  public void setUp() {
+    parsedDocuments = new ArrayList<>(documents);
+    documentIds = new ArrayList<>(documents);
+    for (int i = 0; i < documents; i++) {
+      parsedDocuments.add(createDocument(i));
+      documentIds.add(String.valueOf(i));
+    }
+  }
+
+  @Benchmark
+  public int streamDocumentsIntoEachRequest() {
+    List<BulkOperation> partialWordOperations = new ArrayList<>(documents);
+    for (ObjectNode document : parsedDocuments) {
+      partialWordOperations.add(BulkOperation.of(o -> o.index(i -> i.document(document))));
+    }
+    List<BulkOperation> standardOperations = new ArrayList<>(documents);
+    Iterator<String> ids = documentIds.iterator();
+    for (ObjectNode document : parsedDocuments) {
+      String id = ids.next();
+      standardOperations.add(BulkOperation.of(o -> o.index(i -> i.id(id).document(document))));
+    }
+    return writeBody("index_partial_word", partialWordOperations)
+        + writeBody("index", standardOperations);
+  }
+
+  @Benchmark
+  public int serializeDocumentsOnce() throws JsonProcessingException {
+    List<RawValue> sources = new ArrayList<>(documents);
+    for (ObjectNode document : parsedDocuments) {
+      sources.add(new RawValue(jsonpMapper.objectMapper().writeValueAsString(document)));
+    }
+
+    List<BulkOperation> partialWordOperations = new ArrayList<>(documents);
+    for (RawValue source : sources) {
+      partialWordOperations.add(BulkOperation.of(o -> o.index(i -> i.document(source))));
+    }
+    List<BulkOperation> standardOperations = new ArrayList<>(documents);
+    Iterator<String> ids = documentIds.iterator();
+    for (RawValue source : sources) {
+      String id = ids.next();
+      standardOperations.add(BulkOperation.of(o -> o.index(i -> i.id(id).document(source))));
+    }
+    return writeBody("index_partial_word", partialWordOperations)
+        + writeBody("index", standardOperations);
+  }
+
+  /** writes the request as newline delimited json like the transport, returns the body size */
+  private int writeBody(String indexName, List<BulkOperation> operations) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    writeNdJson(BulkRequest.of(b -> b.index(indexName).operations(operations)), body);
+    return body.size();
+  }
+
+  /** every operation is written as its action line followed by its document, one generator each */
+  private void writeNdJson(NdJsonpSerializable value, ByteArrayOutputStream body) {
+    for (Iterator<?> it = value._serializables(); it.hasNext(); ) {
+      Object item = it.next();
+      if (item instanceof NdJsonpSerializable serializable && item != value) {
+        writeNdJson(serializable, body);
+        continue;
+      }
+      try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(body)) {
+        jsonpMapper.serialize(item, generator);
+      }
+      body.write('\n');
+    }
+  }
+
+  private ObjectNode createDocument(int number) {
+    ObjectNode document = JsonNodeFactory.instance.objectNode();
+    for (int i = 0; i < fields; i++) {
+      document.put("field" + i, String.valueOf((char) ('a' + (number + i) % 26)).repeat(64));
+    }
+    return document;
+  }
+}
@@ -0,0 +1,105 @@
+package com.github.searchprofileservice.benchmark;
+
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
+import com.github.searchprofileservice.util.ElasticSearchMappingFlattenerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flattening index mappings, done whenever the cached mapping of an index is (re)loaded, and
+ * flattening the field paths of ingested documents, done for every ingested document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingFlattenerBenchmark {
+
+  /** the mapping depth the service flattens to */
+  private static final int MAX_MAPPING_DEPTH = 5;
+
+  /** fields per object */
+  @Param({ "10", "50" })
+  private int width;
+
+  /** nesting of objects, deeper than {@link #MAX_MAPPING_DEPTH} is cut off */
+  @Param({ "1", "3", "6" })
+  private int depth;
+
+  private Map<String, Property> mapping;
+  private JsonNode document;
+
+  @Setup
+  public void setUp() {
+    mapping = createMapping(depth);
+    document = createDocument(new ObjectMapper(), depth);
+  }
+
+  @Benchmark
+  public Map<String, ElasticSearchMappingType> flattenIndexMapping() {
+    return ElasticSearchMappingFlattenerUtil.flattenElasticSearchIndexMapping(mapping, MAX_MAPPING_DEPTH);
+  }
+
+  @Benchmark
+  public Set<String> flattenDocumentFieldPaths() {
+    return ElasticSearchMappingFlattenerUtil.flattenDocumentFieldPaths(document, MAX_MAPPING_DEPTH);
+  }
+
+  /**
+   * An object of text, keyword, long and boolean fields, the last field is another such object
+   * until the given depth is reached
+   */
+  private Map<String, Property> createMapping(int remainingDepth) {
+    Map<String, Property> properties = new HashMap<>();
+    for (int i = 0; i < width; i++) {
+      Property property = switch (i % 4) {
+        case 0 -> Property.of(p -> p.text(t -> t));
+        case 1 -> Property.of(p -> p.keyword(k -> k));
+        case 2 -> Property.of(p -> p.long_(l -> l));
+        default -> Property.of(p -> p.boolean_(b -> b));
+      };
+      properties.put("field" + i, property);
+    }
+    if (remainingDepth > 1) {
+      Map<String, Property> nested = createMapping(remainingDepth - 1);
+      properties.put("nested", Property.of(p -> p.object(o -> o.properties(nested))));
+    }
+    return properties;
+  }
+
+  private ObjectNode createDocument(ObjectMapper objectMapper, int remainingDepth) {
+    ObjectNode node = objectMapper.createObjectNode();
+    for (int i = 0; i < width; i++) {
+      switch (i % 4) {
+        case 0 -> node.put("field" + i, "some text value " + i);
+        case 1 -> node.put("field" + i, "keyword-" + i);
+        case 2 -> node.put("field" + i, (long) i);
+        default -> node.put("field" + i, i % 2 == 0);
+      }
+    }
+    if (remainingDepth > 1) {
+      node.set("nested", createDocument(objectMapper, remainingDepth - 1));
+    }
+    return node;
+  }
+}
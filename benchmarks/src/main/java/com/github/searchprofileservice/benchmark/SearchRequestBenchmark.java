@@ -0,0 +1,91 @@
+package com.github.searchprofileservice.benchmark;
+
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.json.JsonpSerializable;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
+import jakarta.json.stream.JsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the elasticsearch query of a search profile, done for every search. The write
+ * benchmarks also write the request body the way the rest client transport does, either the whole
+ * query or only the reference to the stored search template of the profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchRequestBenchmark {
+
+  /** the number of search fields of the profile, every other one is disabled */
+  @Param({ "5", "25", "100" })
+  private int searchFields;
+
+  @Param({ "false", "true" })
+  private boolean faultTolerant;
+
+  private final String index = UUID.randomUUID().toString();
+  private final String templateId = ElasticSearchSearchRequestUtil.getTemplateId(UUID.randomUUID().toString(), 1L);
+  private final JacksonJsonpMapper jsonpMapper = new JacksonJsonpMapper();
+  private List<SearchField> fields;
+  private Analyser analyser;
+
+  @Setup
+  public void setUp() {
+    fields = new ArrayList<>(searchFields);
+    for (int i = 0; i < searchFields; i++) {
+      fields.add(new SearchField("field" + i + ".name", i % 2 == 0, 1.0 + i % 5));
+    }
+    analyser = new Analyser();
+    analyser.setFaultTolerant(faultTolerant);
+  }
+
+  @Benchmark
+  public SearchRequest createRequest() {
+    return new ElasticSearchSearchRequestUtil(index, "wireless noise cancelling headphones")
+        .createRequest(fields, 0.5, analyser);
+  }
+
+  @Benchmark
+  public int writeRequest() {
+    return writeBody(createRequest());
+  }
+
+  @Benchmark
+  public int writeTemplateRequest() {
+    return writeBody(new ElasticSearchSearchRequestUtil(index, "wireless noise cancelling headphones")
+        .createTemplateRequest(templateId));
+  }
+
+  /**
+   * @return the size of the body in bytes
+   */
+  private int writeBody(JsonpSerializable request) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(body)) {
+      request.serialize(generator, jsonpMapper);
+    }
+    return body.size();
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.searchprofileservice.benchmark;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.api.model.SearchProfileDto;
+import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.config.AsyncSearchProperties;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.config.IndexSettingsProperties;
+import com.github.searchprofileservice.config.InstrumentationProperties;
+import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.persistence.mongo.repository.AsyncSearchRepository;
+import com.github.searchprofileservice.service.ApplicationService;
+import com.github.searchprofileservice.service.ElasticSearchClientService;
+import com.github.searchprofileservice.service.SearchProfileService;
+import com.github.searchprofileservice.service.SearchService;
+import com.github.searchprofileservice.service.SlowQueryLogService;
+import com.github.searchprofileservice.service.impl.InstrumentationServiceImpl;
+import com.github.searchprofileservice.service.impl.SearchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything {@link SearchServiceImpl} does for a search besides waiting for elasticsearch:
+ * building the request, converting the hits and, for non queryable profiles, the relative score
+ * filtering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResultBenchmark {
+
+  /** the number of hits returned by elasticsearch */
+  @Param({ "10", "100", "1000" })
+  private int hits;
+
+  /** queryable profiles return all hits, others are filtered by relative score */
+  @Param({ "true", "false" })
+  private boolean queryable;
+
+  private SearchService searchService;
+  private SearchProfileDto searchProfile;
+
+  @Setup
+  public void setUp() {
+    SearchResponse<ObjectNode> response = createResponse(new ObjectMapper());
+    ElasticSearchStatefulClient client = Stubs.of(
+        ElasticSearchStatefulClient.class, Map.of("search", args -> response));
+
+    searchService = new SearchServiceImpl(
+        Stubs.of(SearchProfileService.class),
+        client,
+        Stubs.of(ElasticSearchClientService.class),
+        new InstrumentationServiceImpl(new SimpleMeterRegistry(), new InstrumentationProperties()),
+        Stubs.of(SlowQueryLogService.class),
+        new NoOpCacheManager(),
+        new CachingProperties(),
+        Stubs.of(AsyncSearchRepository.class),
+        new AsyncSearchProperties(),
+        Stubs.of(ApplicationService.class, Map.of("findCachedById", args -> Optional.empty())),
+        new IndexSettingsProperties());
+
+    searchProfile = SearchProfileDto.builder()
+        .profileId(UUID.randomUUID().toString())
+        .applicationId(UUID.randomUUID())
+        .name("benchmark")
+        .analyser(new Analyser())
+        .searchFields(List.of(
+            new SearchField("name", true, 3.0),
+            new SearchField("description", true, 1.0),
+            new SearchField("brand", true, 2.0)))
+        .minScore(0.0)
+        .queryable(queryable)
+        .relativeScore(queryable ? null : 2.0)
+        .build();
+  }
+
+  @Benchmark
+  public SearchResults search() {
+    return searchService.searchByProfileDTO(searchProfile, "wireless headphones");
+  }
+
+  /**
+   * Hits with a realistic product document each, scores decrease slowly with a single larger gap
+   * at two thirds, where the relative score filter cuts off
+   */
+  private SearchResponse<ObjectNode> createResponse(ObjectMapper objectMapper) {
+    List<Hit<ObjectNode>> hitList = new ArrayList<>(hits);
+    double score = 100;
+    for (int i = 0; i < hits; i++) {
+      score -= i == hits * 2 / 3 ? 5 : 0.01;
+      ObjectNode source = objectMapper.createObjectNode()
+          .put("name", "Wireless Headphones Model " + i)
+          .put("description", "Over-ear wireless headphones with active noise cancelling, "
+              + "30 hours of battery life and fast charging. Variant " + i)
+          .put("brand", "Brand " + i % 20)
+          .put("price", 99.99 + i);
+      double hitScore = score;
+      String id = Integer.toString(i);
+      hitList.add(Hit.of(h -> h
+          .index("benchmark")
+          .id(id)
+          .score(hitScore)
+          .source(source)
+          .highlight(Map.of("name", List.of("<em>Wireless</em> <em>Headphones</em> Model " + id)))));
+    }
+
+    return SearchResponse.of(r -> r
+        .took(3)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(hitList).maxScore(100.0)));
+  }
+}
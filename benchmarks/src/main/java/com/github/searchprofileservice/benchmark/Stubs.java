@@ -0,0 +1,45 @@
+package com.github.searchprofileservice.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Minimal stand-ins for the collaborators of the benchmarked services, so that no mongodb or
+ * elasticsearch is needed and no mocking framework distorts the measurements.
+ */
+final class Stubs {
+
+  private Stubs() { }
+
+  /**
+   * @param type the interface to stub
+   * @param answers results by method name, computed from the arguments
+   * @return a stub answering the given methods, every other method returns null, false or 0
+   */
+  static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+    Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+        (proxy, method, args) -> {
+          Function<Object[], Object> answer = answers.get(method.getName());
+          if (null != answer) {
+            return answer.apply(args);
+          }
+          Class<?> returnType = method.getReturnType();
+          if (returnType == boolean.class) {
+            return false;
+          } else if (returnType == long.class) {
+            return 0L;
+          } else if (returnType == int.class) {
+            return 0;
+          } else if (returnType.isPrimitive() && returnType != void.class) {
+            throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+          }
+          return null;
+        });
+    return type.cast(stub);
+  }
+
+  static <T> T of(Class<T> type) {
+    return of(type, Map.of());
+  }
+}
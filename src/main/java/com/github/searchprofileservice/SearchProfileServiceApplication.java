@@ -3,9 +3,11 @@ package com.github.searchprofileservice;
 import com.github.cloudyrock.spring.v5.EnableMongock;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.elasticsearch.ElasticsearchRestClientAutoConfiguration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 
-@SpringBootApplication
+// the rest client and its sniffer are configured by ElasticSearchClientConfig
+@SpringBootApplication(exclude = ElasticsearchRestClientAutoConfiguration.class)
 /*TODO:
   should live in a persistence configuration component, if more database specific configuration
   is implemented.
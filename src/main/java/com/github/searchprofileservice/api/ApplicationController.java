@@ -1,6 +1,9 @@
 package com.github.searchprofileservice.api;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.model.*;
+import com.github.searchprofileservice.model.CursorPage;
+import com.github.searchprofileservice.model.StageTimer;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.User;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
@@ -13,7 +16,6 @@ import java.util.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.elasticsearch.common.compress.NotXContentException;
 import org.json.JSONException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -48,6 +50,7 @@ public class ApplicationController {
   private final AuthenticationService authenticationService;
   private final ApplicationConverterService applicationConverter;
   private final UserService userService;
+  private final InstrumentationService instrumentationService;
 
 
   /**
@@ -64,25 +67,46 @@ public class ApplicationController {
 
     //ownApplications = true
     if (ownApplications) {
-      List<ApplicationDto> applicationDTOs = applicationService
-              .findAllByUserId(authenticationService.getUser().getId())
-              .stream()
-              .map(app -> applicationConverter.convertToApplicationDto(app))
-              .toList();
+      List<ApplicationDto> applicationDTOs = applicationConverter.convertToApplicationDtos(
+              applicationService.findAllByUserId(authenticationService.getUser().getId()));
       return ResponseEntity.ok(applicationDTOs);
     }
 
     //ownApplications = false
     else {
-      List<ApplicationDto> applicationDTOs = applicationService
-              .findAllByAllowedUserIdsContains(authenticationService.getUser().getId())
-              .stream()
-              .map(app -> applicationConverter.convertToApplicationDto(app))
-              .toList();
+      List<ApplicationDto> applicationDTOs = applicationConverter.convertToApplicationDtos(
+              applicationService.findAllByAllowedUserIdsContains(authenticationService.getUser().getId()));
       return ResponseEntity.ok(applicationDTOs);
     }
   }
 
+  /**
+   * Returns a page of the applications created by the user or of the ones the user is allowed to use.
+   *
+   * @param ownApplications If true, only the applications which the user created are returned, if false, any application for which the user is approved will be returned
+   * @param cursor continuation token of the previous page, omitted for the first page
+   * @param limit the maximum number of applications on the page
+   *
+   * @return
+   *  200, if the search was successful<br /><br />
+   *  400, if the cursor or limit is not valid
+   */
+  @GetMapping(path = GetPage)
+  public ResponseEntity<CursorPage<ApplicationDto>> getApplicationPage(
+      @RequestParam(name = "ownApplications") boolean ownApplications,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "limit", defaultValue = "50") int limit) {
+
+    String userId = authenticationService.getUser().getId();
+    CursorPage<Application> applications = ownApplications
+        ? applicationService.findPageByUserId(userId, cursor, limit)
+        : applicationService.findPageByAllowedUserIdsContains(userId, cursor, limit);
+
+    return ResponseEntity.ok(new CursorPage<>(
+        applicationConverter.convertToApplicationDtos(applications.getItems()),
+        applications.getNextCursor()));
+  }
+
   /**
    * Returns all search profiles for given application id.
    *
@@ -144,7 +168,8 @@ public class ApplicationController {
    * @param applicationDto the application to create
    * @return
    *  201 and the application with its initial api key on success
-   *  400, if the application-name is redundant or User-definable fields are empty/null or missing
+   *  400, if the application-name is redundant, User-definable fields are empty/null or missing or
+   *  the expected document count is negative
    */
   @PostMapping(path = Post)
   public ResponseEntity<ApplicationCreatedResponse> createApplication(
@@ -155,6 +180,11 @@ public class ApplicationController {
           "'name' must not be null or empty.");
     }
 
+    if (null != applicationDto.getExpectedDocumentCount() && applicationDto.getExpectedDocumentCount() < 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "'expectedDocumentCount' must not be negative.");
+    }
+
     Application newApplication = applicationConverter.convertToApplication(applicationDto);
     newApplication.setActive(false); // new applications are always inactive
     newApplication.setCreatorId(authenticationService.getUser().getId());
@@ -177,6 +207,33 @@ public class ApplicationController {
                     applicationConverter.convertToApplicationDto(application.get())));
   }
 
+  /**
+   * Looks up an application the current user may ingest documents into, timing the lookup
+   * @param applicationId the id of the application
+   * @return the application
+   * @throws ResponseStatusException with http status {@code UNAUTHORIZED} if the current user did
+   *    not create the application and is not allowed to use it
+   */
+  private Application getEditableApplication(UUID applicationId) {
+    Application application;
+    StageTimer stage = instrumentationService.startStage(InstrumentationService.OPERATION_INGEST,
+        InstrumentationService.STAGE_APPLICATION_LOOKUP, applicationId.toString(), null);
+    try {
+      application = applicationService.findById(applicationId).get();
+    } finally {
+      stage.close();
+    }
+    if (!applicationService.isEditableByCurrentUser(application)) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You have not created this application or you are not allowed to use it.");
+    }
+    return application;
+  }
+
+  private StageTimer startIngestStage(UUID applicationId) {
+    return instrumentationService.startStage(InstrumentationService.OPERATION_INGEST,
+        InstrumentationService.STAGE_ELASTICSEARCH, applicationId.toString(), null);
+  }
+
   private static String encryptApiKey(String apikey, String salt) {
     return BCrypt.hashpw(apikey, salt);
   }
@@ -195,16 +252,12 @@ public class ApplicationController {
    */
   @PostMapping(path = GetOne.PostDocument)
   public ResponseEntity<DocumentCreateResult> uploadDocument(
-    @RequestBody String json,
+    @RequestBody ObjectNode json,
     @PathVariable(GetOne.PathParams.applicationId) String applicationIdString
   ) {
     Optional<UUID> applicationId = getUuidFromString(applicationIdString);
 
-    if (StringUtils.isBlank(json)) {
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' must not be null or empty.");
-    } else if (StringUtils.isBlank(applicationIdString)) {
+    if (StringUtils.isBlank(applicationIdString)) {
       throw new ResponseStatusException(
         HttpStatus.BAD_REQUEST,
         "'applicationId' must not be null or empty.");
@@ -212,18 +265,11 @@ public class ApplicationController {
       throw new ResponseStatusException(
               HttpStatus.BAD_REQUEST,
         "applicationId '" + applicationId + "' must be a valid UUID");
-    } else if(!applicationService.isJsonValid(json)){
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' is not satisfying Json standard");
     }
 
-    Application application = applicationService.findById(applicationId.get()).get();
-    if (!applicationService.isEditableByCurrentUser(application)) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You have not created this application or you are not allowed to use it.");
-    }
+    getEditableApplication(applicationId.get());
 
-    try {
+    try (StageTimer stage = startIngestStage(applicationId.get())) {
       String documentId = applicationService.uploadDocument(json, applicationId.get());
       return ResponseEntity
           .status(HttpStatus.CREATED)
@@ -248,17 +294,13 @@ public class ApplicationController {
    */
   @PutMapping(path = GetOne.PutDocument.route)
   public ResponseEntity<Void> updateDocument(
-    @RequestBody String json,
+    @RequestBody ObjectNode json,
     @PathVariable(GetOne.PathParams.applicationId) String applicationIdString,
     @PathVariable(GetOne.PutDocument.PathParams.documentId) String documentId
   ) {
     Optional<UUID> applicationId = getUuidFromString(applicationIdString);
 
-    if (StringUtils.isBlank(json)) {
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' must not be null or empty");
-    } else if (applicationId.isEmpty()) {
+    if (applicationId.isEmpty()) {
       throw new ResponseStatusException(
         HttpStatus.BAD_REQUEST,
         "applicationId '" + applicationId + "' must be a valid UUID");
@@ -268,12 +310,9 @@ public class ApplicationController {
         "'DocumentId' must not be null or empty");
     }
 
-    Application application = applicationService.findById(applicationId.get()).get();
-    if (!applicationService.isEditableByCurrentUser(application)) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You have not created this application or you are not allowed to use it.");
-    }
+    getEditableApplication(applicationId.get());
 
-    try {
+    try (StageTimer stage = startIngestStage(applicationId.get())) {
       applicationService.updateDocument(json, applicationId.get(), documentId);
       return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
     } catch (IOException e) {
@@ -435,14 +474,12 @@ public class ApplicationController {
    */
   @PostMapping(path = GetOne.PostBulkUpload)
   public ResponseEntity<List<String>> bulkUploadDocuments(
-          @RequestBody String bulkJson,
+          @RequestBody ObjectNode bulkJson,
           @PathVariable(GetOne.PathParams.applicationId) String applicationIdString) {
     Optional<UUID> applicationId = getUuidFromString(applicationIdString);
 
-    if (StringUtils.isBlank(bulkJson)) {
+    if (null == bulkJson) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request-body must not be null or empty");
-    } else if (!applicationService.isJsonValid(bulkJson)) {
-      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request-body is not satisfying Json standard");
     } else if (StringUtils.isBlank(applicationIdString)) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'ApplicationId' must not be null or empty");
     } else if (applicationId.isEmpty()) {
@@ -450,17 +487,14 @@ public class ApplicationController {
               "applicationId '" + applicationId + "' must be a valid UUID");
     }
 
-    Application application = applicationService.findById(applicationId.get()).get();
-    if (!applicationService.isEditableByCurrentUser(application)) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You have not created this application or you are not allowed to use it.");
-    }
+    getEditableApplication(applicationId.get());
 
-    try {
+    try (StageTimer stage = startIngestStage(applicationId.get())) {
      List<String> successfulDocIds = applicationService.bulkUploadDocuments(bulkJson, applicationId.get());
       return ResponseEntity
               .status(HttpStatus.CREATED)
               .body(successfulDocIds);
-    } catch (IOException | NotXContentException e) {
+    } catch (IOException e) {
       log.error(e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indexing Jsons Failed.");
     } catch (IllegalArgumentException e) {
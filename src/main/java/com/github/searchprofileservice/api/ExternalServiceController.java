@@ -1,23 +1,36 @@
 package com.github.searchprofileservice.api;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.api.advice.RequestSizeControllerAdvice;
+import com.github.searchprofileservice.model.AsyncSearchResults;
+import com.github.searchprofileservice.model.RateLimitPermit;
 import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.StageTimer;
+import com.github.searchprofileservice.model.enums.FacetMode;
 import com.github.searchprofileservice.api.routes.Routes.Api.V1.externalServices.Applications.GetOne;
 import com.github.searchprofileservice.api.routes.Routes.Api.V1.externalServices.query;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.ApplicationService;
+import com.github.searchprofileservice.service.InstrumentationService;
+import com.github.searchprofileservice.service.RateLimitService;
 import com.github.searchprofileservice.service.SearchProfileService;
 import com.github.searchprofileservice.service.SearchService;
+import com.github.searchprofileservice.util.CountingInputStream;
+import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.elasticsearch.common.compress.NotXContentException;
 import org.json.JSONException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
@@ -38,6 +51,8 @@ public class ExternalServiceController {
   private final SearchService searchService;
   private final SearchProfileService searchProfileService;
   private final ApplicationService applicationService;
+  private final RateLimitService rateLimitService;
+  private final InstrumentationService instrumentationService;
 
   /**
    * Describes the result of inserting a new document into elastic search.
@@ -49,6 +64,8 @@ public class ExternalServiceController {
    * Returns query definition for given search-profile using api key to authenticate developers of external services
    * @param apiKey apiKey of an application, must be set in a custom http header named 'Application-Api-Key'
    * @param profileId profileId of search profile the query definition should be returned from
+   * @param template whether to return a query referencing the stored search template of the search-profile
+   *                 by its id instead of the whole query, the id changes with every update of the search-profile
    * 
    * @return
    * 200, if returning query definition of given search-profile was successful<br /><br />
@@ -57,7 +74,10 @@ public class ExternalServiceController {
    * 404, if no search-profile or application could be found with given search-profileId (second should not occur because application a profile belongs to should always exist)
    */
   @GetMapping(path = query.get)
-  public ResponseEntity<String> getQueryDefinition(@RequestParam("profileId") String profileId, @RequestHeader("Application-Api-Key") String apiKey) {
+  public ResponseEntity<String> getQueryDefinition(
+      @RequestParam("profileId") String profileId,
+      @RequestParam(value = "template", defaultValue = "false") boolean template,
+      @RequestHeader("Application-Api-Key") String apiKey) {
     
     if (StringUtils.isBlank(apiKey)) {
       throw new ResponseStatusException(
@@ -67,20 +87,17 @@ public class ExternalServiceController {
     getUuidFromString(profileId).orElseThrow(() -> new ResponseStatusException(
         HttpStatus.BAD_REQUEST, "'" + profileId + "' is not a valid UUID"));
 
-    UUID applicationId;
-    try {
-      applicationId = searchProfileService.getSearchProfileByProfileId(profileId).getApplicationId();
-    } catch(Exception e) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Search profile with id : " + profileId + " does not exist.");
-    }
+    UUID applicationId = getApplicationIdOfProfile(InstrumentationService.OPERATION_QUERY, profileId);
 
-    Application application = applicationService.findById(applicationId).orElseThrow(
-        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Application with id : '" + applicationId + "' does not exist."));
+    Application application = getApplication(InstrumentationService.OPERATION_QUERY, applicationId);
 
-    checkApiKeyAndThrowExceptionOnNoMatch(apiKey, application.getApiKeys());
+    checkApiKey(InstrumentationService.OPERATION_QUERY, apiKey, application);
 
-      String query = searchService.getSearchQuery(profileId);
+    try (StageTimer stage = instrumentationService.startStage(InstrumentationService.OPERATION_QUERY,
+        InstrumentationService.STAGE_REQUEST_BUILD, applicationId.toString(), profileId)) {
+      String query = template ? searchService.getSearchTemplateQuery(profileId) : searchService.getSearchQuery(profileId);
       return ResponseEntity.ok(query);
+    }
   }
 
   /**
@@ -93,23 +110,16 @@ public class ExternalServiceController {
    * 201, if upload was successful<br /><br />
    * 400, if given applicationId is not a valid uuid or if given json is blank or not valid<br /><br />
    * 403, if given api key is blank or does not match api key of given application<br /><br />
-   * 404, if no application could be found with given applicationId
+   * 404, if no application could be found with given applicationId<br /><br />
+   * 429, if an ingest limit of the application or api key is exceeded, see header 'Retry-After'
    */
   @PostMapping(path = GetOne.PostDocument)
   public ResponseEntity<DocumentCreateResult> uploadDocument(
           @RequestHeader("Application-Api-Key") String apiKey,
-          @RequestBody String json,
+          @RequestBody ObjectNode json,
           @PathVariable(GetOne.PathParams.applicationId) String applicationId) {
     
-    if (StringUtils.isBlank(json)) {
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' must not be null or empty.");
-    } else if(!applicationService.isJsonValid(json)){
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' is not satisfying Json standard");
-    } else if (StringUtils.isBlank(apiKey)) {
+    if (StringUtils.isBlank(apiKey)) {
       throw new ResponseStatusException(
         HttpStatus.FORBIDDEN, 
         "Api key must not be null or empty in http header field 'Application-Api-Key'.");
@@ -118,12 +128,12 @@ public class ExternalServiceController {
     UUID id = getUuidFromString(applicationId).orElseThrow(() -> new ResponseStatusException(
       HttpStatus.BAD_REQUEST, "'" + applicationId + "' is not a valid UUID"));
 
-    Application application = applicationService.findById(id).orElseThrow(() -> new ResponseStatusException(
-      HttpStatus.NOT_FOUND, "Application with id : '" + id + "' does not exist."));
+    Application application = getApplication(InstrumentationService.OPERATION_INGEST, id);
 
-    checkApiKeyAndThrowExceptionOnNoMatch(apiKey, application.getApiKeys());
+    ApiKey matchingKey = checkApiKey(InstrumentationService.OPERATION_INGEST, apiKey, application);
 
-    try {
+    RateLimitPermit permit = acquireIngest(id, matchingKey, 1, getRequestSize(), false);
+    try (permit; StageTimer stage = startIngestStage(id)) {
       String documentId = applicationService.uploadDocument(json, id);
       return ResponseEntity
         .status(HttpStatus.CREATED)
@@ -145,24 +155,17 @@ public class ExternalServiceController {
    * 201, if upload was successful<br /><br />
    * 400, if given applicationId is not a valid uuid or if given json is blank or not valid<br /><br />
    * 403, if given api key is blank or does not match api key of given application<br /><br />
-   * 404, if no application could be found with given applicationId
+   * 404, if no application could be found with given applicationId<br /><br />
+   * 429, if an ingest limit of the application or api key is exceeded, see header 'Retry-After'
    */
   @PutMapping(path = GetOne.PutDocument.route)
   public ResponseEntity<Void> updateDocument(
           @RequestHeader("Application-Api-Key") String apiKey,
-          @RequestBody String json,
+          @RequestBody ObjectNode json,
           @PathVariable(GetOne.PathParams.applicationId) String applicationId,
           @PathVariable(GetOne.PutDocument.PathParams.documentId) String documentId) {
     
-    if (StringUtils.isBlank(json)) {
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' must not be null or empty.");
-    } else if(!applicationService.isJsonValid(json)){
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' is not satisfying Json standard");
-    } else if (StringUtils.isBlank(apiKey)) {
+    if (StringUtils.isBlank(apiKey)) {
       throw new ResponseStatusException(
         HttpStatus.FORBIDDEN, 
         "Api key must not be null or empty in http header field 'Application-Api-Key'.");
@@ -175,12 +178,12 @@ public class ExternalServiceController {
     UUID id = getUuidFromString(applicationId).orElseThrow(() -> new ResponseStatusException(
       HttpStatus.BAD_REQUEST, "'" + applicationId + "' is not a valid UUID"));
 
-    Application application = applicationService.findById(id).orElseThrow(() -> new ResponseStatusException(
-      HttpStatus.NOT_FOUND, "Application with id : '" + id + "' does not exist."));
+    Application application = getApplication(InstrumentationService.OPERATION_INGEST, id);
     
-    checkApiKeyAndThrowExceptionOnNoMatch(apiKey, application.getApiKeys());
+    ApiKey matchingKey = checkApiKey(InstrumentationService.OPERATION_INGEST, apiKey, application);
 
-    try {
+    RateLimitPermit permit = acquireIngest(id, matchingKey, 1, getRequestSize(), false);
+    try (permit; StageTimer stage = startIngestStage(id)) {
       applicationService.updateDocument(json, id, documentId);
       return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
     } catch (IOException e) {
@@ -199,22 +202,19 @@ public class ExternalServiceController {
    * 201, if upload was successful<br /><br />
    * 400, if given applicationId is not a valid uuid or if given json is blank or not valid<br /><br />
    * 403, if given api key is blank or does not match api key of given application<br /><br />
-   * 404, if no application could be found with given applicationId
+   * 404, if no application could be found with given applicationId<br /><br />
+   * 429, if an ingest limit of the application or api key is exceeded, see header 'Retry-After'
    */
   @PostMapping(path = GetOne.PostBulkUpload)
   public ResponseEntity<List<String>> bulkUploadDocuments(
           @RequestHeader ("Application-Api-Key") String apiKey,
-          @RequestBody String bulkJson,
+          @RequestBody ObjectNode bulkJson,
           @PathVariable (GetOne.PathParams.applicationId) String applicationId) {
     
-    if (StringUtils.isBlank(bulkJson)) {
+    if (null == bulkJson) {
       throw new ResponseStatusException(
         HttpStatus.BAD_REQUEST,
         "'Json Document' must not be null or empty.");
-    } else if(!applicationService.isJsonValid(bulkJson)){
-      throw new ResponseStatusException(
-        HttpStatus.BAD_REQUEST,
-        "'Json Document' is not satisfying Json standard");
     } else if (StringUtils.isBlank(apiKey)) {
       throw new ResponseStatusException(
         HttpStatus.FORBIDDEN, 
@@ -224,12 +224,13 @@ public class ExternalServiceController {
     UUID id = getUuidFromString(applicationId).orElseThrow(() -> new ResponseStatusException(
       HttpStatus.BAD_REQUEST, "'" + applicationId + "' is not a valid UUID"));
 
-    Application application = applicationService.findById(id).orElseThrow(() -> new ResponseStatusException(
-      HttpStatus.NOT_FOUND, "Application with id : '" + id + "' does not exist."));
+    Application application = getApplication(InstrumentationService.OPERATION_INGEST, id);
     
-    checkApiKeyAndThrowExceptionOnNoMatch(apiKey, application.getApiKeys());
+    ApiKey matchingKey = checkApiKey(InstrumentationService.OPERATION_INGEST, apiKey, application);
 
-    try {
+    RateLimitPermit permit = acquireIngest(
+        id, matchingKey, bulkJson.path("Documents").size(), getRequestSize(), true);
+    try (permit; StageTimer stage = startIngestStage(id)) {
       List<String> successfulDocIds = applicationService.bulkUploadDocuments(bulkJson, id);
       return ResponseEntity
         .status(HttpStatus.CREATED)
@@ -237,9 +238,6 @@ public class ExternalServiceController {
     } catch (IOException e) {
       log.error(e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indexing Json Failed.");
-    } catch (NotXContentException e){
-      log.error(e.getMessage());
-      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indexing Json Failed.");
     } catch (JSONException e) {
       log.error(e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Documents are not satisfying Json standard");
@@ -247,7 +245,11 @@ public class ExternalServiceController {
   }
 
   /**
-   * Executes a search query from a search profile with elastic search using a apiKey to authenticate
+   * Executes a search query from a search profile with elastic search using a apiKey to authenticate.
+   * Request parameters {@code filter.<parameter>} replace the values of the filters of the
+   * search-profile with that parameter. With {@code facets=INCLUDE} the facets of the search-profile
+   * are returned along with the results, with {@code facets=ONLY} instead of them, which allows an
+   * empty searchValue.
    *
    * @return
    *  200, if search was successful
@@ -259,13 +261,15 @@ public class ExternalServiceController {
   public ResponseEntity<SearchResults> getQueryResult(
           @RequestParam("profileId") String profileId,
           @RequestParam("searchValue") String searchValue,
+          @RequestParam(value = "facets", defaultValue = "NONE") FacetMode facets,
+          @RequestParam MultiValueMap<String, String> parameters,
           @RequestHeader("Application-Api-Key") String apiKey) {
 
     if (StringUtils.isBlank(apiKey)) {
       throw new ResponseStatusException(
               HttpStatus.FORBIDDEN, "Api key must not be null or empty in http header field 'Application-Api-Key'.");
     }
-    if (StringUtils.isBlank(searchValue)) {
+    if (StringUtils.isBlank(searchValue) && FacetMode.ONLY != facets) {
       throw new ResponseStatusException(
               HttpStatus.BAD_REQUEST, "Search value must not be null or empty.");
     }
@@ -273,21 +277,178 @@ public class ExternalServiceController {
     getUuidFromString(profileId).orElseThrow(() -> new ResponseStatusException(
             HttpStatus.BAD_REQUEST, "'" + profileId + "' is not a valid UUID"));
 
-    UUID applicationId;
-    try {
-      applicationId = searchProfileService.getSearchProfileByProfileId(profileId).getApplicationId();
+    UUID applicationId = getApplicationIdOfProfile(InstrumentationService.OPERATION_SEARCH, profileId);
+
+    Application application = getApplication(InstrumentationService.OPERATION_SEARCH, applicationId);
+
+    checkApiKey(InstrumentationService.OPERATION_SEARCH, apiKey, application);
+
+    var results = searchService.search(
+        profileId, searchValue, ElasticSearchSearchRequestUtil.getFilterParameters(parameters), facets);
+
+    return ResponseEntity.ok(results);
+  }
+
+  /**
+   * Submits a search query from a search profile as an asynchronous search using a apiKey to
+   * authenticate, parameters as for {@link #getQueryResult}. A search that does not finish within
+   * the wait for completion timeout keeps running, its results are polled with the returned id
+   * by api keys of the same application until they expire.
+   *
+   * @return
+   *  200, if the search finished, with its results<br /><br />
+   *  202, if the search is still running, with its id and the results found so far<br /><br />
+   *  400, if the given search-profileId is not a valid UUID or searchValue is blank<br /><br />
+   *  403, if the given api key is blank or does not match api key of application the given search-profile belongs to<br /><br />
+   *  404, if no search-profile or application could be found with given search-profile id
+   */
+  @PostMapping(path = query.postAsyncQueryResult)
+  public ResponseEntity<AsyncSearchResults> submitAsyncQuery(
+          @RequestParam("profileId") String profileId,
+          @RequestParam("searchValue") String searchValue,
+          @RequestParam(value = "facets", defaultValue = "NONE") FacetMode facets,
+          @RequestParam MultiValueMap<String, String> parameters,
+          @RequestHeader("Application-Api-Key") String apiKey) {
+
+    if (StringUtils.isBlank(apiKey)) {
+      throw new ResponseStatusException(
+              HttpStatus.FORBIDDEN, "Api key must not be null or empty in http header field 'Application-Api-Key'.");
+    }
+    if (StringUtils.isBlank(searchValue) && FacetMode.ONLY != facets) {
+      throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, "Search value must not be null or empty.");
+    }
+
+    getUuidFromString(profileId).orElseThrow(() -> new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, "'" + profileId + "' is not a valid UUID"));
+
+    UUID applicationId = getApplicationIdOfProfile(InstrumentationService.OPERATION_SEARCH, profileId);
+
+    Application application = getApplication(InstrumentationService.OPERATION_SEARCH, applicationId);
+
+    checkApiKey(InstrumentationService.OPERATION_SEARCH, apiKey, application);
+
+    AsyncSearchResults results = searchService.submitAsyncSearch(
+        profileId, searchValue, ElasticSearchSearchRequestUtil.getFilterParameters(parameters), facets);
+
+    return ResponseEntity
+        .status(results.isRunning() ? HttpStatus.ACCEPTED : HttpStatus.OK)
+        .body(results);
+  }
+
+  /**
+   * Polls an asynchronous search using a apiKey of the application that submitted it to authenticate
+   *
+   * @return
+   *  200, with the state of the search and the results found so far<br /><br />
+   *  403, if the given api key is blank or does not match api key of application that submitted the search<br /><br />
+   *  404, if no asynchronous search could be found with given id, e.g. because its results expired
+   */
+  @GetMapping(path = query.AsyncQueryResult.route)
+  public ResponseEntity<AsyncSearchResults> getAsyncQueryResult(
+          @PathVariable(query.AsyncQueryResult.PathParams.asyncId) String asyncId,
+          @RequestHeader("Application-Api-Key") String apiKey) {
+
+    checkAsyncSearchApiKey(asyncId, apiKey);
+
+    return ResponseEntity.ok(searchService.getAsyncSearch(asyncId));
+  }
+
+  /**
+   * Cancels an asynchronous search and removes its results using a apiKey of the application that
+   * submitted it to authenticate
+   *
+   * @return
+   *  204, if the search was cancelled or its results were removed<br /><br />
+   *  403, if the given api key is blank or does not match api key of application that submitted the search<br /><br />
+   *  404, if no asynchronous search could be found with given id, e.g. because its results expired
+   */
+  @DeleteMapping(path = query.AsyncQueryResult.route)
+  public ResponseEntity<Void> deleteAsyncQuery(
+          @PathVariable(query.AsyncQueryResult.PathParams.asyncId) String asyncId,
+          @RequestHeader("Application-Api-Key") String apiKey) {
+
+    checkAsyncSearchApiKey(asyncId, apiKey);
+
+    searchService.deleteAsyncSearch(asyncId);
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * Checks an api key against the api keys of the application that submitted an asynchronous search
+   * @throws ResponseStatusException with http status {@code FORBIDDEN} if the api key does not match
+   *     and {@code NOT_FOUND} if there is no such search
+   */
+  private void checkAsyncSearchApiKey(String asyncId, String apiKey) {
+    if (StringUtils.isBlank(apiKey)) {
+      throw new ResponseStatusException(
+              HttpStatus.FORBIDDEN, "Api key must not be null or empty in http header field 'Application-Api-Key'.");
+    }
+
+    UUID applicationId = searchService.getAsyncSearchApplicationId(asyncId);
+
+    Application application = getApplication(InstrumentationService.OPERATION_SEARCH, applicationId);
+
+    checkApiKey(InstrumentationService.OPERATION_SEARCH, apiKey, application);
+  }
+
+  /**
+   * Looks up the application a search profile belongs to
+   * @param operation the operation to record the lookup time for
+   * @param profileId the id of the search profile
+   * @return the id of the application
+   * @throws ResponseStatusException with http status {@code NOT_FOUND} if there is no such search profile
+   */
+  private UUID getApplicationIdOfProfile(String operation, String profileId) {
+    try (StageTimer stage = instrumentationService.startStage(
+        operation, InstrumentationService.STAGE_PROFILE_LOOKUP, null, profileId)) {
+      return searchProfileService.getSearchProfileByProfileId(profileId).getApplicationId();
     } catch(Exception e) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Search profile with id : " + profileId + " does not exist.");
     }
+  }
 
-    Application application = applicationService.findById(applicationId).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Application with id : '" + applicationId + "' does not exist."));
+  /**
+   * Looks up a cached application
+   * @param operation the operation to record the lookup time for
+   * @param applicationId the id of the application
+   * @return the application
+   * @throws ResponseStatusException with http status {@code NOT_FOUND} if there is no such application
+   */
+  private Application getApplication(String operation, UUID applicationId) {
+    try (StageTimer stage = instrumentationService.startStage(
+        operation, InstrumentationService.STAGE_APPLICATION_LOOKUP, applicationId.toString(), null)) {
+      return applicationService.findCachedById(applicationId).orElseThrow(() -> new ResponseStatusException(
+        HttpStatus.NOT_FOUND, "Application with id : '" + applicationId + "' does not exist."));
+    }
+  }
 
-    checkApiKeyAndThrowExceptionOnNoMatch(apiKey, application.getApiKeys());
+  /**
+   * Checks an api key against the api keys of an application, timing the bcrypt comparisons
+   * @see #checkApiKeyAndThrowExceptionOnNoMatch(String, List)
+   */
+  private ApiKey checkApiKey(String operation, String unhashedApiKey, Application application) {
+    try (StageTimer stage = instrumentationService.startStage(
+        operation, InstrumentationService.STAGE_API_KEY_CHECK, String.valueOf(application.getId()), null)) {
+      return checkApiKeyAndThrowExceptionOnNoMatch(unhashedApiKey, application.getApiKeys());
+    }
+  }
 
-    var results = searchService.search(profileId,searchValue);
+  /**
+   * Takes the ingest rate limits of an application and api key for a request
+   * @see RateLimitService#acquireIngest(UUID, UUID, long, long, boolean)
+   */
+  private RateLimitPermit acquireIngest(
+      UUID applicationId, ApiKey apiKey, long documentCount, long byteCount, boolean bulk) {
+    try (StageTimer stage = instrumentationService.startStage(InstrumentationService.OPERATION_INGEST,
+        InstrumentationService.STAGE_RATE_LIMIT, applicationId.toString(), null)) {
+      return rateLimitService.acquireIngest(applicationId, apiKey.getId(), documentCount, byteCount, bulk);
+    }
+  }
 
-    return ResponseEntity.ok(results);
+  private StageTimer startIngestStage(UUID applicationId) {
+    return instrumentationService.startStage(InstrumentationService.OPERATION_INGEST,
+        InstrumentationService.STAGE_ELASTICSEARCH, applicationId.toString(), null);
   }
 
    /**
@@ -307,13 +468,35 @@ public class ExternalServiceController {
    * Check that an unhashed api key matches a hashed one and if not throws an Exception
    * @param unhashedApiKey unhashed api key
    * @param apiKeys all api key objects of an application
+   * @return the api key object matching the unhashed api key
    * @throws ResponseStatusException with http status {@code FORBIDDEN} if api keys don't match
    */
-  private static void checkApiKeyAndThrowExceptionOnNoMatch(String unhashedApiKey, List<ApiKey> apiKeys) throws ResponseStatusException {
-    List<String> hashedKeys = apiKeys.stream().map(ApiKey::getKey).toList();
+  private static ApiKey checkApiKeyAndThrowExceptionOnNoMatch(String unhashedApiKey, List<ApiKey> apiKeys) throws ResponseStatusException {
+    return apiKeys.stream()
+        .filter(apiKey -> BCrypt.checkpw(unhashedApiKey, apiKey.getKey()))
+        .findFirst()
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "The given api keys don't match."));
+  }
 
-    if(hashedKeys.stream().noneMatch(hashedKey -> BCrypt.checkpw(unhashedApiKey, hashedKey))) {
-      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "The given api keys don't match.");
+  /**
+   * Size of the current request for the bytes per second limits. Taken from the content length,
+   * for chunked requests, which do not announce it, the bytes counted while the body was parsed
+   * are used.
+   * @return the size of the request in bytes
+   * @see RequestSizeControllerAdvice
+   */
+  private static long getRequestSize() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes servletAttributes) {
+      long contentLength = servletAttributes.getRequest().getContentLengthLong();
+      if (contentLength >= 0) {
+        return contentLength;
+      }
+      if (servletAttributes.getAttribute(RequestSizeControllerAdvice.REQUEST_BODY_ATTRIBUTE,
+          RequestAttributes.SCOPE_REQUEST) instanceof CountingInputStream countingBody) {
+        return countingBody.getCount();
+      }
     }
+    return 0;
   }
 }
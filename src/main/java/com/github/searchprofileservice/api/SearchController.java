@@ -2,10 +2,14 @@ package com.github.searchprofileservice.api;
 
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.StageTimer;
+import com.github.searchprofileservice.model.enums.FacetMode;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.ApplicationService;
 import com.github.searchprofileservice.service.AuthenticationService;
+import com.github.searchprofileservice.service.InstrumentationService;
 import com.github.searchprofileservice.service.SearchService;
+import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -13,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -32,9 +37,13 @@ public class SearchController {
   private final SearchService searchService;
   private final AuthenticationService authenticationService;
   private final ApplicationService applicationService;
+  private final InstrumentationService instrumentationService;
 
   /**
-   * Executes a search query from a search profile with elastic search
+   * Executes a search query from a search profile with elastic search. Request parameters
+   * {@code filter.<parameter>} replace the values of the filters of the search profile with that
+   * parameter. With {@code facets=INCLUDE} the facets of the search profile are returned along
+   * with the results, with {@code facets=ONLY} instead of them, which allows an empty search value.
    *
    * @return
    *  200, if update successful
@@ -43,9 +52,11 @@ public class SearchController {
    */
   @GetMapping(path = searchresults.get)
   public ResponseEntity<SearchResults> getSearchResults(@PathVariable String profileId,
-      @RequestParam("value") String searchValue) {
+      @RequestParam("value") String searchValue,
+      @RequestParam(value = "facets", defaultValue = "NONE") FacetMode facets,
+      @RequestParam MultiValueMap<String, String> parameters) {
 
-    if (StringUtils.isBlank(searchValue)) {
+    if (StringUtils.isBlank(searchValue) && FacetMode.ONLY != facets) {
       throw new ResponseStatusException(
           HttpStatus.BAD_REQUEST, "Value should not be null or empty."
       );
@@ -54,7 +65,8 @@ public class SearchController {
     getUuidFromString(profileId).orElseThrow(() -> new ResponseStatusException(
         HttpStatus.BAD_REQUEST, "'" + profileId + "' is not a valid UUID"));
 
-    SearchResults search = searchService.search(profileId, searchValue);
+    SearchResults search = searchService.search(
+        profileId, searchValue, ElasticSearchSearchRequestUtil.getFilterParameters(parameters), facets);
     return ResponseEntity.ok(search);
   }
 
@@ -78,6 +90,9 @@ public class SearchController {
   /**
    * Uses unsaved SearchProfileDTO to execute a search query
    *
+   * @param profile whether elastic search should profile the search, the results then contain
+   *                the time of every query clause per shard and of every stage of the service
+   *
    * @return
    *  200, returns query results
    *  400, Given ApplicationID is not correct.
@@ -86,8 +101,16 @@ public class SearchController {
   @PostMapping(path = Post)
   public ResponseEntity<SearchResults> postTestSearchProfile
     (@RequestBody SearchProfileDto searchProfileDto,
-    @RequestParam("value") String searchValue){
-    Optional<Application> application = applicationService.findById(searchProfileDto.getApplicationId());
+    @RequestParam("value") String searchValue,
+    @RequestParam(name = "profile", defaultValue = "false") boolean profile){
+    Optional<Application> application;
+    StageTimer stage = instrumentationService.startStage(InstrumentationService.OPERATION_SEARCH,
+        InstrumentationService.STAGE_APPLICATION_LOOKUP, String.valueOf(searchProfileDto.getApplicationId()), null);
+    try {
+      application = applicationService.findById(searchProfileDto.getApplicationId());
+    } finally {
+      stage.close();
+    }
     if (application.isEmpty()) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Application does not exist!");
     }
@@ -96,7 +119,7 @@ public class SearchController {
       throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not allowed to use this application.");
     }
 
-    SearchResults searchResults = searchService.searchByProfileDTO(searchProfileDto, searchValue);
+    SearchResults searchResults = searchService.searchByProfileDTO(searchProfileDto, searchValue, profile);
     return ResponseEntity.ok(searchResults);
   }
 
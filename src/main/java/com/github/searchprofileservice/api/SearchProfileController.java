@@ -4,6 +4,7 @@ import com.github.searchprofileservice.api.routes.Routes.Api.V1.SearchProfiles.G
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.api.model.validator.SearchProfileValidator;
 import com.github.searchprofileservice.api.model.validator.SearchProfileValidator.ValidationResult;
+import com.github.searchprofileservice.model.CursorPage;
 import com.github.searchprofileservice.model.SearchField;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.ApplicationService;
@@ -50,6 +51,21 @@ public class SearchProfileController {
     return ResponseEntity.ok(searchProfiles);
   }
 
+  /**
+   * Returns a page of the existing search profiles, sorted by application and profile id.
+   *
+   * @param cursor continuation token of the previous page, omitted for the first page
+   * @param limit the maximum number of search profiles on the page
+   *
+   * @return HTTP 200, or 400 if the cursor or limit is not valid
+   */
+  @GetMapping(path = GetPage)
+  public ResponseEntity<CursorPage<SearchProfileDto.BasicProjection>> getSearchProfilePage(
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "limit", defaultValue = "50") int limit) {
+    return ResponseEntity.ok(searchProfileService.getSearchProfilesAsBasicProjection(cursor, limit));
+  }
+
   /**
    * Returns the search-profile by the profile-id.
    *
@@ -113,6 +129,8 @@ public class SearchProfileController {
     ValidationResult result = SearchProfileValidator.isApplicationIdValid()
         .and(SearchProfileValidator.isNameValid())
         .and(SearchProfileValidator.areFieldsValid())
+        .and(SearchProfileValidator.areFiltersValid())
+        .and(SearchProfileValidator.areFacetsValid())
         .apply(searchProfileDto);
 
     if (result != ValidationResult.SUCCESS) {
@@ -156,6 +174,8 @@ public class SearchProfileController {
     ValidationResult result = SearchProfileValidator.isApplicationIdValid()
         .and(SearchProfileValidator.isNameValid())
         .and(SearchProfileValidator.areFieldsValid())
+        .and(SearchProfileValidator.areFiltersValid())
+        .and(SearchProfileValidator.areFacetsValid())
         .apply(searchProfileDto);
 
     if (result != ValidationResult.SUCCESS) {
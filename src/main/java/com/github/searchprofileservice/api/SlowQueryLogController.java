@@ -0,0 +1,67 @@
+package com.github.searchprofileservice.api;
+
+import com.github.searchprofileservice.model.SlowQueryStatistics;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+import com.github.searchprofileservice.service.SlowQueryLogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static com.github.searchprofileservice.api.routes.Routes.Api.V1.SlowQueries.*;
+
+@RestController
+@RequiredArgsConstructor
+@Secured("ROLE_ADMIN")
+public class SlowQueryLogController {
+
+  private static final int MAX_LIMIT = 1000;
+
+  private final SlowQueryLogService slowQueryLogService;
+
+  /**
+   * Returns the slowest searches recorded by the slow query log
+   *
+   * @param limit the maximum number of searches
+   *
+   * @return
+   * 200 on success, slowest search first<br /><br />
+   * 400 if the limit is not valid
+   */
+  @GetMapping(path = GetSlowest)
+  public ResponseEntity<List<SlowQueryRecord>> getSlowest(
+    @RequestParam(name = "limit", defaultValue = "10") int limit
+  ) {
+    return ResponseEntity.ok(slowQueryLogService.getSlowest(checkLimit(limit)));
+  }
+
+  /**
+   * Returns the search values of search profiles recorded as slow most often
+   *
+   * @param limit the maximum number of entries
+   *
+   * @return
+   * 200 on success, most often recorded search value first<br /><br />
+   * 400 if the limit is not valid
+   */
+  @GetMapping(path = GetMostFrequent)
+  public ResponseEntity<List<SlowQueryStatistics>> getMostFrequent(
+    @RequestParam(name = "limit", defaultValue = "10") int limit
+  ) {
+    return ResponseEntity.ok(slowQueryLogService.getMostFrequent(checkLimit(limit)));
+  }
+
+  private int checkLimit(int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new ResponseStatusException(
+        HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+    }
+    return limit;
+  }
+}
@@ -4,6 +4,7 @@ import com.github.searchprofileservice.api.model.ElasticSearchUser;
 import com.github.searchprofileservice.api.model.UserDTO;
 import com.github.searchprofileservice.api.model.UserLoginStatus;
 import com.github.searchprofileservice.model.AuthenticatedUser;
+import com.github.searchprofileservice.model.CursorPage;
 import com.github.searchprofileservice.model.enums.Role;
 import com.github.searchprofileservice.persistence.mongo.model.User;
 import com.github.searchprofileservice.service.AuthenticationService;
@@ -21,6 +22,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static com.github.searchprofileservice.api.routes.Routes.Api.V1.Users.*;
 
@@ -60,10 +62,36 @@ public class UserController {
 
       return ResponseEntity.ok(users);
     } else {
-      final List<UserDTO.BasicProjection> users = 
-        userService.getAllActiveUsersAsBasicProjections()
-          .toList();
-      return ResponseEntity.ok(users);
+      try (Stream<UserDTO.BasicProjection> users = userService.getAllActiveUsersAsBasicProjections()) {
+        return ResponseEntity.ok(users.toList());
+      }
+    }
+  }
+
+  /**
+   * Returns a page of the existing users, sorted by user id
+   *
+   * @param activated optional parameter, if null returns all users, if false only not activated users, if true only activated users
+   * @param cursor continuation token of the previous page, omitted for the first page
+   * @param limit the maximum number of users on the page
+   *
+   * @return
+   * 200 on success, admins get full users, other users only the basic fields of activated users<br /><br />
+   * 400 if the cursor or limit is not valid
+   */
+  @GetMapping(path = GetPage)
+  @Secured("ROLE_USER")
+  public ResponseEntity<CursorPage<?>> getUserPage(
+    @RequestParam("activated") Optional<Boolean> activated,
+    @RequestParam(name = "cursor", required = false) String cursor,
+    @RequestParam(name = "limit", defaultValue = "50") int limit,
+    Authentication authentication
+  ) {
+    if (authenticationService.isAdmin(authentication)) {
+      return ResponseEntity.ok(
+        userService.getUsers(activated.orElse(null), cursor, limit).map(UserDTO::fromUser));
+    } else {
+      return ResponseEntity.ok(userService.getActiveUsersAsBasicProjections(cursor, limit));
     }
   }
 
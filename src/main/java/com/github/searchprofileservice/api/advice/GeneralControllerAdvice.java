@@ -1,12 +1,19 @@
 package com.github.searchprofileservice.api.advice;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.mongodb.MongoWriteException;
+import com.github.searchprofileservice.exception.ElasticSearchRejectedException;
 import com.github.searchprofileservice.exception.ElasticSearchUnavailableException;
 import com.github.searchprofileservice.exception.ErrorDTO;
 import com.github.searchprofileservice.exception.IndexNotFoundException;
+import com.github.searchprofileservice.exception.InvalidPageRequestException;
+import com.github.searchprofileservice.exception.RateLimitExceededException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
@@ -24,6 +31,18 @@ public class GeneralControllerAdvice {
         "Elasticsearch is currently unavailable", HttpStatus.BAD_GATEWAY);
   }
 
+  /**
+   * Error status 503 service unavailable, if a call to elasticsearch was not made because its
+   * circuit is open or its bulkhead is full.
+   * The header 'Retry-After' tells the client how many seconds to back off.
+   */
+  @ExceptionHandler(value = {ElasticSearchRejectedException.class})
+  public ResponseEntity<ErrorDTO> elasticSearchRejected(ElasticSearchRejectedException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+        .body(new ErrorDTO(e.getMessage()));
+  }
+
   /**
    * Handles uncaught MongoWriteExceptions
    * @param e the exception to handle
@@ -48,6 +67,45 @@ public class GeneralControllerAdvice {
     return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
   }
 
+  /**
+   * Error status 400 bad request, if a page is requested with an invalid cursor or limit.
+   */
+  @ExceptionHandler(value = {InvalidPageRequestException.class})
+  public ResponseEntity<ErrorDTO> invalidPageRequest(InvalidPageRequestException e) {
+    return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
+  }
+
+  /**
+   * Error status 429 too many requests, if an ingest limit is exceeded.
+   * The header 'Retry-After' tells the client how many seconds to back off.
+   */
+  @ExceptionHandler(value = {RateLimitExceededException.class})
+  public ResponseEntity<ErrorDTO> rateLimitExceeded(RateLimitExceededException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+        .body(new ErrorDTO(e.getMessage()));
+  }
+
+  /**
+   * Error status 400 bad request, if a request body could not be read by the web layer. Tells
+   * malformed json apart from valid json that does not fit the expected type, e.g. an unknown enum
+   * value, whose cause is passed on.
+   */
+  @ExceptionHandler(value = {HttpMessageNotReadableException.class})
+  public ResponseEntity<ErrorDTO> messageNotReadable(HttpMessageNotReadableException e) {
+    log.warn(e.getMessage());
+    Throwable cause = e.getMostSpecificCause();
+    String message;
+    if (cause instanceof JsonParseException) {
+      message = "Request-body is not satisfying Json standard";
+    } else if (cause instanceof JsonMappingException mappingException) {
+      message = "Request-body does not match the expected format: " + mappingException.getOriginalMessage();
+    } else {
+      message = "Request-body is missing or not readable";
+    }
+    return ResponseEntity.badRequest().body(new ErrorDTO(message));
+  }
+
   @ExceptionHandler({ResponseStatusException.class})
   public ResponseEntity<ErrorDTO> handleException(ResponseStatusException exception) {
     log.error(exception.getMessage());
@@ -0,0 +1,44 @@
+package com.github.searchprofileservice.api.advice;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.api.ExternalServiceController;
+import com.github.searchprofileservice.util.CountingInputStream;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonInputMessage;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Counts the bytes of the documents sent to the ingest endpoints while they are parsed, for the
+ * bytes per second limits of requests that do not announce a content length. The counting body is
+ * stored in the request attribute {@link #REQUEST_BODY_ATTRIBUTE}.
+ */
+@ControllerAdvice(assignableTypes = ExternalServiceController.class)
+public class RequestSizeControllerAdvice extends RequestBodyAdviceAdapter {
+
+  public static final String REQUEST_BODY_ATTRIBUTE = RequestSizeControllerAdvice.class.getName() + ".body";
+
+  @Override
+  public boolean supports(MethodParameter methodParameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return ObjectNode.class.equals(targetType);
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+      Type targetType, Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+    CountingInputStream body = new CountingInputStream(inputMessage.getBody());
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (null != attributes) {
+      attributes.setAttribute(REQUEST_BODY_ATTRIBUTE, body, RequestAttributes.SCOPE_REQUEST);
+    }
+    return new MappingJacksonInputMessage(body, inputMessage.getHeaders());
+  }
+}
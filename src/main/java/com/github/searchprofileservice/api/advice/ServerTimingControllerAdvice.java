@@ -0,0 +1,40 @@
+package com.github.searchprofileservice.api.advice;
+
+import com.github.searchprofileservice.config.InstrumentationProperties;
+import com.github.searchprofileservice.model.ServerTiming;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the start of the response body serialization in the server timing of a request
+ *
+ * @see com.github.searchprofileservice.config.ServerTimingFilter
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ServerTimingControllerAdvice implements ResponseBodyAdvice<Object> {
+
+  private final InstrumentationProperties instrumentationProperties;
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return instrumentationProperties.isServerTiming();
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    ServerTiming serverTiming = ServerTiming.current();
+    if (null != serverTiming) {
+      serverTiming.markSerializationStart();
+    }
+    return body;
+  }
+}
@@ -3,6 +3,8 @@ package com.github.searchprofileservice.api.model;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -35,6 +37,14 @@ public class ApplicationDto {
 
   private long numberOfDocuments;
 
+  private long storeSizeInBytes;
+
+  /** the settings of the indices, chosen from the expected document count if not given on creation */
+  private IndexSettingsProfile indexSettingsProfile;
+
+  /** the number of documents the application expects, only read on creation */
+  private Long expectedDocumentCount;
+
   public ApplicationDto(UUID id,
                         Date createdDate,
                         String name,
@@ -1,7 +1,9 @@
 package com.github.searchprofileservice.api.model;
 
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchFacet;
 import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchFilter;
 import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,12 +27,25 @@ public class SearchProfileDto {
   private String lastEditorId;
 
   private LocalDateTime lastModifiedDate;
+
+  /**
+   * The version of the search profile. If given on update, the update is rejected when the
+   * search profile has been changed since this version.
+   */
+  private Long version;
+
   private String name;
 
   private Analyser analyser;
 
   private List<SearchField> searchFields;
 
+  /** restrictions of the results, which do not affect the score */
+  private List<SearchFilter> filters;
+
+  /** fields whose values are counted over the results, if requested by the search */
+  private List<SearchFacet> facets;
+
   private Double minScore;
 
   /*
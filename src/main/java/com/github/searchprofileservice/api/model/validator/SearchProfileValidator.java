@@ -4,6 +4,7 @@ import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.api.model.validator.SearchProfileValidator.ValidationResult;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.CollectionUtils;
 
 import java.util.Collections;
 import java.util.Objects;
@@ -70,6 +71,52 @@ public interface SearchProfileValidator extends Function<SearchProfileDto, Valid
     };
   }
 
+  /**
+   * Returns a function to validate a SearchProfileDto's filters
+   *
+   * Checks if every filter has a field name and restricts the field by values, a request parameter
+   * or a range, whose lower bound is not above its upper bound
+   * @return SearchProfileDto validator function
+   */
+  static SearchProfileValidator areFiltersValid() {
+    return searchProfile -> {
+      final boolean filterIsInvalid =
+        Optional.ofNullable(searchProfile.getFilters())
+          .orElse(Collections.emptyList())
+          .stream()
+          .anyMatch(filter -> null == filter
+            || StringUtils.isBlank(filter.getFieldName())
+            || (CollectionUtils.isEmpty(filter.getValues())
+              && StringUtils.isBlank(filter.getParameter())
+              && !filter.isRange())
+            || (null != filter.getMin() && null != filter.getMax() && filter.getMin() > filter.getMax()));
+
+      return filterIsInvalid ? ValidationResult.FILTER_NOT_VALID : ValidationResult.SUCCESS;
+    };
+  }
+
+  /**
+   * Returns a function to validate a SearchProfileDto's facets
+   *
+   * Checks if every facet has a field name, a positive size if given and ranges with a bound
+   * @return SearchProfileDto validator function
+   */
+  static SearchProfileValidator areFacetsValid() {
+    return searchProfile -> {
+      final boolean facetIsInvalid =
+        Optional.ofNullable(searchProfile.getFacets())
+          .orElse(Collections.emptyList())
+          .stream()
+          .anyMatch(facet -> null == facet
+            || StringUtils.isBlank(facet.getFieldName())
+            || (null != facet.getSize() && facet.getSize() <= 0)
+            || (facet.isRange() && facet.getRanges().stream()
+              .anyMatch(range -> null == range || (null == range.getFrom() && null == range.getTo()))));
+
+      return facetIsInvalid ? ValidationResult.FACET_NOT_VALID : ValidationResult.SUCCESS;
+    };
+  }
+
   default SearchProfileValidator and(SearchProfileValidator otherValidator) {
     return searchProfile -> {
       ValidationResult result = this.apply(searchProfile);
@@ -86,7 +133,9 @@ public interface SearchProfileValidator extends Function<SearchProfileDto, Valid
     NO_VALID_EDITOR_ID("'editorID' must not be null or empty."),
     FIELD_BOOST_NEGATIVE("'Field boost must not be negative'"),
     NO_VALID_FAULTTOLERANCE("faultTolerant must be a boolean value"),
-    FIELD_BOOST_NULL("'Field boost must not be null'");
+    FIELD_BOOST_NULL("'Field boost must not be null'"),
+    FILTER_NOT_VALID("'Filter needs a field name and values, a parameter or a valid range'"),
+    FACET_NOT_VALID("'Facet needs a field name, a positive size and ranges with a bound'");
 
     private final String label;
 
@@ -54,6 +54,8 @@ public interface Routes {
 
         public final String GetAll = path;
 
+        public final String GetPage = path + "/page";
+
         public final String Post = path;
 
         public interface GetOne {
@@ -112,6 +114,8 @@ public interface Routes {
 
         public final String GetAll = path;
 
+        public final String GetPage = path + "/page";
+
         public interface GetOne {
 
           public final String route = SearchProfiles.path + "/{" + PathParams.profileId + "}";
@@ -148,6 +152,8 @@ public interface Routes {
 
         public final String GetAll = path;
 
+        public final String GetPage = path + "/page";
+
         public final String Post = path;
 
         public final String Create = path + "/elasticsearch";
@@ -184,6 +190,17 @@ public interface Routes {
           public final String Status = path + "/status";
         }
       }
+      /**
+       * All routes belonging to 'slowqueries' API endpoint
+       */
+      public interface SlowQueries {
+        public final String path = V1.path + "/slowqueries";
+
+        public final String GetSlowest = path + "/slowest";
+
+        public final String GetMostFrequent = path + "/most-frequent";
+      }
+
       /**
        * All routes belonging to 'search' API endpoint
        */
@@ -210,6 +227,14 @@ public interface Routes {
         public interface query {
           public final String get = externalServices.path + "/query";
           public final String getQueryResult = externalServices.path + "/queryResult";
+          public final String postAsyncQueryResult = getQueryResult + "/async";
+          public interface AsyncQueryResult {
+            public final String route = query.postAsyncQueryResult + "/{" + PathParams.asyncId + "}";
+
+            public interface PathParams {
+              public final String asyncId = "asyncId";
+            }
+          }
         }
         public interface Applications {
           public final String path = externalServices.path + "/applications";
@@ -1,18 +1,24 @@
 package com.github.searchprofileservice.client;
 
 import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearchDocumentResponseBase;
+import co.elastic.clients.elasticsearch.async_search.GetAsyncSearchRequest;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchTemplateRequest;
 import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.security.ClusterPrivilege;
+import co.elastic.clients.elasticsearch.security.GetRoleResponse;
+import co.elastic.clients.elasticsearch.security.GetUserResponse;
+import co.elastic.clients.elasticsearch.security.IndicesPrivileges;
+import co.elastic.clients.elasticsearch.security.PutRoleResponse;
+import co.elastic.clients.elasticsearch.security.PutUserResponse;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.elasticsearch.client.security.GetRolesResponse;
-import org.elasticsearch.client.security.GetUsersResponse;
-import org.elasticsearch.client.security.PutRoleResponse;
-import org.elasticsearch.client.security.PutUserResponse;
-import org.elasticsearch.client.security.user.privileges.IndicesPrivileges;
+import com.github.searchprofileservice.model.IndexStatistics;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -22,21 +28,21 @@ public interface ElasticSearchStatefulClient {
   /**
    * Get a Roles from Elasticsearch
    *
-   * @return <see>GetRolesResponse
+   * @return <see>GetRoleResponse
    *@throws IOException
    */
-  GetRolesResponse getRole(String roleName) throws IOException;
+  GetRoleResponse getRole(String roleName) throws IOException;
 
 
   /**
    * Create a User Role in ElasticSearch
    * @param roleName Role Name
-   * @param clusterPrivilege Cluster Privilege which the Role does have
+   * @param clusterPrivileges Cluster Privileges which the Role does have
    * @param indicesPrivileges Indicie Privileges which the role does have
    * @return <see>PutUserResponse
    *
    */
-  PutRoleResponse putRole(String roleName, String[] clusterPrivilege, ArrayList<IndicesPrivileges> indicesPrivileges) throws IOException;
+  PutRoleResponse putRole(String roleName, List<ClusterPrivilege> clusterPrivileges, List<IndicesPrivileges> indicesPrivileges) throws IOException;
 
   /**
   * Create a User in ElasticSearch Instance
@@ -50,10 +56,10 @@ public interface ElasticSearchStatefulClient {
   /**
    * Get all  created User in Elasticsearch
    *
-   * @return <see>GetUsersResponse
+   * @return <see>GetUserResponse
    *
    */
-  GetUsersResponse getAllUser() throws IOException;
+  GetUserResponse getAllUser() throws IOException;
 
   /**
    * Check if a connection to a running elasticsearch instance can be established.
@@ -63,43 +69,45 @@ public interface ElasticSearchStatefulClient {
   boolean isConnectionAvailable() throws IOException;
 
   /**
-   * Creates a Index in Elasticsearch.
+   * Creates a Index in Elasticsearch. The settings are applied by index templates of the index,
+   * which are composed of the component template of the profile.
    * @param name Name of the index to create.
+   * @param profile the settings of the index
    * @return Whether the index was successfully created.
    */
-  boolean createIndex(String name) throws IOException;
+  boolean createIndex(String name, IndexSettingsProfile profile) throws IOException;
 
   /**
-   * Removes an index from elastic search
+   * Removes an index and its index templates from elastic search
    * @param name the name of the index to remove
    * @throws IOException on error while removal
    */
   void deleteIndex(String name) throws IOException;
 
   /**
-   * Uploads Raw json to specific Index
+   * Uploads an already parsed json document to specific Index
    * @param indexName
-   * @param json
+   * @param document the parsed document, which is serialized straight into the request body
    * @return the id of the created document
    */
-  String uploadRawJsonToIndex(String indexName, String json) throws IOException;
+  String uploadRawJsonToIndex(String indexName, ObjectNode document) throws IOException;
 
   /**
    * Updates an existing document
    * @param indexName
    * @param documentId
-   * @param json
+   * @param document the parsed document, which is serialized straight into the request body
    */
-  void updateDocument(String indexName, String documentId, String json) throws IOException;
+  void updateDocument(String indexName, String documentId, ObjectNode document) throws IOException;
 
 
   /**
-   * Uploads Raw json documents to specific Index
+   * Uploads already parsed json documents to specific Index
    * @param indexName
-   * @param jsonDocuments documents to upload
+   * @param documents documents to upload
    * @return the id of the created documents
    */
-  List<String> bulkUploadRawJsonToIndex(String indexName, List<String> jsonDocuments) throws IOException;
+  List<String> bulkUploadRawJsonToIndex(String indexName, List<ObjectNode> documents) throws IOException;
 
   /**
    *
@@ -129,18 +137,80 @@ public interface ElasticSearchStatefulClient {
    */
   SearchResponse<ObjectNode> search(SearchRequest request) throws IOException;
 
+  /**
+   *
+   * @param request Request, which references the stored search template to perform the search with
+   * @return search results of request, in the form of a plain search
+   *
+   * @throws IOException
+   */
+  SearchResponse<ObjectNode> searchTemplate(SearchTemplateRequest request) throws IOException;
+
+  /**
+   * Stores a mustache search template in elasticsearch, replacing the one with the same id
+   *
+   * @param templateId the id of the template
+   * @param source the template source
+   *
+   * @throws IOException
+   */
+  void putSearchTemplate(String templateId, String source) throws IOException;
+
+  /**
+   * Removes a stored search template
+   *
+   * @param templateId the id of the template
+   * @return Whether there was a template to remove
+   *
+   * @throws IOException
+   */
+  boolean deleteSearchTemplate(String templateId) throws IOException;
+
+  /**
+   * Submits an asynchronous search, waiting for it as long as the request says
+   *
+   * @param request Request, which should be performed with elastic search
+   * @return the state of the search with the results found so far, with an id unless the search
+   *         finished in time and its results were not kept
+   *
+   * @throws IOException
+   */
+  AsyncSearchDocumentResponseBase<ObjectNode> submitAsyncSearch(SubmitRequest request) throws IOException;
+
+  /**
+   *
+   * @param request Request, which references the asynchronous search by its id
+   * @return the state of the search with the results found so far
+   *
+   * @throws IOException
+   */
+  AsyncSearchDocumentResponseBase<ObjectNode> getAsyncSearch(GetAsyncSearchRequest request) throws IOException;
+
+  /**
+   * Cancels an asynchronous search if it is still running and removes its results
+   *
+   * @param id the id of the search
+   * @return Whether there was a search to remove
+   *
+   * @throws IOException
+   */
+  boolean deleteAsyncSearch(String id) throws IOException;
+
   /**
    * 
-   * @return Index settings for the custom partial word analyzer
+   * @return Index settings for the custom partial word analyzer, without the settings of the profile
    * 
    */
   IndexSettings getCustomPartialWordAnalyzerSettings();
 
   /**
+   * Reads document counts and store sizes of the given open indices with a single _cat/indices
+   * request. Wildcard patterns that match no index are left out of the result.
    *
-   * @param index Name of the Index
-   * @return the number of Documents uploaded to a specific Index
+   * @param indices names or wildcard patterns of the indices, not empty
+   * @return the statistics per index name
+   * @throws IOException
    */
-  long getIndexDocumentCount(String index) throws IOException;
+  Map<String, IndexStatistics> getIndicesStatistics(List<String> indices) throws IOException;
 
 }
@@ -1,47 +1,59 @@
 package com.github.searchprofileservice.client.impl;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Bytes;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ExpandWildcard;
 import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearchDocumentResponseBase;
+import co.elastic.clients.elasticsearch.async_search.GetAsyncSearchRequest;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
+import co.elastic.clients.elasticsearch.cat.IndicesResponse;
+import co.elastic.clients.elasticsearch.cat.indices.IndicesRecord;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchTemplateRequest;
+import co.elastic.clients.elasticsearch.core.SearchTemplateResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.indices.CreateIndexResponse;
 import co.elastic.clients.elasticsearch.indices.DeleteIndexResponse;
 import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.security.ClusterPrivilege;
+import co.elastic.clients.elasticsearch.security.GetRoleResponse;
+import co.elastic.clients.elasticsearch.security.GetUserResponse;
+import co.elastic.clients.elasticsearch.security.IndicesPrivileges;
+import co.elastic.clients.elasticsearch.security.PutRoleResponse;
+import co.elastic.clients.elasticsearch.security.PutUserResponse;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.IndexSettingsProperties;
+import com.github.searchprofileservice.model.IndexStatistics;
+import com.github.searchprofileservice.model.enums.ElasticSearchCallType;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import com.github.searchprofileservice.service.ElasticSearchResilienceService;
+import com.github.searchprofileservice.service.InstrumentationService;
+import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.elasticsearch.action.bulk.BulkItemResponse;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
-import org.elasticsearch.client.RequestOptions;
-import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.client.core.CountRequest;
-import org.elasticsearch.client.core.CountResponse;
-import org.elasticsearch.client.security.*;
-import org.elasticsearch.client.security.user.User;
-import org.elasticsearch.client.security.user.privileges.IndicesPrivileges;
-import org.elasticsearch.client.security.user.privileges.Role;
-import org.elasticsearch.index.query.QueryBuilders;
-import org.elasticsearch.search.builder.SearchSourceBuilder;
-import org.elasticsearch.xcontent.XContentType;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotNull;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -53,137 +65,234 @@ import java.util.Map;
 public class ElasticSearchStatefulClientImpl implements ElasticSearchStatefulClient {
 
   private final ElasticsearchClient lowLevelClient;
-  private final RestHighLevelClient highLevelClient;
+  private final InstrumentationService instrumentationService;
+  private final ElasticSearchResilienceService resilienceService;
+  private final IndexSettingsProperties indexSettingsProperties;
 
   private static final int MIN_SUBWORD_SIZE = 3;
   public static final String PARTIAL_WORD_INDEXNAME_POSTFIX = "_partial_word";
+  private static final String PARTIAL_WORD_ANALYSIS_TEMPLATE = "partial-word-analysis";
+  private static final String INDEX_TEMPLATE_PREFIX = "application-";
+  // above the priority of the built-in templates, the patterns of the applications never overlap
+  private static final int INDEX_TEMPLATE_PRIORITY = 500;
+  private static final String BEST_COMPRESSION_CODEC = "best_compression";
+  private static final String SEARCH_TEMPLATE_LANG = "mustache";
 
   @Override
-  public GetUsersResponse getAllUser() throws IOException {
-    GetUsersRequest request = new GetUsersRequest();
-    GetUsersResponse response = highLevelClient.security().getUsers(request, RequestOptions.DEFAULT);
-    return response;
+  public GetUserResponse getAllUser() throws IOException {
+    return resilienceService.call(ElasticSearchCallType.ADMIN, true,
+        () -> lowLevelClient.security().getUser(u -> u));
   }
 
   @Override
-  public GetRolesResponse getRole(String role) throws IOException{
-    GetRolesRequest request = new GetRolesRequest(role);
-    GetRolesResponse response = highLevelClient.security().getRoles(request, RequestOptions.DEFAULT);
-    return response;
+  public GetRoleResponse getRole(String role) throws IOException{
+    return resilienceService.call(ElasticSearchCallType.ADMIN, true,
+        () -> lowLevelClient.security().getRole(r -> r.name(role)));
   }
 
   @Override
-  public PutRoleResponse putRole(String roleName, String[] clusterPrivilege, ArrayList<IndicesPrivileges> indicesPrivileges) throws IOException{
-    Role role = Role.builder()
+  public PutRoleResponse putRole(String roleName, List<ClusterPrivilege> clusterPrivileges, List<IndicesPrivileges> indicesPrivileges) throws IOException{
+    return resilienceService.call(ElasticSearchCallType.ADMIN, true,
+        () -> lowLevelClient.security().putRole(r -> r
             .name(roleName)
-            .clusterPrivileges(clusterPrivilege )//Role.ClusterPrivilegeName.ALL_ARRAY
-            .indicesPrivileges(indicesPrivileges)
-            .build();
-    PutRoleRequest request = new PutRoleRequest(role, RefreshPolicy.NONE);
-    PutRoleResponse response = highLevelClient.security().putRole(request, RequestOptions.DEFAULT);
-    return response;
+            .cluster(clusterPrivileges)
+            .indices(indicesPrivileges)));
   }
 
   @Override
   public PutUserResponse createElasticUser(String userName, char[] password) throws IOException{
-    User user = new User(userName, Collections.singletonList("none"));
-    PutUserRequest request = PutUserRequest.withPassword(user, password, true, RefreshPolicy.NONE);
-    PutUserResponse response = highLevelClient.security().putUser(request, RequestOptions.DEFAULT);
-    return response;
+    return resilienceService.call(ElasticSearchCallType.ADMIN, true,
+        () -> lowLevelClient.security().putUser(u -> u
+            .username(userName)
+            .password(new String(password))
+            .roles("none")
+            .enabled(true)));
   }
 
 
   @Override
   public boolean isConnectionAvailable() throws IOException {
-    return lowLevelClient.ping().value();
+    return lowLevelClient.ping().value(); // not guarded, a ping has to reach elasticsearch even while the circuit is open
   }
 
   @Override
-  public boolean createIndex(final String name) throws IOException {
-    CreateIndexResponse responseCustomAnalyser = lowLevelClient.indices().create(c -> c.index(name + PARTIAL_WORD_INDEXNAME_POSTFIX).settings(getCustomPartialWordAnalyzerSettings()));
-    CreateIndexResponse responseStandardAnalyser = lowLevelClient.indices().create(c -> c.index(name));
+  public boolean createIndex(final String name, IndexSettingsProfile profile) throws IOException {
+    // the component templates are stored on every creation, so that they follow the configuration
+    putComponentTemplate(profile.getTemplateName(), getProfileSettings(profile), getProfileMappings(profile));
+    putComponentTemplate(PARTIAL_WORD_ANALYSIS_TEMPLATE, getCustomPartialWordAnalyzerSettings(), null);
+    putIndexTemplate(name + PARTIAL_WORD_INDEXNAME_POSTFIX, profile.getTemplateName(), PARTIAL_WORD_ANALYSIS_TEMPLATE);
+    putIndexTemplate(name, profile.getTemplateName());
+
+    CreateIndexResponse responseCustomAnalyser = resilienceService.call(ElasticSearchCallType.ADMIN, false,
+        () -> lowLevelClient.indices().create(c -> c.index(name + PARTIAL_WORD_INDEXNAME_POSTFIX)));
+    CreateIndexResponse responseStandardAnalyser = resilienceService.call(ElasticSearchCallType.ADMIN, false,
+        () -> lowLevelClient.indices().create(c -> c.index(name)));
 
     return (responseCustomAnalyser.acknowledged() && responseStandardAnalyser.acknowledged());
   }
 
   @Override
-  @CacheEvict(cacheNames="index-mapping", key="#name")
+  @CacheEvict(cacheNames=CachingConfig.INDEX_MAPPING_CACHE, key="#name")
   public void deleteIndex(final String name) throws IOException {
-    DeleteIndexResponse responseStandardIndex = lowLevelClient.indices().delete(i -> i.index(name + PARTIAL_WORD_INDEXNAME_POSTFIX)); // delete index with custom analyser
-    DeleteIndexResponse responsePartialWord = lowLevelClient.indices().delete(i -> i.index(name)); // delete standard index
+    DeleteIndexResponse responseStandardIndex = resilienceService.call(ElasticSearchCallType.ADMIN, false,
+        () -> lowLevelClient.indices().delete(i -> i.index(name + PARTIAL_WORD_INDEXNAME_POSTFIX))); // delete index with custom analyser
+    DeleteIndexResponse responsePartialWord = resilienceService.call(ElasticSearchCallType.ADMIN, false,
+        () -> lowLevelClient.indices().delete(i -> i.index(name))); // delete standard index
 
     responseStandardIndex.acknowledged();
     responsePartialWord.acknowledged();
+
+    deleteIndexTemplate(name + PARTIAL_WORD_INDEXNAME_POSTFIX);
+    deleteIndexTemplate(name);
+  }
+
+  /**
+   * Stores a component template, replacing the one with the same name
+   *
+   * @param name the name of the component template
+   * @param settings the index settings of the template
+   * @param mappings the mappings of the template, may be null
+   */
+  private void putComponentTemplate(String name, IndexSettings settings, TypeMapping mappings) throws IOException {
+    resilienceService.call(ElasticSearchCallType.ADMIN, true, () -> lowLevelClient.cluster()
+        .putComponentTemplate(p -> p.name(name).template(t -> t.settings(settings).mappings(mappings))));
+  }
+
+  /**
+   * Stores the index template matching exactly one index, replacing the one of an index with the
+   * same name
+   *
+   * @param indexName the name of the index
+   * @param componentTemplates the component templates the index template is composed of, later
+   *     ones override settings of earlier ones
+   */
+  private void putIndexTemplate(String indexName, String... componentTemplates) throws IOException {
+    resilienceService.call(ElasticSearchCallType.ADMIN, true, () -> lowLevelClient.indices()
+        .putIndexTemplate(p -> p
+            .name(INDEX_TEMPLATE_PREFIX + indexName)
+            .indexPatterns(indexName)
+            .composedOf(List.of(componentTemplates))
+            .priority(INDEX_TEMPLATE_PRIORITY)));
+  }
+
+  /**
+   * Removes the index template of an index, indices created before index templates were used have
+   * none
+   */
+  private void deleteIndexTemplate(String indexName) throws IOException {
+    try {
+      resilienceService.call(ElasticSearchCallType.ADMIN, true,
+          () -> lowLevelClient.indices().deleteIndexTemplate(d -> d.name(INDEX_TEMPLATE_PREFIX + indexName)));
+    } catch (ElasticsearchException e) {
+      if (e.status() != 404) {
+        throw e;
+      }
+    }
+  }
+
+  private IndexSettings getProfileSettings(IndexSettingsProfile profile) {
+    IndexSettingsProperties.Profile settings = indexSettingsProperties.getProfile(profile);
+    return IndexSettings.of(s -> s
+        .numberOfShards(Integer.toString(settings.getNumberOfShards()))
+        .numberOfReplicas(Integer.toString(settings.getNumberOfReplicas()))
+        .refreshInterval(ElasticSearchSearchRequestUtil.toTime(settings.getRefreshInterval()))
+        .codec(settings.isBestCompression() ? BEST_COMPRESSION_CODEC : null));
+  }
+
+  /**
+   * @return the mappings of the profile, null if it keeps the whole source
+   */
+  private TypeMapping getProfileMappings(IndexSettingsProfile profile) {
+    List<String> sourceExcludes = indexSettingsProperties.getProfile(profile).getSourceExcludes();
+    return null == sourceExcludes || sourceExcludes.isEmpty()
+        ? null
+        : TypeMapping.of(m -> m.source(s -> s.excludes(sourceExcludes)));
   }
 
   @Override
-  @CacheEvict(cacheNames="index-mapping", key="#indexName")
-  public String uploadRawJsonToIndex(String indexName, String json) throws IOException {
-    Reader input = new StringReader(json);
-    String id = makeIndexRequest(IndexRequest.of(i -> i.index(indexName + PARTIAL_WORD_INDEXNAME_POSTFIX).withJson(input))).id(); // make index request on index with custom partial word search analyser
-    input.reset();
-    makeIndexRequest(IndexRequest.of(i -> i.index(indexName).id(id).withJson(input))); // make index request on standard index
+  public String uploadRawJsonToIndex(String indexName, ObjectNode document) throws IOException {
+    String id = makeIndexRequest(IndexRequest.of(i -> i.index(indexName + PARTIAL_WORD_INDEXNAME_POSTFIX).document(document))).id(); // make index request on index with custom partial word search analyser
+    makeIndexRequest(IndexRequest.of(i -> i.index(indexName).id(id).document(document))); // make index request on standard index
     return id;
   }
 
   @Override
-  @CacheEvict(cacheNames="index-mapping", key="#indexName")
-  public void updateDocument(String indexName, String documentId, String json) throws IOException {
-    Reader input = new StringReader(json);
-    makeIndexRequest(IndexRequest.of(i -> i.index(indexName + PARTIAL_WORD_INDEXNAME_POSTFIX).id(documentId).withJson(input))); // make index request on index with custom partial word search analyser
-    input.reset();
-    makeIndexRequest(IndexRequest.of(i -> i.index(indexName).id(documentId).withJson(input))); // make index request on standard index
+  public void updateDocument(String indexName, String documentId, ObjectNode document) throws IOException {
+    makeIndexRequest(IndexRequest.of(i -> i.index(indexName + PARTIAL_WORD_INDEXNAME_POSTFIX).id(documentId).document(document))); // make index request on index with custom partial word search analyser
+    makeIndexRequest(IndexRequest.of(i -> i.index(indexName).id(documentId).document(document))); // make index request on standard index
   }
 
   @Override
-  @CacheEvict(cacheNames="index-mapping", key="#indexName")
-  public List<String> bulkUploadRawJsonToIndex(String indexName, List<String> jsonDocuments) throws IOException {
-    BulkResponse bulkResponsePartialWord = makeBulkUploadRawJsonToIndexRequest(indexName + PARTIAL_WORD_INDEXNAME_POSTFIX, jsonDocuments); // make bulk index request on index with custom analyser
+  public List<String> bulkUploadRawJsonToIndex(String indexName, List<ObjectNode> documents) throws IOException {
+    // the parsed documents are written straight into both request bodies by the json mapper of
+    // the client, serializing them up front would only add a copy of every document
+    BulkResponse bulkResponsePartialWord = makeBulkUploadRawJsonToIndexRequest(indexName + PARTIAL_WORD_INDEXNAME_POSTFIX, documents); // make bulk index request on index with custom analyser
     List<String> uploadedDocumentIds = getUploadedDocumentIds(bulkResponsePartialWord);
-    makeBulkUploadRawJsonToIndexRequest(indexName, jsonDocuments, uploadedDocumentIds); // make bulk index request on standard index
+    makeBulkUploadRawJsonToIndexRequest(indexName, documents, uploadedDocumentIds); // make bulk index request on standard index
 
     return uploadedDocumentIds;
   }
 
   /**
-   * Makes a bulk index request on a {@code indexName} with multiple {@code jsonDocuments}
+   * Makes a bulk index request on a {@code indexName} with multiple {@code sources}
    * 
    * @param indexName Name of index to upload jsons
-   * @param jsonDocuments List of (json) documents to upload to a index
+   * @param sources List of json encoded documents to upload to a index
    * @return The corresponding {@code BulkResponse} of the created bulk request
    * @throws IOException when bulk index request was not successfull or both lists don't have the same length.
    */
-  private BulkResponse makeBulkUploadRawJsonToIndexRequest(String indexName, List<String> jsonDocuments) throws IOException {
-    BulkRequest request = new BulkRequest();
-    for (String jsonDocument : jsonDocuments) {
-      var indexRequest = createIndexRequest(indexName, jsonDocument);
-      request.add(indexRequest);
+  private BulkResponse makeBulkUploadRawJsonToIndexRequest(String indexName, List<ObjectNode> documents) throws IOException {
+    List<BulkOperation> operations = new ArrayList<>(documents.size());
+    for (ObjectNode document : documents) {
+      operations.add(createIndexOperation(document, null));
     }
-    return highLevelClient.bulk(request, RequestOptions.DEFAULT);
+    return bulk(indexName, operations, false); // a retry could index documents twice
   }
 
   /**
-   * Makes a bulk index request on a {@code indexName} with multiple {@code jsonDocuments}
+   * Makes a bulk index request on a {@code indexName} with multiple {@code sources}
    * 
    * @param indexName Name of index to upload jsons
-   * @param jsonDocuments List of (json) documents to upload to a index
-   * @param documentIds Not null list of document ids to set the ids of the created documents in the index. List must have same length as list of {@code jsonDocuments}.
+   * @param sources List of json encoded documents to upload to a index
+   * @param documentIds Not null list of document ids to set the ids of the created documents in the index. List must have same length as list of {@code sources}.
    * @return The corresponding {@code BulkResponse} of the created bulk request
    * @throws IOException when bulk index request was not successfull or both lists don't have the same length.
    */
-  private BulkResponse makeBulkUploadRawJsonToIndexRequest(String indexName, List<String> jsonDocuments, @NotNull List<String> documentIds) throws IOException {
-    if (jsonDocuments.size() != documentIds.size()) {
-      throw new IOException("Lists jsonDocuments and documentIds don't have the same length.");
+  private BulkResponse makeBulkUploadRawJsonToIndexRequest(String indexName, List<ObjectNode> documents, @NotNull List<String> documentIds) throws IOException {
+    if (documents.size() != documentIds.size()) {
+      throw new IOException("Lists documents and documentIds don't have the same length.");
     }
-    Iterator<String> jsonDocumentsIter = jsonDocuments.iterator();
+    Iterator<ObjectNode> documentsIter = documents.iterator();
     Iterator<String> documentIdsIter = documentIds.iterator();
 
-    BulkRequest request = new BulkRequest();
-    while (jsonDocumentsIter.hasNext() && documentIdsIter.hasNext()) {
-      var indexRequest = createIndexRequest(indexName, jsonDocumentsIter.next(), documentIdsIter.next());
-      request.add(indexRequest);
+    List<BulkOperation> operations = new ArrayList<>(documents.size());
+    while (documentsIter.hasNext() && documentIdsIter.hasNext()) {
+      operations.add(createIndexOperation(documentsIter.next(), documentIdsIter.next()));
     }
-    return highLevelClient.bulk(request, RequestOptions.DEFAULT);
+    return bulk(indexName, operations, true);
+  }
+
+  /**
+   * Sends a bulk request, recording its size and failed items
+   *
+   * @param indexName Name of the index the request writes to
+   * @param operations the operations of the request
+   * @param idempotent whether all operations have document ids, so that the request may be retried
+   * @return The corresponding {@code BulkResponse}
+   * @throws IOException when the bulk request was not successfull
+   */
+  private BulkResponse bulk(String indexName, List<BulkOperation> operations, boolean idempotent) throws IOException {
+    BulkRequest request = BulkRequest.of(b -> b.index(indexName).operations(operations));
+    BulkResponse response = resilienceService.call(ElasticSearchCallType.INGEST, idempotent,
+        () -> lowLevelClient.bulk(request));
+    int failures = 0;
+    for (BulkResponseItem item : response.items()) {
+      if (null != item.error()) {
+        failures++;
+      }
+    }
+    instrumentationService.recordBulk(indexName, operations.size(), failures, response.took());
+    return response;
   }
 
   /**
@@ -195,7 +304,9 @@ public class ElasticSearchStatefulClientImpl implements ElasticSearchStatefulCli
    * @throws IOException when index request was not successfull
    */
   private <T> IndexResponse makeIndexRequest(IndexRequest<T> indexRequest) throws ElasticsearchException, IOException {
-    return lowLevelClient.index(indexRequest);
+    // without an id a retry could index the document twice
+    return resilienceService.call(ElasticSearchCallType.INGEST, null != indexRequest.id(),
+        () -> lowLevelClient.index(indexRequest));
   }
 
   /*
@@ -203,59 +314,116 @@ public class ElasticSearchStatefulClientImpl implements ElasticSearchStatefulCli
   *   Addition: if a Document was not uploaded successfully to the Elastic Index, the List contains a string error-message to identify the failed upload
   */
   private List<String> getUploadedDocumentIds(BulkResponse response){
-    List<String> successfulDocIds = new ArrayList<>();
-    for(BulkItemResponse itemResponse : response.getItems()){
-      if(itemResponse.getResponse().getResult().getLowercase().equals("created")){
-        successfulDocIds.add(itemResponse.getResponse().getId());
+    List<String> successfulDocIds = new ArrayList<>(response.items().size());
+    for(BulkResponseItem item : response.items()){
+      if("created".equals(item.result())){
+        successfulDocIds.add(item.id());
       }else{
-        successfulDocIds.add(String.format("Could not upload document %s", itemResponse.getId()));
+        successfulDocIds.add(String.format("Could not upload document %s", item.id()));
       }
     }
     return successfulDocIds;
   }
 
   /**
-   * Builds an {@code IndexRequest} object for a {@code indexName} with a {@code jsonString} source
-   * @param indexName Index where request should be called
-   * @param jsonString Json to set requests source
-   * @return {@code IndexRequest}
-   */
-  private org.elasticsearch.action.index.IndexRequest createIndexRequest(String indexName, String jsonString){
-    org.elasticsearch.action.index.IndexRequest request = new org.elasticsearch.action.index.IndexRequest(indexName);
-    request.source(jsonString, XContentType.JSON);
-    return request;
-  }
-
-  /**
-   * Builds an {@code IndexRequest} object for a {@code indexName} with a {@code jsonString} source
-   * @param indexName Index where request would be called
-   * @param jsonString Json to set requests source
-   * @param documentId
-   * @return {@code IndexRequest}
+   * Builds the index operation of a bulk request, the index is set on the request
+   * @param document the parsed document
+   * @param documentId the id of the document, null to let elasticsearch create one
+   * @return the operation
    */
-  private org.elasticsearch.action.index.IndexRequest createIndexRequest(String indexName, String jsonString, String documentId){
-    org.elasticsearch.action.index.IndexRequest request = new org.elasticsearch.action.index.IndexRequest(indexName);
-    request.source(jsonString, XContentType.JSON);
-    request.id(documentId);
-    return request;
+  private static BulkOperation createIndexOperation(ObjectNode document, String documentId){
+    return BulkOperation.of(o -> o.index(i -> i.id(documentId).document(document)));
   }
 
   @Override
   public Map<String, Property> getIndexMapping(String indexName) throws IOException {
-    return lowLevelClient.indices()
-        .getMapping(b -> b.index(indexName)).get(indexName).mappings().properties();
+    return resilienceService.call(ElasticSearchCallType.ADMIN, true, () -> lowLevelClient.indices()
+        .getMapping(b -> b.index(indexName)).get(indexName).mappings().properties());
   }
 
   @Override
   public boolean isIndexExistent(String indexName) throws IOException {
-    return lowLevelClient.indices().exists(b -> b.index(indexName)).value();
+    return resilienceService.call(ElasticSearchCallType.ADMIN, true,
+        () -> lowLevelClient.indices().exists(b -> b.index(indexName)).value());
   }
 
   @Override
   public SearchResponse<ObjectNode> search(SearchRequest request) throws IOException {
-    return lowLevelClient.search(request, ObjectNode.class);
+    long start = System.nanoTime();
+    SearchResponse<ObjectNode> response = resilienceService.call(ElasticSearchCallType.SEARCH, true,
+        () -> lowLevelClient.search(request, ObjectNode.class));
+    long roundTripNanos = System.nanoTime() - start;
+
+    if (request.index().size() == 1) {
+      instrumentationService.recordSearch(request.index().get(0), response.took(), roundTripNanos);
+    }
+    return response;
+  }
+
+  @Override
+  public SearchResponse<ObjectNode> searchTemplate(SearchTemplateRequest request) throws IOException {
+    long start = System.nanoTime();
+    SearchTemplateResponse<ObjectNode> response = resilienceService.call(ElasticSearchCallType.SEARCH, true,
+        () -> lowLevelClient.searchTemplate(request, ObjectNode.class));
+    long roundTripNanos = System.nanoTime() - start;
+
+    if (request.index().size() == 1) {
+      instrumentationService.recordSearch(request.index().get(0), response.took(), roundTripNanos);
+    }
+    return SearchResponse.of(r -> r
+        .took(response.took())
+        .timedOut(response.timedOut())
+        .shards(response.shards())
+        .hits(response.hits())
+        .maxScore(response.maxScore())
+        .profile(response.profile()));
+  }
+
+  @Override
+  public void putSearchTemplate(String templateId, String source) throws IOException {
+    resilienceService.call(ElasticSearchCallType.ADMIN, true, () -> lowLevelClient
+        .putScript(p -> p.id(templateId).script(s -> s.lang(SEARCH_TEMPLATE_LANG).source(source))));
+  }
+
+  @Override
+  public boolean deleteSearchTemplate(String templateId) throws IOException {
+    try {
+      return resilienceService.call(ElasticSearchCallType.ADMIN, true,
+          () -> lowLevelClient.deleteScript(d -> d.id(templateId)).acknowledged());
+    } catch (ElasticsearchException e) {
+      if (e.status() == 404) {
+        return false;
+      }
+      throw e;
+    }
   }
  
+  @Override
+  public AsyncSearchDocumentResponseBase<ObjectNode> submitAsyncSearch(SubmitRequest request) throws IOException {
+    // a retry would start the search a second time
+    return resilienceService.call(ElasticSearchCallType.SEARCH, false,
+        () -> lowLevelClient.asyncSearch().submit(request, ObjectNode.class));
+  }
+
+  @Override
+  public AsyncSearchDocumentResponseBase<ObjectNode> getAsyncSearch(GetAsyncSearchRequest request) throws IOException {
+    return resilienceService.call(ElasticSearchCallType.SEARCH, true,
+        () -> lowLevelClient.asyncSearch().get(request, ObjectNode.class));
+  }
+
+  @Override
+  public boolean deleteAsyncSearch(String id) throws IOException {
+    try {
+      return resilienceService.call(ElasticSearchCallType.SEARCH, true,
+          () -> lowLevelClient.asyncSearch().delete(d -> d.id(id)).acknowledged());
+    } catch (ElasticsearchException e) {
+      if (e.status() == 404) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
   @Override
   public IndexSettings getCustomPartialWordAnalyzerSettings() {
     // paths in the elasticsearch container image relativ to workDir /usr/share/elasticsearch/
@@ -263,7 +431,6 @@ public class ElasticSearchStatefulClientImpl implements ElasticSearchStatefulCli
     String pathToXMLFile = "hyphenation/de_DR.xml";
     
     return IndexSettings.of(q -> q
-    .numberOfShards("1")
     .analysis(p -> p
 
       .filter("german_partial_word_search", z -> z
@@ -281,15 +448,30 @@ public class ElasticSearchStatefulClientImpl implements ElasticSearchStatefulCli
   }
 
   @Override
-  public long getIndexDocumentCount(String index) throws IOException {
-    final var countRequest = new CountRequest(index);
-    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
-    searchSourceBuilder.query(QueryBuilders.matchAllQuery());
-    countRequest.source(searchSourceBuilder);
-
-    CountResponse countResponse = highLevelClient.count(countRequest, RequestOptions.DEFAULT);
+  public Map<String, IndexStatistics> getIndicesStatistics(List<String> indices) throws IOException {
+    IndicesResponse response = resilienceService.call(ElasticSearchCallType.ADMIN, true,
+        () -> lowLevelClient.cat().indices(c -> c
+            .index(indices)
+            .bytes(Bytes.Bytes)
+            .expandWildcards(ExpandWildcard.Open)));
+
+    Map<String, IndexStatistics> statistics = new HashMap<>();
+    for (IndicesRecord record : response.valueBody()) {
+      statistics.put(record.index(), new IndexStatistics(
+          parseLongOrZero(record.docsCount()), parseLongOrZero(record.storeSize())));
+    }
+    return statistics;
+  }
 
-    return countResponse.getCount();
+  /**
+   * _cat values are strings and missing for e.g. indices that are still initializing
+   */
+  private static long parseLongOrZero(String value) {
+    try {
+      return null == value ? 0 : Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
   }
 
 
@@ -0,0 +1,27 @@
+package com.github.searchprofileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the asynchronous searches, bound from {@code async-search.*}.
+ *
+ * A submitted search is waited for {@code wait-for-completion-timeout}, searches finishing in time
+ * are answered right away, the others are left running on elasticsearch and polled by their id.
+ */
+@Component
+@ConfigurationProperties(prefix = "async-search")
+@Getter
+@Setter
+public class AsyncSearchProperties {
+
+  /** time a submit waits for the search to finish before answering with its id */
+  private Duration waitForCompletionTimeout = Duration.ofSeconds(1);
+
+  /** time the results of a search are kept after it was submitted, running searches are cancelled */
+  private Duration retention = Duration.ofMinutes(10);
+}
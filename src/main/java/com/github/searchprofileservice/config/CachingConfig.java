@@ -1,17 +1,92 @@
 package com.github.searchprofileservice.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.searchprofileservice.service.ElasticSearchClientService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 @EnableCaching
 @Configuration
 public class CachingConfig {
-    
+
+    public static final String INDEX_MAPPING_CACHE = "index-mapping";
+    public static final String APPLICATION_CACHE = "application";
+    public static final String INDEX_STATISTICS_CACHE = "index-statistics";
+    public static final String LOGIN_USER_CACHE = "login-user";
+    public static final String INDEX_GENERATION_CACHE = "index-generation";
+    public static final String FACET_CACHE = "facets";
+
+    /**
+     * Bounded caffeine caches, configured through {@link CachingProperties}.
+     * Caches with a loader are refreshed in the background after {@code refresh-after-write},
+     * every cache records statistics, which the actuator exports as cache metrics.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("index-mapping");
+    public CacheManager cacheManager(
+        CachingProperties cachingProperties,
+        ObjectProvider<ElasticSearchClientService> elasticSearchClientService
+    ) {
+        Map<String, CacheLoader<Object, Object>> loaders = Map.of(
+            INDEX_MAPPING_CACHE,
+            indexName -> elasticSearchClientService.getObject().loadIndexMapping((String) indexName)
+        );
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(newBuilder(cachingProperties.getDefaults()));
+
+        Set<String> cacheNames = new HashSet<>(loaders.keySet());
+        cacheNames.addAll(cachingProperties.getCaches().keySet());
+        for (String cacheName : cacheNames) {
+            cacheManager.registerCustomCache(
+                cacheName,
+                buildCache(cachingProperties.getSpec(cacheName), loaders.get(cacheName)));
+        }
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> buildCache(
+        CachingProperties.CacheSpec spec, CacheLoader<Object, Object> loader) {
+
+        Caffeine<Object, Object> builder = newBuilder(spec);
+        if (null == loader) {
+            return builder.build();
+        }
+        if (null != spec.getRefreshAfterWrite()) {
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        return builder.build(loader);
+    }
+
+    private static Caffeine<Object, Object> newBuilder(CachingProperties.CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (null != spec.getMaximumWeight()) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(CachingConfig::weigh);
+        } else if (null != spec.getMaximumSize()) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (null != spec.getExpireAfterWrite()) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        return builder;
+    }
+
+    private static int weigh(Object key, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        } else if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        return 1;
     }
 }
@@ -0,0 +1,86 @@
+package com.github.searchprofileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the in-process caches, bound from {@code caching.*}.
+ *
+ * Every cache is configured by name below {@code caching.caches}, settings that are not given
+ * for a cache are taken from {@code caching.defaults}. {@code caching.invalidation} configures the
+ * bus that keeps the caches of all instances coherent.
+ */
+@Component
+@ConfigurationProperties(prefix = "caching")
+@Getter
+@Setter
+public class CachingProperties {
+
+  private CacheSpec defaults = new CacheSpec();
+  private Map<String, CacheSpec> caches = new HashMap<>();
+  private Invalidation invalidation = new Invalidation();
+
+  /**
+   * Writes to an index are published to the other instances at most once per interval. Facets
+   * computed within this interval plus the {@code refresh-interval} of the
+   * {@link IndexSettingsProperties} profile of the application after a write may miss it, they are
+   * not cached.
+   */
+  private Duration indexRefreshInterval = Duration.ofSeconds(1);
+
+  /**
+   * @param cacheName name of the cache
+   * @return the settings of the cache, completed with the defaults
+   */
+  public CacheSpec getSpec(String cacheName) {
+    CacheSpec spec = caches.getOrDefault(cacheName, new CacheSpec());
+
+    CacheSpec result = new CacheSpec();
+    result.setMaximumSize(
+        null != spec.getMaximumSize() ? spec.getMaximumSize() : defaults.getMaximumSize());
+    result.setMaximumWeight(
+        null != spec.getMaximumWeight() ? spec.getMaximumWeight() : defaults.getMaximumWeight());
+    result.setExpireAfterWrite(
+        null != spec.getExpireAfterWrite() ? spec.getExpireAfterWrite() : defaults.getExpireAfterWrite());
+    result.setRefreshAfterWrite(
+        null != spec.getRefreshAfterWrite() ? spec.getRefreshAfterWrite() : defaults.getRefreshAfterWrite());
+    return result;
+  }
+
+  @Getter
+  @Setter
+  public static class CacheSpec {
+
+    /** maximum number of entries, ignored if a maximum weight is set */
+    private Long maximumSize;
+
+    /** maximum summed weight of all entries, an entry weighs as much as it has elements */
+    private Long maximumWeight;
+
+    /** entries are dropped this long after they were written */
+    private Duration expireAfterWrite;
+
+    /** entries are reloaded in the background on the first read this long after they were written */
+    private Duration refreshAfterWrite;
+  }
+
+  @Getter
+  @Setter
+  public static class Invalidation {
+
+    /** whether changes are published to and received from the other instances */
+    private boolean enabled = true;
+
+    /** size in bytes of the capped collection holding the published changes */
+    private long collectionSize = 1024 * 1024;
+
+    /** upper bound for the time between a change and its eviction on another instance */
+    private Duration maxDelay = Duration.ofSeconds(1);
+  }
+}
@@ -0,0 +1,33 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.service.ElasticSearchResilienceService;
+import com.github.searchprofileservice.util.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor {@code elasticSearchCircuit}, part of the readiness group: the instance is
+ * out of service while the elasticsearch circuit is open, so load balancers route around it.
+ *
+ * A half open circuit reports up again, since only requests can close it. The indicator does not
+ * call elasticsearch, the health contributor {@code elasticsearch} does.
+ */
+@Component
+@RequiredArgsConstructor
+public class ElasticSearchCircuitHealthIndicator implements HealthIndicator {
+
+  private final ElasticSearchResilienceService elasticSearchResilienceService;
+
+  @Override
+  public Health health() {
+    CircuitBreaker.State state = elasticSearchResilienceService.getCircuitState();
+    Health.Builder health = state == CircuitBreaker.State.OPEN ? Health.outOfService() : Health.up();
+    return health
+        .withDetail("state", state)
+        .withDetail("failureRate", elasticSearchResilienceService.getFailureRate())
+        .withDetail("availableRetries", elasticSearchResilienceService.getAvailableRetries())
+        .build();
+  }
+}
@@ -4,20 +4,39 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.elasticsearch.client.NodeSelector;
 import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestClientBuilder.HttpClientConfigCallback;
-import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.client.RestHighLevelClientBuilder;
+import org.elasticsearch.client.sniff.ElasticsearchNodesSniffer;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
 @Configuration
 @RequiredArgsConstructor
 public class ElasticSearchClientConfig {
@@ -35,21 +54,150 @@ public class ElasticSearchClientConfig {
     return credentialsProvider;
   }
 
+  /**
+   * Connection pool of the elasticsearch rest client, created here so that its usage can be
+   * exported as metrics. The rest client only applies its limits and io settings to a pool of its
+   * own, so they are applied here.
+   */
+  @Bean
+  public PoolingNHttpClientConnectionManager elasticSearchConnectionManager() throws IOReactorException {
+    IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom()
+        .setConnectTimeout(toMillis(elasticSearchProperties.getConnectTimeout()))
+        .setSoTimeout(toMillis(elasticSearchProperties.getSocketTimeout()))
+        .setSoKeepAlive(true);
+    if (elasticSearchProperties.getIoThreads() > 0) {
+      ioReactorConfig.setIoThreadCount(elasticSearchProperties.getIoThreads());
+    }
+    PoolingNHttpClientConnectionManager connectionManager =
+        new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig.build()));
+    connectionManager.setDefaultMaxPerRoute(elasticSearchProperties.getMaxConnectionsPerRoute());
+    connectionManager.setMaxTotal(elasticSearchProperties.getMaxConnectionsTotal());
+    return connectionManager;
+  }
+
+  /**
+   * Gauges {@code elasticsearch.client.connections} of the elasticsearch connection pool, tagged
+   * by state: leased, available (idle), pending (waiting for a connection) and max
+   */
   @Bean
-  public RestClient elasticSearchLowLevelRestClient(CredentialsProvider elasticSearchCredentials) {
-    RestClient restClient = RestClient.builder(new HttpHost(
-        elasticSearchProperties.getHost(), elasticSearchProperties.getPort()
-    )).setHttpClientConfigCallback(new HttpClientConfigCallback() {
+  public MeterBinder elasticSearchConnectionPoolMetrics(
+      PoolingNHttpClientConnectionManager elasticSearchConnectionManager) {
+    return registry -> {
+      registerPoolGauge(registry, elasticSearchConnectionManager, "leased", PoolStats::getLeased);
+      registerPoolGauge(registry, elasticSearchConnectionManager, "available", PoolStats::getAvailable);
+      registerPoolGauge(registry, elasticSearchConnectionManager, "pending", PoolStats::getPending);
+      registerPoolGauge(registry, elasticSearchConnectionManager, "max", PoolStats::getMax);
+    };
+  }
+
+  private static void registerPoolGauge(
+      MeterRegistry registry,
+      PoolingNHttpClientConnectionManager connectionManager,
+      String state,
+      ToDoubleFunction<PoolStats> value) {
+    Gauge.builder("elasticsearch.client.connections", connectionManager,
+            manager -> value.applyAsDouble(manager.getTotalStats()))
+        .tag("state", state)
+        .register(registry);
+  }
+
+  /**
+   * Rest client spreading requests round robin over the configured nodes, failed nodes are
+   * retried on the next node and left out for a while. Sniffed dedicated master nodes are
+   * skipped, they should not coordinate searches.
+   */
+  @Bean
+  public RestClient elasticSearchLowLevelRestClient(
+      CredentialsProvider elasticSearchCredentials,
+      PoolingNHttpClientConnectionManager elasticSearchConnectionManager,
+      ObjectProvider<SniffOnFailureListener> elasticSearchSniffOnFailureListener) {
+    RestClientBuilder restClientBuilder = RestClient.builder(httpHosts().toArray(HttpHost[]::new))
+        .setCompressionEnabled(elasticSearchProperties.isCompression())
+        .setNodeSelector(NodeSelector.SKIP_DEDICATED_MASTERS)
+        .setRequestConfigCallback(requestConfig -> requestConfig
+            .setConnectTimeout(toMillis(elasticSearchProperties.getConnectTimeout()))
+            .setSocketTimeout(toMillis(elasticSearchProperties.getSocketTimeout()))
+            .setConnectionRequestTimeout(toMillis(elasticSearchProperties.getConnectionRequestTimeout())))
+        .setHttpClientConfigCallback(new HttpClientConfigCallback() {
       @Override
       public HttpAsyncClientBuilder customizeHttpClient(
           HttpAsyncClientBuilder httpAsyncClientBuilder) {
-        return httpAsyncClientBuilder.setDefaultCredentialsProvider(elasticSearchCredentials);
+        return httpAsyncClientBuilder
+            .setDefaultCredentialsProvider(elasticSearchCredentials)
+            .setConnectionManager(elasticSearchConnectionManager)
+            .setKeepAliveStrategy(ElasticSearchClientConfig.this::keepAliveMillis);
       }
-    }).build();
+    });
+    elasticSearchSniffOnFailureListener.ifAvailable(restClientBuilder::setFailureListener);
+
+    return restClientBuilder.build();
+  }
 
-    return restClient;
+  /** Sniffs right after a node of the rest client failed */
+  @Bean
+  @ConditionalOnProperty(prefix = "elasticsearch.connection.sniffing", name = "enabled", havingValue = "true")
+  public SniffOnFailureListener elasticSearchSniffOnFailureListener() {
+    return new SniffOnFailureListener();
   }
 
+  /**
+   * Replaces the nodes of the rest client by the http nodes of the cluster every
+   * {@code elasticsearch.connection.sniffing.interval}, and after a failed node followed by
+   * another sniff after {@code elasticsearch.connection.sniffing.delay-after-failure}. Nodes are
+   * kept if the cluster reports none.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "elasticsearch.connection.sniffing", name = "enabled", havingValue = "true")
+  public Sniffer elasticSearchSniffer(
+      RestClient elasticSearchLowLevelRestClient,
+      SniffOnFailureListener elasticSearchSniffOnFailureListener) {
+    ElasticSearchProperties.Sniffing sniffing = elasticSearchProperties.getSniffing();
+    Sniffer sniffer = Sniffer.builder(elasticSearchLowLevelRestClient)
+        .setSniffIntervalMillis(toMillis(sniffing.getInterval()))
+        .setSniffAfterFailureDelayMillis(toMillis(sniffing.getDelayAfterFailure()))
+        .setNodesSniffer(new ElasticsearchNodesSniffer(
+            elasticSearchLowLevelRestClient,
+            ElasticsearchNodesSniffer.DEFAULT_SNIFF_REQUEST_TIMEOUT,
+            elasticSearchProperties.isSsl() ? ElasticsearchNodesSniffer.Scheme.HTTPS : ElasticsearchNodesSniffer.Scheme.HTTP))
+        .build();
+    elasticSearchSniffOnFailureListener.setSniffer(sniffer);
+    return sniffer;
+  }
+
+  /**
+   * @return the configured nodes, the single host and port if there are none
+   */
+  List<HttpHost> httpHosts() {
+    if (elasticSearchProperties.getNodes().isEmpty()) {
+      return List.of(new HttpHost(elasticSearchProperties.getHost(), elasticSearchProperties.getPort(), scheme()));
+    }
+    return elasticSearchProperties.getNodes().stream()
+        .map(String::trim)
+        .map(HttpHost::create)
+        .map(node -> new HttpHost(node.getHostName(), node.getPort() > 0 ? node.getPort() : elasticSearchProperties.getPort(), scheme()))
+        .toList();
+  }
+
+  private String scheme() {
+    return elasticSearchProperties.isSsl() ? "https" : "http";
+  }
+
+  /**
+   * Elasticsearch does not send a keep alive header, without one idle connections would be kept
+   * open until the other side drops them
+   */
+  private long keepAliveMillis(HttpResponse response, HttpContext context) {
+    return elasticSearchProperties.getKeepAlive().toMillis();
+  }
+
+  private static int toMillis(Duration duration) {
+    return (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+  }
+
+  /**
+   * The one client of the service. Its json mapper writes the parsed documents of index and bulk
+   * requests straight into the request bodies.
+   */
   @Bean
   public ElasticsearchClient elasticsearchClient(RestClient elasticSearchLowLevelRestClient) {
 
@@ -59,11 +207,4 @@ public class ElasticSearchClientConfig {
     return new ElasticsearchClient(transport);
   }
 
-@Bean
-  public RestHighLevelClient highLevelClient(RestClient elasticSearchLowLevelRestClient){
-   return new RestHighLevelClientBuilder(elasticSearchLowLevelRestClient)
-            .setApiCompatibilityMode(true)
-            .build();
-  }
-
 }
@@ -2,33 +2,72 @@ package com.github.searchprofileservice.config;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection to the elasticsearch cluster, bound from {@code elasticsearch.connection.*}.
+ *
+ * Requests are spread round robin over all configured nodes, a node that fails is left out until
+ * it has been dead for a while. With sniffing enabled the nodes are replaced by the http nodes the
+ * cluster reports, dedicated master nodes are not sent any requests.
+ */
 @Component
+@ConfigurationProperties(prefix = "elasticsearch.connection")
 @Getter
 @Setter
 public class ElasticSearchProperties {
 
-  private int port;
-  private String host;
+  private int port = 9200;
+  private String host = "localhost";
   private boolean ssl;
   private String username;
   private String password;
 
-  @Autowired
-  public ElasticSearchProperties(
-      @Value("${elasticsearch.connection.port}") int port,
-      @Value("${elasticsearch.connection.host}") String host,
-      @Value("${elasticsearch.connection.ssl}") boolean ssl,
-      @Value("${elasticsearch.connection.username}") String username,
-      @Value("${elasticsearch.connection.password}") String password
-  ) {
-    this.port = port;
-    this.host = host;
-    this.ssl = ssl;
-    this.username = username;
-    this.password = password;
+  /** addresses of the nodes as {@code host:port}, replace host and port if not empty */
+  private List<String> nodes = new ArrayList<>();
+
+  private int maxConnectionsPerRoute = 10;
+  private int maxConnectionsTotal = 30;
+
+  /** time to establish a connection */
+  private Duration connectTimeout = Duration.ofSeconds(1);
+
+  /** maximum time without data on an open connection */
+  private Duration socketTimeout = Duration.ofSeconds(30);
+
+  /** time to wait for a connection of the pool, zero waits without limit */
+  private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+  /**
+   * time an idle connection is kept open, elasticsearch does not announce one. Should be shorter
+   * than the idle timeout of any load balancer or firewall in between.
+   */
+  private Duration keepAlive = Duration.ofMinutes(1);
+
+  /** threads of the client io reactor, zero for one per cpu */
+  private int ioThreads = 0;
+
+  /** whether request bodies are sent gzip compressed and compressed responses are accepted */
+  private boolean compression = false;
+
+  private Sniffing sniffing = new Sniffing();
+
+  @Getter
+  @Setter
+  public static class Sniffing {
+
+    /** whether the nodes are taken from the cluster */
+    private boolean enabled = false;
+
+    /** time between two sniffs */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /** time until the next sniff after a sniff caused by a failed node */
+    private Duration delayAfterFailure = Duration.ofMinutes(1);
   }
 }
@@ -0,0 +1,109 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.model.enums.ElasticSearchCallType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Protection of the service against a degraded elasticsearch cluster, bound from
+ * {@code elasticsearch.resilience.*}.
+ *
+ * A circuit breaker stops calling elasticsearch once too many calls fail, so that requests fail
+ * fast instead of waiting for a socket timeout each. Failed calls are retried with jittered
+ * backoff as long as the retry budget allows, which keeps retries from multiplying the load on a
+ * struggling cluster. Search, ingest and admin calls each have a bulkhead of their own, so that a
+ * flood of bulk uploads can not take all connections from searches.
+ */
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.resilience")
+@Getter
+@Setter
+public class ElasticSearchResilienceProperties {
+
+  private boolean enabled = true;
+
+  private CircuitBreaker circuitBreaker = new CircuitBreaker();
+  private Retry retry = new Retry();
+
+  private Bulkhead search = new Bulkhead(20, Duration.ofMillis(50));
+  private Bulkhead ingest = new Bulkhead(6, Duration.ofMillis(500));
+  private Bulkhead admin = new Bulkhead(4, Duration.ofSeconds(1));
+
+  /**
+   * @param callType the type of the call
+   * @return the bulkhead of the call type
+   */
+  public Bulkhead getBulkhead(ElasticSearchCallType callType) {
+    return switch (callType) {
+      case SEARCH -> search;
+      case INGEST -> ingest;
+      case ADMIN -> admin;
+    };
+  }
+
+  @Getter
+  @Setter
+  public static class CircuitBreaker {
+
+    /** share of failed calls among the last calls at which the circuit opens */
+    private double failureRateThreshold = 0.5;
+
+    /** number of the last calls the failure rate is computed of */
+    private int windowSize = 100;
+
+    /** calls needed in the window before the circuit may open */
+    private int minimumCalls = 20;
+
+    /** time an open circuit rejects all calls before it lets trial calls through */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /** trial calls of a half open circuit, the circuit closes if all of them succeed */
+    private int halfOpenCalls = 5;
+  }
+
+  @Getter
+  @Setter
+  public static class Retry {
+
+    /** attempts of a call including the first one, 1 disables retries */
+    private int maxAttempts = 3;
+
+    /** upper bound of the random wait before the first retry, doubled for every further one */
+    private Duration initialBackoff = Duration.ofMillis(50);
+
+    /** upper bound of the random wait before any retry */
+    private Duration maxBackoff = Duration.ofSeconds(1);
+
+    /** retries allowed per call on average, every call adds this share of a retry to the budget */
+    private double budgetRatio = 0.1;
+
+    /** retries the budget holds at most, and holds after startup */
+    private int budgetMaxRetries = 10;
+  }
+
+  @Getter
+  @Setter
+  public static class Bulkhead {
+
+    /**
+     * calls running at the same time, the bulkheads together should not exceed
+     * {@code elasticsearch.connection.max-connections-total}
+     */
+    private int maxConcurrentCalls;
+
+    /** time a call waits for a free slot before it is rejected */
+    private Duration maxWait;
+
+    public Bulkhead() {
+    }
+
+    public Bulkhead(int maxConcurrentCalls, Duration maxWait) {
+      this.maxConcurrentCalls = maxConcurrentCalls;
+      this.maxWait = maxWait;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the indices of the applications, bound from {@code index-settings.*}.
+ *
+ * Every {@link IndexSettingsProfile} is stored as a component template, which the index templates
+ * of the applications using it are composed of. Changed settings apply to indices created
+ * afterwards.
+ */
+@Component
+@ConfigurationProperties(prefix = "index-settings")
+@Getter
+@Setter
+public class IndexSettingsProperties {
+
+  /** applications expecting at least this many documents get {@code LARGE} unless they choose a profile */
+  private long largeDocumentCount = 1_000_000;
+
+  private Map<IndexSettingsProfile, Profile> profiles = new EnumMap<>(Map.of(
+      IndexSettingsProfile.SMALL, new Profile(1, 1, Duration.ofSeconds(1), false),
+      IndexSettingsProfile.LARGE, new Profile(3, 1, Duration.ofSeconds(1), true),
+      IndexSettingsProfile.WRITE_HEAVY, new Profile(2, 1, Duration.ofSeconds(30), false),
+      IndexSettingsProfile.READ_HEAVY, new Profile(1, 2, Duration.ofSeconds(1), false)));
+
+  /**
+   * @param expectedDocumentCount the number of documents the application expects, null if unknown
+   * @return the profile for an application that did not choose one
+   */
+  public IndexSettingsProfile selectProfile(Long expectedDocumentCount) {
+    return null != expectedDocumentCount && expectedDocumentCount >= largeDocumentCount
+        ? IndexSettingsProfile.LARGE
+        : IndexSettingsProfile.SMALL;
+  }
+
+  /**
+   * @return the settings of the profile, those of {@code SMALL} if it is not configured
+   */
+  public Profile getProfile(IndexSettingsProfile profile) {
+    Profile settings = profiles.get(profile);
+    return null != settings ? settings : profiles.getOrDefault(IndexSettingsProfile.SMALL, new Profile());
+  }
+
+  @Getter
+  @Setter
+  public static class Profile {
+
+    private int numberOfShards = 1;
+
+    private int numberOfReplicas = 1;
+
+    /** time until writes become searchable, facets are not cached for this long after a write */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    /** whether stored fields are compressed with DEFLATE, smaller but slower to read than LZ4 */
+    private boolean bestCompression;
+
+    /** fields left out of the stored source, they are searchable but not part of the results */
+    private List<String> sourceExcludes = new ArrayList<>();
+
+    public Profile() {
+    }
+
+    public Profile(int numberOfShards, int numberOfReplicas, Duration refreshInterval, boolean bestCompression) {
+      this.numberOfShards = numberOfShards;
+      this.numberOfReplicas = numberOfReplicas;
+      this.refreshInterval = refreshInterval;
+      this.bestCompression = bestCompression;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.github.searchprofileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tagging of the stage and elasticsearch metrics, bound from {@code instrumentation.*}.
+ *
+ * Every application and search profile adds its own time series, disabled tags are recorded
+ * with the value {@code all} instead. The stages of search and ingest requests can also be
+ * returned to the client as {@code Server-Timing} header.
+ */
+@Component
+@ConfigurationProperties(prefix = "instrumentation")
+@Getter
+@Setter
+public class InstrumentationProperties {
+
+  /** whether to tag metrics with the application id */
+  private boolean applicationTags = false;
+
+  /** whether to tag metrics with the search profile id */
+  private boolean profileTags = false;
+
+  /** whether search and ingest responses carry a {@code Server-Timing} header */
+  private boolean serverTiming = false;
+}
@@ -5,6 +5,8 @@ import com.github.searchprofileservice.persistence.mongo.model.User;
 import com.github.searchprofileservice.service.AuthenticationService;
 import com.github.searchprofileservice.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.GenericFilterBean;
 
@@ -13,38 +15,57 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import java.io.IOException;
+import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * Creates the user of an authenticated request on first login and keeps its picture link in sync.
+ *
+ * Synchronized users are remembered in the {@link CachingConfig#LOGIN_USER_CACHE} cache together
+ * with the picture link they were synchronized with, so that steady-state requests do not touch
+ * mongodb. A user is synchronized again when the cache entry expires, the picture link of the login
+ * changes or the user is deleted.
+ */
 @Component
 @RequiredArgsConstructor
 public class LoginUserFilter extends GenericFilterBean {
 
   private final AuthenticationService authenticationService;
   private final UserService userService;
+  private final CacheManager cacheManager;
 
   @Override
   public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
       FilterChain filterChain) throws ServletException, IOException {
     if (authenticationService.isUserAuthenticated()) {
       AuthenticatedUser authenticatedUser = authenticationService.getUser();
-      Optional<User> user = userService.findByUserId(authenticatedUser.getId());
+      Cache synchronizedUsers = cacheManager.getCache(CachingConfig.LOGIN_USER_CACHE);
+      String pictureLink = Objects.toString(authenticatedUser.getPictureLink(), "");
 
-      if (user.isEmpty()) {
-        User newUser = new User(authenticatedUser.getId(), authenticatedUser.getUsername(), authenticatedUser.getPictureLink(), false);
-        if(userService.userIsAdmin(newUser)){
-          userService.setUserToAdmin(newUser);
-          newUser.setActivated(true);
+      if (null == synchronizedUsers
+          || !pictureLink.equals(synchronizedUsers.get(authenticatedUser.getId(), String.class))) {
+        synchronizeUser(authenticatedUser);
+        if (null != synchronizedUsers) {
+          synchronizedUsers.put(authenticatedUser.getId(), pictureLink);
         }
-        userService.save(newUser);
-      }
-      else{
-        var updatedUser = user.get();
-        updatedUser.setPictureLink(authenticatedUser.getPictureLink());
-        userService.update(updatedUser);
       }
     }
     filterChain.doFilter(servletRequest, servletResponse);
   }
 
+  private void synchronizeUser(AuthenticatedUser authenticatedUser) {
+    Optional<User> user = userService.findByUserId(authenticatedUser.getId());
 
+    if (user.isEmpty()) {
+      User newUser = new User(authenticatedUser.getId(), authenticatedUser.getUsername(), authenticatedUser.getPictureLink(), false);
+      if(userService.userIsAdmin(newUser)){
+        userService.setUserToAdmin(newUser);
+        newUser.setActivated(true);
+      }
+      userService.save(newUser);
+    }
+    else if (!Objects.equals(user.get().getPictureLink(), authenticatedUser.getPictureLink())) {
+      userService.updatePictureLink(authenticatedUser.getId(), authenticatedUser.getPictureLink());
+    }
+  }
 }
@@ -0,0 +1,68 @@
+package com.github.searchprofileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ingest rate limits of the external document endpoints, bound from {@code rate-limit.*}.
+ *
+ * Limits apply per application and per api key, both have to be met. Single applications can be
+ * given other limits below {@code rate-limit.applications.<application id>}, settings that are not
+ * given there are taken from {@code rate-limit.application}. Unset limits are unlimited.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+
+  /** how long a full bucket lasts at the configured rate, i.e. how bursty producers may be */
+  private Duration burst = Duration.ofSeconds(1);
+
+  /** limits are forgotten after not being used this long */
+  private Duration idleTimeout = Duration.ofMinutes(10);
+
+  private Limits application = new Limits();
+  private Limits apiKey = new Limits();
+  private Map<String, Limits> applications = new HashMap<>();
+
+  /**
+   * @param applicationId the id of the application
+   * @return the limits of the application, completed with the limits of all applications
+   */
+  public Limits getApplicationLimits(UUID applicationId) {
+    Limits limits = applications.getOrDefault(applicationId.toString(), new Limits());
+
+    Limits result = new Limits();
+    result.setDocumentsPerSecond(null != limits.getDocumentsPerSecond()
+        ? limits.getDocumentsPerSecond() : application.getDocumentsPerSecond());
+    result.setBytesPerSecond(null != limits.getBytesPerSecond()
+        ? limits.getBytesPerSecond() : application.getBytesPerSecond());
+    result.setConcurrentBulks(null != limits.getConcurrentBulks()
+        ? limits.getConcurrentBulks() : application.getConcurrentBulks());
+    return result;
+  }
+
+  @Getter
+  @Setter
+  public static class Limits {
+
+    /** documents per second, a bulk upload counts all of its documents */
+    private Double documentsPerSecond;
+
+    /** request bytes per second */
+    private Long bytesPerSecond;
+
+    /** concurrently running bulk uploads */
+    private Integer concurrentBulks;
+  }
+}
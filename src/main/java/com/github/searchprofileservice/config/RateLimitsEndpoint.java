@@ -0,0 +1,27 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.model.RateLimitState;
+import com.github.searchprofileservice.service.RateLimitService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint {@code /actuator/ratelimits}, listing the current state of the ingest limits.
+ * Rejections are counted by the metric {@code ingest.rate.limit.rejections}.
+ */
+@Component
+@Endpoint(id = "ratelimits")
+@RequiredArgsConstructor
+public class RateLimitsEndpoint {
+
+  private final RateLimitService rateLimitService;
+
+  @ReadOperation
+  public List<RateLimitState> rateLimits() {
+    return rateLimitService.getStates();
+  }
+}
@@ -50,6 +50,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .antMatchers(
                 // antMatcher area for urls allowed to use by everyone
                 "/api/v1/externalServices/query",
+                "/api/v1/externalServices/queryResult/async",
+                "/api/v1/externalServices/queryResult/async/{asyncId}",
                 "/api/v1/externalServices/applications/{applicationId}/documents",
                 "/api/v1/externalServices/applications/{applicationId}/documents/{documentId}",
                 "/api/v1/externalServices/applications/{applicationId}/documents/bulk-upload"    
@@ -65,7 +67,13 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 "/openapi.yml",
 
                 // Check for user authentication status
-                "/api/v1/users/login/status"
+                "/api/v1/users/login/status",
+
+                // probes of load balancers and orchestrators, and the metrics scraper; the actuator
+                // is only served on the management port
+                "/actuator/health/liveness",
+                "/actuator/health/readiness",
+                "/actuator/prometheus"
             ).permitAll()
             .anyRequest().authenticated()
         )
@@ -90,6 +98,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             config.setAllowedMethods(ALLOW_EVERYTHING);
             config.setAllowCredentials(true);
             config.setAllowedHeaders(ALLOW_EVERYTHING);
+            config.setExposedHeaders(List.of(ServerTimingFilter.HEADER));
 
             return config;
           }
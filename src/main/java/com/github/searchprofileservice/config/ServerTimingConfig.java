@@ -0,0 +1,38 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.model.ServerTiming;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Ends the authentication part of the server timing when a request reaches its handler, which
+ * is after the security filters
+ *
+ * @see ServerTimingFilter
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+  private final InstrumentationProperties instrumentationProperties;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new HandlerInterceptor() {
+      @Override
+      public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming serverTiming = instrumentationProperties.isServerTiming() ? ServerTiming.current() : null;
+        if (null != serverTiming) {
+          serverTiming.addSinceStart(ServerTiming.Metric.AUTH);
+        }
+        return true;
+      }
+    }).addPathPatterns(ServerTimingFilter.ROUTES);
+  }
+}
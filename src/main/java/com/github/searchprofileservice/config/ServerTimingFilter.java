@@ -0,0 +1,82 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.api.routes.Routes;
+import com.github.searchprofileservice.model.ServerTiming;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Adds a {@code Server-Timing} header to the responses of the search and ingest endpoints, if
+ * {@code instrumentation.server-timing} is enabled.
+ *
+ * Runs in front of the security filters, so the time until the handler is reached counts as
+ * authentication. The stages of the request add to the {@link ServerTiming} bound to the request
+ * thread. Headers have to precede the body, so the response body of a timed request is buffered
+ * until its serialization has been measured.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Server-Timing";
+
+  /** the timed endpoints */
+  public static final List<String> ROUTES = List.of(
+      Routes.Api.V1.search.searchresults.get,
+      Routes.Api.V1.search.test.Post,
+      Routes.Api.V1.externalServices.query.getQueryResult,
+      Routes.Api.V1.externalServices.Applications.GetOne.PostDocument,
+      Routes.Api.V1.externalServices.Applications.GetOne.PostBulkUpload,
+      Routes.Api.V1.externalServices.Applications.GetOne.PutDocument.route,
+      Routes.Api.V1.Applications.GetOne.PostDocument,
+      Routes.Api.V1.Applications.GetOne.PostBulkUpload,
+      Routes.Api.V1.Applications.GetOne.PutDocument.route);
+
+  private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+  private final InstrumentationProperties instrumentationProperties;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (!instrumentationProperties.isServerTiming()) {
+      return true;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (String route : ROUTES) {
+      if (PATH_MATCHER.match(route, path)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    ServerTiming serverTiming = ServerTiming.start();
+    ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+    try {
+      filterChain.doFilter(request, bufferedResponse);
+    } finally {
+      serverTiming.end();
+    }
+    // responses of errors are committed by the error handling already
+    if (!bufferedResponse.isCommitted()) {
+      bufferedResponse.setHeader(HEADER, serverTiming.toHeaderValue());
+    }
+    bufferedResponse.copyBodyToResponse();
+  }
+}
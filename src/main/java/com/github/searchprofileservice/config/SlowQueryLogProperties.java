@@ -0,0 +1,39 @@
+package com.github.searchprofileservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the slow query log, bound from {@code slow-query-log.*}.
+ *
+ * Searches taking at least {@code threshold} are always recorded, faster ones only with the
+ * probability {@code sample-rate}, so that the log also shows what a normal search looks like.
+ */
+@Component
+@ConfigurationProperties(prefix = "slow-query-log")
+@Getter
+@Setter
+public class SlowQueryLogProperties {
+
+  /** whether searches are recorded at all */
+  private boolean enabled = true;
+
+  /** searches taking at least this long, measured inside the service, are recorded as slow */
+  private Duration threshold = Duration.ofMillis(500);
+
+  /** share of the faster searches recorded as a sample, between 0 and 1 */
+  private double sampleRate = 0.001;
+
+  /** number of records waiting to be written, further records are dropped */
+  private int bufferSize = 1024;
+
+  /** size in bytes of the capped collection holding the records */
+  private long collectionSize = 16 * 1024 * 1024;
+
+  /** time between two writes of the waiting records */
+  private Duration flushInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,27 @@
+package com.github.searchprofileservice.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown if a call to elasticsearch is not made at all, because the circuit is open or the
+ * bulkhead of the call type is full.
+ */
+@Getter
+public class ElasticSearchRejectedException extends ElasticSearchUnavailableException {
+
+  public static final String REASON_CIRCUIT_OPEN = "circuit-open";
+  public static final String REASON_BULKHEAD_FULL = "bulkhead-full";
+
+  /** either 'circuit-open' or 'bulkhead-full' */
+  private final String reason;
+
+  /** the seconds to wait before the call may succeed */
+  private final long retryAfterSeconds;
+
+  public ElasticSearchRejectedException(String reason, long retryAfterSeconds) {
+    super("Call to elasticsearch rejected (" + reason + "), retry after "
+        + retryAfterSeconds + " second(s).");
+    this.reason = reason;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -6,4 +6,8 @@ public class ElasticSearchUnavailableException extends RuntimeException {
     super(cause);
   }
 
+  protected ElasticSearchUnavailableException(String message) {
+    super(message);
+  }
+
 }
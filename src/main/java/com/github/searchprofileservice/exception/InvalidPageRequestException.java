@@ -0,0 +1,12 @@
+package com.github.searchprofileservice.exception;
+
+/**
+ * Thrown if a page of a listing is requested with an invalid cursor or page size.
+ */
+public class InvalidPageRequestException extends RuntimeException {
+
+  public InvalidPageRequestException(String message) {
+    super(message);
+  }
+
+}
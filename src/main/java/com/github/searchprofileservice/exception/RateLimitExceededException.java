@@ -0,0 +1,27 @@
+package com.github.searchprofileservice.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown if an ingest request exceeds a rate limit of its application or api key.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+  /** either 'application' or 'api-key' */
+  private final String scope;
+
+  /** the exceeded limit, one of 'documents', 'bytes' or 'concurrent-bulks' */
+  private final String limit;
+
+  /** the seconds to wait before the request may succeed */
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(String scope, String limit, long retryAfterSeconds) {
+    super("Ingest limit '" + limit + "' of " + scope + " exceeded, retry after "
+        + retryAfterSeconds + " second(s).");
+    this.scope = scope;
+    this.limit = limit;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -0,0 +1,33 @@
+package com.github.searchprofileservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * The state of an asynchronous search, with the results found so far
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+public class AsyncSearchResults {
+
+  /** the id to poll or cancel the search with, not set if the search finished before answering */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String id;
+
+  /** whether the search is still running */
+  private boolean running;
+
+  /** whether the results are incomplete, because the search is running or failed on some shards */
+  private boolean partial;
+
+  /** when the search is cancelled and its results are removed, only set together with the id */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Instant expiresAt;
+
+  private SearchResults results;
+}
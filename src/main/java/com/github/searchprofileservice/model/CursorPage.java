@@ -0,0 +1,30 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a keyset paginated listing.
+ * Passing {@link #nextCursor} as cursor of the next request continues the listing after the last
+ * item of this page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+  private List<T> items;
+
+  /** continuation token of the next page, null on the last page */
+  private String nextCursor;
+
+  /**
+   * @param mapper maps the items of the page
+   * @return a page with the mapped items and the same continuation token
+   */
+  public <R> CursorPage<R> map(Function<T, R> mapper) {
+    return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+  }
+}
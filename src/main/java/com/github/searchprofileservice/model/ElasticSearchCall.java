@@ -0,0 +1,14 @@
+package com.github.searchprofileservice.model;
+
+import java.io.IOException;
+
+/**
+ * A call to elasticsearch, made by the resilience service once or, on failure, a few times.
+ *
+ * @param <T> the result of the call
+ */
+@FunctionalInterface
+public interface ElasticSearchCall<T> {
+
+  T execute() throws IOException;
+}
@@ -0,0 +1,18 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A value or range of a facet with the number of matching documents
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucket {
+
+  private String key;
+
+  private long count;
+}
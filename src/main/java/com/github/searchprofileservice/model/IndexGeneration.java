@@ -0,0 +1,17 @@
+package com.github.searchprofileservice.model;
+
+import lombok.Value;
+
+/**
+ * The state of the index of an application between two writes. Writes evict the cached
+ * generation, on other instances at most once per index refresh interval, so cache entries keyed
+ * by the generation are not read anymore once the index changed.
+ */
+@Value
+public class IndexGeneration {
+
+  String id;
+
+  /** when the generation was created, in {@link System#nanoTime()} */
+  long createdNanos;
+}
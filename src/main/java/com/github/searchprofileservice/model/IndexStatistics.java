@@ -0,0 +1,17 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Size of an elasticsearch index, or of all indices of an application.
+ */
+@Data
+@AllArgsConstructor
+public class IndexStatistics {
+
+  public static final IndexStatistics EMPTY = new IndexStatistics(0, 0);
+
+  private long documentCount;
+  private long storeSizeInBytes;
+}
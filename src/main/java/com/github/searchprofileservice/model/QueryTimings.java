@@ -0,0 +1,72 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where the time of a profiled search went, inside the service and inside elasticsearch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryTimings {
+
+  /** time spent per stage of the search in milliseconds, keyed by stage name */
+  private Map<String, Double> stages;
+
+  /** time elasticsearch spent on the search, as reported by the response */
+  private long tookMillis;
+
+  private List<Shard> shards;
+
+  /**
+   * Condensed profile of the search on one shard
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Shard {
+
+    /** id of the shard in the form [nodeId][indexName][shardId] */
+    private String id;
+
+    /** time spent executing the query, including all of its clauses */
+    private double queryMillis;
+
+    private double rewriteMillis;
+
+    private double collectorMillis;
+
+    private double fetchMillis;
+
+    /** all clauses of the query in depth first order, a clause includes the time of its children */
+    private List<Clause> clauses;
+  }
+
+  /**
+   * A clause of the query as executed by lucene, e.g. a term query of the fuzzy matching
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Clause {
+
+    /** nesting level, 0 for the whole query */
+    private int depth;
+
+    /** lucene type of the clause, e.g. BooleanQuery or TermQuery */
+    private String type;
+
+    /** the clause as lucene prints it, e.g. name:headphones^2.0 */
+    private String description;
+
+    private double millis;
+
+    /** share of the query time of the shard in percent */
+    private double percentOfQuery;
+  }
+}
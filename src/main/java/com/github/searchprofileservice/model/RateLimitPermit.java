@@ -0,0 +1,25 @@
+package com.github.searchprofileservice.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Held for as long as an ingest request runs, closing it frees the bulk slots the request took.
+ */
+public class RateLimitPermit implements AutoCloseable {
+
+  public static final RateLimitPermit NONE = new RateLimitPermit(() -> { });
+
+  private final Runnable release;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  public RateLimitPermit(Runnable release) {
+    this.release = release;
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      release.run();
+    }
+  }
+}
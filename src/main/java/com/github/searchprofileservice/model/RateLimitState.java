@@ -0,0 +1,23 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Current state of the ingest limits of an application or api key.
+ * Available amounts are null for unlimited limits and negative while a bucket is in debt.
+ */
+@Data
+@AllArgsConstructor
+public class RateLimitState {
+
+  /** either 'application' or 'api-key' */
+  private String scope;
+
+  /** the id of the application or api key */
+  private String id;
+
+  private Double availableDocuments;
+  private Double availableBytes;
+  private int activeBulks;
+}
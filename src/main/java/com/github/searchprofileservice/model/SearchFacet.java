@@ -0,0 +1,49 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A field of a search profile whose values are counted over the matching documents, computed by
+ * elasticsearch in the same request as the search. Keyword, boolean and numeric fields are
+ * counted per value, numeric fields can be counted per range instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacet {
+
+  private String fieldName;
+
+  /** the maximum number of the most frequent values, defaults to 10 */
+  private Integer size;
+
+  /** the ranges to count the documents in instead of the values, only for numeric fields */
+  private List<Range> ranges;
+
+  /**
+   * @return whether the documents are counted per range
+   */
+  public boolean isRange() {
+    return null != ranges && !ranges.isEmpty();
+  }
+
+  /**
+   * A range of a numeric facet, including {@code from} and excluding {@code to}
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Range {
+
+    /** the key of the range in the results, generated from the bounds if not given */
+    private String key;
+
+    private Double from;
+
+    private Double to;
+  }
+}
@@ -0,0 +1,42 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A restriction of the results of a search profile on a keyword, boolean or numeric field. It is
+ * part of the filter context of the query, so it does not affect the score and elasticsearch can
+ * cache it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFilter {
+
+  private String fieldName;
+
+  /** the values of which the field must have one, if not replaced by the request parameter */
+  private List<String> values;
+
+  /** the lower bound of the field (inclusive), only for numeric fields */
+  private Double min;
+
+  /** the upper bound of the field (inclusive), only for numeric fields */
+  private Double max;
+
+  /**
+   * The name of the request parameter {@code filter.<parameter>} that replaces the values on a
+   * search. The values are not restricted if neither values nor the parameter are given.
+   */
+  private String parameter;
+
+  /**
+   * @return whether the filter restricts the field to a range
+   */
+  public boolean isRange() {
+    return null != min || null != max;
+  }
+}
@@ -1,5 +1,6 @@
 package com.github.searchprofileservice.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -7,6 +8,7 @@ import lombok.Setter;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 @Setter
 @Getter
@@ -16,6 +18,14 @@ public class SearchResults {
   private int numberOfResults = 0;
   private List<SearchResult> results = new LinkedList<>();
 
+  /** only set for profiled searches */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private QueryTimings queryTimings;
+
+  /** the buckets of every facet of the search profile by field name, only set if requested */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Map<String, List<FacetBucket>> facets;
+
   public void addResults(Collection<SearchResult> collection) {
     results.addAll(collection);
     numberOfResults += collection.size();
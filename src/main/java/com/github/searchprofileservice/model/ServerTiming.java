@@ -0,0 +1,182 @@
+package com.github.searchprofileservice.model;
+
+import com.github.searchprofileservice.service.InstrumentationService;
+
+/**
+ * Durations of the parts of one request, sent to the client as {@code Server-Timing} header.
+ *
+ * Bound to the request thread by {@link #start()} and read back through {@link #current()}, so
+ * the stages of a request add to it without passing it around. A request only ever touches its
+ * timing from its own thread, the durations are plain fields.
+ */
+public class ServerTiming {
+
+  /**
+   * The reported metrics, in header order
+   */
+  public enum Metric {
+    /** security filters and api key check */
+    AUTH("auth"),
+    /** lookups of applications and search profiles */
+    MONGO("mongo"),
+    RATE_LIMIT("rate-limit"),
+    QUERY_BUILD("query-build"),
+    /** round trip to elasticsearch, including transport and parsing of the response */
+    ES("es"),
+    /** the 'took' reported by elasticsearch */
+    ES_TOOK("es-took"),
+    POST_PROCESS("post-process"),
+    /** writing the response body */
+    SERIALIZE("serialize"),
+    TOTAL("total");
+
+    private final String headerName;
+
+    Metric(String headerName) {
+      this.headerName = headerName;
+    }
+
+    public String getHeaderName() {
+      return headerName;
+    }
+
+    /**
+     * @param stage a stage of {@link InstrumentationService}
+     * @return the metric the stage adds to, null if it is not reported
+     */
+    public static Metric ofStage(String stage) {
+      return switch (stage) {
+        case InstrumentationService.STAGE_API_KEY_CHECK -> AUTH;
+        case InstrumentationService.STAGE_PROFILE_LOOKUP,
+            InstrumentationService.STAGE_APPLICATION_LOOKUP -> MONGO;
+        case InstrumentationService.STAGE_RATE_LIMIT -> RATE_LIMIT;
+        case InstrumentationService.STAGE_REQUEST_BUILD -> QUERY_BUILD;
+        case InstrumentationService.STAGE_ELASTICSEARCH -> ES;
+        case InstrumentationService.STAGE_POST_PROCESS -> POST_PROCESS;
+        // the documents of a bulk upload are serialized within the elasticsearch stage
+        default -> null;
+      };
+    }
+  }
+
+  private static final Metric[] METRICS = Metric.values();
+
+  private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+  private final long startNanos;
+  private final long[] nanos = new long[METRICS.length];
+  private final boolean[] recorded = new boolean[METRICS.length];
+
+  private boolean serializing;
+  private long serializationStartNanos;
+
+  ServerTiming(long startNanos) {
+    this.startNanos = startNanos;
+  }
+
+  /**
+   * Starts timing the request of the calling thread.
+   *
+   * @return the timing, which has to be ended by {@link #end()}
+   */
+  public static ServerTiming start() {
+    ServerTiming serverTiming = new ServerTiming(System.nanoTime());
+    CURRENT.set(serverTiming);
+    return serverTiming;
+  }
+
+  /** @return the timing of the request of the calling thread, null if it is not timed */
+  public static ServerTiming current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Unbinds the timing from the request thread, later stages on this thread are not added to it
+   */
+  public void end() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+
+  public long getStartNanos() {
+    return startNanos;
+  }
+
+  /**
+   * Adds a duration to a metric, repeated stages like two lookups add up.
+   *
+   * @param metric the metric
+   * @param durationNanos the duration in nanoseconds
+   */
+  public void add(Metric metric, long durationNanos) {
+    nanos[metric.ordinal()] += durationNanos;
+    recorded[metric.ordinal()] = true;
+  }
+
+  /**
+   * Adds the time from the start of the request until now to a metric.
+   *
+   * @param metric the metric
+   */
+  public void addSinceStart(Metric metric) {
+    add(metric, System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Marks the start of writing the response body, which lasts until {@link #toHeaderValue()}.
+   * Only the first mark counts.
+   */
+  public void markSerializationStart() {
+    if (!serializing) {
+      serializing = true;
+      serializationStartNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * Ends the serialization and the total and formats all recorded metrics, e.g.
+   * {@code auth;dur=0.412, es;dur=12.034, total;dur=14.871}. Durations are in milliseconds.
+   *
+   * @return the value of the {@code Server-Timing} header
+   */
+  public String toHeaderValue() {
+    long now = System.nanoTime();
+    if (serializing) {
+      add(Metric.SERIALIZE, now - serializationStartNanos);
+      serializing = false;
+    }
+    nanos[Metric.TOTAL.ordinal()] = now - startNanos;
+    recorded[Metric.TOTAL.ordinal()] = true;
+
+    StringBuilder header = new StringBuilder(256);
+    for (Metric metric : METRICS) {
+      if (!recorded[metric.ordinal()]) {
+        continue;
+      }
+      if (header.length() > 0) {
+        header.append(", ");
+      }
+      header.append(metric.getHeaderName()).append(";dur=");
+      appendMillis(header, nanos[metric.ordinal()]);
+    }
+    return header.toString();
+  }
+
+  /**
+   * Appends nanoseconds as milliseconds with three decimals, without the formatter machinery of
+   * {@link String#format(String, Object...)}
+   */
+  private static void appendMillis(StringBuilder builder, long nanos) {
+    long micros = Math.max(0, nanos) / 1_000;
+    long fraction = micros % 1_000;
+    builder.append(micros / 1_000).append('.');
+    if (fraction < 100) {
+      builder.append('0');
+    }
+    if (fraction < 10) {
+      builder.append('0');
+    }
+    builder.append(fraction);
+  }
+}
@@ -0,0 +1,20 @@
+package com.github.searchprofileservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How often a search value of a search profile was recorded as slow, and how long it took.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryStatistics {
+
+  private String profileId;
+  private String searchValue;
+  private long count;
+  private double averageMillis;
+  private double maxMillis;
+}
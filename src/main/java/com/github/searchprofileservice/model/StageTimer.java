@@ -0,0 +1,50 @@
+package com.github.searchprofileservice.model;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times a stage of a request from its creation until it is closed. The duration is also added to
+ * the {@link ServerTiming} of the request, if it has one.
+ */
+public class StageTimer implements AutoCloseable {
+
+  private final Timer timer;
+  private final Timer.Sample sample;
+  private final ServerTiming serverTiming;
+  private final ServerTiming.Metric metric;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private volatile long elapsedNanos;
+
+  public StageTimer(Timer timer, Timer.Sample sample) {
+    this(timer, sample, null, null);
+  }
+
+  /**
+   * @param serverTiming the timing of the request, null if it is not timed
+   * @param metric the metric of the server timing the stage adds to, null if none
+   */
+  public StageTimer(Timer timer, Timer.Sample sample, ServerTiming serverTiming, ServerTiming.Metric metric) {
+    this.timer = timer;
+    this.sample = sample;
+    this.serverTiming = serverTiming;
+    this.metric = metric;
+  }
+
+  /** @return the duration of the stage, 0 while it is still running */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      elapsedNanos = sample.stop(timer);
+      if (null != serverTiming && null != metric) {
+        serverTiming.add(metric, elapsedNanos);
+      }
+    }
+  }
+}
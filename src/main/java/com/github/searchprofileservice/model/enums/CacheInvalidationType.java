@@ -0,0 +1,13 @@
+package com.github.searchprofileservice.model.enums;
+
+/**
+ * Kinds of changes that make cached state stale on every instance of the service.
+ */
+public enum CacheInvalidationType {
+    APPLICATION_UPDATED,
+    API_KEY_REVOKED,
+    INDEX_MAPPING_CHANGED,
+    INDEX_CHANGED,
+    APPLICATION_DELETED,
+    USER_DELETED
+}
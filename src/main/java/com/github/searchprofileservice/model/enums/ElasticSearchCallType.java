@@ -0,0 +1,22 @@
+package com.github.searchprofileservice.model.enums;
+
+import java.util.Locale;
+
+/**
+ * Kinds of elasticsearch calls, each kind has a bulkhead of its own
+ */
+public enum ElasticSearchCallType {
+  /** searches of the search and external endpoints */
+  SEARCH,
+  /** indexing of documents */
+  INGEST,
+  /** index management, mappings, statistics and security */
+  ADMIN;
+
+  /**
+   * @return the name used in metric tags, e.g. 'search'
+   */
+  public String getTag() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
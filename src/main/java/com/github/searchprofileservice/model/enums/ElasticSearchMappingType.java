@@ -2,5 +2,15 @@ package com.github.searchprofileservice.model.enums;
 
 public enum ElasticSearchMappingType {
   TEXT,
-  NOT_SUPPORTED
+  KEYWORD,
+  BOOLEAN,
+  NUMERIC,
+  NOT_SUPPORTED;
+
+  /**
+   * @return whether search profiles can filter on fields of this type
+   */
+  public boolean isFilterable() {
+    return this == KEYWORD || this == BOOLEAN || this == NUMERIC;
+  }
 }
@@ -0,0 +1,13 @@
+package com.github.searchprofileservice.model.enums;
+
+/**
+ * Whether a search returns the facets of its search profile.
+ */
+public enum FacetMode {
+  /** only the results */
+  NONE,
+  /** the results and the facets */
+  INCLUDE,
+  /** only the facets, which are cached until the index of the application changes */
+  ONLY
+}
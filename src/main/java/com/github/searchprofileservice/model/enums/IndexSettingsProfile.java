@@ -0,0 +1,25 @@
+package com.github.searchprofileservice.model.enums;
+
+import java.util.Locale;
+
+/**
+ * Named index settings of the indices of an application, chosen when the application is created.
+ * The settings of every profile are configured below {@code index-settings.profiles}.
+ */
+public enum IndexSettingsProfile {
+  /** few documents, a single shard */
+  SMALL,
+  /** many documents, spread over several shards and compressed */
+  LARGE,
+  /** frequent writes, refreshed less often */
+  WRITE_HEAVY,
+  /** frequent searches, with more replicas to spread them over */
+  READ_HEAVY;
+
+  /**
+   * @return the name of the component template holding the settings of the profile
+   */
+  public String getTemplateName() {
+    return "index-settings-" + name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+}
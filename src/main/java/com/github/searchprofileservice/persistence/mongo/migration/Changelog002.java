@@ -0,0 +1,76 @@
+package com.github.searchprofileservice.persistence.mongo.migration;
+
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
+import com.github.searchprofileservice.persistence.mongo.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+/**
+ * MongoDB migration
+ *
+ * Creates the indices backing the repository queries, which would scan whole collections otherwise.
+ * The indices of the basic projections hold all projected fields, so those queries are answered
+ * from the index alone, without reading any document.
+ */
+@ChangeLog(order = "002")
+public final class Changelog002 {
+
+  public static final String SEARCH_PROFILE_BASIC_PROJECTION_INDEX = "applicationId_basic_projection";
+  public static final String APPLICATION_CREATOR_ID_INDEX = "creatorId_id";
+  public static final String APPLICATION_ALLOWED_USER_IDS_INDEX = "allowedUserIds_id";
+  public static final String USER_BASIC_PROJECTION_INDEX = "activated_basic_projection";
+
+  /**
+   * Index on the application id of search profiles, covering the basic projections.
+   * Serves {@code findAllByApplicationId}, {@code deleteByApplicationId} and both
+   * {@code *AsBasicProjection} queries of the search profile repository.
+   */
+  @ChangeSet(order = "001", id = "creates_search_profile_application_id_index", author = "anonymous")
+  public void createSearchProfileIndices(MongockTemplate mongoTemplate) {
+    IndexOperations indexOps = mongoTemplate.indexOps(SearchProfileDocument.class);
+    indexOps.ensureIndex(new Index()
+      .on("applicationId", Sort.Direction.ASC)
+      .on("_id", Sort.Direction.ASC)
+      .on("creatorId", Sort.Direction.ASC)
+      .on("lastEditorId", Sort.Direction.ASC)
+      .on("lastModifiedDate", Sort.Direction.ASC)
+      .on("name", Sort.Direction.ASC)
+      .named(SEARCH_PROFILE_BASIC_PROJECTION_INDEX));
+  }
+
+  /**
+   * Indices on the creator and the allowed users of applications, followed by the id, so keyset
+   * paginated listings are read in index order instead of being sorted in memory
+   */
+  @ChangeSet(order = "002", id = "creates_application_user_indices", author = "anonymous")
+  public void createApplicationIndices(MongockTemplate mongoTemplate) {
+    IndexOperations indexOps = mongoTemplate.indexOps(Application.class);
+    indexOps.ensureIndex(new Index()
+      .on("creatorId", Sort.Direction.ASC)
+      .on("_id", Sort.Direction.ASC)
+      .named(APPLICATION_CREATOR_ID_INDEX));
+    indexOps.ensureIndex(new Index()
+      .on("allowedUserIds", Sort.Direction.ASC)
+      .on("_id", Sort.Direction.ASC)
+      .named(APPLICATION_ALLOWED_USER_IDS_INDEX));
+  }
+
+  /**
+   * Index on activated users, covering the basic projection of the user repository
+   */
+  @ChangeSet(order = "003", id = "creates_user_activated_index", author = "anonymous")
+  public void createUserIndices(MongockTemplate mongoTemplate) {
+    IndexOperations indexOps = mongoTemplate.indexOps(User.class);
+    indexOps.ensureIndex(new Index()
+      .on("activated", Sort.Direction.ASC)
+      .on("_id", Sort.Direction.ASC)
+      .on("name", Sort.Direction.ASC)
+      .named(USER_BASIC_PROJECTION_INDEX));
+  }
+
+}
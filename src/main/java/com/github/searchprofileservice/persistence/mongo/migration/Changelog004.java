@@ -0,0 +1,34 @@
+package com.github.searchprofileservice.persistence.mongo.migration;
+
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import com.github.searchprofileservice.persistence.mongo.model.AsyncSearchDocument;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.time.Duration;
+
+/**
+ * MongoDB migration
+ *
+ * Creates the ttl index removing the owners of asynchronous searches once their results expired
+ * on elasticsearch.
+ */
+@ChangeLog(order = "004")
+public final class Changelog004 {
+
+  public static final String ASYNC_SEARCH_EXPIRES_AT_INDEX = "expiresAt_ttl";
+
+  /**
+   * Index expiring asynchronous searches at their {@code expiresAt}
+   */
+  @ChangeSet(order = "001", id = "creates_async_search_ttl_index", author = "anonymous")
+  public void createAsyncSearchIndices(MongockTemplate mongoTemplate) {
+    mongoTemplate.indexOps(AsyncSearchDocument.class).ensureIndex(new Index()
+      .on("expiresAt", Sort.Direction.ASC)
+      .expire(Duration.ZERO)
+      .named(ASYNC_SEARCH_EXPIRES_AT_INDEX));
+  }
+
+}
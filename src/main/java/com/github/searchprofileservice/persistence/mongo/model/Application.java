@@ -15,6 +15,7 @@ import org.springframework.data.domain.Persistable;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 
 import java.util.*;
@@ -48,6 +49,12 @@ public class Application implements Persistable<UUID> {
   @Builder.Default
   private List<String> allowedUserIds = new ArrayList<>();
 
+  /** the settings the indices of the application were created with, null for older applications */
+  private IndexSettingsProfile indexSettingsProfile;
+
+  /** the number of documents expected when the application was created, null if unknown */
+  private Long expectedDocumentCount;
+
   //Reduced constructor used by the ApplicationDTO toApplication() method as api key is not given by frontend
   public Application(
     UUID id,
@@ -82,6 +89,18 @@ public class Application implements Persistable<UUID> {
     this.allowedUserIds = allowedUserIds;
   }
   
+  public Application(
+    UUID id,
+    Date createdDate,
+    List<ApiKey> apiKeys,
+    String applicationName,
+    String creatorId,
+    boolean active,
+    List<String> allowedUserIds
+  ) {
+    this(id, createdDate, apiKeys, applicationName, creatorId, active, allowedUserIds, null, null);
+  }
+
   /**
    * @return this application's id
    */
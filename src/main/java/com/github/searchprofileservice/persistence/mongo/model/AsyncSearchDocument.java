@@ -0,0 +1,39 @@
+package com.github.searchprofileservice.persistence.mongo.model;
+
+import com.github.searchprofileservice.model.enums.FacetMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * An asynchronous search running or stored on elasticsearch, owned by the application whose api
+ * key submitted it.
+ *
+ * Documents are removed by a ttl index once they expire, see {@code Changelog004}, elasticsearch
+ * removes the results of the search at the same time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "async_search")
+public class AsyncSearchDocument {
+
+  /** the id of the search on elasticsearch */
+  @Id
+  private String id;
+
+  private String applicationId;
+
+  private String profileId;
+
+  /** whether the results, the facets or both were requested */
+  private FacetMode facetMode;
+
+  private Instant expiresAt;
+}
@@ -0,0 +1,33 @@
+package com.github.searchprofileservice.persistence.mongo.model;
+
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A change published on the cache invalidation bus.
+ *
+ * Events are kept in a capped collection, which every instance of the service tails to evict
+ * its local caches. The object id orders the events and tells where to resume tailing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "cache_invalidation_event")
+public class CacheInvalidationEvent {
+
+    @Id
+    private ObjectId id;
+
+    private CacheInvalidationType type;
+
+    /** key of the changed entity, e.g. the application id */
+    private String key;
+
+    /** id of the instance that published the event */
+    private String originNodeId;
+}
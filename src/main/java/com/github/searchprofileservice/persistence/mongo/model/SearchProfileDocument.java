@@ -2,12 +2,15 @@ package com.github.searchprofileservice.persistence.mongo.model;
 
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchFacet;
 import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchFilter;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -33,6 +36,8 @@ public class SearchProfileDocument {
 
   private Analyser analyser;
   private List<SearchField> searchFields;
+  private List<SearchFilter> filters;
+  private List<SearchFacet> facets;
   private Double minScore;
 
   /*
@@ -43,6 +48,10 @@ public class SearchProfileDocument {
   private Boolean queryable;
   private Double relativeScore;
 
+  /** incremented on every update, for optimistic concurrency checks */
+  @Version
+  private Long version;
+
   public SearchProfileDto toSearchProfileDto() {
     return SearchProfileDto.builder()
         .profileId(profileId)
@@ -50,9 +59,12 @@ public class SearchProfileDocument {
         .creatorId(creatorId)
         .lastEditorId(lastEditorId)
         .lastModifiedDate(lastModifiedDate)
+        .version(version)
         .name(name)
         .analyser(analyser)
         .searchFields(searchFields)
+        .filters(filters)
+        .facets(facets)
         .minScore(minScore)
         .relativeScore(relativeScore)
             .queryable(this.isQueryable())
@@ -68,6 +80,8 @@ public class SearchProfileDocument {
         .name(searchProfileDto.getName())
         .analyser(searchProfileDto.getAnalyser())
         .searchFields(searchProfileDto.getSearchFields())
+        .filters(searchProfileDto.getFilters())
+        .facets(searchProfileDto.getFacets())
         .minScore(searchProfileDto.getMinScore())
         .queryable(searchProfileDto.isQueryable())
         .relativeScore(searchProfileDto.getRelativeScore())
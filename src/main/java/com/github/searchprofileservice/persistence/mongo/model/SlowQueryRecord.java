@@ -0,0 +1,56 @@
+package com.github.searchprofileservice.persistence.mongo.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A search recorded by the slow query log.
+ *
+ * Records are kept in a capped collection, so only the most recent ones are available.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "slow_query_log")
+public class SlowQueryRecord {
+
+  @Id
+  @JsonSerialize(using = ToStringSerializer.class)
+  private ObjectId id;
+
+  private Instant timestamp;
+
+  private String applicationId;
+
+  private String profileId;
+
+  private String searchValue;
+
+  /** the search request sent to elasticsearch */
+  private String query;
+
+  /** time elasticsearch spent on the search, as reported by the response */
+  private long tookMillis;
+
+  /** time spent inside the service, from receiving the search to having its results */
+  private double totalMillis;
+
+  private long hits;
+
+  /** time spent per stage of the search in milliseconds, keyed by stage name */
+  private Map<String, Double> stages;
+
+  /** whether the search took longer than the threshold, otherwise it was recorded as a sample */
+  private boolean slow;
+}
@@ -1,13 +1,18 @@
 package com.github.searchprofileservice.persistence.mongo.repository;
 
 import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.repository.fragment.ApplicationUpdateFragment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ApplicationRepository extends MongoRepository<Application, UUID> {
+public interface ApplicationRepository
+    extends MongoRepository<Application, UUID>, ApplicationUpdateFragment {
 
     List<Application> findAll();
 
@@ -15,9 +20,41 @@ public interface ApplicationRepository extends MongoRepository<Application, UUID
 
     List<Application> findAllByCreatorId(String creatorId);
 
+    /**
+     * Keyset paginated variant of {@link #findAllByAllowedUserIdsContains(String)}.
+     *
+     * @param userId the id of the allowed user
+     * @param id the id after which to continue, the nil uuid for the first page
+     * @param pageable the page size
+     * @return the applications sorted by id
+     */
+    List<Application> findAllByAllowedUserIdsContainsAndIdGreaterThanOrderByIdAsc(
+        String userId, UUID id, Pageable pageable);
+
+    /**
+     * Keyset paginated variant of {@link #findAllByCreatorId(String)}.
+     *
+     * @param creatorId the id of the creating user
+     * @param id the id after which to continue, the nil uuid for the first page
+     * @param pageable the page size
+     * @return the applications sorted by id
+     */
+    List<Application> findAllByCreatorIdAndIdGreaterThanOrderByIdAsc(
+        String creatorId, UUID id, Pageable pageable);
+
     Application getApplicationByApplicationName(String applicationName);
 
     Optional<Application> findOneByApplicationName(String applicationName);
 
     Boolean existsApplicationByApplicationName(String applicationName);
+
+    /**
+     * Atomically marks an application as active, if it is not active yet.
+     *
+     * @param id the id of the application
+     * @return the number of modified applications, 0 if it is active already or does not exist
+     */
+    @Query("{ '_id': ?0, 'active': false }")
+    @Update("{ '$set': { 'active': true } }")
+    long activateById(UUID id);
 }
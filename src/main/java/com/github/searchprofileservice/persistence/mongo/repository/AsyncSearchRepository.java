@@ -0,0 +1,9 @@
+package com.github.searchprofileservice.persistence.mongo.repository;
+
+import com.github.searchprofileservice.persistence.mongo.model.AsyncSearchDocument;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AsyncSearchRepository extends MongoRepository<AsyncSearchDocument, String> {
+}
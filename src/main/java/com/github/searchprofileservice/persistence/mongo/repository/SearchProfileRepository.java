@@ -1,14 +1,18 @@
 package com.github.searchprofileservice.persistence.mongo.repository;
 
 import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
+import com.github.searchprofileservice.persistence.mongo.repository.fragment.SearchProfileUpdateFragment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface SearchProfileRepository extends MongoRepository<SearchProfileDocument, String> {
+public interface SearchProfileRepository
+    extends MongoRepository<SearchProfileDocument, String>, SearchProfileUpdateFragment {
 
   List<SearchProfileDocument> findAll();
 
@@ -25,15 +29,42 @@ public interface SearchProfileRepository extends MongoRepository<SearchProfileDo
    * <li> lastModifiedDate
    * </ul>
    *
+   * The filter matches every document, but lets mongodb answer the query from the index
+   * on the application id alone, see {@code Changelog002}.
+   *
    * @return the search profile documents
    */
   @Query(
-    value="{}",
+    value="{ 'applicationId': { '$gte': { '$minKey': 1 } } }",
     fields="""
       {profileId: 1, applicationId : 1, creatorId: 1, lastEditorId: 1, lastModifiedDate: 1, name: 1}
     """
   )
-  List<SearchProfileDocument> findAllAsBasicProjection();
+  Stream<SearchProfileDocument> findAllAsBasicProjection();
+
+  /**
+   * Keyset paginated variant of {@link #findAllAsBasicProjection}, sorted by application id and
+   * profile id and answered from the same covering index.
+   *
+   * @param applicationId application id of the last profile of the previous page, '' for the first page
+   * @param profileId profile id of the last profile of the previous page, '' for the first page
+   * @param pageable the page size
+   * @return the search profile documents
+   */
+  @Query(
+    value="""
+      { '$or': [
+        { 'applicationId': { '$gt': ?0 } },
+        { 'applicationId': ?0, 'profileId': { '$gt': ?1 } }
+      ] }
+    """,
+    fields="""
+      {profileId: 1, applicationId : 1, creatorId: 1, lastEditorId: 1, lastModifiedDate: 1, name: 1}
+    """,
+    sort="{ 'applicationId': 1, 'profileId': 1 }"
+  )
+  List<SearchProfileDocument> findAllAsBasicProjectionAfter(
+    String applicationId, String profileId, Pageable pageable);
 
   List<SearchProfileDocument> findAllByApplicationId(String applicationId);
 
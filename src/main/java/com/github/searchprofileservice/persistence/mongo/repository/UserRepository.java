@@ -1,9 +1,12 @@
 package com.github.searchprofileservice.persistence.mongo.repository;
 
+import java.util.List;
 import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
 import com.github.searchprofileservice.persistence.mongo.model.User;
 
@@ -16,4 +19,45 @@ public interface UserRepository extends MongoRepository<User, String> {
         fields=" {userId: 1, name : 1}"
     )
     Stream<User> findAllAsBasicProjection();
+
+    /**
+     * Keyset paginated variant of {@link #findAllAsBasicProjection()}, sorted by user id.
+     *
+     * @param userId the id after which to continue, '' for the first page
+     * @param pageable the page size
+     * @return the activated users, only including id and name
+     */
+    @Query(
+        value="{activated: true, userId: { '$gt': ?0 }}",
+        fields=" {userId: 1, name : 1}",
+        sort="{userId: 1}"
+    )
+    List<User> findAllAsBasicProjectionAfter(String userId, Pageable pageable);
+
+    /**
+     * @param userId the id after which to continue, '' for the first page
+     * @param pageable the page size
+     * @return the users sorted by user id
+     */
+    List<User> findAllByUserIdGreaterThanOrderByUserIdAsc(String userId, Pageable pageable);
+
+    /**
+     * @param activated whether to list activated or deactivated users
+     * @param userId the id after which to continue, '' for the first page
+     * @param pageable the page size
+     * @return the users sorted by user id
+     */
+    List<User> findAllByActivatedAndUserIdGreaterThanOrderByUserIdAsc(
+        boolean activated, String userId, Pageable pageable);
+
+    /**
+     * Atomically sets the picture link of a user, if it differs from the given one.
+     *
+     * @param userId the id of the user
+     * @param pictureLink the new picture link
+     * @return the number of modified users, 0 if the picture link is unchanged or the user does not exist
+     */
+    @Query("{ '_id': ?0, 'pictureLink': { '$ne': ?1 } }")
+    @Update("{ '$set': { 'pictureLink': ?1 } }")
+    long updatePictureLink(String userId, String pictureLink);
 }
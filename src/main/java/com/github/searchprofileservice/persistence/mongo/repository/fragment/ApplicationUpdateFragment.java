@@ -0,0 +1,43 @@
+package com.github.searchprofileservice.persistence.mongo.repository.fragment;
+
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Partial updates of {@link Application}s, mixed into the application repository.
+ */
+public interface ApplicationUpdateFragment {
+
+  /**
+   * Atomically appends an api key to an application, without rewriting its other api keys.
+   *
+   * @param id the id of the application
+   * @param apiKey the api key with already encrypted key
+   * @return the number of modified applications, 0 if the application does not exist
+   */
+  long pushApiKey(UUID id, ApiKey apiKey);
+
+  /**
+   * Atomically removes an api key from an application, without rewriting its other api keys.
+   *
+   * @param id the id of the application
+   * @param apiKeyId the id of the api key
+   * @return the number of modified applications, 0 if the application or api key does not exist
+   */
+  long pullApiKey(UUID id, UUID apiKeyId);
+
+  /**
+   * Atomically overwrites the user-editable fields of an application, name and allowed users.
+   * Fields changed concurrently by other updates, e.g. api keys or the active flag, are kept.
+   *
+   * @param id the id of the application
+   * @param applicationName the new name
+   * @param allowedUserIds the new allowed users
+   * @return the updated application, empty if it does not exist
+   */
+  Optional<Application> updateEditableFields(UUID id, String applicationName, List<String> allowedUserIds);
+}
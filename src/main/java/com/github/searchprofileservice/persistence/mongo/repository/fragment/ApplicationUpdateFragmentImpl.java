@@ -0,0 +1,51 @@
+package com.github.searchprofileservice.persistence.mongo.repository.fragment;
+
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class ApplicationUpdateFragmentImpl implements ApplicationUpdateFragment {
+
+  private final MongoTemplate mongoTemplate;
+
+  public ApplicationUpdateFragmentImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public long pushApiKey(UUID id, ApiKey apiKey) {
+    return mongoTemplate.updateFirst(
+      Query.query(Criteria.where("id").is(id)),
+      new Update().push("apiKeys", apiKey),
+      Application.class
+    ).getModifiedCount();
+  }
+
+  @Override
+  public long pullApiKey(UUID id, UUID apiKeyId) {
+    return mongoTemplate.updateFirst(
+      Query.query(Criteria.where("id").is(id)),
+      new Update().pull("apiKeys", Query.query(Criteria.where("id").is(apiKeyId))),
+      Application.class
+    ).getModifiedCount();
+  }
+
+  @Override
+  public Optional<Application> updateEditableFields(UUID id, String applicationName, List<String> allowedUserIds) {
+    return Optional.ofNullable(mongoTemplate.findAndModify(
+      Query.query(Criteria.where("id").is(id)),
+      new Update()
+        .set("applicationName", applicationName)
+        .set("allowedUserIds", allowedUserIds),
+      FindAndModifyOptions.options().returnNew(true),
+      Application.class));
+  }
+}
@@ -0,0 +1,34 @@
+package com.github.searchprofileservice.persistence.mongo.repository.fragment;
+
+import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
+
+import java.util.Optional;
+
+/**
+ * Partial updates of {@link SearchProfileDocument}s, mixed into the search profile repository.
+ */
+public interface SearchProfileUpdateFragment {
+
+  /**
+   * Atomically overwrites the user-editable fields of a search profile and increments its version,
+   * in a single round trip.
+   *
+   * Editable fields are:
+   * <ul>
+   * <li> lastEditorId
+   * <li> name
+   * <li> analyser
+   * <li> searchFields
+   * <li> minScore
+   * <li> queryable
+   * <li> relativeScore
+   * </ul>
+   *
+   * @param profileId the id of the search profile to update
+   * @param expectedVersion the version the update is based on, null to update any version
+   * @param values a document holding the new values of the editable fields
+   * @return the updated document, empty if there is no search profile with the given id and version
+   */
+  Optional<SearchProfileDocument> updateEditableFields(
+    String profileId, Long expectedVersion, SearchProfileDocument values);
+}
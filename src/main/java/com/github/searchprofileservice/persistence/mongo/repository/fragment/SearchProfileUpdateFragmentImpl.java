@@ -0,0 +1,50 @@
+package com.github.searchprofileservice.persistence.mongo.repository.fragment;
+
+import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public class SearchProfileUpdateFragmentImpl implements SearchProfileUpdateFragment {
+
+  private final MongoTemplate mongoTemplate;
+
+  public SearchProfileUpdateFragmentImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public Optional<SearchProfileDocument> updateEditableFields(
+    String profileId, Long expectedVersion, SearchProfileDocument values
+  ) {
+    Criteria criteria = Criteria.where("profileId").is(profileId);
+    if (null != expectedVersion) {
+      criteria = criteria.and("version").is(expectedVersion);
+    }
+
+    // auditing does not apply to findAndModify, so the modification date is set here
+    Update update = new Update()
+      .set("lastEditorId", values.getLastEditorId())
+      .set("name", values.getName())
+      .set("analyser", values.getAnalyser())
+      .set("searchFields", values.getSearchFields())
+      .set("filters", values.getFilters())
+      .set("facets", values.getFacets())
+      .set("minScore", values.getMinScore())
+      .set("queryable", values.getQueryable())
+      .set("relativeScore", values.getRelativeScore())
+      .set("lastModifiedDate", LocalDateTime.now())
+      .inc("version", 1);
+
+    return Optional.ofNullable(mongoTemplate.findAndModify(
+      new Query(criteria),
+      update,
+      FindAndModifyOptions.options().returnNew(true),
+      SearchProfileDocument.class));
+  }
+}
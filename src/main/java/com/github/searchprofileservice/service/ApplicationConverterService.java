@@ -3,6 +3,8 @@ package com.github.searchprofileservice.service;
 import com.github.searchprofileservice.api.model.ApplicationDto;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 
+import java.util.List;
+
 public interface ApplicationConverterService {
 
     /**
@@ -12,6 +14,14 @@ public interface ApplicationConverterService {
      */
     ApplicationDto convertToApplicationDto(Application application);
 
+    /**
+     * Converts many applications at once, the index statistics of all of them are fetched together.
+     *
+     * @param applications The applications which are going to be converted
+     * @return the applicationDtos, in the same order
+     */
+    List<ApplicationDto> convertToApplicationDtos(List<Application> applications);
+
     /**
      * converts the application dto application document.
      *
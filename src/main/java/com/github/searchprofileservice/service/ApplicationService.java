@@ -1,5 +1,7 @@
 package com.github.searchprofileservice.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.model.CursorPage;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
@@ -32,6 +34,22 @@ public interface ApplicationService {
    */
   List<Application> findAllByUserId(String userId);
 
+  /**
+   * @param userId the id of the user
+   * @param cursor continuation token of the previous page, null for the first page
+   * @param limit the maximum number of applications on the page
+   * @return a page of the applications the user is allowed for, sorted by id
+   */
+  CursorPage<Application> findPageByAllowedUserIdsContains(String userId, String cursor, int limit);
+
+  /**
+   * @param userId the id of the user
+   * @param cursor continuation token of the previous page, null for the first page
+   * @param limit the maximum number of applications on the page
+   * @return a page of the applications the user created, sorted by id
+   */
+  CursorPage<Application> findPageByUserId(String userId, String cursor, int limit);
+
   /**
    * @param id the id to lookup
    * @return `true`, if an application w/ given id exists, `false` otherwise
@@ -44,6 +62,16 @@ public interface ApplicationService {
    */
   Optional<Application> findById(UUID id);
 
+  /**
+   * Looks up an application in the in-process application cache first. Meant for hot paths like
+   * document ingest and api key checks, the returned application can be stale for up to the
+   * delay of the cache invalidation bus and must not be modified.
+   *
+   * @param id the id to lookup
+   * @return Optional of application, if an application w/ given id exists, empty optional otherwise
+   */
+  Optional<Application> findCachedById(UUID id);
+
   /**
    * Saves a *new* `Application` and adds a standard ApiKey and id if not present
    * @param application the application to save
@@ -54,32 +82,33 @@ public interface ApplicationService {
   Optional<Application> save(Application application);
 
   /**
-   * Updates an *existing* `Application`
+   * Updates the name and allowed users of an *existing* `Application`, its other fields are left as
+   * they are stored, so concurrent changes of e.g. api keys are kept
    * @param application the application to update
    * @return the updated application
    *
-   * @throws IllegalArgumentException if application is missing mandatory fields
+   * @throws IllegalArgumentException if application is missing mandatory fields or does not exist
    */
   Application update(Application application);
 
   /**
    * Uploads a json document into an application's es index
    * @param applicationId the id of the application whose es-index to insert the data into
-   * @param rawJson document to insert
+   * @param document the already parsed document to insert
    * @return The id of the created document
    */
-  String uploadDocument(String rawJson, UUID applicationId) throws IOException;
+  String uploadDocument(ObjectNode document, UUID applicationId) throws IOException;
 
 
   /**
    * Updates a json document residing in an application's es index
-   * @param rawJson document to insert
+   * @param document the already parsed document to insert
    * @param applicationId the id of the application whose es-index the document belongs to
    * @param documentId the id of es-document to update
    *
    * @throws IOException if document manipulation fails
    */
-  void updateDocument(String rawJson, UUID applicationId, String documentId) throws IOException;
+  void updateDocument(ObjectNode document, UUID applicationId, String documentId) throws IOException;
 
   /**
    * Deletes an application
@@ -90,6 +119,10 @@ public interface ApplicationService {
 
   /**
    * Validates a string if it is a valid JSON Document
+   *
+   * <p>Request bodies of the ingest endpoints are bound as parsed json by the web layer and do
+   * not need to be validated again.
+   *
    * @param rawJson raw Json Document
    * @return either Json document is satisfy Json standard or not
    */
@@ -105,12 +138,13 @@ public interface ApplicationService {
   /**
    * Bulk Upload multiple Json documents to an existing application/elasticsearch index
    *
-   * @param bulkJson Json Document as String. Contains an Array of Json Documents
+   * @param bulkDocument parsed Json Document. Contains an Array of Json Documents named 'Documents'
    * @param applicationId ApplicationId where the Json Documents are going to be uploaded
    * @return List of UUIDs which represent the successful uploaded Documents
    * @throws IOException
+   * @throws org.json.JSONException if 'Documents' is missing or does not only contain json objects
    */
-  List<String> bulkUploadDocuments(String bulkJson, UUID applicationId) throws IOException;
+  List<String> bulkUploadDocuments(ObjectNode bulkDocument, UUID applicationId) throws IOException;
 
   /**
    * Checks, whether the accessed app was created by the current user or if the user is allowed to use it
@@ -135,6 +169,7 @@ public interface ApplicationService {
    *
    * @param application The application to which to add the new api key to
    * @param newApiKey   the encrypted api key to be added to the application
+   * @throws org.springframework.web.server.ResponseStatusException NOT_FOUND if the application does not exist (anymore)
    */
   void addNewApiKeyToApp(Application application, ApiKey newApiKey);
 
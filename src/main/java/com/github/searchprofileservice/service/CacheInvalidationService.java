@@ -0,0 +1,16 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
+
+public interface CacheInvalidationService {
+
+    /**
+     * Evicts the cache entries affected by a change on this instance and publishes the change,
+     * so that every other instance of the service evicts them as well.
+     * Publishing is best effort, a failure is logged and the local eviction still happens.
+     *
+     * @param type the kind of change
+     * @param key the key of the changed entity, e.g. the application id
+     */
+    void publish(CacheInvalidationType type, String key);
+}
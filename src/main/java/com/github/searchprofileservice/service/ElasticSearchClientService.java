@@ -1,9 +1,11 @@
 package com.github.searchprofileservice.service;
 
+import co.elastic.clients.elasticsearch.security.IndicesPrivileges;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.model.ElasticSearchUser;
+import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
-import org.elasticsearch.client.security.user.privileges.IndicesPrivileges;
 
 import java.io.IOException;
 import java.util.List;
@@ -13,6 +15,8 @@ import java.util.UUID;
 public interface ElasticSearchClientService {
 
     /**
+     * Creates the indices of an application with the settings of its index settings profile. An
+     * application without profile gets one chosen from its expected document count.
      *
      * @param application Application from which the Index should be created
      * @return Whether the index was successfully created.
@@ -38,28 +42,43 @@ public interface ElasticSearchClientService {
 
 
     /**
-     * Uploads Raw json to specific Application
+     * Uploads a parsed json document to specific Application
      * @param applicationId the id of the application whose es-index to insert the data into
-     * @param rawJson Document which is going to be uploaded to the Application
+     * @param document Document which is going to be uploaded to the Application
      * @return The id of the created document
      */
-    String uploadRawJsonToApplication(UUID applicationId, String rawJson) throws IOException;
+    String uploadRawJsonToApplication(UUID applicationId, ObjectNode document) throws IOException;
 
     /**
-     * Uploads Raw jsons to specific Application
-     * @param rawJsons Documents which are going to be uploaded to the Application
+     * Uploads parsed json documents to specific Application
+     * @param documents Documents which are going to be uploaded to the Application
      * @param applicationId the id of the application whose es-index to insert the data into
      * @return The id of the created document
      */
-    List<String> bulkUploadRawJsonToApplication(UUID applicationId, List<String> rawJsons) throws IOException;
+    List<String> bulkUploadRawJsonToApplication(UUID applicationId, List<ObjectNode> documents) throws IOException;
 
     /**
      * Updates the content of an existing document
      * @param applicationId the id of the application whose es-index the document belongs to
      * @param documentId the id of document to update
-     * @param rawJson Document which is going to be uploaded to the Application
+     * @param document Document which is going to be uploaded to the Application
      */
-    void updateDocument(UUID applicationId, String documentId, String rawJson) throws IOException;
+    void updateDocument(UUID applicationId, String documentId, ObjectNode document) throws IOException;
+
+    /**
+     * Stores the search template of the current version of a search profile in elasticsearch
+     * @param searchProfile the search profile
+     * @throws IOException on error while storing
+     */
+    void putSearchTemplate(SearchProfileDto searchProfile) throws IOException;
+
+    /**
+     * Removes the search template of a version of a search profile, if there is one
+     * @param profileId the id of the search profile
+     * @param version the version of the search profile
+     * @throws IOException on error while removal
+     */
+    void deleteSearchTemplate(String profileId, Long version) throws IOException;
 
     /**
      *
@@ -72,9 +91,22 @@ public interface ElasticSearchClientService {
      *
      * @param indexName The name of the index of which the mapping should be retrieved
      * @return The index mapping of the specified application.
+     *
+     * The mapping is cached per index. Writes only invalidate the cached mapping when a document
+     * carries a field path the cached mapping does not know yet, the mapping is then reloaded
+     * in the background.
      */
     Map<String, ElasticSearchMappingType> getIndexMapping(String indexName);
 
+    /**
+     * Loads the current mapping of an index from elasticsearch, bypassing the cache.
+     * Used by the cache itself to load and refresh entries.
+     *
+     * @param indexName The name of the index of which the mapping should be retrieved
+     * @return The index mapping of the specified index.
+     */
+    Map<String, ElasticSearchMappingType> loadIndexMapping(String indexName);
+
     /**
      *
      * @param indexPrivilege COLLECTION<String, String> which describe the Privileges on ES indicies
@@ -89,11 +121,4 @@ public interface ElasticSearchClientService {
      */
     boolean createElasticSearchUser(ElasticSearchUser newUser);
 
-    /**
-     *
-     * @param index Name of the Index
-     * @return the number of uploaded Documents for a specific Elasticsearch Index
-     */
-    long getDocumentCountForIndex(String index);
-
 }
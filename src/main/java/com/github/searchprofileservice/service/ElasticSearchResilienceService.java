@@ -0,0 +1,43 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.exception.ElasticSearchRejectedException;
+import com.github.searchprofileservice.model.ElasticSearchCall;
+import com.github.searchprofileservice.model.enums.ElasticSearchCallType;
+import com.github.searchprofileservice.util.CircuitBreaker;
+
+import java.io.IOException;
+
+public interface ElasticSearchResilienceService {
+
+    /**
+     * Makes a call to elasticsearch within the bulkhead of its type, if the circuit is not open,
+     * and retries it on failure as long as attempts and retry budget are left.
+     *
+     * Calls that did not reach elasticsearch, or were rejected by it with status 429 or 503, are
+     * retried in any case. Other failed calls are only retried if they are idempotent.
+     *
+     * @param callType the type of the call, which selects the bulkhead
+     * @param idempotent whether the call may be made again after it failed halfway
+     * @param call the call
+     * @return the result of the call
+     * @throws IOException the failure of the last attempt
+     * @throws ElasticSearchRejectedException if the circuit is open or the bulkhead is full
+     */
+    <T> T call(ElasticSearchCallType callType, boolean idempotent, ElasticSearchCall<T> call)
+        throws IOException;
+
+    /**
+     * @return the state of the circuit
+     */
+    CircuitBreaker.State getCircuitState();
+
+    /**
+     * @return the share of failures among the last calls
+     */
+    double getFailureRate();
+
+    /**
+     * @return the retries left in the retry budget
+     */
+    double getAvailableRetries();
+}
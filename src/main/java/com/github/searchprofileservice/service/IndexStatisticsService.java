@@ -0,0 +1,20 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.model.IndexStatistics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface IndexStatisticsService {
+
+    /**
+     * Collects document counts and store sizes for many applications at once. Statistics are
+     * cached briefly; all applications missing from the cache are resolved with a single request
+     * to elasticsearch, so the cost does not grow with the number of applications.
+     *
+     * @param applicationIds the ids of the applications
+     * @return the statistics per application id, empty statistics for applications without index
+     */
+    Map<UUID, IndexStatistics> getStatisticsForApplications(Collection<UUID> applicationIds);
+}
@@ -0,0 +1,55 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.model.StageTimer;
+
+public interface InstrumentationService {
+
+  String OPERATION_SEARCH = "search";
+  String OPERATION_QUERY = "query";
+  String OPERATION_INGEST = "ingest";
+
+  String STAGE_PROFILE_LOOKUP = "profile-lookup";
+  String STAGE_APPLICATION_LOOKUP = "application-lookup";
+  String STAGE_API_KEY_CHECK = "api-key-check";
+  String STAGE_RATE_LIMIT = "rate-limit";
+  String STAGE_REQUEST_BUILD = "request-build";
+  String STAGE_ELASTICSEARCH = "elasticsearch";
+  String STAGE_POST_PROCESS = "post-process";
+
+  /**
+   * Starts timing a stage of a request, the stage ends when the returned timer is closed.
+   * Recorded as timer {@code request.stage} and added to the server timing of the request.
+   *
+   * @param operation the kind of request, e.g. {@link #OPERATION_SEARCH}
+   * @param stage the stage, e.g. {@link #STAGE_ELASTICSEARCH}
+   * @param applicationId the id of the application, null if not known yet
+   * @param profileId the id of the search profile, null if not known or not applicable
+   * @return the running timer
+   */
+  StageTimer startStage(String operation, String stage, String applicationId, String profileId);
+
+  /**
+   * Records the time elasticsearch spent on a search next to the round trip time seen by the
+   * client, as timers {@code elasticsearch.search.took} and {@code elasticsearch.search.round.trip}.
+   * The difference is spent in transport, (de)serialization and queueing. The took is added to
+   * the server timing of the request.
+   *
+   * @param indexName the searched index
+   * @param tookMillis the 'took' of the search response
+   * @param roundTripNanos the time from sending the request to having parsed the response
+   */
+  void recordSearch(String indexName, long tookMillis, long roundTripNanos);
+
+  /**
+   * Records the size of a bulk request, its failed items and the time elasticsearch spent on it,
+   * as distribution summary {@code elasticsearch.bulk.documents}, counter
+   * {@code elasticsearch.bulk.failures} and timer {@code elasticsearch.bulk.took}. The took is
+   * added to the server timing of the request.
+   *
+   * @param indexName the index written to
+   * @param documentCount the number of documents in the request
+   * @param failureCount the number of documents that could not be indexed
+   * @param tookMillis the 'took' of the bulk response
+   */
+  void recordBulk(String indexName, int documentCount, int failureCount, long tookMillis);
+}
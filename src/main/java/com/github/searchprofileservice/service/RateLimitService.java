@@ -0,0 +1,31 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.exception.RateLimitExceededException;
+import com.github.searchprofileservice.model.RateLimitPermit;
+import com.github.searchprofileservice.model.RateLimitState;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface RateLimitService {
+
+    /**
+     * Checks an ingest request against the limits of its application and of the api key it was
+     * authenticated with, and takes its documents and bytes from both.
+     *
+     * @param applicationId the id of the application the documents are ingested into
+     * @param apiKeyId the id of the api key the request was authenticated with
+     * @param documentCount the number of documents of the request
+     * @param byteCount the size of the request in bytes
+     * @param bulk whether the request is a bulk upload
+     * @return a permit, which has to be closed once the request is done
+     * @throws RateLimitExceededException if a limit of the application or api key is exceeded
+     */
+    RateLimitPermit acquireIngest(
+        UUID applicationId, UUID apiKeyId, long documentCount, long byteCount, boolean bulk);
+
+    /**
+     * @return the state of the limits of all applications and api keys that ingested recently
+     */
+    List<RateLimitState> getStates();
+}
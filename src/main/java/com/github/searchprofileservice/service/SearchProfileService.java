@@ -1,6 +1,7 @@
 package com.github.searchprofileservice.service;
 
 import com.github.searchprofileservice.api.model.SearchProfileDto;
+import com.github.searchprofileservice.model.CursorPage;
 
 import java.util.List;
 import java.util.Set;
@@ -18,6 +19,13 @@ public interface SearchProfileService {
    */
   List<SearchProfileDto.BasicProjection> getAllSearchProfilesAsBasicProjection();
 
+  /**
+   * @param cursor continuation token of the previous page, null for the first page
+   * @param limit the maximum number of search profiles on the page
+   * @return a page of search profiles w/ only their basic fields, sorted by application and profile id
+   */
+  CursorPage<SearchProfileDto.BasicProjection> getSearchProfilesAsBasicProjection(String cursor, int limit);
+
   /**
    * @return all search profiles with given application id
    */
@@ -44,7 +52,11 @@ public interface SearchProfileService {
   /**
    * updates existing search profile with given data
    *
+   * If the given search profile has a version, it is only updated if it has not been changed since.
+   *
    * @return updated search profile
+   * @throws org.springframework.web.server.ResponseStatusException NOT_FOUND if there is no search profile
+   * with the given id, CONFLICT if the search profile has been changed since the given version
    */
   SearchProfileDto updateSearchProfile(SearchProfileDto searchProfile, String profileId);
 
@@ -1,16 +1,83 @@
 package com.github.searchprofileservice.service;
 
 import com.github.searchprofileservice.api.model.SearchProfileDto;
+import com.github.searchprofileservice.model.AsyncSearchResults;
 import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.enums.FacetMode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public interface SearchService {
   /**
-   * creates a query from the given search profile id and executes a search on elastic search
+   * executes a search on elastic search with the stored search template of the given search
+   * profile id, storing the template first if it is missing
    *
    * @return results of search
    */
   SearchResults search(String profileId, String searchValue);
 
+  /**
+   * executes a search on elastic search with the given search profile id, where the given filter
+   * parameters replace the values of the filters of the search profile. Without filter parameters
+   * for the search profile the stored search template is used.
+   *
+   * @param filterParameters the values of the filter parameters by parameter name
+   * @return results of search
+   */
+  SearchResults search(String profileId, String searchValue, Map<String, List<String>> filterParameters);
+
+  /**
+   * executes a search on elastic search with the given search profile id, computing the facets of
+   * the search profile in the same request if requested. The facets of a search for facets only
+   * are cached until the index of the application changes.
+   *
+   * @param filterParameters the values of the filter parameters by parameter name
+   * @param facetMode whether to return the results, the facets or both
+   * @return results of search
+   */
+  SearchResults search(
+      String profileId, String searchValue, Map<String, List<String>> filterParameters, FacetMode facetMode);
+
+  /**
+   * submits a search with the given search profile id as an asynchronous search on elastic search.
+   * A search finishing within the wait for completion timeout is answered with its results,
+   * otherwise with the results found so far and an id, which is kept for the application of the
+   * search profile until the results expire.
+   *
+   * @param filterParameters the values of the filter parameters by parameter name
+   * @param facetMode whether to return the results, the facets or both
+   * @return state and results of the search
+   */
+  AsyncSearchResults submitAsyncSearch(
+      String profileId, String searchValue, Map<String, List<String>> filterParameters, FacetMode facetMode);
+
+  /**
+   * @param asyncId the id of an asynchronous search
+   * @return the id of the application the asynchronous search belongs to
+   * @throws org.springframework.web.server.ResponseStatusException with http status
+   *     {@code NOT_FOUND} if there is no such search or it expired
+   */
+  UUID getAsyncSearchApplicationId(String asyncId);
+
+  /**
+   * polls an asynchronous search
+   *
+   * @param asyncId the id of the asynchronous search
+   * @return state and results of the search
+   * @throws org.springframework.web.server.ResponseStatusException with http status
+   *     {@code NOT_FOUND} if there is no such search or it expired
+   */
+  AsyncSearchResults getAsyncSearch(String asyncId);
+
+  /**
+   * cancels an asynchronous search if it is still running and removes its results
+   *
+   * @param asyncId the id of the asynchronous search
+   */
+  void deleteAsyncSearch(String asyncId);
+
   /**
    * creates a query from the given search profile id and the search value
    *
@@ -25,10 +92,27 @@ public interface SearchService {
    */
   String getSearchQuery(String profileId);
 
+  /**
+   * creates a query referencing the stored search template of the given search profile id with a
+   * PlaceHolder search value. The template id changes with every update of the search profile.
+   *
+   * @return created search template query as string
+   */
+  String getSearchTemplateQuery(String profileId);
+
   /**
    * creates a query from the given search profile DTO and the search value
    *
    * @return results of search
    */
   SearchResults searchByProfileDTO(SearchProfileDto searchProfileDto, String searchValue);
+
+  /**
+   * creates a query from the given search profile DTO and the search value, optionally profiled
+   * by elastic search
+   *
+   * @param profile whether to add where the time of the search went to the results
+   * @return results of search
+   */
+  SearchResults searchByProfileDTO(SearchProfileDto searchProfileDto, String searchValue, boolean profile);
 }
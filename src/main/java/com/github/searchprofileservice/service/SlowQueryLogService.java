@@ -0,0 +1,38 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.model.SlowQueryStatistics;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+
+import java.util.List;
+
+public interface SlowQueryLogService {
+
+  /**
+   * Decides whether a search is recorded, either because it was slow or because it was sampled.
+   * Cheap enough to be called for every search, the record is only built if this returns true.
+   *
+   * @param totalNanos the time spent on the search inside the service
+   * @return whether the search should be passed to {@link #record(SlowQueryRecord)}
+   */
+  boolean isRecorded(long totalNanos);
+
+  /**
+   * Queues a search for writing, without blocking. If too many records are waiting already, the
+   * record is dropped and counted by the metric {@code slow.query.log.dropped}.
+   *
+   * @param record the search, its slow flag is set from its total time
+   */
+  void record(SlowQueryRecord record);
+
+  /**
+   * @param limit the maximum number of records
+   * @return the slowest recorded searches, slowest first
+   */
+  List<SlowQueryRecord> getSlowest(int limit);
+
+  /**
+   * @param limit the maximum number of entries
+   * @return the search values of search profiles recorded as slow most often, most often first
+   */
+  List<SlowQueryStatistics> getMostFrequent(int limit);
+}
@@ -2,6 +2,7 @@ package com.github.searchprofileservice.service;
 
 import com.github.searchprofileservice.api.model.ElasticSearchUser;
 import com.github.searchprofileservice.api.model.UserDTO;
+import com.github.searchprofileservice.model.CursorPage;
 import com.github.searchprofileservice.persistence.mongo.model.User;
 
 import java.util.List;
@@ -28,6 +29,21 @@ public interface UserService {
      */
     Stream<UserDTO.BasicProjection> getAllActiveUsersAsBasicProjections();
 
+    /**
+     * @param activated if set, only users with this activation state are listed
+     * @param cursor continuation token of the previous page, null for the first page
+     * @param limit the maximum number of users on the page
+     * @return a page of users, sorted by user id
+     */
+    CursorPage<User> getUsers(Boolean activated, String cursor, int limit);
+
+    /**
+     * @param cursor continuation token of the previous page, null for the first page
+     * @param limit the maximum number of users on the page
+     * @return a page of active users containing only the fields `userId` and `name`
+     */
+    CursorPage<UserDTO.BasicProjection> getActiveUsersAsBasicProjections(String cursor, int limit);
+
     /**
      *
      * @param user saves a user
@@ -42,6 +58,15 @@ public interface UserService {
      */
     User update(User user);
 
+    /**
+     * Atomically sets the picture link of a user, without rewriting the rest of the user.
+     *
+     * @param userId the id of the user
+     * @param pictureLink the new picture link
+     * @return whether a user has been modified
+     */
+    boolean updatePictureLink(String userId, String pictureLink);
+
     /**
      *
      * @param uuid deletes the user by the given UUID
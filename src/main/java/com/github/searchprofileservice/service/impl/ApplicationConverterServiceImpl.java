@@ -2,32 +2,55 @@ package com.github.searchprofileservice.service.impl;
 
 import com.github.searchprofileservice.api.model.ApiKeyDto;
 import com.github.searchprofileservice.api.model.ApplicationDto;
+import com.github.searchprofileservice.model.IndexStatistics;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.ApplicationConverterService;
-import com.github.searchprofileservice.service.ElasticSearchClientService;
+import com.github.searchprofileservice.service.IndexStatisticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ApplicationConverterServiceImpl implements ApplicationConverterService {
 
-    private final ElasticSearchClientService elasticSearchService;
+    private final IndexStatisticsService indexStatisticsService;
 
     @Override
     public ApplicationDto convertToApplicationDto(Application application) {
-        ApplicationDto applicationDto = fromApplication(application);
-        var applicationId = application.getId();
-        if(applicationId == null){
-            return applicationDto;
-        }
-        long documentCount = elasticSearchService.getDocumentCountForIndex(applicationId.toString());
-        applicationDto.setNumberOfDocuments(documentCount);
-        return applicationDto;
+        return convertToApplicationDtos(List.of(application)).get(0);
+    }
+
+    @Override
+    public List<ApplicationDto> convertToApplicationDtos(List<Application> applications) {
+        List<UUID> applicationIds = applications.stream()
+                .map(Application::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<UUID, IndexStatistics> statistics = applicationIds.isEmpty()
+                ? Map.of()
+                : indexStatisticsService.getStatisticsForApplications(applicationIds);
+
+        return applications.stream()
+                .map(application -> {
+                    ApplicationDto applicationDto = fromApplication(application);
+                    IndexStatistics applicationStatistics = null == application.getId()
+                            ? null
+                            : statistics.get(application.getId());
+                    if (null != applicationStatistics) {
+                        applicationDto.setNumberOfDocuments(applicationStatistics.getDocumentCount());
+                        applicationDto.setStoreSizeInBytes(applicationStatistics.getStoreSizeInBytes());
+                    }
+                    return applicationDto;
+                })
+                .toList();
     }
 
     /**
@@ -37,11 +60,14 @@ public class ApplicationConverterServiceImpl implements ApplicationConverterServ
      */
     @Override
     public Application convertToApplication(ApplicationDto applicationDto) {
-        return new Application(applicationDto.getId(),
+        Application application = new Application(applicationDto.getId(),
                 applicationDto.getCreatedDate(),
                 applicationDto.getName(),
                 applicationDto.isActive(),
                 applicationDto.getAllowedUserIds());
+        application.setIndexSettingsProfile(applicationDto.getIndexSettingsProfile());
+        application.setExpectedDocumentCount(applicationDto.getExpectedDocumentCount());
+        return application;
     }
 
     /**
@@ -55,7 +81,7 @@ public class ApplicationConverterServiceImpl implements ApplicationConverterServ
                 application.getApiKeys().stream()
                         .map(ApiKeyDto::fromApiKey).toList());
 
-        return new ApplicationDto(
+        ApplicationDto applicationDto = new ApplicationDto(
                 application.getId(),
                 application.getCreatedDate(),
                 application.getApplicationName(),
@@ -63,5 +89,8 @@ public class ApplicationConverterServiceImpl implements ApplicationConverterServ
                 application.isActive(),
                 application.getAllowedUserIds(),
                 apiKeyDtos);
+        applicationDto.setIndexSettingsProfile(application.getIndexSettingsProfile());
+        applicationDto.setExpectedDocumentCount(application.getExpectedDocumentCount());
+        return applicationDto;
     }
 }
@@ -1,22 +1,32 @@
 package com.github.searchprofileservice.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.exception.InvalidPageRequestException;
+import com.github.searchprofileservice.model.CursorPage;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.persistence.mongo.repository.ApplicationRepository;
 import com.github.searchprofileservice.service.ApplicationService;
 import com.github.searchprofileservice.service.AuthenticationService;
+import com.github.searchprofileservice.service.CacheInvalidationService;
 import com.github.searchprofileservice.service.ElasticSearchClientService;
 import com.github.searchprofileservice.service.SearchProfileService;
+import com.github.searchprofileservice.util.CursorUtil;
 import javassist.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.util.*;
@@ -30,6 +40,14 @@ public class ApplicationServiceImpl implements ApplicationService {
   private final SearchProfileService searchProfileService;
   private final ElasticSearchClientService elasticSearchService;
   private final AuthenticationService authenticationService;
+  private final ObjectMapper objectMapper;
+  private final CacheInvalidationService cacheInvalidationService;
+  private final CacheManager cacheManager;
+
+  private static final String BULK_DOCUMENTS_FIELD = "Documents";
+
+  /** sorts before every random uuid, continues a listing from its very beginning */
+  private static final UUID FIRST_PAGE_ID = new UUID(0, 0);
 
   @Override
   public List<Application> findAll() {
@@ -46,6 +64,37 @@ public class ApplicationServiceImpl implements ApplicationService {
     return applicationRepository.findAllByCreatorId(userId);
   }
 
+  @Override
+  public CursorPage<Application> findPageByAllowedUserIdsContains(String userId, String cursor, int limit) {
+    List<Application> applications =
+        applicationRepository.findAllByAllowedUserIdsContainsAndIdGreaterThanOrderByIdAsc(
+            userId, getIdFromCursor(cursor), CursorUtil.toPageRequest(limit));
+    return CursorUtil.toPage(applications, limit, application -> new String[] { application.getId().toString() });
+  }
+
+  @Override
+  public CursorPage<Application> findPageByUserId(String userId, String cursor, int limit) {
+    List<Application> applications =
+        applicationRepository.findAllByCreatorIdAndIdGreaterThanOrderByIdAsc(
+            userId, getIdFromCursor(cursor), CursorUtil.toPageRequest(limit));
+    return CursorUtil.toPage(applications, limit, application -> new String[] { application.getId().toString() });
+  }
+
+  /**
+   * @return the application id held by the cursor, {@link #FIRST_PAGE_ID} for the first page
+   */
+  private static UUID getIdFromCursor(String cursor) {
+    String[] keys = CursorUtil.decode(cursor, 1);
+    if (null == keys) {
+      return FIRST_PAGE_ID;
+    }
+    try {
+      return UUID.fromString(keys[0]);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPageRequestException("'" + cursor + "' is not a valid cursor");
+    }
+  }
+
   @Override
   public boolean existsById(UUID id) {
     return applicationRepository.existsById(id);
@@ -56,6 +105,23 @@ public class ApplicationServiceImpl implements ApplicationService {
     return applicationRepository.findById(id);
   }
 
+  @Override
+  public Optional<Application> findCachedById(UUID id) {
+    Cache cache = cacheManager.getCache(CachingConfig.APPLICATION_CACHE);
+    if (null == cache) {
+      return applicationRepository.findById(id);
+    }
+
+    Application cached = cache.get(id.toString(), Application.class);
+    if (null != cached) {
+      return Optional.of(cached);
+    }
+
+    Optional<Application> application = applicationRepository.findById(id);
+    application.ifPresent(found -> cache.put(id.toString(), found));
+    return application;
+  }
+
   @Override
   public Optional<Application> save(Application application) {
 
@@ -107,15 +173,21 @@ public class ApplicationServiceImpl implements ApplicationService {
       throw new IllegalArgumentException("applicationName must be unique");
     }
 
-    return applicationRepository.save(application);
+    // only the editable fields, the given application may be stale, e.g. its api keys
+    Application updatedApplication = applicationRepository
+      .updateEditableFields(application.getId(), application.getApplicationName(), application.getAllowedUserIds())
+      .orElseThrow(() -> new IllegalArgumentException("application '" + application.getId() + "' does not exist"));
+    cacheInvalidationService.publish(
+      CacheInvalidationType.APPLICATION_UPDATED, String.valueOf(application.getId()));
+    return updatedApplication;
   }
 
   @Override
-  public String uploadDocument(String rawJson, UUID applicationId) throws IOException {
-    var application = applicationRepository.findById(applicationId);
+  public String uploadDocument(ObjectNode document, UUID applicationId) throws IOException {
+    var application = findCachedById(applicationId);
     if (!application.isEmpty()) {
       setApplicationActivity(application.get());
-      return elasticSearchService.uploadRawJsonToApplication(applicationId, rawJson);
+      return elasticSearchService.uploadRawJsonToApplication(applicationId, document);
     } else {
       throw new IllegalArgumentException("Invalid application id '" + applicationId + '"');
     }
@@ -123,12 +195,12 @@ public class ApplicationServiceImpl implements ApplicationService {
 
   @Override
   public void updateDocument(
-    String rawJson,
+    ObjectNode document,
     UUID applicationId,
     String documentId
   ) throws IOException {
-    if (this.existsById(applicationId)) {
-      elasticSearchService.updateDocument(applicationId, documentId, rawJson);
+    if (findCachedById(applicationId).isPresent()) {
+      elasticSearchService.updateDocument(applicationId, documentId, document);
     } else {
       throw new IllegalArgumentException("Invalid application id '" + applicationId + '"');
     }
@@ -139,13 +211,13 @@ public class ApplicationServiceImpl implements ApplicationService {
     elasticSearchService.deleteIndex(id); // throws if index can not be deleted
     applicationRepository.deleteById(id);
     searchProfileService.deleteByApplicationId(id);
+    cacheInvalidationService.publish(CacheInvalidationType.APPLICATION_DELETED, id.toString());
   }
 
   @Override
   public boolean isJsonValid(String rawJson) {
     try {
-      final ObjectMapper mapper = new ObjectMapper();
-      mapper.readTree(rawJson);
+      objectMapper.readTree(rawJson);
       return true;
     } catch (IOException e) {
       log.warn(e.getMessage());
@@ -159,10 +231,10 @@ public class ApplicationServiceImpl implements ApplicationService {
   }
 
   @Override
-  public List<String> bulkUploadDocuments(String bulkJson, UUID applicationId) throws IOException{
-    List<String> jsonDocuments = getJsonDataFromBulkDocument(bulkJson);
+  public List<String> bulkUploadDocuments(ObjectNode bulkDocument, UUID applicationId) throws IOException{
+    List<ObjectNode> jsonDocuments = getJsonDataFromBulkDocument(bulkDocument);
 
-   var application = applicationRepository.findById(applicationId);
+    var application = findCachedById(applicationId);
     if (!application.isEmpty()) {
       setApplicationActivity(application.get());
       return elasticSearchService.bulkUploadRawJsonToApplication(applicationId, jsonDocuments);
@@ -171,14 +243,18 @@ public class ApplicationServiceImpl implements ApplicationService {
     }
   }
 
-  private List<String> getJsonDataFromBulkDocument(String bulkJson) throws JSONException{
-      List<String> jsonData = new ArrayList<>();
-      JSONObject obj = new JSONObject(bulkJson);
-      JSONArray arr = obj.getJSONArray("Documents");
-      for (int i = 0; i < arr.length(); i++)
+  private List<ObjectNode> getJsonDataFromBulkDocument(ObjectNode bulkDocument) throws JSONException{
+      JsonNode arr = bulkDocument.get(BULK_DOCUMENTS_FIELD);
+      if (null == arr || !arr.isArray()) {
+        throw new JSONException("JSONObject[\"" + BULK_DOCUMENTS_FIELD + "\"] is not a JSONArray.");
+      }
+      List<ObjectNode> jsonData = new ArrayList<>(arr.size());
+      for (int i = 0; i < arr.size(); i++)
       {
-        String rawJson = arr.getJSONObject(i).toString();
-        jsonData.add(rawJson);
+        if (!(arr.get(i) instanceof ObjectNode document)) {
+          throw new JSONException("JSONArray[" + i + "] is not a JSONObject.");
+        }
+        jsonData.add(document);
       }
       return jsonData;
   }
@@ -189,12 +265,26 @@ public class ApplicationServiceImpl implements ApplicationService {
       .orElse(false);
   }
 
+  /**
+   * Marks an application as active with a single conditional update. Once the (cached)
+   * application is known to be active, ingest does not touch mongo for it anymore. The given
+   * instance may be shared through the near cache and is left untouched, the published update
+   * evicts it and the next lookup loads the active application. If nothing was updated, another
+   * instance already activated the application and only the local entry is stale, it is evicted
+   * right away.
+   */
   private void setApplicationActivity (Application application){
     if (!application.isActive()) {
-      application.setActive(true);
-      update(application);
+      if (applicationRepository.activateById(application.getId()) > 0) {
+        cacheInvalidationService.publish(
+          CacheInvalidationType.APPLICATION_UPDATED, String.valueOf(application.getId()));
+      } else {
+        Cache cache = cacheManager.getCache(CachingConfig.APPLICATION_CACHE);
+        if (null != cache) {
+          cache.evict(String.valueOf(application.getId()));
+        }
+      }
     }
-    return;
   }
 
   @Override
@@ -212,20 +302,27 @@ public class ApplicationServiceImpl implements ApplicationService {
     else return false;
   }
 
-   @Override
+  @Override
   public void addNewApiKeyToApp(Application application, ApiKey newApiKey) {
+    if (applicationRepository.pushApiKey(application.getId(), newApiKey) == 0) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "There is no application with the given id");
+    }
     application.addApiKey(newApiKey);
-    update(application);
+    cacheInvalidationService.publish(
+      CacheInvalidationType.APPLICATION_UPDATED, String.valueOf(application.getId()));
   }
 
   @Override
   public void deleteApiKeyFromApp(Application application, UUID apiKeyId) throws NotFoundException {
     Optional<ApiKey> apiKeyToDelete = getApiKeyFromApplication(application, apiKeyId);
-    if (apiKeyToDelete.isPresent()) {
-      application.removeApiKey(apiKeyToDelete.get());
-      update(application);
+    if (apiKeyToDelete.isEmpty() || applicationRepository.pullApiKey(application.getId(), apiKeyId) == 0) {
+      throw new NotFoundException("There is no api Key with the given Id");
     }
-    else throw new NotFoundException("There is no api Key with the given Id");
+    application.removeApiKey(apiKeyToDelete.get());
+    cacheInvalidationService.publish(
+      CacheInvalidationType.APPLICATION_UPDATED, String.valueOf(application.getId()));
+    cacheInvalidationService.publish(
+      CacheInvalidationType.API_KEY_REVOKED, String.valueOf(application.getId()));
   }
 
   private static Optional<ApiKey> getApiKeyFromApplication(Application application, UUID apiKeyId) {
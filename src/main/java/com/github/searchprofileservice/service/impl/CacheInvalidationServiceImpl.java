@@ -0,0 +1,228 @@
+package com.github.searchprofileservice.service.impl;
+
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
+import com.github.searchprofileservice.persistence.mongo.model.CacheInvalidationEvent;
+import com.github.searchprofileservice.service.CacheInvalidationService;
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Invalidation bus backed by a capped mongo collection.
+ *
+ * Every instance appends its changes to the collection and follows it with a tailable cursor.
+ * A cursor that ran dry is reopened after {@code caching.invalidation.max-delay}; if the last seen
+ * event was overwritten in the meantime, events may have been missed and all affected caches are
+ * cleared.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheInvalidationServiceImpl implements CacheInvalidationService {
+
+  /** caches holding entries keyed by the key of a change, per kind of change */
+  private static final Map<CacheInvalidationType, List<String>> AFFECTED_CACHES = Map.of(
+      CacheInvalidationType.APPLICATION_UPDATED, List.of(CachingConfig.APPLICATION_CACHE),
+      CacheInvalidationType.API_KEY_REVOKED, List.of(CachingConfig.APPLICATION_CACHE),
+      CacheInvalidationType.INDEX_MAPPING_CHANGED, List.of(CachingConfig.INDEX_MAPPING_CACHE),
+      CacheInvalidationType.INDEX_CHANGED, List.of(CachingConfig.INDEX_GENERATION_CACHE),
+      CacheInvalidationType.APPLICATION_DELETED,
+      List.of(
+          CachingConfig.INDEX_MAPPING_CACHE,
+          CachingConfig.APPLICATION_CACHE,
+          CachingConfig.INDEX_GENERATION_CACHE),
+      CacheInvalidationType.USER_DELETED, List.of(CachingConfig.LOGIN_USER_CACHE)
+  );
+
+  private final MongoTemplate mongoTemplate;
+  private final CacheManager cacheManager;
+  private final CachingProperties cachingProperties;
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private volatile boolean running;
+  private volatile boolean collectionReady;
+  private Thread tailingThread;
+
+  // only touched by the tailing thread
+  private ObjectId lastSeenId;
+  private boolean skipExisting = true;
+
+  @Override
+  public void publish(CacheInvalidationType type, String key) {
+    evict(type, key);
+
+    if (!cachingProperties.getInvalidation().isEnabled()) {
+      return;
+    }
+    try {
+      ensureCappedCollection();
+      mongoTemplate.insert(new CacheInvalidationEvent(null, type, key, nodeId));
+    } catch (DataAccessException e) {
+      log.warn("Could not publish cache invalidation {} for '{}': {}", type, key, e.getMessage());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void startTailing() {
+    if (!cachingProperties.getInvalidation().isEnabled() || running) {
+      return;
+    }
+    running = true;
+    tailingThread = new Thread(this::tailEvents, "cache-invalidation-bus");
+    tailingThread.setDaemon(true);
+    tailingThread.start();
+  }
+
+  @PreDestroy
+  public synchronized void stopTailing() {
+    running = false;
+    if (null != tailingThread) {
+      tailingThread.interrupt();
+    }
+  }
+
+  private void tailEvents() {
+    long maxDelayMillis = cachingProperties.getInvalidation().getMaxDelay().toMillis();
+
+    while (running) {
+      try {
+        ensureCappedCollection();
+        readEvents(maxDelayMillis);
+      } catch (RuntimeException e) {
+        log.warn("Reading cache invalidations failed: {}", e.getMessage());
+      }
+
+      try {
+        Thread.sleep(maxDelayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Follows the event collection in insertion order until the cursor runs dry.
+   * Events up to the last seen one are replayed by the cursor and skipped, on the very first
+   * read all existing events are skipped, since the caches of a fresh instance are empty.
+   */
+  private void readEvents(long maxDelayMillis) {
+    String collectionName = mongoTemplate.getCollectionName(CacheInvalidationEvent.class);
+
+    try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collectionName)
+        .find()
+        .cursorType(CursorType.TailableAwait)
+        .maxAwaitTime(maxDelayMillis, TimeUnit.MILLISECONDS)
+        .iterator()) {
+
+      boolean foundLastSeen = null == lastSeenId;
+      boolean catchingUp = true;
+
+      while (running) {
+        Document next = cursor.tryNext();
+
+        if (null == next) {
+          if (catchingUp && !foundLastSeen) {
+            log.warn("Cache invalidations were missed, clearing all affected caches");
+            clearAffectedCaches();
+            foundLastSeen = true;
+          }
+          catchingUp = false;
+          skipExisting = false;
+
+          if (null == cursor.getServerCursor()) {
+            return; // dead cursor, e.g. on an empty collection
+          }
+          continue;
+        }
+
+        ObjectId id = next.getObjectId("_id");
+        if (!foundLastSeen) {
+          foundLastSeen = id.equals(lastSeenId);
+          continue;
+        }
+        lastSeenId = id;
+
+        if (!(catchingUp && skipExisting)) {
+          apply(mongoTemplate.getConverter().read(CacheInvalidationEvent.class, next));
+        }
+      }
+    }
+  }
+
+  private void apply(CacheInvalidationEvent event) {
+    if (!nodeId.equals(event.getOriginNodeId()) && null != event.getType()) {
+      evict(event.getType(), event.getKey());
+    }
+  }
+
+  private void evict(CacheInvalidationType type, String key) {
+    for (String cacheName : AFFECTED_CACHES.get(type)) {
+      Cache cache = cacheManager.getCache(cacheName);
+      if (null != cache) {
+        cache.evict(key);
+      }
+    }
+  }
+
+  private void clearAffectedCaches() {
+    Set<String> cacheNames = AFFECTED_CACHES.values().stream()
+        .flatMap(Collection::stream)
+        .collect(Collectors.toSet());
+
+    for (String cacheName : cacheNames) {
+      Cache cache = cacheManager.getCache(cacheName);
+      if (null != cache) {
+        cache.clear();
+      }
+    }
+  }
+
+  /**
+   * Creates the capped event collection, unless it exists already. Has to happen before the
+   * first insert, since an insert would create a regular collection, which can not be tailed.
+   */
+  private void ensureCappedCollection() {
+    if (collectionReady) {
+      return;
+    }
+    if (!mongoTemplate.collectionExists(CacheInvalidationEvent.class)) {
+      try {
+        mongoTemplate.createCollection(
+            CacheInvalidationEvent.class,
+            CollectionOptions.empty()
+                .capped()
+                .size(cachingProperties.getInvalidation().getCollectionSize()));
+      } catch (DataAccessException e) {
+        // another instance created it concurrently
+        if (!mongoTemplate.collectionExists(CacheInvalidationEvent.class)) {
+          throw e;
+        }
+      }
+    }
+    collectionReady = true;
+  }
+}
@@ -1,23 +1,36 @@
 package com.github.searchprofileservice.service.impl;
 
 import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.security.IndexPrivilege;
+import co.elastic.clients.elasticsearch.security.IndicesPrivileges;
+import co.elastic.clients.elasticsearch.security.PutUserResponse;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.model.ElasticSearchUser;
+import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.config.IndexSettingsProperties;
 import com.github.searchprofileservice.exception.ElasticSearchUnavailableException;
 import com.github.searchprofileservice.exception.IndexNotFoundException;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.service.CacheInvalidationService;
 import com.github.searchprofileservice.service.ElasticSearchClientService;
 import com.github.searchprofileservice.util.ElasticSearchMappingFlattenerUtil;
+import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.elasticsearch.client.security.PutUserResponse;
-import org.elasticsearch.client.security.user.privileges.IndicesPrivileges;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -27,6 +40,14 @@ public class ElasticSearchClientServiceImpl implements ElasticSearchClientServic
     private static final int MAX_MAPPING_DEPTH = 5;
 
     private final ElasticSearchStatefulClient client;
+    private final CacheManager cacheManager;
+    private final TaskExecutor taskExecutor;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final IndexSettingsProperties indexSettingsProperties;
+    private final CachingProperties cachingProperties;
+
+    /** {@link System#nanoTime()} of the last published change of the index, per application */
+    private final Map<String, Long> indexChangePublishedNanos = new ConcurrentHashMap<>();
 
     @Override
     public boolean createIndex(Application application) {
@@ -37,8 +58,14 @@ public class ElasticSearchClientServiceImpl implements ElasticSearchClientServic
             if (null == id) {
                 return false;
             } else {
-                success = client.createIndex(id.toString());
+                if (null == application.getIndexSettingsProfile()) {
+                    application.setIndexSettingsProfile(
+                        indexSettingsProperties.selectProfile(application.getExpectedDocumentCount()));
+                }
+                success = client.createIndex(id.toString(), application.getIndexSettingsProfile());
             }
+        } catch (ElasticSearchUnavailableException e) {
+            throw e; // not a reason to reject the application, the request may be retried
         } catch (Exception e) {
             log.error(e.getMessage());
             return false;
@@ -49,21 +76,46 @@ public class ElasticSearchClientServiceImpl implements ElasticSearchClientServic
     @Override
     public void deleteIndex(UUID id) throws IOException {
         client.deleteIndex(id.toString());
+        indexChangePublishedNanos.remove(id.toString());
     }
 
     @Override
-    public String uploadRawJsonToApplication(UUID applicationId, String rawJson) throws IOException {
-        return client.uploadRawJsonToIndex(applicationId.toString(), rawJson);
+    public String uploadRawJsonToApplication(UUID applicationId, ObjectNode document) throws IOException {
+        String documentId = client.uploadRawJsonToIndex(applicationId.toString(), document);
+        publishIndexChanged(applicationId.toString());
+        invalidateIndexMappingOnNewFields(applicationId.toString(), List.of(document));
+        return documentId;
     }
 
     @Override
-    public List<String> bulkUploadRawJsonToApplication(UUID applicationId, List<String> rawJsons) throws IOException {
-       return client.bulkUploadRawJsonToIndex(applicationId.toString(), rawJsons);
+    public List<String> bulkUploadRawJsonToApplication(UUID applicationId, List<ObjectNode> documents) throws IOException {
+        List<String> documentIds = client.bulkUploadRawJsonToIndex(applicationId.toString(), documents);
+        publishIndexChanged(applicationId.toString());
+        invalidateIndexMappingOnNewFields(applicationId.toString(), documents);
+        return documentIds;
     }
 
     @Override
-    public void updateDocument(UUID applicationId, String documentId, String rawJson) throws IOException {
-        client.updateDocument(applicationId.toString(), documentId, rawJson);
+    public void updateDocument(UUID applicationId, String documentId, ObjectNode document) throws IOException {
+        client.updateDocument(applicationId.toString(), documentId, document);
+        publishIndexChanged(applicationId.toString());
+        invalidateIndexMappingOnNewFields(applicationId.toString(), List.of(document));
+    }
+
+    @Override
+    public void putSearchTemplate(SearchProfileDto searchProfile) throws IOException {
+        client.putSearchTemplate(
+            ElasticSearchSearchRequestUtil.getTemplateId(searchProfile.getProfileId(), searchProfile.getVersion()),
+            ElasticSearchSearchRequestUtil.createTemplateSource(
+                searchProfile.getSearchFields(),
+                searchProfile.getFilters(),
+                searchProfile.getMinScore(),
+                searchProfile.getAnalyser()));
+    }
+
+    @Override
+    public void deleteSearchTemplate(String profileId, Long version) throws IOException {
+        client.deleteSearchTemplate(ElasticSearchSearchRequestUtil.getTemplateId(profileId, version));
     }
 
     @Override
@@ -76,9 +128,85 @@ public class ElasticSearchClientServiceImpl implements ElasticSearchClientServic
         }
     }
 
-    @Cacheable("index-mapping")
+    @Cacheable(CachingConfig.INDEX_MAPPING_CACHE)
     @Override
     public Map<String, ElasticSearchMappingType> getIndexMapping(String indexName) {
+        return loadIndexMapping(indexName);
+    }
+
+    /**
+     * Evicts the cached mapping of an index on all instances if one of the written documents contains
+     * a field path the cached mapping does not know, and reloads the mapping in the background.
+     * Writes that only use known fields leave the cached mapping untouched.
+     *
+     * @param indexName the index the documents were written to
+     * @param documents the written documents
+     */
+    private void invalidateIndexMappingOnNewFields(String indexName, List<ObjectNode> documents) {
+        Cache cache = cacheManager.getCache(CachingConfig.INDEX_MAPPING_CACHE);
+        if (null == cache) {
+            return;
+        }
+        if (!(peek(cache, indexName) instanceof Map<?, ?> knownFields)) {
+            return; // nothing cached, the next read loads the current mapping anyway
+        }
+
+        boolean hasNewField = documents.stream()
+            .flatMap(document -> ElasticSearchMappingFlattenerUtil
+                .flattenDocumentFieldPaths(document, MAX_MAPPING_DEPTH).stream())
+            .anyMatch(fieldPath -> !knownFields.containsKey(fieldPath));
+
+        if (hasNewField) {
+            cacheInvalidationService.publish(CacheInvalidationType.INDEX_MAPPING_CHANGED, indexName);
+            taskExecutor.execute(() -> refreshIndexMapping(cache, indexName));
+        }
+    }
+
+    /**
+     * Publishes a change of the index of an application, at most once per
+     * {@code caching.index-refresh-interval}. Every publish is an insert into the capped collection
+     * of the invalidation bus, a busy ingest would overrun it. The writes in between are made at
+     * most an interval after a published one, facets are only cached for index generations older
+     * than that.
+     */
+    private void publishIndexChanged(String indexName) {
+        long nowNanos = System.nanoTime();
+        long intervalNanos = cachingProperties.getIndexRefreshInterval().toNanos();
+        long publishedNanos = indexChangePublishedNanos.compute(indexName, (key, lastNanos) -> {
+            if (null != lastNanos && nowNanos - lastNanos < intervalNanos) {
+                return lastNanos;
+            }
+            return nowNanos;
+        });
+        if (publishedNanos == nowNanos) {
+            cacheInvalidationService.publish(CacheInvalidationType.INDEX_CHANGED, indexName);
+        }
+    }
+
+    /**
+     * Looks up a cached value without loading it, {@link Cache#get(Object)} of a cache with a loader
+     * would load a missing mapping from elasticsearch.
+     *
+     * @return the cached value, null if there is none
+     */
+    private static Object peek(Cache cache, String key) {
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeineCache) {
+            return caffeineCache.asMap().get(key);
+        }
+        Cache.ValueWrapper cachedValue = cache.get(key);
+        return null != cachedValue ? cachedValue.get() : null;
+    }
+
+    private void refreshIndexMapping(Cache cache, String indexName) {
+        try {
+            cache.put(indexName, loadIndexMapping(indexName));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh mapping of index '{}': {}", indexName, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, ElasticSearchMappingType> loadIndexMapping(String indexName) {
 
         try {
 
@@ -101,11 +229,10 @@ public class ElasticSearchClientServiceImpl implements ElasticSearchClientServic
         List<IndicesPrivileges> indicesPrivileges = new ArrayList<>();
         for (Map.Entry<String, String> entry : indexPrivilege.entrySet()) {
             indicesPrivileges.add(
-                            IndicesPrivileges.builder()
-                                    .indices(entry.getKey())
+                            IndicesPrivileges.of(i -> i
+                                    .names(entry.getKey())
                                     .allowRestrictedIndices(false)
-                                    .privileges(entry.getValue())
-                                    .build());
+                                    .privileges(IndexPrivilege._DESERIALIZER.parse(entry.getValue()))));
         }
         return indicesPrivileges;
     }
@@ -119,20 +246,7 @@ public class ElasticSearchClientServiceImpl implements ElasticSearchClientServic
             log.warn(e.getMessage());
             return false;
         }
-        return response.isCreated();
-    }
-
-    @Override
-    public long getDocumentCountForIndex(String index){
-        long documentCount = 0;
-        try {
-            documentCount = client.getIndexDocumentCount(index);
-
-        }catch(Exception e){
-            log.error(e.getMessage());
-            return documentCount;
-        }
-        return documentCount;
+        return response.created();
     }
 
 }
@@ -0,0 +1,258 @@
+package com.github.searchprofileservice.service.impl;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import com.github.searchprofileservice.config.ElasticSearchResilienceProperties;
+import com.github.searchprofileservice.exception.ElasticSearchRejectedException;
+import com.github.searchprofileservice.model.ElasticSearchCall;
+import com.github.searchprofileservice.model.enums.ElasticSearchCallType;
+import com.github.searchprofileservice.service.ElasticSearchResilienceService;
+import com.github.searchprofileservice.util.CircuitBreaker;
+import com.github.searchprofileservice.util.RetryBudget;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.elasticsearch.client.ResponseException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One circuit breaker and retry budget for the whole cluster, and one bulkhead per call type.
+ *
+ * Failures are calls that did not get an answer and calls answered with status 429 or 5xx. Other
+ * errors, e.g. a missing index, say nothing about the health of the cluster and count as success.
+ * Metrics: {@code elasticsearch.circuit.state} (0 closed, 1 half open, 2 open),
+ * {@code elasticsearch.circuit.failure.rate}, {@code elasticsearch.retry.budget.available},
+ * {@code elasticsearch.bulkhead.available}, {@code elasticsearch.calls.retried} and
+ * {@code elasticsearch.calls.rejected}.
+ */
+@Slf4j
+@Service
+public class ElasticSearchResilienceServiceImpl implements ElasticSearchResilienceService {
+
+  /** there is no telling when a running call finishes, so clients are asked to retry after this */
+  private static final long BULKHEAD_FULL_RETRY_AFTER_SECONDS = 1;
+
+  private final ElasticSearchResilienceProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  private final CircuitBreaker circuitBreaker;
+  private final RetryBudget retryBudget;
+  private final Map<ElasticSearchCallType, Semaphore> bulkheads = new EnumMap<>(ElasticSearchCallType.class);
+
+  public ElasticSearchResilienceServiceImpl(
+      ElasticSearchResilienceProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+
+    ElasticSearchResilienceProperties.CircuitBreaker circuit = properties.getCircuitBreaker();
+    this.circuitBreaker = new CircuitBreaker(
+        circuit.getFailureRateThreshold(),
+        circuit.getWindowSize(),
+        circuit.getMinimumCalls(),
+        circuit.getOpenDuration().toNanos(),
+        circuit.getHalfOpenCalls());
+    this.retryBudget = new RetryBudget(
+        properties.getRetry().getBudgetRatio(), properties.getRetry().getBudgetMaxRetries());
+
+    Gauge.builder("elasticsearch.circuit.state", circuitBreaker, ElasticSearchResilienceServiceImpl::toGaugeValue)
+        .description("State of the elasticsearch circuit, 0 closed, 1 half open, 2 open")
+        .register(meterRegistry);
+    Gauge.builder("elasticsearch.circuit.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+        .register(meterRegistry);
+    Gauge.builder("elasticsearch.retry.budget.available", retryBudget, RetryBudget::getAvailableRetries)
+        .register(meterRegistry);
+    for (ElasticSearchCallType callType : ElasticSearchCallType.values()) {
+      Semaphore bulkhead = new Semaphore(properties.getBulkhead(callType).getMaxConcurrentCalls());
+      bulkheads.put(callType, bulkhead);
+      Gauge.builder("elasticsearch.bulkhead.available", bulkhead, Semaphore::availablePermits)
+          .tag("type", callType.getTag())
+          .register(meterRegistry);
+    }
+  }
+
+  @Override
+  public <T> T call(ElasticSearchCallType callType, boolean idempotent, ElasticSearchCall<T> call)
+      throws IOException {
+
+    if (!properties.isEnabled()) {
+      return call.execute();
+    }
+
+    if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+      throw rejectCircuitOpen(callType); // before waiting for the bulkhead
+    }
+    Semaphore bulkhead = bulkheads.get(callType);
+    if (!tryAcquire(bulkhead, properties.getBulkhead(callType).getMaxWait().toNanos())) {
+      throw reject(callType, ElasticSearchRejectedException.REASON_BULKHEAD_FULL, BULKHEAD_FULL_RETRY_AFTER_SECONDS);
+    }
+    try {
+      if (!circuitBreaker.tryAcquirePermission()) {
+        throw rejectCircuitOpen(callType);
+      }
+      retryBudget.onCall();
+      return callWithRetries(callType, idempotent, call);
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  /**
+   * Makes the call, which has been permitted by the circuit already
+   */
+  private <T> T callWithRetries(ElasticSearchCallType callType, boolean idempotent, ElasticSearchCall<T> call)
+      throws IOException {
+
+    for (int attempt = 1; ; attempt++) {
+      try {
+        T result = call.execute();
+        circuitBreaker.onSuccess();
+        return result;
+      } catch (IOException | RuntimeException e) {
+        if (!isFailure(e)) {
+          circuitBreaker.onSuccess();
+          throw e;
+        }
+        onFailure(e);
+
+        if (attempt >= properties.getRetry().getMaxAttempts()
+            || !(idempotent || isNotExecuted(e))
+            || !retryBudget.tryWithdraw()) {
+          throw e;
+        }
+        if (!backOff(attempt) || !circuitBreaker.tryAcquirePermission()) {
+          throw e; // interrupted or the circuit opened meanwhile, the failure tells more than a rejection
+        }
+        meterRegistry.counter("elasticsearch.calls.retried", "type", callType.getTag()).increment();
+      }
+    }
+  }
+
+  @Override
+  public CircuitBreaker.State getCircuitState() {
+    return circuitBreaker.getState();
+  }
+
+  @Override
+  public double getFailureRate() {
+    return circuitBreaker.getFailureRate();
+  }
+
+  @Override
+  public double getAvailableRetries() {
+    return retryBudget.getAvailableRetries();
+  }
+
+  private void onFailure(Exception e) {
+    boolean wasOpen = circuitBreaker.getState() == CircuitBreaker.State.OPEN;
+    circuitBreaker.onFailure();
+    if (!wasOpen && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+      log.warn("Elasticsearch circuit opened for {}, last failure: {}",
+          properties.getCircuitBreaker().getOpenDuration(), e.getMessage());
+    }
+  }
+
+  private ElasticSearchRejectedException rejectCircuitOpen(ElasticSearchCallType callType) {
+    return reject(callType, ElasticSearchRejectedException.REASON_CIRCUIT_OPEN,
+        toRetryAfterSeconds(circuitBreaker.getRemainingOpenNanos()));
+  }
+
+  private ElasticSearchRejectedException reject(ElasticSearchCallType callType, String reason, long retryAfterSeconds) {
+    meterRegistry.counter("elasticsearch.calls.rejected", "type", callType.getTag(), "reason", reason)
+        .increment();
+    return new ElasticSearchRejectedException(reason, retryAfterSeconds);
+  }
+
+  /**
+   * Waits a random time of up to the initial backoff, doubled with every attempt and capped at
+   * the maximum backoff (full jitter), so that retries of many requests spread out
+   *
+   * @return false if the thread was interrupted
+   */
+  private boolean backOff(int attempt) {
+    long initialNanos = properties.getRetry().getInitialBackoff().toNanos();
+    long maxNanos = properties.getRetry().getMaxBackoff().toNanos();
+    long capNanos = Math.min(maxNanos, initialNanos << Math.min(attempt - 1, 20));
+    if (capNanos <= 0) {
+      return true;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(capNanos + 1));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static boolean tryAcquire(Semaphore bulkhead, long maxWaitNanos) {
+    try {
+      return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * @return whether the error tells that elasticsearch is unreachable or overloaded
+   */
+  static boolean isFailure(Throwable e) {
+    int status = statusOf(e);
+    if (status > 0) {
+      return status == 429 || status >= 500;
+    }
+    return e instanceof IOException;
+  }
+
+  /**
+   * @return whether the call surely had no effect, because it did not reach elasticsearch or was
+   *     rejected before it was executed
+   */
+  static boolean isNotExecuted(Throwable e) {
+    int status = statusOf(e);
+    if (status > 0) {
+      return status == 429 || status == 503;
+    }
+    for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+      if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the http status elasticsearch answered with, 0 if it did not answer
+   */
+  private static int statusOf(Throwable e) {
+    if (e instanceof ElasticsearchException elasticsearchException) {
+      return elasticsearchException.status();
+    }
+    for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+      if (cause instanceof ResponseException responseException) {
+        return responseException.getResponse().getStatusLine().getStatusCode();
+      }
+    }
+    return 0;
+  }
+
+  private static double toGaugeValue(CircuitBreaker circuitBreaker) {
+    CircuitBreaker.State state = circuitBreaker.getState();
+    if (state == CircuitBreaker.State.OPEN) {
+      return 2;
+    }
+    return state == CircuitBreaker.State.HALF_OPEN ? 1 : 0;
+  }
+
+  private static long toRetryAfterSeconds(long nanos) {
+    return Math.max(1, (long) Math.ceil(nanos / (double) TimeUnit.SECONDS.toNanos(1)));
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.searchprofileservice.service.impl;
+
+import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.client.impl.ElasticSearchStatefulClientImpl;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.model.IndexStatistics;
+import com.github.searchprofileservice.service.IndexStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndexStatisticsServiceImpl implements IndexStatisticsService {
+
+    /**
+     * applications per _cat/indices request, their index patterns have to fit into the request
+     * line, which elasticsearch limits to 4kb
+     */
+    public static final int APPLICATIONS_PER_REQUEST = 50;
+
+    private final ElasticSearchStatefulClient client;
+    private final CacheManager cacheManager;
+
+    @Override
+    public Map<UUID, IndexStatistics> getStatisticsForApplications(Collection<UUID> applicationIds) {
+        Cache cache = cacheManager.getCache(CachingConfig.INDEX_STATISTICS_CACHE);
+
+        Map<UUID, IndexStatistics> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID applicationId : applicationIds) {
+            IndexStatistics cached = null == cache
+                ? null
+                : cache.get(applicationId.toString(), IndexStatistics.class);
+            if (null != cached) {
+                result.put(applicationId, cached);
+            } else {
+                missing.add(applicationId);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += APPLICATIONS_PER_REQUEST) {
+            List<UUID> applicationIdsOfRequest =
+                missing.subList(from, Math.min(missing.size(), from + APPLICATIONS_PER_REQUEST));
+            fetchStatistics(applicationIdsOfRequest, cache, result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the indices of the applications only. The pattern {@code <applicationId>*} matches the
+     * standard and the partial word index, and unlike their names does not fail the request if an
+     * application has no index.
+     */
+    private void fetchStatistics(List<UUID> applicationIds, Cache cache, Map<UUID, IndexStatistics> result) {
+        Map<String, IndexStatistics> indicesStatistics;
+        try {
+            indicesStatistics = client.getIndicesStatistics(applicationIds.stream()
+                .map(applicationId -> applicationId + "*")
+                .toList());
+        } catch (IOException | RuntimeException e) {
+            log.error(e.getMessage());
+            applicationIds.forEach(applicationId -> result.put(applicationId, IndexStatistics.EMPTY));
+            return; // not cached, the next listing tries again
+        }
+
+        for (UUID applicationId : applicationIds) {
+            IndexStatistics statistics = toApplicationStatistics(applicationId, indicesStatistics);
+            result.put(applicationId, statistics);
+            if (null != cache) {
+                cache.put(applicationId.toString(), statistics);
+            }
+        }
+    }
+
+    /**
+     * The documents of an application are counted in its standard index, the store size covers
+     * both the standard and the partial word index.
+     */
+    private static IndexStatistics toApplicationStatistics(
+        UUID applicationId, Map<String, IndexStatistics> indicesStatistics) {
+
+        String indexName = applicationId.toString();
+        IndexStatistics standard = indicesStatistics.getOrDefault(indexName, IndexStatistics.EMPTY);
+        IndexStatistics partialWord = indicesStatistics.getOrDefault(
+            indexName + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX,
+            IndexStatistics.EMPTY);
+
+        return new IndexStatistics(
+            standard.getDocumentCount(),
+            standard.getStoreSizeInBytes() + partialWord.getStoreSizeInBytes());
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.searchprofileservice.service.impl;
+
+import com.github.searchprofileservice.client.impl.ElasticSearchStatefulClientImpl;
+import com.github.searchprofileservice.config.InstrumentationProperties;
+import com.github.searchprofileservice.model.ServerTiming;
+import com.github.searchprofileservice.model.StageTimer;
+import com.github.searchprofileservice.service.InstrumentationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class InstrumentationServiceImpl implements InstrumentationService {
+
+  public static final String TAG_ALL = "all";
+  public static final String TAG_UNKNOWN = "unknown";
+
+  private final MeterRegistry meterRegistry;
+  private final InstrumentationProperties instrumentationProperties;
+
+  /**
+   * Meters by their name followed by their tag values. Looking a meter up in the registry builds
+   * and sorts its tags on every call.
+   */
+  private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+  private final Map<List<String>, Counter> counters = new ConcurrentHashMap<>();
+  private final Map<List<String>, DistributionSummary> distributionSummaries = new ConcurrentHashMap<>();
+
+  @Override
+  public StageTimer startStage(String operation, String stage, String applicationId, String profileId) {
+    Timer timer = meter(
+        timers,
+        List.of("request.stage", operation, stage, applicationTag(applicationId), profileTag(profileId)),
+        key -> meterRegistry.timer(key.get(0), Tags.of(
+            "operation", key.get(1),
+            "stage", key.get(2),
+            "application", key.get(3),
+            "profile", key.get(4))));
+    return new StageTimer(timer, Timer.start(meterRegistry), serverTiming(), ServerTiming.Metric.ofStage(stage));
+  }
+
+  @Override
+  public void recordSearch(String indexName, long tookMillis, long roundTripNanos) {
+    indexMeter(timers, "elasticsearch.search.took", indexName, meterRegistry::timer)
+        .record(tookMillis, TimeUnit.MILLISECONDS);
+    indexMeter(timers, "elasticsearch.search.round.trip", indexName, meterRegistry::timer)
+        .record(roundTripNanos, TimeUnit.NANOSECONDS);
+    addTook(tookMillis);
+  }
+
+  @Override
+  public void recordBulk(String indexName, int documentCount, int failureCount, long tookMillis) {
+    indexMeter(distributionSummaries, "elasticsearch.bulk.documents", indexName, (name, tags) ->
+        DistributionSummary.builder(name)
+            .baseUnit("documents")
+            .tags(tags)
+            .register(meterRegistry))
+        .record(documentCount);
+    indexMeter(counters, "elasticsearch.bulk.failures", indexName, meterRegistry::counter)
+        .increment(failureCount);
+    indexMeter(timers, "elasticsearch.bulk.took", indexName, meterRegistry::timer)
+        .record(tookMillis, TimeUnit.MILLISECONDS);
+    addTook(tookMillis);
+  }
+
+  private static <M> M meter(Map<List<String>, M> meters, List<String> key, Function<List<String>, M> register) {
+    M meter = meters.get(key);
+    return null != meter ? meter : meters.computeIfAbsent(key, register);
+  }
+
+  /**
+   * @return the server timing of the current request, null if it is not timed or server timing
+   *     is disabled, which skips the thread local lookup
+   */
+  private ServerTiming serverTiming() {
+    return instrumentationProperties.isServerTiming() ? ServerTiming.current() : null;
+  }
+
+  private void addTook(long tookMillis) {
+    ServerTiming serverTiming = serverTiming();
+    if (null != serverTiming) {
+      serverTiming.add(ServerTiming.Metric.ES_TOOK, TimeUnit.MILLISECONDS.toNanos(tookMillis));
+    }
+  }
+
+  /**
+   * Indices are named after their application, the partial word variant is told apart by an
+   * extra tag instead of doubling the applications.
+   */
+  private <M> M indexMeter(
+      Map<List<String>, M> meters, String name, String indexName, BiFunction<String, Tags, M> register) {
+    boolean partialWord = indexName.endsWith(ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX);
+    String applicationId = partialWord && instrumentationProperties.isApplicationTags()
+        ? indexName.substring(0, indexName.length() - ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX.length())
+        : indexName;
+    return meter(
+        meters,
+        List.of(name, applicationTag(applicationId), partialWord ? "partial-word" : "standard"),
+        key -> register.apply(key.get(0), Tags.of("application", key.get(1), "index", key.get(2))));
+  }
+
+  private String applicationTag(String applicationId) {
+    if (!instrumentationProperties.isApplicationTags()) {
+      return TAG_ALL;
+    }
+    return null == applicationId ? TAG_UNKNOWN : applicationId;
+  }
+
+  private String profileTag(String profileId) {
+    if (!instrumentationProperties.isProfileTags()) {
+      return TAG_ALL;
+    }
+    return null == profileId ? TAG_UNKNOWN : profileId;
+  }
+}
@@ -0,0 +1,109 @@
+package com.github.searchprofileservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.searchprofileservice.config.RateLimitProperties;
+import com.github.searchprofileservice.exception.RateLimitExceededException;
+import com.github.searchprofileservice.model.RateLimitPermit;
+import com.github.searchprofileservice.model.RateLimitState;
+import com.github.searchprofileservice.service.RateLimitService;
+import com.github.searchprofileservice.util.IngestLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps one {@link IngestLimiter} per application and api key. Limiters of applications and api
+ * keys that did not ingest for {@code rate-limit.idle-timeout} are dropped, since a fresh limiter
+ * starts with full buckets anyway.
+ */
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+
+  public static final String SCOPE_APPLICATION = "application";
+  public static final String SCOPE_API_KEY = "api-key";
+
+  private final RateLimitProperties rateLimitProperties;
+  private final MeterRegistry meterRegistry;
+
+  private final Cache<UUID, IngestLimiter> applicationLimiters;
+  private final Cache<UUID, IngestLimiter> apiKeyLimiters;
+
+  public RateLimitServiceImpl(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+    this.rateLimitProperties = rateLimitProperties;
+    this.meterRegistry = meterRegistry;
+    this.applicationLimiters = Caffeine.newBuilder()
+        .expireAfterAccess(rateLimitProperties.getIdleTimeout())
+        .build();
+    this.apiKeyLimiters = Caffeine.newBuilder()
+        .expireAfterAccess(rateLimitProperties.getIdleTimeout())
+        .build();
+  }
+
+  @Override
+  public RateLimitPermit acquireIngest(
+      UUID applicationId, UUID apiKeyId, long documentCount, long byteCount, boolean bulk) {
+
+    if (!rateLimitProperties.isEnabled()) {
+      return RateLimitPermit.NONE;
+    }
+
+    IngestLimiter applicationLimiter = applicationLimiters.asMap().computeIfAbsent(
+        applicationId,
+        id -> newLimiter(SCOPE_APPLICATION, rateLimitProperties.getApplicationLimits(id)));
+    IngestLimiter apiKeyLimiter = apiKeyLimiters.asMap().computeIfAbsent(
+        apiKeyId,
+        id -> newLimiter(SCOPE_API_KEY, rateLimitProperties.getApiKey()));
+
+    try {
+      applicationLimiter.acquire(documentCount, byteCount, bulk);
+      try {
+        apiKeyLimiter.acquire(documentCount, byteCount, bulk);
+      } catch (RateLimitExceededException e) {
+        applicationLimiter.revert(documentCount, byteCount, bulk);
+        throw e;
+      }
+    } catch (RateLimitExceededException e) {
+      meterRegistry.counter(
+          "ingest.rate.limit.rejections", "scope", e.getScope(), "limit", e.getLimit())
+          .increment();
+      throw e;
+    }
+
+    return new RateLimitPermit(() -> {
+      applicationLimiter.releaseBulkSlot(bulk);
+      apiKeyLimiter.releaseBulkSlot(bulk);
+    });
+  }
+
+  @Override
+  public List<RateLimitState> getStates() {
+    List<RateLimitState> states = new ArrayList<>();
+    addStates(states, SCOPE_APPLICATION, applicationLimiters.asMap());
+    addStates(states, SCOPE_API_KEY, apiKeyLimiters.asMap());
+    return states;
+  }
+
+  private IngestLimiter newLimiter(String scope, RateLimitProperties.Limits limits) {
+    return new IngestLimiter(
+        scope,
+        limits.getDocumentsPerSecond(),
+        limits.getBytesPerSecond(),
+        limits.getConcurrentBulks(),
+        rateLimitProperties.getBurst());
+  }
+
+  private static void addStates(
+      List<RateLimitState> states, String scope, Map<UUID, IngestLimiter> limiters) {
+    limiters.forEach((id, limiter) -> states.add(new RateLimitState(
+        scope,
+        id.toString(),
+        limiter.getAvailableDocuments(),
+        limiter.getAvailableBytes(),
+        limiter.getActiveBulks())));
+  }
+}
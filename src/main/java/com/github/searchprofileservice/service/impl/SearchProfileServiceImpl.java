@@ -3,23 +3,31 @@ package com.github.searchprofileservice.service.impl;
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.api.model.SearchProfileDto.BasicProjection;
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.CursorPage;
+import com.github.searchprofileservice.model.SearchFacet;
 import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchFilter;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
 import com.github.searchprofileservice.persistence.mongo.repository.SearchProfileRepository;
 import com.github.searchprofileservice.service.AuthenticationService;
 import com.github.searchprofileservice.service.ElasticSearchClientService;
 import com.github.searchprofileservice.service.SearchProfileService;
+import com.github.searchprofileservice.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * implementation of search profile.
@@ -49,16 +57,35 @@ public class SearchProfileServiceImpl implements SearchProfileService {
 
   @Override
   public List<SearchProfileDto.BasicProjection> getAllSearchProfilesAsBasicProjection() {
-    return searchProfileRepository
-        .findAllAsBasicProjection()
-        .stream()
-        .map(SearchProfileDto.BasicProjection::fromDocument)
-        .toList();
+    try (Stream<SearchProfileDocument> documents = searchProfileRepository.findAllAsBasicProjection()) {
+      return documents
+          .map(SearchProfileDto.BasicProjection::fromDocument)
+          .toList();
+    }
+  }
+
+  @Override
+  public CursorPage<SearchProfileDto.BasicProjection> getSearchProfilesAsBasicProjection(
+      String cursor, int limit) {
+
+    String[] keys = CursorUtil.decode(cursor, 2);
+    List<SearchProfileDocument> documents = searchProfileRepository.findAllAsBasicProjectionAfter(
+        null == keys ? "" : keys[0],
+        null == keys ? "" : keys[1],
+        CursorUtil.toPageRequest(limit));
+
+    return CursorUtil
+        .toPage(
+            documents,
+            limit,
+            document -> new String[] { document.getApplicationId(), document.getProfileId() })
+        .map(SearchProfileDto.BasicProjection::fromDocument);
   }
 
   @Override
   public SearchProfileDto postNewSearchProfile(SearchProfileDto searchProfile) {
     String userId = authenticationService.getUser().getId();
+    checkFilterAndFacetFields(searchProfile);
 
     SearchProfileDocument searchProfileDocument = SearchProfileDocument.of(searchProfile);
     searchProfileDocument.setProfileId(UUID.randomUUID().toString());
@@ -80,7 +107,9 @@ public class SearchProfileServiceImpl implements SearchProfileService {
       setMapWithDefaultBoostValues(searchProfileDocument);
 
     searchProfileDocument = searchProfileRepository.save(searchProfileDocument);
-    return searchProfileDocument.toSearchProfileDto();
+    SearchProfileDto savedSearchProfile = searchProfileDocument.toSearchProfileDto();
+    putSearchTemplate(savedSearchProfile);
+    return savedSearchProfile;
   }
 
   @Override
@@ -103,30 +132,52 @@ public class SearchProfileServiceImpl implements SearchProfileService {
   @Override
   public SearchProfileDto updateSearchProfile(SearchProfileDto searchProfile, String profileId) {
     String userId = authenticationService.getUser().getId();
-    SearchProfileDocument searchProfileDocument = searchProfileRepository.findById(profileId)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-            "No search profile exists for the given profileId"));
+    checkFilterAndFacetFields(searchProfile);
+    SearchProfileDocument values = SearchProfileDocument.builder()
+        .lastEditorId(userId)
+        .name(searchProfile.getName())
+        .searchFields(searchProfile.getSearchFields())
+        .filters(searchProfile.getFilters())
+        .facets(searchProfile.getFacets())
+        .analyser(searchProfile.getAnalyser())
+        .minScore(searchProfile.getMinScore())
+        .relativeScore(searchProfile.getRelativeScore())
+        .queryable(searchProfile.isQueryable())
+        .build();
 
-    searchProfileDocument.setLastEditorId(userId);
-    searchProfileDocument.setName(searchProfile.getName());
-    searchProfileDocument.setSearchFields(searchProfile.getSearchFields());
-    searchProfileDocument.setAnalyser(searchProfile.getAnalyser());
-    searchProfileDocument.setMinScore(searchProfile.getMinScore());
-    searchProfileDocument.setRelativeScore(searchProfile.getRelativeScore());
-    searchProfileDocument.setQueryable(searchProfile.isQueryable());
-    searchProfileDocument = searchProfileRepository.save(searchProfileDocument);
+    SearchProfileDocument searchProfileDocument = searchProfileRepository
+        .updateEditableFields(profileId, searchProfile.getVersion(), values)
+        .orElseThrow(() -> {
+          if (null != searchProfile.getVersion() && searchProfileRepository.existsById(profileId)) {
+            return new ResponseStatusException(HttpStatus.CONFLICT,
+                "The search profile has been changed since version " + searchProfile.getVersion());
+          }
+          return new ResponseStatusException(HttpStatus.NOT_FOUND,
+              "No search profile exists for the given profileId");
+        });
+    SearchProfileDto updatedSearchProfile = searchProfileDocument.toSearchProfileDto();
+    putSearchTemplate(updatedSearchProfile);
+    if (null != updatedSearchProfile.getVersion()) {
+      deleteSearchTemplate(profileId, updatedSearchProfile.getVersion() - 1);
+    }
 
-    return searchProfileDocument.toSearchProfileDto();
+    return updatedSearchProfile;
   }
 
   @Override
   public void deleteSearchProfile(String profileId) {
+    Optional<SearchProfileDocument> searchProfileDocument = searchProfileRepository.findById(profileId);
     searchProfileRepository.deleteById(profileId);
+    searchProfileDocument.ifPresent(document -> deleteSearchTemplate(profileId, document.getVersion()));
   }
 
   @Override
   public void deleteByApplicationId(UUID applicationId) {
+    List<SearchProfileDocument> searchProfileDocuments =
+        searchProfileRepository.findAllByApplicationId(applicationId.toString());
     searchProfileRepository.deleteByApplicationId(applicationId.toString());
+    searchProfileDocuments.forEach(
+        document -> deleteSearchTemplate(document.getProfileId(), document.getVersion()));
   }
 
   @Override
@@ -148,11 +199,72 @@ public class SearchProfileServiceImpl implements SearchProfileService {
     return elasticSearchService.getIndexMapping(searchProfile.getApplicationId().toString())
         .entrySet()
         .stream()
-        .filter(entry -> !ElasticSearchMappingType.NOT_SUPPORTED.equals(entry.getValue()))
+        .filter(entry -> ElasticSearchMappingType.TEXT.equals(entry.getValue()))
         .map(entry -> entry.getKey())
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Checks that every filter and facet of the search profile is on a field of the index that can
+   * be filtered on, and that ranges are only used on numeric fields.
+   */
+  private void checkFilterAndFacetFields(SearchProfileDto searchProfile) {
+    List<SearchFilter> filters = Optional.ofNullable(searchProfile.getFilters()).orElse(List.of());
+    List<SearchFacet> facets = Optional.ofNullable(searchProfile.getFacets()).orElse(List.of());
+    if (filters.isEmpty() && facets.isEmpty()) {
+      return;
+    }
+
+    Map<String, ElasticSearchMappingType> mapping =
+        elasticSearchService.getIndexMapping(searchProfile.getApplicationId().toString());
+    for (SearchFilter filter : filters) {
+      checkFilterableField("filter on", filter.getFieldName(), filter.isRange(), mapping);
+    }
+    for (SearchFacet facet : facets) {
+      checkFilterableField("count the values of", facet.getFieldName(), facet.isRange(), mapping);
+    }
+  }
+
+  private static void checkFilterableField(
+      String usage, String fieldName, boolean range, Map<String, ElasticSearchMappingType> mapping) {
+    ElasticSearchMappingType type = mapping.get(fieldName);
+    if (null == type || !type.isFilterable()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Can not " + usage + " field '" + fieldName
+              + "', only keyword, boolean and numeric fields of the application are supported.");
+    }
+    if (range && ElasticSearchMappingType.NUMERIC != type) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Can not use ranges of field '" + fieldName + "', it is not numeric.");
+    }
+  }
+
+  /**
+   * Stores the search template of a search profile. A failure does not fail the change of the
+   * search profile, the template is then stored on the first search with it.
+   */
+  private void putSearchTemplate(SearchProfileDto searchProfile) {
+    try {
+      elasticSearchService.putSearchTemplate(searchProfile);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not store the search template of search profile {}: {}",
+          searchProfile.getProfileId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Removes the search template of an outdated or deleted version of a search profile. A failure
+   * leaves an unused template behind.
+   */
+  private void deleteSearchTemplate(String profileId, Long version) {
+    try {
+      elasticSearchService.deleteSearchTemplate(profileId, version);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not remove the search template of search profile {} version {}: {}",
+          profileId, version, e.getMessage());
+    }
+  }
+
   /**
    * sets all fields of corresponding application (elastic search) documents and the assigned
    * default value for the given search profile.
@@ -162,7 +274,7 @@ public class SearchProfileServiceImpl implements SearchProfileService {
         elasticSearchService.getIndexMapping(searchProfileDocument.getApplicationId())
             .entrySet()
             .stream()
-            .filter(entry -> !entry.getValue().equals(ElasticSearchMappingType.NOT_SUPPORTED))
+            .filter(entry -> entry.getValue().equals(ElasticSearchMappingType.TEXT))
             .map(
                 entry -> new SearchField(entry.getKey(), DEFAULT_ACTIVE_VALUE, DEFAULT_BOOST_VALUE))
             .toList()
@@ -1,26 +1,64 @@
 package com.github.searchprofileservice.service.impl;
 
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearch;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearchDocumentResponseBase;
+import co.elastic.clients.elasticsearch.async_search.GetAsyncSearchRequest;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchTemplateRequest;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.TotalHits;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
 import com.github.searchprofileservice.client.impl.ElasticSearchStatefulClientImpl;
+import com.github.searchprofileservice.config.AsyncSearchProperties;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.config.IndexSettingsProperties;
+import com.github.searchprofileservice.model.AsyncSearchResults;
+import com.github.searchprofileservice.model.FacetBucket;
+import com.github.searchprofileservice.model.IndexGeneration;
+import com.github.searchprofileservice.model.QueryTimings;
+import com.github.searchprofileservice.model.SearchFilter;
 import com.github.searchprofileservice.model.SearchResult;
 import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.StageTimer;
+import com.github.searchprofileservice.model.enums.FacetMode;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.AsyncSearchDocument;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+import com.github.searchprofileservice.persistence.mongo.repository.AsyncSearchRepository;
+import com.github.searchprofileservice.service.ApplicationService;
+import com.github.searchprofileservice.service.ElasticSearchClientService;
+import com.github.searchprofileservice.service.InstrumentationService;
 import com.github.searchprofileservice.service.SearchProfileService;
 import com.github.searchprofileservice.service.SearchService;
+import com.github.searchprofileservice.service.SlowQueryLogService;
+import com.github.searchprofileservice.util.ElasticSearchFacetUtil;
+import com.github.searchprofileservice.util.ElasticSearchProfileUtil;
 import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,30 +68,369 @@ public class SearchServiceImpl implements SearchService {
 
   private final SearchProfileService searchProfileService;
   private final ElasticSearchStatefulClient elasticSearchStatefulClient;
+  private final ElasticSearchClientService elasticSearchService;
+  private final InstrumentationService instrumentationService;
+  private final SlowQueryLogService slowQueryLogService;
+  private final CacheManager cacheManager;
+  private final CachingProperties cachingProperties;
+  private final AsyncSearchRepository asyncSearchRepository;
+  private final AsyncSearchProperties asyncSearchProperties;
+  private final ApplicationService applicationService;
+  private final IndexSettingsProperties indexSettingsProperties;
   private final String placeholderSearchValue = "{{placeholder}}";
 
   @Override
   public SearchResults search(String profileId, String searchValue){
-    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
-    return getSearchResults(searchValue, searchProfileDto);
+    return search(profileId, searchValue, Map.of());
+  }
+
+  @Override
+  public SearchResults search(
+      String profileId, String searchValue, Map<String, List<String>> filterParameters) {
+    return search(profileId, searchValue, filterParameters, FacetMode.NONE);
   }
 
-  private SearchResults getSearchResults(String searchValue, SearchProfileDto searchProfileDto) {
-    SearchRequest searchRequest = createSearchRequest(searchProfileDto, searchValue);
-    SearchResults  results;
+  @Override
+  public SearchResults search(
+      String profileId,
+      String searchValue,
+      Map<String, List<String>> filterParameters,
+      FacetMode facetMode) {
+    long startNanos = System.nanoTime();
+    SearchProfileDto searchProfileDto;
+    StageTimer profileLookup = startStage(InstrumentationService.STAGE_PROFILE_LOOKUP, null, profileId);
     try {
-      results = convertToSearchResults(elasticSearchStatefulClient.search(searchRequest));
+      searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
+    } finally {
+      profileLookup.close();
+    }
+    if (FacetMode.ONLY == facetMode) {
+      return getFacets(searchValue, searchProfileDto, filterParameters, startNanos, profileLookup.getElapsedNanos());
+    }
+
+    // the stored search template only has the values of the filters of the search profile and no
+    // facets
+    boolean template = FacetMode.NONE == facetMode && !hasFilterParameter(searchProfileDto, filterParameters);
+    return getSearchResults(
+        searchValue,
+        searchProfileDto,
+        filterParameters,
+        facetMode,
+        template,
+        false,
+        startNanos,
+        profileLookup.getElapsedNanos());
+  }
+
+  /**
+   * Searches for the facets only. The facets are cached per generation of the index of the
+   * application, unless the generation is too young for elasticsearch to have refreshed the index
+   * of the application since the write that started it, or since the writes up to
+   * {@code caching.index-refresh-interval} later whose changes are not published.
+   */
+  private SearchResults getFacets(
+      String searchValue,
+      SearchProfileDto searchProfileDto,
+      Map<String, List<String>> filterParameters,
+      long startNanos,
+      long profileLookupNanos) {
+    String applicationId = searchProfileDto.getApplicationId().toString();
+    Cache facetCache = cacheManager.getCache(CachingConfig.FACET_CACHE);
+    Cache generationCache = cacheManager.getCache(CachingConfig.INDEX_GENERATION_CACHE);
+
+    IndexGeneration generation = null == generationCache ? null : generationCache.get(
+        applicationId, () -> new IndexGeneration(UUID.randomUUID().toString(), startNanos));
+
+    List<Object> key = null;
+    if (null != facetCache && null != generation) {
+      key = List.of(
+          applicationId,
+          generation.getId(),
+          searchProfileDto.getProfileId(),
+          Objects.requireNonNullElse(searchProfileDto.getVersion(), 0L),
+          StringUtils.trimToEmpty(searchValue),
+          Map.copyOf(filterParameters));
+
+      @SuppressWarnings("unchecked")
+      Map<String, List<FacetBucket>> facets = facetCache.get(key, Map.class);
+      if (null != facets) {
+        SearchResults results = new SearchResults();
+        results.setFacets(facets);
+        return results;
+      }
+    }
+
+    SearchResults results = getSearchResults(
+        searchValue,
+        searchProfileDto,
+        filterParameters,
+        FacetMode.ONLY,
+        false,
+        false,
+        startNanos,
+        profileLookupNanos);
+
+    if (null != key && null != generation) {
+      Duration searchableAfter = cachingProperties.getIndexRefreshInterval()
+          .plus(getRefreshInterval(searchProfileDto.getApplicationId()));
+      if (startNanos - generation.getCreatedNanos() >= searchableAfter.toNanos()) {
+        facetCache.put(key, Map.copyOf(results.getFacets()));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * @return the time until writes to the index of the application are searchable, the refresh
+   *     interval of its index settings profile
+   */
+  private Duration getRefreshInterval(UUID applicationId) {
+    IndexSettingsProfile profile = applicationService.findCachedById(applicationId)
+        .map(Application::getIndexSettingsProfile)
+        .orElse(null);
+    return indexSettingsProperties.getProfile(
+        null != profile ? profile : indexSettingsProperties.selectProfile(null)).getRefreshInterval();
+  }
+
+  private static boolean hasFilterParameter(
+      SearchProfileDto searchProfileDto, Map<String, List<String>> filterParameters) {
+    return null != searchProfileDto.getFilters() && searchProfileDto.getFilters()
+        .stream()
+        .map(SearchFilter::getParameter)
+        .filter(Objects::nonNull)
+        .anyMatch(parameter -> !filterParameters.getOrDefault(parameter, List.of()).isEmpty());
+  }
+
+  /**
+   * @param filterParameters the values of the filter parameters by parameter name
+   * @param facetMode whether to search for the results, the facets or both
+   * @param template whether to search with the stored search template of the search profile, which
+   *     must be stored, instead of sending the whole query
+   * @param profile whether to profile the search and add its timings to the results
+   * @param startNanos when the search was received
+   * @param profileLookupNanos the time spent looking up the search profile, 0 if it was given
+   */
+  private SearchResults getSearchResults(
+      String searchValue,
+      SearchProfileDto searchProfileDto,
+      Map<String, List<String>> filterParameters,
+      FacetMode facetMode,
+      boolean template,
+      boolean profile,
+      long startNanos,
+      long profileLookupNanos) {
+    String applicationId = searchProfileDto.getApplicationId().toString();
+    String profileId = searchProfileDto.getProfileId();
+
+    SearchRequest searchRequest = null;
+    SearchTemplateRequest templateRequest = null;
+    StageTimer requestBuild = startStage(InstrumentationService.STAGE_REQUEST_BUILD, applicationId, profileId);
+    try {
+      if (template) {
+        templateRequest = createTemplateRequest(searchProfileDto, searchValue);
+      } else {
+        searchRequest = createSearchRequest(searchProfileDto, searchValue, filterParameters, facetMode, profile);
+      }
+    } finally {
+      requestBuild.close();
+    }
+
+    SearchResponse<ObjectNode> response;
+    StageTimer elasticsearch = startStage(InstrumentationService.STAGE_ELASTICSEARCH, applicationId, profileId);
+    try {
+      response = null != templateRequest
+          ? searchTemplate(searchProfileDto, templateRequest, searchValue)
+          : elasticSearchStatefulClient.search(searchRequest);
     }
     catch (IOException e) {
       log.error(e.getMessage());
       throw new ResponseStatusException(
           HttpStatus.INTERNAL_SERVER_ERROR, "Could not perform request on elastic search.");
+    } finally {
+      elasticsearch.close();
     }
-    if(searchProfileDto.isQueryable() || results.getNumberOfResults() == 0){
+
+    SearchResults results;
+    StageTimer postProcess = startStage(InstrumentationService.STAGE_POST_PROCESS, applicationId, profileId);
+    try {
+      results = toSearchResults(response, searchProfileDto, facetMode);
+    } finally {
+      postProcess.close();
+    }
+
+    long totalNanos = System.nanoTime() - startNanos;
+    boolean recorded = slowQueryLogService.isRecorded(totalNanos);
+    if (!profile && !recorded) {
       return results;
-  }else{
-      return getRelativeSearchResults(results, searchProfileDto);
     }
+
+    Map<String, Double> stages = new HashMap<>();
+    if (profileLookupNanos > 0) {
+      stages.put(InstrumentationService.STAGE_PROFILE_LOOKUP, toMillis(profileLookupNanos));
+    }
+    stages.put(InstrumentationService.STAGE_REQUEST_BUILD, toMillis(requestBuild.getElapsedNanos()));
+    stages.put(InstrumentationService.STAGE_ELASTICSEARCH, toMillis(elasticsearch.getElapsedNanos()));
+    stages.put(InstrumentationService.STAGE_POST_PROCESS, toMillis(postProcess.getElapsedNanos()));
+
+    if (profile) {
+      results.setQueryTimings(new QueryTimings(
+          stages, response.took(), ElasticSearchProfileUtil.condense(response.profile())));
+    }
+    if (recorded) {
+      TotalHits totalHits = response.hits().total();
+
+      slowQueryLogService.record(SlowQueryRecord.builder()
+          .timestamp(Instant.now())
+          .applicationId(applicationId)
+          .profileId(profileId)
+          .searchValue(searchValue)
+          .query(null != templateRequest ? templateRequest.toString() : searchRequest.toString())
+          .tookMillis(response.took())
+          .totalMillis(toMillis(totalNanos))
+          .hits(null != totalHits ? totalHits.value() : response.hits().hits().size())
+          .stages(stages)
+          .build());
+    }
+    return results;
+  }
+
+  private SearchResults toSearchResults(
+      SearchResponse<ObjectNode> response, SearchProfileDto searchProfileDto, FacetMode facetMode) {
+    SearchResults results = convertToSearchResults(response);
+    if (FacetMode.NONE != facetMode) {
+      results.setFacets(ElasticSearchFacetUtil.toFacets(response.aggregations()));
+    }
+    if(!searchProfileDto.isQueryable() && results.getNumberOfResults() != 0){
+      results = getRelativeSearchResults(results, searchProfileDto);
+    }
+    return results;
+  }
+
+  @Override
+  public AsyncSearchResults submitAsyncSearch(
+      String profileId,
+      String searchValue,
+      Map<String, List<String>> filterParameters,
+      FacetMode facetMode) {
+    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
+    SubmitRequest request = ElasticSearchSearchRequestUtil.createAsyncRequest(
+        createSearchRequest(searchProfileDto, searchValue, filterParameters, facetMode, false),
+        asyncSearchProperties.getWaitForCompletionTimeout(),
+        asyncSearchProperties.getRetention());
+    Instant expiresAt = Instant.now().plus(asyncSearchProperties.getRetention());
+
+    AsyncSearchDocumentResponseBase<ObjectNode> response;
+    try {
+      response = elasticSearchStatefulClient.submitAsyncSearch(request);
+    } catch (IOException e) {
+      log.error(e.getMessage());
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Could not perform request on elastic search.");
+    }
+
+    // without id the search finished in time and its results were not kept
+    if (null != response.id()) {
+      asyncSearchRepository.save(AsyncSearchDocument.builder()
+          .id(response.id())
+          .applicationId(searchProfileDto.getApplicationId().toString())
+          .profileId(profileId)
+          .facetMode(facetMode)
+          .expiresAt(expiresAt)
+          .build());
+    }
+    return toAsyncSearchResults(response, searchProfileDto, facetMode, expiresAt);
+  }
+
+  @Override
+  public UUID getAsyncSearchApplicationId(String asyncId) {
+    return UUID.fromString(getAsyncSearchDocument(asyncId).getApplicationId());
+  }
+
+  @Override
+  public AsyncSearchResults getAsyncSearch(String asyncId) {
+    AsyncSearchDocument document = getAsyncSearchDocument(asyncId);
+    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(document.getProfileId());
+
+    AsyncSearchDocumentResponseBase<ObjectNode> response;
+    try {
+      response = elasticSearchStatefulClient.getAsyncSearch(GetAsyncSearchRequest.of(g -> g.id(asyncId)));
+    } catch (ElasticsearchException e) {
+      if (e.status() != 404) {
+        throw e;
+      }
+      // removed by elasticsearch before the ttl index removed the document
+      asyncSearchRepository.deleteById(asyncId);
+      throw asyncSearchNotFound(asyncId);
+    } catch (IOException e) {
+      log.error(e.getMessage());
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Could not perform request on elastic search.");
+    }
+    return toAsyncSearchResults(response, searchProfileDto, document.getFacetMode(), document.getExpiresAt());
+  }
+
+  @Override
+  public void deleteAsyncSearch(String asyncId) {
+    try {
+      elasticSearchStatefulClient.deleteAsyncSearch(asyncId);
+    } catch (IOException e) {
+      log.error(e.getMessage());
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Could not perform request on elastic search.");
+    }
+    asyncSearchRepository.deleteById(asyncId);
+  }
+
+  /**
+   * @return the asynchronous search, unless it expired and the ttl index did not remove it yet
+   * @throws ResponseStatusException with http status {@code NOT_FOUND} if there is no such search
+   */
+  private AsyncSearchDocument getAsyncSearchDocument(String asyncId) {
+    Instant now = Instant.now();
+    return asyncSearchRepository.findById(asyncId)
+        .filter(document -> document.getExpiresAt().isAfter(now))
+        .orElseThrow(() -> asyncSearchNotFound(asyncId));
+  }
+
+  private static ResponseStatusException asyncSearchNotFound(String asyncId) {
+    return new ResponseStatusException(
+        HttpStatus.NOT_FOUND, "Async search with id : " + asyncId + " does not exist.");
+  }
+
+  private AsyncSearchResults toAsyncSearchResults(
+      AsyncSearchDocumentResponseBase<ObjectNode> response,
+      SearchProfileDto searchProfileDto,
+      FacetMode facetMode,
+      Instant expiresAt) {
+    AsyncSearchResults results = new AsyncSearchResults();
+    results.setId(response.id());
+    results.setRunning(response.isRunning());
+    results.setPartial(response.isPartial());
+    results.setExpiresAt(null == response.id() ? null : expiresAt);
+    results.setResults(toSearchResults(toSearchResponse(response.response()), searchProfileDto, facetMode));
+    return results;
+  }
+
+  /**
+   * @return the results of an asynchronous search in the form of a plain search
+   */
+  private static SearchResponse<ObjectNode> toSearchResponse(AsyncSearch<ObjectNode> search) {
+    return SearchResponse.of(r -> r
+        .took(search.took())
+        .timedOut(search.timedOut())
+        .shards(search.shards())
+        .hits(search.hits())
+        .maxScore(search.maxScore())
+        .aggregations(search.aggregations()));
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private StageTimer startStage(String stage, String applicationId, String profileId) {
+    return instrumentationService.startStage(
+        InstrumentationService.OPERATION_SEARCH, stage, applicationId, profileId);
   }
 
   private SearchResults getRelativeSearchResults(SearchResults searchResults, SearchProfileDto searchProfileDto ){
@@ -92,10 +469,21 @@ public class SearchServiceImpl implements SearchService {
 
   @Override
   public String getSearchQuery(String profileId, String searchValue){
+    SearchProfileDto searchProfileDto = getQueryableSearchProfile(profileId);
+    SearchRequest searchRequest = createSearchRequest(searchProfileDto, searchValue, Map.of(), FacetMode.NONE, false);
+    return searchRequest.toString();
+  }
+
+  @Override
+  public String getSearchTemplateQuery(String profileId) {
+    SearchProfileDto searchProfileDto = getQueryableSearchProfile(profileId);
+    return createTemplateRequest(searchProfileDto, placeholderSearchValue).toString();
+  }
+
+  private SearchProfileDto getQueryableSearchProfile(String profileId) {
     SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
     if(searchProfileDto.isQueryable()){
-      SearchRequest searchRequest = createSearchRequest(searchProfileDto, searchValue);
-      return searchRequest.toString();
+      return searchProfileDto;
     }else{
       throw new ResponseStatusException(
               HttpStatus.BAD_REQUEST,"Searchprofile do not support Elastic Query's. Use additional endpoint for Receiving direct Results");
@@ -104,7 +492,15 @@ public class SearchServiceImpl implements SearchService {
 
   @Override
   public SearchResults searchByProfileDTO(SearchProfileDto searchProfileDto, String searchValue) {
-    return getSearchResults(searchValue, searchProfileDto);
+    return searchByProfileDTO(searchProfileDto, searchValue, false);
+  }
+
+  @Override
+  public SearchResults searchByProfileDTO(
+      SearchProfileDto searchProfileDto, String searchValue, boolean profile) {
+    // the search profile may have unsaved changes, so its stored search template is not used
+    return getSearchResults(
+        searchValue, searchProfileDto, Map.of(), FacetMode.NONE, false, profile, System.nanoTime(), 0);
   }
 
   private SearchResults convertToSearchResults(SearchResponse<ObjectNode> response) {
@@ -120,15 +516,75 @@ public class SearchServiceImpl implements SearchService {
     return searchResults;
   }
 
-  private SearchRequest createSearchRequest(SearchProfileDto searchProfileDto, String searchValue) {
-    ElasticSearchSearchRequestUtil searchRequestUtil = searchProfileDto.getAnalyser().isPartialWordSearch() ?
-      new ElasticSearchSearchRequestUtil(searchProfileDto.getApplicationId().toString() + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX, searchValue) :
-      new ElasticSearchSearchRequestUtil(searchProfileDto.getApplicationId().toString(), searchValue);
+  /**
+   * Searches with the stored search template of the search profile. If elasticsearch does not know
+   * the template, e.g. because storing it failed when the search profile was changed, it is stored
+   * and the search is repeated. The template of a version that has been changed or deleted since
+   * it was read is not stored again, the change removed it and nothing would remove it a second
+   * time; the whole query is sent instead.
+   */
+  private SearchResponse<ObjectNode> searchTemplate(
+      SearchProfileDto searchProfileDto, SearchTemplateRequest templateRequest, String searchValue)
+      throws IOException {
+    try {
+      return elasticSearchStatefulClient.searchTemplate(templateRequest);
+    } catch (ElasticsearchException e) {
+      if (!isMissingTemplate(e)) {
+        throw e;
+      }
+    }
+    if (!isCurrentVersion(searchProfileDto)) {
+      return elasticSearchStatefulClient.search(
+          createSearchRequest(searchProfileDto, searchValue, Map.of(), FacetMode.NONE, false));
+    }
+    elasticSearchService.putSearchTemplate(searchProfileDto);
+    return elasticSearchStatefulClient.searchTemplate(templateRequest);
+  }
+
+  /**
+   * @return whether the search profile is still stored in the version it was read in
+   */
+  private boolean isCurrentVersion(SearchProfileDto searchProfileDto) {
+    try {
+      return Objects.equals(
+          searchProfileDto.getVersion(),
+          searchProfileService.getSearchProfileByProfileId(searchProfileDto.getProfileId()).getVersion());
+    } catch (ResponseStatusException e) {
+      return false;
+    }
+  }
+
+  private static boolean isMissingTemplate(ElasticsearchException e) {
+    return e.status() == 404 && "resource_not_found_exception".equals(e.error().type());
+  }
 
-    return searchRequestUtil.createRequest(
+  private SearchRequest createSearchRequest(
+      SearchProfileDto searchProfileDto,
+      String searchValue,
+      Map<String, List<String>> filterParameters,
+      FacetMode facetMode,
+      boolean profile) {
+    return createSearchRequestUtil(searchProfileDto, searchValue, filterParameters).createRequest(
       searchProfileDto.getSearchFields(),
       searchProfileDto.getMinScore(),
-      searchProfileDto.getAnalyser());
+      searchProfileDto.getAnalyser(),
+      FacetMode.NONE == facetMode ? null : searchProfileDto.getFacets(),
+      FacetMode.ONLY == facetMode,
+      profile);
+  }
+
+  private SearchTemplateRequest createTemplateRequest(SearchProfileDto searchProfileDto, String searchValue) {
+    return createSearchRequestUtil(searchProfileDto, searchValue, Map.of()).createTemplateRequest(
+      ElasticSearchSearchRequestUtil.getTemplateId(searchProfileDto.getProfileId(), searchProfileDto.getVersion()));
+  }
+
+  private static ElasticSearchSearchRequestUtil createSearchRequestUtil(
+      SearchProfileDto searchProfileDto, String searchValue, Map<String, List<String>> filterParameters) {
+    String index = searchProfileDto.getAnalyser().isPartialWordSearch() ?
+      searchProfileDto.getApplicationId().toString() + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX :
+      searchProfileDto.getApplicationId().toString();
+    return new ElasticSearchSearchRequestUtil(
+      index, searchValue, searchProfileDto.getFilters(), filterParameters);
   }
 
 }
@@ -0,0 +1,183 @@
+package com.github.searchprofileservice.service.impl;
+
+import com.github.searchprofileservice.config.SlowQueryLogProperties;
+import com.github.searchprofileservice.model.SlowQueryStatistics;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+import com.github.searchprofileservice.service.SlowQueryLogService;
+import com.github.searchprofileservice.util.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slow query log backed by a capped mongo collection.
+ *
+ * Searches hand their records to a lock-free ring buffer and never wait for mongo, a single
+ * writer thread drains the buffer every {@code slow-query-log.flush-interval} and inserts the
+ * records in one batch.
+ */
+@Slf4j
+@Service
+public class SlowQueryLogServiceImpl implements SlowQueryLogService {
+
+  private final MongoTemplate mongoTemplate;
+  private final SlowQueryLogProperties slowQueryLogProperties;
+  private final RingBuffer<SlowQueryRecord> buffer;
+  private final Counter droppedRecords;
+  private final long thresholdNanos;
+
+  private volatile boolean running;
+  private volatile boolean collectionReady;
+  private Thread writerThread;
+
+  public SlowQueryLogServiceImpl(
+      MongoTemplate mongoTemplate,
+      SlowQueryLogProperties slowQueryLogProperties,
+      MeterRegistry meterRegistry) {
+    this.mongoTemplate = mongoTemplate;
+    this.slowQueryLogProperties = slowQueryLogProperties;
+    this.buffer = new RingBuffer<>(slowQueryLogProperties.getBufferSize());
+    this.droppedRecords = meterRegistry.counter("slow.query.log.dropped");
+    this.thresholdNanos = slowQueryLogProperties.getThreshold().toNanos();
+  }
+
+  @Override
+  public boolean isRecorded(long totalNanos) {
+    if (!slowQueryLogProperties.isEnabled()) {
+      return false;
+    }
+    return totalNanos >= thresholdNanos
+        || ThreadLocalRandom.current().nextDouble() < slowQueryLogProperties.getSampleRate();
+  }
+
+  @Override
+  public void record(SlowQueryRecord record) {
+    record.setSlow(record.getTotalMillis() * TimeUnit.MILLISECONDS.toNanos(1) >= thresholdNanos);
+    if (!buffer.offer(record)) {
+      droppedRecords.increment();
+    }
+  }
+
+  @Override
+  public List<SlowQueryRecord> getSlowest(int limit) {
+    Query query = new Query(Criteria.where("slow").is(true))
+        .with(Sort.by(Sort.Direction.DESC, "totalMillis"))
+        .limit(limit);
+    return mongoTemplate.find(query, SlowQueryRecord.class);
+  }
+
+  @Override
+  public List<SlowQueryStatistics> getMostFrequent(int limit) {
+    Aggregation aggregation = Aggregation.newAggregation(
+        Aggregation.match(Criteria.where("slow").is(true)),
+        Aggregation.group("profileId", "searchValue")
+            .count().as("count")
+            .avg("totalMillis").as("averageMillis")
+            .max("totalMillis").as("maxMillis"),
+        Aggregation.sort(Sort.by(Sort.Direction.DESC, "count", "maxMillis")),
+        Aggregation.limit(limit),
+        Aggregation.project("count", "averageMillis", "maxMillis")
+            .and("_id.profileId").as("profileId")
+            .and("_id.searchValue").as("searchValue")
+            .andExclude("_id"));
+    return mongoTemplate.aggregate(aggregation, SlowQueryRecord.class, SlowQueryStatistics.class)
+        .getMappedResults();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void startWriting() {
+    if (!slowQueryLogProperties.isEnabled() || running) {
+      return;
+    }
+    running = true;
+    writerThread = new Thread(this::writeRecords, "slow-query-log-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  @PreDestroy
+  public synchronized void stopWriting() {
+    running = false;
+    if (null != writerThread) {
+      writerThread.interrupt();
+      try {
+        writerThread.join(slowQueryLogProperties.getFlushInterval().toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void writeRecords() {
+    long flushIntervalMillis = slowQueryLogProperties.getFlushInterval().toMillis();
+
+    while (running) {
+      try {
+        Thread.sleep(flushIntervalMillis);
+      } catch (InterruptedException e) {
+        running = false;
+      }
+      flush();
+    }
+  }
+
+  /**
+   * Writes all waiting records, called by the writer thread. Records that can not be written are
+   * dropped, the log must not pile up records while mongo is unavailable.
+   */
+  public void flush() {
+    List<SlowQueryRecord> records = new ArrayList<>();
+    buffer.drain(records::add, buffer.capacity());
+    if (records.isEmpty()) {
+      return;
+    }
+    try {
+      ensureCappedCollection();
+      mongoTemplate.insert(records, SlowQueryRecord.class);
+    } catch (DataAccessException e) {
+      droppedRecords.increment(records.size());
+      log.warn("Could not write {} slow query records: {}", records.size(), e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the capped collection, unless it exists already. Has to happen before the first
+   * insert, since an insert would create a regular collection, which grows without bounds.
+   */
+  private void ensureCappedCollection() {
+    if (collectionReady) {
+      return;
+    }
+    if (!mongoTemplate.collectionExists(SlowQueryRecord.class)) {
+      try {
+        mongoTemplate.createCollection(
+            SlowQueryRecord.class,
+            CollectionOptions.empty()
+                .capped()
+                .size(slowQueryLogProperties.getCollectionSize()));
+      } catch (DataAccessException e) {
+        // another instance created it concurrently
+        if (!mongoTemplate.collectionExists(SlowQueryRecord.class)) {
+          throw e;
+        }
+      }
+    }
+    collectionReady = true;
+  }
+}
@@ -2,11 +2,15 @@ package com.github.searchprofileservice.service.impl;
 
 import com.github.searchprofileservice.api.model.ElasticSearchUser;
 import com.github.searchprofileservice.api.model.UserDTO;
+import com.github.searchprofileservice.model.CursorPage;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
 import com.github.searchprofileservice.model.enums.Role;
 import com.github.searchprofileservice.persistence.mongo.model.User;
 import com.github.searchprofileservice.persistence.mongo.repository.UserRepository;
+import com.github.searchprofileservice.service.CacheInvalidationService;
 import com.github.searchprofileservice.service.ElasticSearchClientService;
 import com.github.searchprofileservice.service.UserService;
+import com.github.searchprofileservice.util.CursorUtil;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -15,6 +19,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.passay.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -26,6 +31,8 @@ public class UserServiceImpl implements UserService {
   private UserRepository userRepository;
   @Autowired
   private ElasticSearchClientService clientService;
+  @Autowired
+  private CacheInvalidationService cacheInvalidationService;
 
   @Value("${spring.security.adminId}")
   private String adminId;
@@ -45,6 +52,34 @@ public class UserServiceImpl implements UserService {
     return userRepository.findAllAsBasicProjection().map(UserDTO.BasicProjection::fromUser);
   }
 
+  @Override
+  public CursorPage<User> getUsers(Boolean activated, String cursor, int limit) {
+    Pageable pageable = CursorUtil.toPageRequest(limit);
+    String after = getUserIdFromCursor(cursor);
+
+    List<User> users = null == activated
+        ? userRepository.findAllByUserIdGreaterThanOrderByUserIdAsc(after, pageable)
+        : userRepository.findAllByActivatedAndUserIdGreaterThanOrderByUserIdAsc(activated, after, pageable);
+    return CursorUtil.toPage(users, limit, user -> new String[] { user.getUserId() });
+  }
+
+  @Override
+  public CursorPage<UserDTO.BasicProjection> getActiveUsersAsBasicProjections(String cursor, int limit) {
+    Pageable pageable = CursorUtil.toPageRequest(limit);
+
+    List<User> users = userRepository.findAllAsBasicProjectionAfter(getUserIdFromCursor(cursor), pageable);
+    return CursorUtil.toPage(users, limit, user -> new String[] { user.getUserId() })
+        .map(UserDTO.BasicProjection::fromUser);
+  }
+
+  /**
+   * @return the user id held by the cursor, '' (sorting before every id) for the first page
+   */
+  private static String getUserIdFromCursor(String cursor) {
+    String[] keys = CursorUtil.decode(cursor, 1);
+    return null == keys ? "" : keys[0];
+  }
+
   @Override
   public User save(User user) {
     if (StringUtils.isBlank(user.getName())) {
@@ -76,9 +111,15 @@ public class UserServiceImpl implements UserService {
     return userRepository.save(user);
   }
 
+  @Override
+  public boolean updatePictureLink(String userId, String pictureLink) {
+    return userRepository.updatePictureLink(userId, pictureLink) > 0;
+  }
+
   @Override
   public void delete(String userId) {
     userRepository.deleteById(userId);
+    cacheInvalidationService.publish(CacheInvalidationType.USER_DELETED, userId);
   }
 
   @Override
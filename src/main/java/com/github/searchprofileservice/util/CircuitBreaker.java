@@ -0,0 +1,164 @@
+package com.github.searchprofileservice.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count based circuit breaker.
+ *
+ * A closed circuit lets every call through and remembers the outcome of the last calls. Once the
+ * share of failures among them reaches the threshold, the circuit opens and rejects all calls for
+ * a while. Then it is half open and lets a few trial calls through: if all of them succeed the
+ * circuit closes with a fresh window, a single failure opens it again.
+ */
+public class CircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final double failureRateThreshold;
+  private final int minimumCalls;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final LongSupplier clock;
+
+  /** outcomes of the last calls, true for a failure */
+  private final boolean[] window;
+  private int windowPosition;
+  private int windowCalls;
+  private int windowFailures;
+
+  private State state = State.CLOSED;
+  private long openedAt;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  /**
+   * @param failureRateThreshold share of failures at which the circuit opens, between 0 and 1
+   * @param windowSize number of the last calls the failure rate is computed of
+   * @param minimumCalls calls needed in the window before the circuit may open
+   * @param openNanos time an open circuit rejects all calls
+   * @param halfOpenCalls trial calls of a half open circuit
+   */
+  public CircuitBreaker(
+      double failureRateThreshold, int windowSize, int minimumCalls, long openNanos, int halfOpenCalls) {
+    this(failureRateThreshold, windowSize, minimumCalls, openNanos, halfOpenCalls, System::nanoTime);
+  }
+
+  CircuitBreaker(
+      double failureRateThreshold,
+      int windowSize,
+      int minimumCalls,
+      long openNanos,
+      int halfOpenCalls,
+      LongSupplier clock) {
+    if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+      throw new IllegalArgumentException("Failure rate threshold must be between 0 and 1");
+    }
+    if (windowSize < 1 || halfOpenCalls < 1) {
+      throw new IllegalArgumentException("Window size and half open calls must be positive");
+    }
+    this.failureRateThreshold = failureRateThreshold;
+    this.window = new boolean[windowSize];
+    this.minimumCalls = Math.min(Math.max(1, minimumCalls), windowSize);
+    this.openNanos = openNanos;
+    this.halfOpenCalls = halfOpenCalls;
+    this.clock = clock;
+  }
+
+  /**
+   * Asks whether a call may be made. A permitted call has to report its outcome by
+   * {@link #onSuccess()} or {@link #onFailure()}.
+   *
+   * @return false if the circuit is open or all trial calls of the half open circuit are running
+   */
+  public synchronized boolean tryAcquirePermission() {
+    State current = currentState();
+    if (current == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+      halfOpenPermits++;
+      return true;
+    }
+    return current == State.CLOSED;
+  }
+
+  public synchronized void onSuccess() {
+    switch (state) {
+      case CLOSED -> record(false);
+      case HALF_OPEN -> {
+        halfOpenSuccesses++;
+        if (halfOpenSuccesses >= halfOpenCalls) {
+          close();
+        }
+      }
+      default -> { } // a call that was permitted before the circuit opened
+    }
+  }
+
+  public synchronized void onFailure() {
+    switch (state) {
+      case CLOSED -> {
+        record(true);
+        if (windowCalls >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+          open();
+        }
+      }
+      case HALF_OPEN -> open();
+      default -> { }
+    }
+  }
+
+  /**
+   * @return the state of the circuit, an open circuit turns half open once its time is up
+   */
+  public synchronized State getState() {
+    return currentState();
+  }
+
+  /**
+   * @return the share of failures among the last calls of the closed circuit
+   */
+  public synchronized double getFailureRate() {
+    return windowCalls == 0 ? 0 : windowFailures / (double) windowCalls;
+  }
+
+  /**
+   * @return the nanos until an open circuit lets trial calls through, 0 if it is not open
+   */
+  public synchronized long getRemainingOpenNanos() {
+    return currentState() == State.OPEN ? openedAt + openNanos - clock.getAsLong() : 0;
+  }
+
+  private State currentState() {
+    if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+      state = State.HALF_OPEN;
+      halfOpenPermits = 0;
+      halfOpenSuccesses = 0;
+    }
+    return state;
+  }
+
+  private void record(boolean failure) {
+    if (windowCalls == window.length) {
+      if (window[windowPosition]) {
+        windowFailures--;
+      }
+    } else {
+      windowCalls++;
+    }
+    window[windowPosition] = failure;
+    if (failure) {
+      windowFailures++;
+    }
+    windowPosition = (windowPosition + 1) % window.length;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = clock.getAsLong();
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    windowPosition = 0;
+    windowCalls = 0;
+    windowFailures = 0;
+  }
+}
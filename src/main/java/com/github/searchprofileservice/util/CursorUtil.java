@@ -0,0 +1,99 @@
+package com.github.searchprofileservice.util;
+
+import com.github.searchprofileservice.exception.InvalidPageRequestException;
+import com.github.searchprofileservice.model.CursorPage;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for keyset pagination.
+ *
+ * A cursor holds the sort keys of the last item of a page, every next page is queried for items
+ * sorting after these keys. Unlike skipping, this costs the same for every page and does not
+ * shift when items are inserted or deleted in between requests.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CursorUtil {
+
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 500;
+
+  private static final String KEY_SEPARATOR = ".";
+
+  /**
+   * @param keys the sort keys of the last item of a page
+   * @return an opaque, url safe cursor holding the keys
+   */
+  public static String encode(String... keys) {
+    return String.join(
+        KEY_SEPARATOR,
+        Arrays.stream(keys)
+            .map(key -> Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8)))
+            .toList());
+  }
+
+  /**
+   * @param cursor a cursor created by {@link #encode(String...)}, or blank for the first page
+   * @param keyCount the number of keys the cursor must hold
+   * @return the keys of the cursor, or null for a blank cursor
+   * @throws InvalidPageRequestException if the cursor is malformed
+   */
+  public static String[] decode(String cursor, int keyCount) {
+    if (StringUtils.isBlank(cursor)) {
+      return null;
+    }
+
+    String[] parts = cursor.split("\\" + KEY_SEPARATOR, -1);
+    if (parts.length != keyCount) {
+      throw new InvalidPageRequestException("'" + cursor + "' is not a valid cursor");
+    }
+    try {
+      return Arrays.stream(parts)
+          .map(part -> new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8))
+          .toArray(String[]::new);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPageRequestException("'" + cursor + "' is not a valid cursor");
+    }
+  }
+
+  /**
+   * Checks a requested page size.
+   *
+   * @param limit the number of items per page
+   * @return a page request fetching one item more than requested, which tells whether there is
+   *         a next page
+   * @throws InvalidPageRequestException if the size is not between 1 and {@link #MAX_LIMIT}
+   */
+  public static Pageable toPageRequest(int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new InvalidPageRequestException(
+          "'limit' must be between 1 and " + MAX_LIMIT + ", but was " + limit);
+    }
+    return PageRequest.of(0, limit + 1);
+  }
+
+  /**
+   * @param items the items fetched with {@link #toPageRequest(int)}
+   * @param limit the number of items per page
+   * @param keysOf the sort keys of an item
+   * @return the page, with a cursor if more items follow
+   */
+  public static <T> CursorPage<T> toPage(List<T> items, int limit, Function<T, String[]> keysOf) {
+    if (items.size() <= limit) {
+      return new CursorPage<>(items, null);
+    }
+
+    List<T> page = items.subList(0, limit);
+    return new CursorPage<>(page, encode(keysOf.apply(page.get(limit - 1))));
+  }
+}
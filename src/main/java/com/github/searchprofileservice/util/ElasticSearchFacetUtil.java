@@ -0,0 +1,94 @@
+package com.github.searchprofileservice.util;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import com.github.searchprofileservice.model.FacetBucket;
+import com.github.searchprofileservice.model.SearchFacet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * helper class to create the aggregations of the facets of a search profile and to read the
+ * facets from the aggregations elastic search returns.
+ */
+public final class ElasticSearchFacetUtil {
+
+  /** number of values of a facet if the search profile does not give one */
+  public static final int DEFAULT_FACET_SIZE = 10;
+
+  private ElasticSearchFacetUtil() { }
+
+  /**
+   * @param facets the facets of a search profile, may be null
+   * @return a terms or range aggregation per facet, named like its field
+   */
+  public static Map<String, Aggregation> createAggregations(List<SearchFacet> facets) {
+    Map<String, Aggregation> aggregations = new HashMap<>();
+    if (null == facets) {
+      return aggregations;
+    }
+    for (SearchFacet facet : facets) {
+      aggregations.put(facet.getFieldName(), facet.isRange()
+          ? Aggregation.of(a -> a
+              .range(r -> r
+                  .field(facet.getFieldName())
+                  .ranges(facet.getRanges().stream().map(ElasticSearchFacetUtil::createRange).toList())))
+          : Aggregation.of(a -> a
+              .terms(t -> t
+                  .field(facet.getFieldName())
+                  .size(Objects.requireNonNullElse(facet.getSize(), DEFAULT_FACET_SIZE)))));
+    }
+    return aggregations;
+  }
+
+  /**
+   * @param aggregations the aggregations of a search response
+   * @return the buckets of every facet by field name, in the order elastic search returned them
+   */
+  public static Map<String, List<FacetBucket>> toFacets(Map<String, Aggregate> aggregations) {
+    Map<String, List<FacetBucket>> facets = new HashMap<>();
+    aggregations.forEach((name, aggregate) -> facets.put(name, toBuckets(aggregate)));
+    return facets;
+  }
+
+  private static AggregationRange createRange(SearchFacet.Range range) {
+    return AggregationRange.of(r -> r
+        .key(range.getKey())
+        .from(null == range.getFrom() ? null : String.valueOf(range.getFrom()))
+        .to(null == range.getTo() ? null : String.valueOf(range.getTo())));
+  }
+
+  /**
+   * Keyword fields are aggregated as string terms, numeric and boolean fields as long or double
+   * terms, where booleans are keyed as string. A field without values in the index is aggregated
+   * as unmapped terms without buckets.
+   */
+  private static List<FacetBucket> toBuckets(Aggregate aggregate) {
+    if (aggregate.isSterms()) {
+      return aggregate.sterms().buckets().array().stream()
+          .map(bucket -> new FacetBucket(bucket.key(), bucket.docCount()))
+          .toList();
+    } else if (aggregate.isLterms()) {
+      return aggregate.lterms().buckets().array().stream()
+          .map(bucket -> new FacetBucket(
+              null != bucket.keyAsString() ? bucket.keyAsString() : String.valueOf(bucket.key()),
+              bucket.docCount()))
+          .toList();
+    } else if (aggregate.isDterms()) {
+      return aggregate.dterms().buckets().array().stream()
+          .map(bucket -> new FacetBucket(
+              null != bucket.keyAsString() ? bucket.keyAsString() : String.valueOf(bucket.key()),
+              bucket.docCount()))
+          .toList();
+    } else if (aggregate.isRange()) {
+      return aggregate.range().buckets().array().stream()
+          .map(bucket -> new FacetBucket(bucket.key(), bucket.docCount()))
+          .toList();
+    }
+    return List.of();
+  }
+}
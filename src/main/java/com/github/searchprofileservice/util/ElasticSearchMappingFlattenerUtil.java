@@ -1,12 +1,16 @@
 package com.github.searchprofileservice.util;
 
 import co.elastic.clients.elasticsearch._types.mapping.Property;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.Map.Entry;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -17,6 +21,8 @@ public final class ElasticSearchMappingFlattenerUtil {
    * This util will flatten a provided raw elasticsearch mapping to a mapping structure resembling
    * the raw mapping, but as a dot-notation.
    * You will get the identifier (flattened) as a key and the type value as a value.
+   * Multi-fields, like the keyword sub field elasticsearch adds to dynamically mapped strings,
+   * are listed with their own identifier.
    *
    * @param rawMapping    The raw mapping as it will be provided by elasticsearch.
    * @param mappingDepth  The maximum mapping depth for the raw mapping provided by elasticsearch
@@ -24,7 +30,8 @@ public final class ElasticSearchMappingFlattenerUtil {
    *
    * @return  The flattened mapping structure.
    *          Example:  person.name : ElasticSearchMappingType.TEXT
-   *                    person.id   : ElasticSearchMappingType.NOT_SUPPORTED
+   *                    person.name.keyword : ElasticSearchMappingType.KEYWORD
+   *                    person.id   : ElasticSearchMappingType.NUMERIC
    */
   public static Map<String, ElasticSearchMappingType> flattenElasticSearchIndexMapping(
       Map<String, Property> rawMapping, int mappingDepth) {
@@ -39,7 +46,7 @@ public final class ElasticSearchMappingFlattenerUtil {
       if (fieldValue.isObject())
         recurseObjectResolving(fieldName, fieldValue, 1, mappingDepth, result);
       else
-        result.put(fieldName, getType(fieldValue));
+        putField(fieldName, fieldValue, result);
     }
 
     return result;
@@ -75,17 +82,121 @@ public final class ElasticSearchMappingFlattenerUtil {
             maxMappingDepth,
             flatMapToFill
         );
-      } else flatMapToFill.put(fieldName, getType(fieldValue));
+      } else putField(fieldName, fieldValue, flatMapToFill);
 
     }
   }
 
+  /**
+   *
+   * Collects the field paths of a json document in the same dot-notation that
+   * {@link #flattenElasticSearchIndexMapping(Map, int)} produces for the index mapping.
+   * A path of the document that is missing in the flattened mapping of its index is a field
+   * elasticsearch has to add to the mapping when indexing the document.
+   *
+   * Null values and empty arrays are skipped, since elasticsearch does not map them. Objects
+   * below {@code mappingDepth} are reported by their own path, just like the mapping flattener
+   * reports them.
+   *
+   * @param document      The json document as it will be indexed.
+   * @param mappingDepth  The maximum mapping depth, same as for the mapping flattener.
+   *
+   * @return  The field paths of the document.
+   *          Example:  person.name, person.id
+   */
+  public static Set<String> flattenDocumentFieldPaths(JsonNode document, int mappingDepth) {
+
+    Set<String> result = new HashSet<>();
+    collectObjectFieldPaths(null, document, 1, mappingDepth, result);
+    return result;
+  }
+
+  private static void collectObjectFieldPaths(
+      String buildString,
+      JsonNode object,
+      int currentMappingDepth,
+      int maxMappingDepth,
+      Set<String> pathsToFill
+  ) {
+
+    Iterator<Entry<String, JsonNode>> fields = object.fields();
+
+    while (fields.hasNext()) {
+
+      Entry<String, JsonNode> field = fields.next();
+      String fieldName = null == buildString
+          ? field.getKey()
+          : concatToFieldName(buildString, field.getKey());
+
+      collectValueFieldPaths(
+          fieldName,
+          field.getValue(),
+          currentMappingDepth,
+          maxMappingDepth,
+          pathsToFill
+      );
+    }
+  }
+
+  private static void collectValueFieldPaths(
+      String fieldName,
+      JsonNode value,
+      int currentMappingDepth,
+      int maxMappingDepth,
+      Set<String> pathsToFill
+  ) {
+
+    if (value.isNull() || value.isMissingNode()) return;
+
+    if (value.isArray()) {
+      for (JsonNode element : value)
+        collectValueFieldPaths(
+            fieldName, element, currentMappingDepth, maxMappingDepth, pathsToFill);
+    } else if (value.isObject()) {
+      if (currentMappingDepth + 1 > maxMappingDepth)
+        pathsToFill.add(fieldName);
+      else
+        collectObjectFieldPaths(
+            fieldName, value, currentMappingDepth + 1, maxMappingDepth, pathsToFill);
+    } else pathsToFill.add(fieldName);
+  }
+
   private static String concatToFieldName(String currentFieldName, String newFieldValue) {
     return currentFieldName + '.' + newFieldValue;
   }
 
+  private static void putField(
+      String fieldName,
+      Property field,
+      Map<String, ElasticSearchMappingType> flatMapToFill
+  ) {
+
+    flatMapToFill.put(fieldName, getType(field));
+
+    if (field.isText())
+      putMultiFields(fieldName, field.text().fields(), flatMapToFill);
+    else if (field.isKeyword())
+      putMultiFields(fieldName, field.keyword().fields(), flatMapToFill);
+  }
+
+  private static void putMultiFields(
+      String fieldName,
+      Map<String, Property> multiFields,
+      Map<String, ElasticSearchMappingType> flatMapToFill
+  ) {
+
+    for (Entry<String, Property> multiField : multiFields.entrySet())
+      flatMapToFill.put(
+          concatToFieldName(fieldName, multiField.getKey()), getType(multiField.getValue()));
+  }
+
   private static ElasticSearchMappingType getType(Property field) {
     if (field.isText()) return ElasticSearchMappingType.TEXT;
+    else if (field.isKeyword() || field.isConstantKeyword()) return ElasticSearchMappingType.KEYWORD;
+    else if (field.isBoolean()) return ElasticSearchMappingType.BOOLEAN;
+    else if (field.isLong() || field.isInteger() || field.isShort() || field.isByte()
+        || field.isDouble() || field.isFloat() || field.isHalfFloat() || field.isScaledFloat()
+        || field.isUnsignedLong()) return ElasticSearchMappingType.NUMERIC;
     else return ElasticSearchMappingType.NOT_SUPPORTED;
   }
 
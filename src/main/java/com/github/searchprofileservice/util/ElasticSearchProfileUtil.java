@@ -0,0 +1,84 @@
+package com.github.searchprofileservice.util;
+
+import co.elastic.clients.elasticsearch.core.search.Collector;
+import co.elastic.clients.elasticsearch.core.search.Profile;
+import co.elastic.clients.elasticsearch.core.search.QueryProfile;
+import co.elastic.clients.elasticsearch.core.search.SearchProfile;
+import co.elastic.clients.elasticsearch.core.search.ShardProfile;
+import com.github.searchprofileservice.model.QueryTimings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * helper class to condense the profile elastic search returns for a search with {@code profile: true}.
+ *
+ * The low level breakdown of every clause (create weight, next doc, score, ...) is dropped, only
+ * the time of every clause and its share of the query time of its shard are kept.
+ */
+public final class ElasticSearchProfileUtil {
+
+  private ElasticSearchProfileUtil() { }
+
+  /**
+   * @param profile the profile of a search response, may be null
+   * @return the condensed profile of every shard, empty if there is no profile
+   */
+  public static List<QueryTimings.Shard> condense(Profile profile) {
+    if (null == profile) {
+      return List.of();
+    }
+    return profile.shards().stream()
+        .map(ElasticSearchProfileUtil::condense)
+        .toList();
+  }
+
+  private static QueryTimings.Shard condense(ShardProfile shardProfile) {
+    long queryNanos = 0;
+    long rewriteNanos = 0;
+    long collectorNanos = 0;
+    for (SearchProfile search : shardProfile.searches()) {
+      queryNanos += search.query().stream().mapToLong(QueryProfile::timeInNanos).sum();
+      rewriteNanos += search.rewriteTime();
+      collectorNanos += search.collector().stream().mapToLong(Collector::timeInNanos).sum();
+    }
+
+    List<QueryTimings.Clause> clauses = new ArrayList<>();
+    for (SearchProfile search : shardProfile.searches()) {
+      for (QueryProfile query : search.query()) {
+        addClauses(clauses, query, 0, queryNanos);
+      }
+    }
+
+    long fetchNanos = null != shardProfile.fetch() ? shardProfile.fetch().timeInNanos() : 0;
+
+    return new QueryTimings.Shard(
+        shardProfile.id(),
+        toMillis(queryNanos),
+        toMillis(rewriteNanos),
+        toMillis(collectorNanos),
+        toMillis(fetchNanos),
+        clauses);
+  }
+
+  /**
+   * adds a clause and all of its children in depth first order.
+   */
+  private static void addClauses(
+      List<QueryTimings.Clause> clauses, QueryProfile query, int depth, long queryNanos) {
+    double percentOfQuery = queryNanos > 0
+        ? Math.round(query.timeInNanos() * 1000.0 / queryNanos) / 10.0
+        : 0;
+    clauses.add(new QueryTimings.Clause(
+        depth, query.type(), query.description(), toMillis(query.timeInNanos()), percentOfQuery));
+
+    for (QueryProfile child : query.children()) {
+      addClauses(clauses, child, depth + 1, queryNanos);
+    }
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
@@ -1,13 +1,27 @@
 package com.github.searchprofileservice.util;
 
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Time;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchTemplateRequest;
 import co.elastic.clients.elasticsearch.core.search.Highlight;
 import co.elastic.clients.elasticsearch.core.search.HighlightField;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchFacet;
 import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchFilter;
+import jakarta.json.stream.JsonGenerator;
+import org.apache.commons.lang3.StringUtils;
 
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,12 +31,40 @@ import java.util.Map;
  */
 public class ElasticSearchSearchRequestUtil {
 
+  /** name of the only parameter of the search templates, the search value */
+  public static final String TEMPLATE_PARAM_SEARCH_VALUE = "search_value";
+
+  /** prefix of the request parameters that replace the values of the filters of a search profile */
+  public static final String FILTER_PARAMETER_PREFIX = "filter.";
+
+  private static final String TEMPLATE_ID_PREFIX = "search-profile-";
+
+  private static final JsonpMapper JSONP_MAPPER = new JacksonJsonpMapper();
+
   private final String index;
   private final String searchValue;
+  private final List<SearchFilter> filters;
+  private final Map<String, List<String>> filterParameters;
 
   public ElasticSearchSearchRequestUtil(String index, String searchValue) {
+    this(index, searchValue, null, null);
+  }
+
+  /**
+   * @param filters the filters of the search profile, may be null
+   * @param filterParameters the values of the filter parameters of the search by parameter name,
+   *     may be null
+   */
+  public ElasticSearchSearchRequestUtil(
+    String index,
+    String searchValue,
+    List<SearchFilter> filters,
+    Map<String, List<String>> filterParameters
+  ) {
     this.index = index;
     this.searchValue = searchValue;
+    this.filters = null == filters ? List.of() : filters;
+    this.filterParameters = null == filterParameters ? Map.of() : filterParameters;
   }
 
   /**
@@ -51,28 +93,253 @@ public class ElasticSearchSearchRequestUtil {
     Double minScore,
     Analyser analyser
   ) {
-    return SearchRequest.of(s -> s
+    return this.createRequest(searchFields, minScore, analyser, false);
+  }
+
+  /**
+   * creates a request, which can be used to perform a search with elastic search.
+   *
+   * @param searchFields the field (w/ boost) to search in
+   * @param minScore the min score a result must have to be returned
+   * @param analyser additional search options
+   * @param profile whether elastic search should return the timing of every query clause
+   *
+   * @return created search request
+   */
+  public SearchRequest createRequest(
+    List<SearchField> searchFields,
+    Double minScore,
+    Analyser analyser,
+    boolean profile
+  ) {
+    return this.createRequest(searchFields, minScore, analyser, null, false, profile);
+  }
+
+  /**
+   * creates a request, which can be used to perform a search with elastic search, computing the
+   * facets in the same request. Without search value every document passing the filters matches.
+   *
+   * @param searchFields the field (w/ boost) to search in
+   * @param minScore the min score a result must have to be returned
+   * @param analyser additional search options
+   * @param facets the facets to compute, may be null
+   * @param facetsOnly whether to return no results but only the facets, which lets elastic search
+   *     answer the request from its shard request cache
+   * @param profile whether elastic search should return the timing of every query clause
+   *
+   * @return created search request
+   */
+  public SearchRequest createRequest(
+    List<SearchField> searchFields,
+    Double minScore,
+    Analyser analyser,
+    List<SearchFacet> facets,
+    boolean facetsOnly,
+    boolean profile
+  ) {
+    boolean matchAll = StringUtils.isBlank(searchValue);
+    return SearchRequest.of(s -> {
+      s.index(index)
+          .minScore(matchAll ? null : minScore)
+          .query(createQuery(searchFields, analyser))
+          .highlight(facetsOnly ? null : createHighlighter(searchFields))
+          .size(facetsOnly ? 0 : null)
+          .requestCache(facetsOnly ? Boolean.TRUE : null)
+          .profile(profile ? Boolean.TRUE : null);
+      if (null != facets && !facets.isEmpty()) {
+        s.aggregations(ElasticSearchFacetUtil.createAggregations(facets));
+      }
+      return s;
+    });
+  }
+
+  /**
+   * creates a request, which performs a search with the stored search template of a search
+   * profile.
+   *
+   * @param templateId the id of the search template
+   * @see #getTemplateId(String, Long)
+   *
+   * @return created search template request
+   */
+  public SearchTemplateRequest createTemplateRequest(String templateId) {
+    return SearchTemplateRequest.of(s -> s
         .index(index)
-        .minScore(minScore)
-        .query(createQuery(searchFields, analyser))
-        .highlight(createHighlighter(searchFields))
+        .id(templateId)
+        .params(TEMPLATE_PARAM_SEARCH_VALUE, JsonData.of(searchValue))
     );
   }
 
   /**
-   * creates a query with the corresponding profile data.
+   * creates the source of a mustache search template, which is the body of the request created by
+   * {@link #createRequest(List, Double, Analyser)} with the search value as template parameter.
+   * The filters are part of the template with their own values, a search with filter parameters
+   * can not use the template.
+   *
+   * @param searchFields the field (w/ boost) to search in
+   * @param filters the filters of the search profile, may be null
+   * @param minScore the min score a result must have to be returned
+   * @param analyser additional search options
+   *
+   * @return the template source as json
+   */
+  public static String createTemplateSource(
+    List<SearchField> searchFields,
+    List<SearchFilter> filters,
+    Double minScore,
+    Analyser analyser
+  ) {
+    // the index is a path parameter and not part of the body
+    SearchRequest request = new ElasticSearchSearchRequestUtil(
+        "_all", "{{" + TEMPLATE_PARAM_SEARCH_VALUE + "}}", filters, null)
+        .createRequest(searchFields, minScore, analyser);
+
+    StringWriter source = new StringWriter();
+    try (JsonGenerator generator = JSONP_MAPPER.jsonProvider().createGenerator(source)) {
+      request.serialize(generator, JSONP_MAPPER);
+    }
+    return source.toString();
+  }
+
+  /**
+   * creates a request, which submits a search as an asynchronous search. Results of a search
+   * finishing within the wait for completion timeout are returned right away and not kept.
+   *
+   * @param request the search, as created by {@link #createRequest(List, Double, Analyser, List, boolean, boolean)}
+   * @param waitForCompletionTimeout how long to wait for the search before answering with its id
+   * @param keepAlive how long elasticsearch keeps the search, it is cancelled if still running then
+   *
+   * @return created submit request
+   */
+  public static SubmitRequest createAsyncRequest(
+    SearchRequest request,
+    Duration waitForCompletionTimeout,
+    Duration keepAlive
+  ) {
+    return SubmitRequest.of(s -> {
+      s.index(request.index())
+          .minScore(request.minScore())
+          .query(request.query())
+          .highlight(request.highlight())
+          .size(request.size())
+          .requestCache(request.requestCache())
+          .profile(request.profile())
+          .waitForCompletionTimeout(toTime(waitForCompletionTimeout))
+          .keepAlive(toTime(keepAlive))
+          .keepOnCompletion(false);
+      if (!request.aggregations().isEmpty()) {
+        s.aggregations(request.aggregations());
+      }
+      return s;
+    });
+  }
+
+  /**
+   * @return the duration in the time unit format of elasticsearch
+   */
+  public static Time toTime(Duration duration) {
+    return Time.of(t -> t.time(duration.toMillis() + "ms"));
+  }
+
+  /**
+   * The id of the search template of a version of a search profile. Every update of the search
+   * profile gets a new template, so that a template that could not be updated is never used.
+   *
+   * @param profileId the id of the search profile
+   * @param version the version of the search profile
+   *
+   * @return the template id
+   */
+  public static String getTemplateId(String profileId, Long version) {
+    return TEMPLATE_ID_PREFIX + profileId + "-" + (null == version ? 0 : version);
+  }
+
+  /**
+   * Collects the filter parameters from the parameters of a request, which are named
+   * {@code filter.<parameter>}.
+   *
+   * @param requestParameters all parameters of the request
+   *
+   * @return the values of the filter parameters by parameter name
+   */
+  public static Map<String, List<String>> getFilterParameters(Map<String, List<String>> requestParameters) {
+    Map<String, List<String>> filterParameters = new HashMap<>();
+    requestParameters.forEach((name, values) -> {
+      if (name.startsWith(FILTER_PARAMETER_PREFIX) && name.length() > FILTER_PARAMETER_PREFIX.length()) {
+        filterParameters.put(name.substring(FILTER_PARAMETER_PREFIX.length()), values);
+      }
+    });
+    return filterParameters;
+  }
+
+  /**
+   * creates a query with the corresponding profile data. The filters are in the filter context,
+   * they do not change the score and elasticsearch caches them.
    *
    * @return query
    */
   private Query createQuery(List<SearchField> searchFields, Analyser analyser) {
+    List<Query> filterQueries = createFilterQueries();
     return Query.of(q -> q
-        .bool(b -> b
-            .must(List.of())
-            .should(getShouldSubQuery(searchFields, analyser))
-        )
+        .bool(b -> {
+          b.must(List.of());
+          if (StringUtils.isBlank(searchValue)) {
+            // only the filters restrict the documents
+            return filterQueries.isEmpty() ? b : b.filter(filterQueries);
+          }
+          b.should(getShouldSubQuery(searchFields, analyser));
+          if (!filterQueries.isEmpty()) {
+            // with a filter the should clause would otherwise be optional
+            b.filter(filterQueries).minimumShouldMatch("1");
+          }
+          return b;
+        })
     );
   }
 
+  /**
+   * creates the queries of the filter context, a term or terms query for the values of a filter
+   * and a range query for its bounds. A filter without values and bounds restricts nothing.
+   *
+   * @return queries
+   */
+  private List<Query> createFilterQueries() {
+    List<Query> queries = new ArrayList<>();
+    for (SearchFilter filter : filters) {
+      List<String> values = getFilterValues(filter);
+      if (values.size() == 1) {
+        queries.add(Query.of(q -> q
+            .term(t -> t
+                .field(filter.getFieldName())
+                .value(FieldValue.of(values.get(0))))));
+      } else if (values.size() > 1) {
+        queries.add(Query.of(q -> q
+            .terms(t -> t
+                .field(filter.getFieldName())
+                .terms(f -> f.value(values.stream().map(FieldValue::of).toList())))));
+      }
+      if (filter.isRange()) {
+        queries.add(Query.of(q -> q
+            .range(r -> r
+                .field(filter.getFieldName())
+                .gte(null == filter.getMin() ? null : JsonData.of(filter.getMin()))
+                .lte(null == filter.getMax() ? null : JsonData.of(filter.getMax())))));
+      }
+    }
+    return queries;
+  }
+
+  /**
+   * @return the values of the request parameter of the filter if given, otherwise its own values
+   */
+  private List<String> getFilterValues(SearchFilter filter) {
+    List<String> values = null == filter.getParameter() ? null : filterParameters.get(filter.getParameter());
+    if (null == values || values.isEmpty()) {
+      values = filter.getValues();
+    }
+    return null == values ? List.of() : values;
+  }
+
   /**
    * creates the sub query, which will be part of the main query.
    *
@@ -0,0 +1,137 @@
+package com.github.searchprofileservice.util;
+
+import com.github.searchprofileservice.exception.RateLimitExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingest limits of a single application or api key: documents per second, bytes per second and
+ * concurrently running bulk uploads. Every limit is optional, all of them are lock-free.
+ */
+public class IngestLimiter {
+
+  public static final String LIMIT_DOCUMENTS = "documents";
+  public static final String LIMIT_BYTES = "bytes";
+  public static final String LIMIT_CONCURRENT_BULKS = "concurrent-bulks";
+
+  /** there is no telling when a running bulk finishes, so clients are asked to retry after this */
+  private static final long CONCURRENT_BULKS_RETRY_AFTER_SECONDS = 1;
+
+  private final String scope;
+  private final TokenBucket documents;
+  private final TokenBucket bytes;
+  private final Integer maxConcurrentBulks;
+  private final AtomicInteger activeBulks = new AtomicInteger();
+
+  /**
+   * @param scope the scope named in rejections, e.g. 'application'
+   * @param documentsPerSecond documents per second, unlimited if null
+   * @param bytesPerSecond bytes per second, unlimited if null
+   * @param maxConcurrentBulks concurrently running bulk uploads, unlimited if null
+   * @param burst how long a full bucket lasts at the configured rate
+   */
+  public IngestLimiter(
+      String scope,
+      Double documentsPerSecond,
+      Long bytesPerSecond,
+      Integer maxConcurrentBulks,
+      Duration burst
+  ) {
+    double burstSeconds = burst.toMillis() / 1000d;
+
+    this.scope = scope;
+    this.documents = null == documentsPerSecond
+        ? null
+        : new TokenBucket(documentsPerSecond, Math.max(1, documentsPerSecond * burstSeconds));
+    this.bytes = null == bytesPerSecond
+        ? null
+        : new TokenBucket(bytesPerSecond, Math.max(1, bytesPerSecond * burstSeconds));
+    this.maxConcurrentBulks = maxConcurrentBulks;
+  }
+
+  /**
+   * Takes tokens for a request, either from all limits or from none of them.
+   *
+   * @param documentCount the number of documents of the request
+   * @param byteCount the size of the request
+   * @param bulk whether the request is a bulk upload, which takes a bulk slot
+   * @throws RateLimitExceededException if any limit is exceeded
+   */
+  public void acquire(long documentCount, long byteCount, boolean bulk) {
+    if (bulk && !tryAcquireBulkSlot()) {
+      throw new RateLimitExceededException(
+          scope, LIMIT_CONCURRENT_BULKS, CONCURRENT_BULKS_RETRY_AFTER_SECONDS);
+    }
+
+    long wait = null == documents ? 0 : documents.tryTake(documentCount);
+    if (wait > 0) {
+      releaseBulkSlot(bulk);
+      throw new RateLimitExceededException(scope, LIMIT_DOCUMENTS, toRetryAfterSeconds(wait));
+    }
+
+    wait = null == bytes ? 0 : bytes.tryTake(byteCount);
+    if (wait > 0) {
+      if (null != documents) {
+        documents.giveBack(documentCount);
+      }
+      releaseBulkSlot(bulk);
+      throw new RateLimitExceededException(scope, LIMIT_BYTES, toRetryAfterSeconds(wait));
+    }
+  }
+
+  /**
+   * Reverts a successful {@link #acquire(long, long, boolean)}, for requests that are rejected
+   * by another limiter.
+   */
+  public void revert(long documentCount, long byteCount, boolean bulk) {
+    if (null != documents) {
+      documents.giveBack(documentCount);
+    }
+    if (null != bytes) {
+      bytes.giveBack(byteCount);
+    }
+    releaseBulkSlot(bulk);
+  }
+
+  /**
+   * Frees the bulk slot of a finished bulk upload.
+   */
+  public void releaseBulkSlot(boolean bulk) {
+    if (bulk) {
+      activeBulks.decrementAndGet();
+    }
+  }
+
+  /** @return the documents that can be ingested right now, null if unlimited */
+  public Double getAvailableDocuments() {
+    return null == documents ? null : documents.getAvailableTokens();
+  }
+
+  /** @return the bytes that can be ingested right now, null if unlimited */
+  public Double getAvailableBytes() {
+    return null == bytes ? null : bytes.getAvailableTokens();
+  }
+
+  /** @return the number of currently running bulk uploads */
+  public int getActiveBulks() {
+    return activeBulks.get();
+  }
+
+  private boolean tryAcquireBulkSlot() {
+    while (true) {
+      int active = activeBulks.get();
+      if (null != maxConcurrentBulks && active >= maxConcurrentBulks) {
+        return false;
+      }
+      if (activeBulks.compareAndSet(active, active + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private static long toRetryAfterSeconds(long waitNanos) {
+    return Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+  }
+}
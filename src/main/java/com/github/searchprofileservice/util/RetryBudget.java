@@ -0,0 +1,64 @@
+package com.github.searchprofileservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free retry budget.
+ *
+ * Every call deposits a share of a retry, every retry withdraws a whole one. So retries stay
+ * below that share of the calls in the long run, no matter how many calls fail, while the
+ * balance lets short bursts of failures be retried in full.
+ */
+public class RetryBudget {
+
+  /** the balance is kept in thousandths of a retry */
+  private static final long RETRY = 1000;
+
+  private final long deposit;
+  private final long maxBalance;
+  private final AtomicLong balance;
+
+  /**
+   * @param ratio retries allowed per call on average
+   * @param maxRetries retries the budget holds at most, it starts full
+   */
+  public RetryBudget(double ratio, int maxRetries) {
+    if (ratio < 0 || maxRetries < 0) {
+      throw new IllegalArgumentException("Ratio and maximum retries must not be negative");
+    }
+    this.deposit = Math.round(ratio * RETRY);
+    this.maxBalance = maxRetries * RETRY;
+    this.balance = new AtomicLong(maxBalance);
+  }
+
+  /**
+   * Deposits the share of a retry of a call, once per call and not per attempt
+   */
+  public void onCall() {
+    if (deposit > 0) {
+      balance.accumulateAndGet(deposit, (current, added) -> Math.min(maxBalance, current + added));
+    }
+  }
+
+  /**
+   * @return whether a retry was left and has been withdrawn
+   */
+  public boolean tryWithdraw() {
+    while (true) {
+      long current = balance.get();
+      if (current < RETRY) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - RETRY)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @return the number of retries left, fractions included
+   */
+  public double getAvailableRetries() {
+    return balance.get() / (double) RETRY;
+  }
+}
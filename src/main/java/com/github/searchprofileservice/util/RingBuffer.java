@@ -0,0 +1,96 @@
+package com.github.searchprofileservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free bounded buffer for many producers and a single consumer.
+ *
+ * Producers claim a slot with a compare-and-set on the tail sequence and publish their element
+ * into it, a full buffer rejects elements instead of blocking. The consumer takes published
+ * elements in claim order and stops at the first claimed slot that is not published yet.
+ */
+public class RingBuffer<T> {
+
+  private final AtomicReferenceArray<T> slots;
+  private final int mask;
+
+  /** sequence of the next slot to claim */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** sequence of the next slot to take, only advanced by the consumer */
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * @param capacity the number of elements the buffer holds, rounded up to a power of two
+   */
+  public RingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+    }
+    int size = Integer.highestOneBit(capacity) == capacity
+        ? capacity
+        : Integer.highestOneBit(capacity) << 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Adds an element, if there is space left. May be called by any number of threads.
+   *
+   * @param element the element to add, not null
+   * @return whether the element was added
+   */
+  public boolean offer(T element) {
+    if (null == element) {
+      throw new IllegalArgumentException("Elements must not be null");
+    }
+    while (true) {
+      long sequence = tail.get();
+      if (sequence - head.get() > mask) {
+        return false;
+      }
+      if (tail.compareAndSet(sequence, sequence + 1)) {
+        slots.set((int) (sequence & mask), element);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Takes published elements in the order their slots were claimed. Must only be called by a
+   * single thread at a time.
+   *
+   * @param consumer receives the taken elements
+   * @param maxElements the maximum number of elements to take
+   * @return the number of elements taken
+   */
+  public int drain(Consumer<? super T> consumer, int maxElements) {
+    int taken = 0;
+    long sequence = head.get();
+    while (taken < maxElements && sequence < tail.get()) {
+      int index = (int) (sequence & mask);
+      T element = slots.get(index);
+      if (null == element) {
+        break; // claimed, but not published yet
+      }
+      slots.set(index, null);
+      sequence++;
+      head.lazySet(sequence);
+      consumer.accept(element);
+      taken++;
+    }
+    return taken;
+  }
+
+  /** @return the number of claimed slots, including ones not published yet */
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  /** @return the number of elements the buffer holds */
+  public int capacity() {
+    return mask + 1;
+  }
+}
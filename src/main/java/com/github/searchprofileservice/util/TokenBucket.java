@@ -0,0 +1,87 @@
+package com.github.searchprofileservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Instead of counting tokens, the bucket remembers the point in time at which it will be full
+ * again (generic cell rate algorithm), so taking tokens is a single compare-and-set on that
+ * timestamp. Taking more tokens than the bucket holds succeeds on a full bucket and leaves it in
+ * debt, later takes wait until the debt is paid off.
+ */
+public class TokenBucket {
+
+  private final double nanosPerToken;
+  private final long burstNanos;
+  private final LongSupplier clock;
+
+  /** point in time (in nanos of {@link #clock}) at which the bucket is full again */
+  private final AtomicLong fullAt;
+
+  /**
+   * @param tokensPerSecond rate at which the bucket refills
+   * @param capacity the number of tokens a full bucket holds
+   */
+  public TokenBucket(double tokensPerSecond, double capacity) {
+    this(tokensPerSecond, capacity, System::nanoTime);
+  }
+
+  TokenBucket(double tokensPerSecond, double capacity, LongSupplier clock) {
+    if (tokensPerSecond <= 0 || capacity < 1) {
+      throw new IllegalArgumentException("Token rate and capacity must be positive");
+    }
+    this.nanosPerToken = 1_000_000_000d / tokensPerSecond;
+    this.burstNanos = (long) Math.ceil(capacity * nanosPerToken);
+    this.clock = clock;
+    this.fullAt = new AtomicLong(clock.getAsLong());
+  }
+
+  /**
+   * Takes the given number of tokens, if the bucket holds enough of them.
+   *
+   * @param tokens the number of tokens to take
+   * @return 0 if the tokens were taken, else the nanos to wait until they can be taken
+   */
+  public long tryTake(long tokens) {
+    long cost = costOf(tokens);
+    long required = Math.min(cost, burstNanos);
+
+    while (true) {
+      long now = clock.getAsLong();
+      long current = fullAt.get();
+      long base = Math.max(current, now);
+
+      long wait = (base - now) - (burstNanos - required);
+      if (wait > 0) {
+        return wait;
+      }
+      if (fullAt.compareAndSet(current, base + cost)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Puts tokens back, which were taken for a request that was rejected nonetheless.
+   *
+   * @param tokens the number of tokens to put back
+   */
+  public void giveBack(long tokens) {
+    fullAt.addAndGet(-costOf(tokens));
+  }
+
+  /**
+   * @return the number of tokens that can be taken right now, negative while in debt
+   */
+  public double getAvailableTokens() {
+    long now = clock.getAsLong();
+    long untilFull = Math.max(fullAt.get(), now) - now;
+    return (burstNanos - untilFull) / nanosPerToken;
+  }
+
+  private long costOf(long tokens) {
+    return (long) Math.ceil(tokens * nanosPerToken);
+  }
+}
@@ -1,13 +1,27 @@
 package com.github.searchprofileservice;
 
+import org.elasticsearch.client.sniff.Sniffer;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 
 @SpringBootTest
 class SearchProfileDocumentServiceApplicationTests {
 
+	@Autowired
+	private ApplicationContext applicationContext;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void contextLoads_SniffingDisabled_NoSniffer() {
+		assertThat(applicationContext.getBeansOfType(Sniffer.class).keySet(), empty());
+	}
+
 }
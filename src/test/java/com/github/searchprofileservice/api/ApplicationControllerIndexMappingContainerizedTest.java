@@ -74,8 +74,10 @@ class ApplicationControllerIndexMappingContainerizedTest extends AbstractElastic
 
     Map<String, ElasticSearchMappingType> expected = new TreeMap<>();
     expected.put("name", ElasticSearchMappingType.TEXT);
+    expected.put("name.keyword", ElasticSearchMappingType.KEYWORD);
     expected.put("certificate.name", ElasticSearchMappingType.TEXT);
-    expected.put("certificate.available", ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put("certificate.name.keyword", ElasticSearchMappingType.KEYWORD);
+    expected.put("certificate.available", ElasticSearchMappingType.BOOLEAN);
     expected.put("object1.object2.object3.object4.object5", ElasticSearchMappingType.NOT_SUPPORTED);
 
     when(authenticationService.getUser())
@@ -1,16 +1,22 @@
 package com.github.searchprofileservice.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.ApplicationController.DocumentCreateResult;
 import com.github.searchprofileservice.api.model.ApiKeyCreatedResponse;
 import com.github.searchprofileservice.api.model.ApplicationCreatedResponse;
 import com.github.searchprofileservice.api.model.ApplicationDto;
 import com.github.searchprofileservice.api.model.SearchProfileDto;
+import com.github.searchprofileservice.config.InstrumentationProperties;
 import com.github.searchprofileservice.model.AuthenticatedUser;
+import com.github.searchprofileservice.model.IndexStatistics;
 import com.github.searchprofileservice.persistence.mongo.model.User;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.*;
 import com.github.searchprofileservice.service.impl.ApplicationConverterServiceImpl;
+import com.github.searchprofileservice.service.impl.InstrumentationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import javassist.NotFoundException;
 import lombok.SneakyThrows;
 import org.codehaus.plexus.util.StringUtils;
@@ -39,14 +45,17 @@ public class ApplicationControllerTest {
   private final ApplicationService applicationService = mock(ApplicationService.class);
   private final SearchProfileService searchProfileService = mock(SearchProfileService.class);
   private final AuthenticationService authenticationService = mock(AuthenticationService.class);
-  private final ElasticSearchClientService elasticSearchService = mock(ElasticSearchClientService.class);
-  private final ApplicationConverterService applicationConverter = new ApplicationConverterServiceImpl(elasticSearchService);
+  private final IndexStatisticsService indexStatisticsService = mock(IndexStatisticsService.class);
+  private final ApplicationConverterService applicationConverter = new ApplicationConverterServiceImpl(indexStatisticsService);
 
   private final UserService userService = mock(UserService.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final InstrumentationService instrumentationService =
+      new InstrumentationServiceImpl(meterRegistry, new InstrumentationProperties());
 
   @InjectMocks
   private final ApplicationController applicationController
-      = new ApplicationController(applicationService, searchProfileService, authenticationService, applicationConverter, userService);
+      = new ApplicationController(applicationService, searchProfileService, authenticationService, applicationConverter, userService, instrumentationService);
 
   @Test
   public void getAllApplications_WithAllowedUserFalse_ReturnsAllAppsCurrentUserIsAllowedFor() {
@@ -145,7 +154,8 @@ public class ApplicationControllerTest {
                     .creatorId("bar")
                     .build();
     when(applicationService.findById(any(UUID.class))).thenReturn(Optional.of(application));
-    when(elasticSearchService.getDocumentCountForIndex(any(String.class))).thenReturn(zero);
+    when(indexStatisticsService.getStatisticsForApplications(any()))
+            .thenReturn(Map.of(uuid, new IndexStatistics(zero, zero)));
 
     ResponseEntity<ApplicationDto> response =
         applicationController.getApplication(uuid.toString());
@@ -232,20 +242,11 @@ public class ApplicationControllerTest {
 
   }
 
-  @Test
-  public void uploadDocument_JsonIsMissing_ReturnsFailedServiceResponse() {
-
-    ResponseStatusException responseStatusException =
-        assertThrows(ResponseStatusException.class,
-            () -> applicationController.uploadDocument(null, "test"));
-    assertEquals(responseStatusException.getStatus(), HttpStatus.BAD_REQUEST);
-  }
-
   @Test
   public void uploadDocument_ApplicationIdIsMissing_ReturnsFailedServiceResponse() {
     ResponseStatusException responseStatusException =
         assertThrows(ResponseStatusException.class,
-            () -> applicationController.uploadDocument("test", null));
+            () -> applicationController.uploadDocument(toJson("{}"), null));
     assertEquals(responseStatusException.getStatus(), HttpStatus.BAD_REQUEST);
 
   }
@@ -253,12 +254,11 @@ public class ApplicationControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_UploadFailed_ReturnsFailedServiceResponse() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID();
     Application application = Application.builder().id(UUID.randomUUID()).build();
 
     when(applicationService.existsById(applicationId)).thenReturn(true);
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
     when(applicationService.isEditableByCurrentUser(any())).thenReturn(true);
     when(applicationService.findById(applicationId)).thenReturn(Optional.of(application));
 
@@ -277,12 +277,11 @@ public class ApplicationControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_UploadSuccess_ReturnsSuccessServiceResponse() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID();
     var documentId = UUID.randomUUID().toString();
     Application application = Application.builder().id(UUID.randomUUID()).build();
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
     when(applicationService.existsById(applicationId)).thenReturn(true);
     when(applicationService.isEditableByCurrentUser(any())).thenReturn(true);
     when(applicationService.findById(applicationId)).thenReturn(Optional.of(application));
@@ -296,17 +295,24 @@ public class ApplicationControllerTest {
         .uploadDocument(documentData, applicationId);
     assertThat(response.getStatusCode(), equalTo(HttpStatus.CREATED));
     assertThat(response.getBody(), equalTo(new DocumentCreateResult(documentId)));
+    for (String stage : List.of(
+        InstrumentationService.STAGE_APPLICATION_LOOKUP,
+        InstrumentationService.STAGE_ELASTICSEARCH)) {
+      assertThat(stage, meterRegistry.get("request.stage")
+          .tag("operation", InstrumentationService.OPERATION_INGEST)
+          .tag("stage", stage)
+          .timer().count(), equalTo(1L));
+    }
   }
 
   @Test
   void uploadDocument_returns_Unauthorized_on_not_allowed_access() {
     HttpStatus expected = HttpStatus.UNAUTHORIZED;
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID();
     Application application =
             Application.builder().id(UUID.randomUUID()).build();
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
     when(applicationService.existsById(applicationId)).thenReturn(true);
     when(applicationService.isEditableByCurrentUser(any(Application.class))).thenReturn(false);
     when(applicationService.findById(any(UUID.class))).thenReturn(Optional.of(application));
@@ -318,19 +324,11 @@ public class ApplicationControllerTest {
     assertEquals(response.getStatus(), expected);
   }
 
-  @Test
-  public void updateDocument_JsonIsMissing_ReturnsFailedServiceResponse() {
-    var exception = assertThrows(
-      ResponseStatusException.class,
-      () -> applicationController.updateDocument(null, UUID.randomUUID().toString(), ""));
-    assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
-  }
-
   @Test
   public void updateDocument_ApplicationIdIsMissing_ReturnsFailedServiceResponse() {
     var exception = assertThrows(
       ResponseStatusException.class,
-      () -> applicationController.updateDocument("test", null, ""));
+      () -> applicationController.updateDocument(toJson("{}"), null, ""));
     assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
   }
 
@@ -338,7 +336,7 @@ public class ApplicationControllerTest {
   public void updateDocument_DocumentIdIsMissing_ReturnsFailedServiceResponse() {
     var exception = assertThrows(
       ResponseStatusException.class,
-      () -> applicationController.updateDocument("test", UUID.randomUUID().toString(), null));
+      () -> applicationController.updateDocument(toJson("{}"), UUID.randomUUID().toString(), null));
     assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
   }
 
@@ -352,7 +350,7 @@ public class ApplicationControllerTest {
 
     ResponseStatusException response =
             assertThrows(ResponseStatusException.class,
-                    () -> applicationController.updateDocument("test", UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+                    () -> applicationController.updateDocument(toJson("{}"), UUID.randomUUID().toString(), UUID.randomUUID().toString()));
 
     assertEquals(response.getStatus(), expected);
   }
@@ -360,7 +358,7 @@ public class ApplicationControllerTest {
   @Test
   @SneakyThrows
   public void updateDocument_NonExistingApplication_Error() {
-    String documentData = "{ \"foo\": \"FOO\" }";
+    ObjectNode documentData = toJson("{ \"foo\": \"FOO\" }");
     var applicationId = UUID.randomUUID();
     var documentId = "id1234";
     Application application = Application.builder().id(UUID.randomUUID()).build();
@@ -370,7 +368,7 @@ public class ApplicationControllerTest {
 
     doThrow(IllegalArgumentException.class)
       .when(applicationService)
-      .updateDocument(anyString(), any(UUID.class), anyString());
+      .updateDocument(any(ObjectNode.class), any(UUID.class), anyString());
 
     var exception = assertThrows(
       ResponseStatusException.class,
@@ -381,7 +379,7 @@ public class ApplicationControllerTest {
   @Test
   @SneakyThrows
   public void updateDocument_Success() {
-    String documentData = "{ \"foo\": \"FOO\" }";
+    ObjectNode documentData = toJson("{ \"foo\": \"FOO\" }");
     var applicationId = UUID.randomUUID();
     var documentId = "id1234";
     Application application = Application.builder().id(UUID.randomUUID()).build();
@@ -389,7 +387,7 @@ public class ApplicationControllerTest {
     when(applicationService.existsById(applicationId)).thenReturn(true);
     when(applicationService.isEditableByCurrentUser(any())).thenReturn(true);
     when(applicationService.findById(applicationId)).thenReturn(Optional.of(application));
-    doNothing().when(applicationService).updateDocument(anyString(), any(UUID.class), anyString());
+    doNothing().when(applicationService).updateDocument(any(ObjectNode.class), any(UUID.class), anyString());
 
     var response =
       applicationController.updateDocument(documentData, applicationId.toString(), documentId);
@@ -815,14 +813,13 @@ public class ApplicationControllerTest {
   @Test
   void bulkUploadDocuments_returns_Unauthorized_on_not_allowed_access() {
     HttpStatus expected = HttpStatus.UNAUTHORIZED;
-    String json = "test";
+    ObjectNode json = toJson("{}");
     UUID applicationId = UUID.randomUUID();
     Application application = Application.builder().id(UUID.randomUUID()).build();
 
     when(applicationService.isEditableByCurrentUser(any())).thenReturn(false);
     when(applicationService.findById(any(UUID.class))).thenReturn(Optional.of(application));
     when(applicationService.existsById(applicationId)).thenReturn(true);
-    when(applicationService.isJsonValid(json)).thenReturn(true);
 
     ResponseStatusException response =
             assertThrows(ResponseStatusException.class,
@@ -831,4 +828,8 @@ public class ApplicationControllerTest {
     assertEquals(response.getStatus(), expected);
   }
 
+  @SneakyThrows
+  private static ObjectNode toJson(String rawJson) {
+    return (ObjectNode) new ObjectMapper().readTree(rawJson);
+  }
 }
@@ -1,25 +1,44 @@
 package com.github.searchprofileservice.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.ExternalServiceController.DocumentCreateResult;
+import com.github.searchprofileservice.api.advice.RequestSizeControllerAdvice;
 import com.github.searchprofileservice.api.model.SearchProfileDto;
+import com.github.searchprofileservice.config.InstrumentationProperties;
+import com.github.searchprofileservice.exception.RateLimitExceededException;
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.AsyncSearchResults;
+import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.enums.FacetMode;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.ApplicationService;
+import com.github.searchprofileservice.service.InstrumentationService;
+import com.github.searchprofileservice.service.RateLimitService;
 import com.github.searchprofileservice.service.SearchProfileService;
 import com.github.searchprofileservice.service.SearchService;
+import com.github.searchprofileservice.service.impl.InstrumentationServiceImpl;
+import com.github.searchprofileservice.util.CountingInputStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,6 +47,9 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class ExternalServiceControllerTest {
@@ -35,8 +57,37 @@ public class ExternalServiceControllerTest {
   private final SearchService searchService = mock(SearchService.class);
   private final SearchProfileService searchProfileService = mock(SearchProfileService.class);
   private final ApplicationService applicationService = mock(ApplicationService.class);
+  private final RateLimitService rateLimitService = mock(RateLimitService.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final InstrumentationService instrumentationService =
+    new InstrumentationServiceImpl(meterRegistry, new InstrumentationProperties());
   @InjectMocks
-  private final ExternalServiceController externalServiceController = new ExternalServiceController(searchService, searchProfileService, applicationService);
+  private final ExternalServiceController externalServiceController = new ExternalServiceController(searchService, searchProfileService, applicationService, rateLimitService, instrumentationService);
+
+  @Test
+  public void getQueryResult_RecordsStages() {
+    UUID apiKey = UUID.randomUUID(); //is also used as applicationId
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDto searchProfileDto = getSearchProfileDtoWithAllParams(apiKey, true);
+    Application mockApplication = createTestApplicationHashedApiKey(apiKey);
+
+    when(searchProfileService.getSearchProfileByProfileId(profileId)).thenReturn(searchProfileDto);
+    when(applicationService.findCachedById(any(UUID.class))).thenReturn(Optional.of(mockApplication));
+    when(searchService.search(profileId, "value", Map.of(), FacetMode.NONE)).thenReturn(new SearchResults());
+
+    externalServiceController.getQueryResult(
+        profileId, "value", FacetMode.NONE, new LinkedMultiValueMap<>(), apiKey.toString());
+
+    for (String stage : List.of(
+        InstrumentationService.STAGE_PROFILE_LOOKUP,
+        InstrumentationService.STAGE_APPLICATION_LOOKUP,
+        InstrumentationService.STAGE_API_KEY_CHECK)) {
+      assertThat(stage, meterRegistry.get("request.stage")
+          .tag("operation", InstrumentationService.OPERATION_SEARCH)
+          .tag("stage", stage)
+          .timer().count(), equalTo(1L));
+    }
+  }
 
   @Test
   public void getQueryDefinition_ok() {
@@ -49,18 +100,42 @@ public class ExternalServiceControllerTest {
     //configuration of services
     when(searchProfileService.getSearchProfileByProfileId(any(String.class)))
       .thenReturn(searchProfileDto);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(mockApplication));
     when(searchService.getSearchQuery(any(String.class)))
       .thenReturn(query);
 
     //actual test
-    ResponseEntity<String> response = externalServiceController.getQueryDefinition(profileId, apiKey.toString());
+    ResponseEntity<String> response = externalServiceController.getQueryDefinition(profileId, false, apiKey.toString());
 
     assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
     assertThat(response.getBody(), equalTo(query));
   }
 
+  @Test
+  public void getQueryDefinition_template_ok() {
+    UUID apiKey = UUID.randomUUID(); //is also used as applicationId
+    String profileId = UUID.randomUUID().toString();
+    String query = "some template query";
+    SearchProfileDto searchProfileDto = getSearchProfileDtoWithAllParams(apiKey, true);
+    Application mockApplication = createTestApplicationHashedApiKey(apiKey);
+
+    //configuration of services
+    when(searchProfileService.getSearchProfileByProfileId(any(String.class)))
+      .thenReturn(searchProfileDto);
+    when(applicationService.findCachedById(any(UUID.class)))
+      .thenReturn(Optional.of(mockApplication));
+    when(searchService.getSearchTemplateQuery(any(String.class)))
+      .thenReturn(query);
+
+    //actual test
+    ResponseEntity<String> response = externalServiceController.getQueryDefinition(profileId, true, apiKey.toString());
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    assertThat(response.getBody(), equalTo(query));
+    verify(searchService, never()).getSearchQuery(any(String.class));
+  }
+
   @Test
   public void getQueryDefinition_forbidden_blank_apikey() {
     String profileId = UUID.randomUUID().toString();
@@ -68,7 +143,7 @@ public class ExternalServiceControllerTest {
     
     ResponseStatusException responseStatusException =
         assertThrows(ResponseStatusException.class,
-            () -> externalServiceController.getQueryDefinition(profileId, apiKey));
+            () -> externalServiceController.getQueryDefinition(profileId, false, apiKey));
 
     assertEquals(HttpStatus.FORBIDDEN, responseStatusException.getStatus());
     assertEquals("Api key must not be null or empty in http header field 'Application-Api-Key'.", responseStatusException.getReason());
@@ -81,7 +156,7 @@ public class ExternalServiceControllerTest {
     
     ResponseStatusException responseStatusException =
         assertThrows(ResponseStatusException.class,
-            () -> externalServiceController.getQueryDefinition(profileId,  apiKey));
+            () -> externalServiceController.getQueryDefinition(profileId, false, apiKey));
 
     assertEquals(HttpStatus.BAD_REQUEST, responseStatusException.getStatus());
     assertEquals("'" + profileId + "' is not a valid UUID", responseStatusException.getReason());
@@ -94,7 +169,7 @@ public class ExternalServiceControllerTest {
 
     ResponseStatusException responseStatusException = 
       assertThrows(ResponseStatusException.class,
-        () -> externalServiceController.getQueryDefinition(profileId,  apiKey.toString()));
+        () -> externalServiceController.getQueryDefinition(profileId, false, apiKey.toString()));
 
     assertEquals(HttpStatus.NOT_FOUND, responseStatusException.getStatus());
     assertEquals("Search profile with id : " + profileId + " does not exist.", responseStatusException.getReason());
@@ -109,12 +184,12 @@ public class ExternalServiceControllerTest {
     //configuration of services
     when(searchProfileService.getSearchProfileByProfileId(any(String.class)))
       .thenReturn(searchProfileDto);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.empty());
 
     ResponseStatusException responseStatusException = 
       assertThrows(ResponseStatusException.class,
-        () -> externalServiceController.getQueryDefinition(profileId, apiKey.toString()));
+        () -> externalServiceController.getQueryDefinition(profileId, false, apiKey.toString()));
 
     assertEquals(HttpStatus.NOT_FOUND, responseStatusException.getStatus());
     assertEquals("Application with id : '" + searchProfileDto.getApplicationId() + "' does not exist.", responseStatusException.getReason());
@@ -130,12 +205,12 @@ public class ExternalServiceControllerTest {
     //configuration of services
     when(searchProfileService.getSearchProfileByProfileId(any(String.class)))
       .thenReturn(searchProfileDto);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(mockApplication));
 
     ResponseStatusException responseStatusException = 
       assertThrows(ResponseStatusException.class,
-        () -> externalServiceController.getQueryDefinition(profileId, apiKey.toString()));
+        () -> externalServiceController.getQueryDefinition(profileId, false, apiKey.toString()));
 
     assertEquals(HttpStatus.FORBIDDEN, responseStatusException.getStatus());
     assertEquals("The given api keys don't match.", responseStatusException.getReason());
@@ -151,7 +226,7 @@ public class ExternalServiceControllerTest {
     //configuration of services
     when(searchProfileService.getSearchProfileByProfileId(any(String.class)))
             .thenReturn(searchProfileDto);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
             .thenReturn(Optional.of(mockApplication));
     when(searchService.getSearchQuery(any(String.class)))
             .thenThrow(new ResponseStatusException(
@@ -159,7 +234,7 @@ public class ExternalServiceControllerTest {
 
     ResponseStatusException responseStatusException =
             assertThrows(ResponseStatusException.class,
-                    () -> externalServiceController.getQueryDefinition(profileId,  apiKey.toString()));
+                    () -> externalServiceController.getQueryDefinition(profileId, false, apiKey.toString()));
 
     assertEquals(HttpStatus.BAD_REQUEST, responseStatusException.getStatus());
   }
@@ -177,7 +252,7 @@ public class ExternalServiceControllerTest {
   public void uploadDocument_ApplicationIdIsMissing_ReturnsFailedServiceResponse() {
     ResponseStatusException responseStatusException =
         assertThrows(ResponseStatusException.class,
-            () -> externalServiceController.uploadDocument(UUID.randomUUID().toString(), "test", null));
+            () -> externalServiceController.uploadDocument(UUID.randomUUID().toString(), toJson("{}"), null));
     assertEquals(responseStatusException.getStatus(), HttpStatus.BAD_REQUEST);
 
   }
@@ -185,10 +260,9 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_forbidden_apiKey_blank() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -200,10 +274,9 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_not_found_application() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -215,11 +288,10 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_forbidden_apiKey_doesnt_match() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(createTestApplicationHashedApiKey(UUID.randomUUID())));
 
     ResponseStatusException responseStatusException =
@@ -232,12 +304,11 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_UploadFailed_ReturnsFailedServiceResponse() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID();
 
     when(applicationService.existsById(applicationId)).thenReturn(true);
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(createTestApplicationHashedApiKey(applicationId)));
 
     doThrow(IOException.class)
@@ -255,13 +326,12 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void uploadDocument_UploadSuccess_ReturnsSuccessServiceResponse() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
     var documentId = UUID.randomUUID().toString();
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
     when(applicationService.existsById(applicationId)).thenReturn(true);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(createTestApplicationHashedApiKey(applicationId)));
 
     when(applicationService.uploadDocument(documentData, applicationId))
@@ -287,7 +357,7 @@ public class ExternalServiceControllerTest {
   public void updateDocument_ApplicationIdIsMissing_ReturnsFailedServiceResponse() {
     var exception = assertThrows(
       ResponseStatusException.class,
-      () -> externalServiceController.updateDocument(UUID.randomUUID().toString(), "test", null, ""));
+      () -> externalServiceController.updateDocument(UUID.randomUUID().toString(), toJson("{}"), null, ""));
     assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
   }
 
@@ -295,17 +365,16 @@ public class ExternalServiceControllerTest {
   public void updateDocument_DocumentIdIsMissing_ReturnsFailedServiceResponse() {
     var exception = assertThrows(
       ResponseStatusException.class,
-      () -> externalServiceController.updateDocument(UUID.randomUUID().toString(), "test", UUID.randomUUID().toString(), null));
+      () -> externalServiceController.updateDocument(UUID.randomUUID().toString(), toJson("{}"), UUID.randomUUID().toString(), null));
     assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
   }
 
   @Test
   @SneakyThrows
   public void updateDocument_forbidden_apiKey_blank() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -317,10 +386,9 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void updateDocument_not_found_application() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -332,11 +400,10 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void updateDocument_forbidden_apiKey_doesnt_match() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(createTestApplicationHashedApiKey(UUID.randomUUID())));
 
     ResponseStatusException responseStatusException =
@@ -349,15 +416,14 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void updateDocument_Success() {
-    String documentData = "{ \"foo\": \"FOO\" }";
+    ObjectNode documentData = toJson("{ \"foo\": \"FOO\" }");
     var applicationId = UUID.randomUUID();
     var documentId = "id1234";
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
     when(applicationService.existsById(applicationId)).thenReturn(true);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(createTestApplicationHashedApiKey(applicationId)));
-    doNothing().when(applicationService).updateDocument(any(String.class), any(UUID.class), any(String.class));
+    doNothing().when(applicationService).updateDocument(any(ObjectNode.class), any(UUID.class), any(String.class));
 
     var response =
       externalServiceController.updateDocument(applicationId.toString(), documentData, applicationId.toString(), documentId);
@@ -369,10 +435,9 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void bulkUploadDocuments_forbidden_apiKey_blank() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -384,10 +449,9 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void bulkUploadDocuments_bad_request_uuid_not_valid() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = "thisIsAValidUUID"; // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -399,10 +463,9 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void bulkUploadDocuments_not_found_application() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
 
     ResponseStatusException responseStatusException =
       assertThrows(ResponseStatusException.class,
@@ -414,11 +477,10 @@ public class ExternalServiceControllerTest {
   @Test
   @SneakyThrows
   public void bulkUploadDocuments_forbidden_apiKey_doesnt_match() {
-    String documentData = "{\"Hello\" : \"World\"}";
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
     var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
 
-    when(applicationService.isJsonValid(documentData)).thenReturn(true);
-    when(applicationService.findById(any(UUID.class)))
+    when(applicationService.findCachedById(any(UUID.class)))
       .thenReturn(Optional.of(createTestApplicationHashedApiKey(UUID.randomUUID())));
 
     ResponseStatusException responseStatusException =
@@ -428,6 +490,116 @@ public class ExternalServiceControllerTest {
     assertEquals(responseStatusException.getStatus(), HttpStatus.FORBIDDEN);
   }
 
+  @Test
+  @SneakyThrows
+  public void bulkUploadDocuments_TakesAllDocumentsFromRateLimits() {
+    ObjectNode documentData = toJson("{\"Documents\" : [{\"Hello\" : \"World\"}, {\"Hello\" : \"Moon\"}]}");
+    var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
+    Application application = createTestApplicationHashedApiKey(applicationId);
+
+    when(applicationService.findCachedById(any(UUID.class))).thenReturn(Optional.of(application));
+    when(applicationService.bulkUploadDocuments(documentData, applicationId)).thenReturn(List.of("1", "2"));
+
+    externalServiceController.bulkUploadDocuments(applicationId.toString(), documentData, applicationId.toString());
+
+    verify(rateLimitService, times(1)).acquireIngest(
+        eq(applicationId), eq(application.getApiKeys().get(0).getId()), eq(2L), anyLong(), eq(true));
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadDocument_ChunkedRequest_TakesCountedBytesFromRateLimits() {
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
+    var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
+    Application application = createTestApplicationHashedApiKey(applicationId);
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    CountingInputStream body = new CountingInputStream(new ByteArrayInputStream(new byte[4096]));
+    body.readAllBytes();
+    request.setAttribute(RequestSizeControllerAdvice.REQUEST_BODY_ATTRIBUTE, body);
+
+    when(applicationService.findCachedById(any(UUID.class))).thenReturn(Optional.of(application));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    try {
+      externalServiceController.uploadDocument(applicationId.toString(), documentData, applicationId.toString());
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+
+    verify(rateLimitService, times(1)).acquireIngest(
+        eq(applicationId), eq(application.getApiKeys().get(0).getId()), eq(1L), eq(4096L), eq(false));
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadDocument_RateLimitExceeded_DoesNotUpload() {
+    ObjectNode documentData = toJson("{\"Hello\" : \"World\"}");
+    var applicationId = UUID.randomUUID(); // also apiKey of mockApplication
+
+    when(applicationService.findCachedById(any(UUID.class)))
+      .thenReturn(Optional.of(createTestApplicationHashedApiKey(applicationId)));
+    when(rateLimitService.acquireIngest(any(UUID.class), any(UUID.class), anyLong(), anyLong(), anyBoolean()))
+      .thenThrow(new RateLimitExceededException("application", "documents", 2));
+
+    RateLimitExceededException exception =
+      assertThrows(RateLimitExceededException.class,
+        () -> externalServiceController.uploadDocument(applicationId.toString(), documentData, applicationId.toString()));
+
+    assertEquals(2, exception.getRetryAfterSeconds());
+    verify(applicationService, never()).uploadDocument(any(), any());
+  }
+
+  @Test
+  public void submitAsyncQuery_StillRunning_Accepted() {
+    UUID apiKey = UUID.randomUUID(); //is also used as applicationId
+    String profileId = UUID.randomUUID().toString();
+    AsyncSearchResults results = new AsyncSearchResults();
+    results.setId("async-id");
+    results.setRunning(true);
+
+    when(searchProfileService.getSearchProfileByProfileId(profileId))
+      .thenReturn(getSearchProfileDtoWithAllParams(apiKey, true));
+    when(applicationService.findCachedById(apiKey))
+      .thenReturn(Optional.of(createTestApplicationHashedApiKey(apiKey)));
+    when(searchService.submitAsyncSearch(profileId, "value", Map.of(), FacetMode.NONE)).thenReturn(results);
+
+    ResponseEntity<AsyncSearchResults> response = externalServiceController.submitAsyncQuery(
+        profileId, "value", FacetMode.NONE, new LinkedMultiValueMap<>(), apiKey.toString());
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+    assertThat(response.getBody().getId(), equalTo("async-id"));
+  }
+
+  @Test
+  public void getAsyncQueryResult_ApiKeyOfOtherApplication_Forbidden() {
+    UUID apiKey = UUID.randomUUID(); //is also used as applicationId
+    UUID ownerId = UUID.randomUUID();
+
+    when(searchService.getAsyncSearchApplicationId("async-id")).thenReturn(ownerId);
+    when(applicationService.findCachedById(ownerId))
+      .thenReturn(Optional.of(createTestApplicationHashedApiKey(ownerId)));
+
+    ResponseStatusException responseStatusException =
+      assertThrows(ResponseStatusException.class,
+        () -> externalServiceController.getAsyncQueryResult("async-id", apiKey.toString()));
+
+    assertEquals(HttpStatus.FORBIDDEN, responseStatusException.getStatus());
+    verify(searchService, never()).getAsyncSearch(any());
+  }
+
+  @Test
+  public void deleteAsyncQuery_ApiKeyOfOwner_Deleted() {
+    UUID apiKey = UUID.randomUUID(); //is also used as applicationId
+
+    when(searchService.getAsyncSearchApplicationId("async-id")).thenReturn(apiKey);
+    when(applicationService.findCachedById(apiKey))
+      .thenReturn(Optional.of(createTestApplicationHashedApiKey(apiKey)));
+
+    ResponseEntity<Void> response = externalServiceController.deleteAsyncQuery("async-id", apiKey.toString());
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.NO_CONTENT));
+    verify(searchService).deleteAsyncSearch("async-id");
+  }
+
   private SearchProfileDto getSearchProfileDtoWithAllParams(UUID id, boolean queryable) {
     String userId = UUID.randomUUID().toString();
 
@@ -458,4 +630,8 @@ public class ExternalServiceControllerTest {
 			.build();
   }
 
+  @SneakyThrows
+  private static ObjectNode toJson(String rawJson) {
+    return (ObjectNode) new ObjectMapper().readTree(rawJson);
+  }
 }
@@ -1,26 +1,36 @@
 package com.github.searchprofileservice.api;
 
 import com.github.searchprofileservice.api.model.SearchProfileDto;
+import com.github.searchprofileservice.config.InstrumentationProperties;
 import com.github.searchprofileservice.model.AuthenticatedUser;
+import com.github.searchprofileservice.model.QueryTimings;
 import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.enums.FacetMode;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.ApplicationService;
 import com.github.searchprofileservice.service.AuthenticationService;
+import com.github.searchprofileservice.service.InstrumentationService;
 import com.github.searchprofileservice.service.SearchService;
+import com.github.searchprofileservice.service.impl.InstrumentationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.Builder;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -30,21 +40,39 @@ public class SearchControllerTest {
   private final SearchService searchService = mock(SearchService.class);
   private final AuthenticationService authenticationService = mock(AuthenticationService.class);
   private final ApplicationService applicationService = mock(ApplicationService.class);
+  private final InstrumentationService instrumentationService =
+      new InstrumentationServiceImpl(new SimpleMeterRegistry(), new InstrumentationProperties());
   @InjectMocks
-  private final SearchController searchController = new SearchController(searchService, authenticationService, applicationService);
+  private final SearchController searchController = new SearchController(searchService, authenticationService, applicationService, instrumentationService);
 
   @Test
   public void getSearchResults_ok() {
     String profileId = UUID.randomUUID().toString();
     String searchValue = "searchText";
-    when(searchService.search(profileId, searchValue)).thenReturn(new SearchResults());
+    when(searchService.search(profileId, searchValue, Map.of(), FacetMode.NONE)).thenReturn(new SearchResults());
 
     ResponseEntity<SearchResults> response = searchController.getSearchResults(profileId,
-        searchValue);
+        searchValue, FacetMode.NONE, new LinkedMultiValueMap<>(Map.of("value", List.of(searchValue))));
 
     assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
   }
 
+  @Test
+  public void getSearchResults_passesFilterParameters() {
+    String profileId = UUID.randomUUID().toString();
+    String searchValue = "searchText";
+    when(searchService.search(profileId, searchValue, Map.of("category", List.of("books", "music")), FacetMode.NONE))
+        .thenReturn(new SearchResults());
+
+    ResponseEntity<SearchResults> response = searchController.getSearchResults(profileId,
+        searchValue, FacetMode.NONE, new LinkedMultiValueMap<>(Map.of(
+            "value", List.of(searchValue),
+            "filter.category", List.of("books", "music"))));
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    assertThat(response.getBody(), notNullValue());
+  }
+
   @Test
   public void getSearchResults_badRequest() {
     String profileId = UUID.randomUUID().toString();
@@ -52,11 +80,23 @@ public class SearchControllerTest {
 
     ResponseStatusException exception = assertThrows(
         ResponseStatusException.class,
-        () -> searchController.getSearchResults(profileId, searchValue));
+        () -> searchController.getSearchResults(profileId, searchValue, FacetMode.INCLUDE, new LinkedMultiValueMap<>()));
 
     assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
   }
 
+  @Test
+  public void getSearchResults_facetsOnly_allowsEmptyValue() {
+    String profileId = UUID.randomUUID().toString();
+    when(searchService.search(profileId, "", Map.of(), FacetMode.ONLY)).thenReturn(new SearchResults());
+
+    ResponseEntity<SearchResults> response = searchController.getSearchResults(
+        profileId, "", FacetMode.ONLY, new LinkedMultiValueMap<>());
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    assertThat(response.getBody(), notNullValue());
+  }
+
   @Test
   public void getSearchResults_bad_Request_UUID_not_valid() {
     String profileId = "profileId";
@@ -64,7 +104,7 @@ public class SearchControllerTest {
 
     ResponseStatusException responseStatusException = assertThrows(
         ResponseStatusException.class,
-        () -> searchController.getSearchResults(profileId, searchValue));
+        () -> searchController.getSearchResults(profileId, searchValue, FacetMode.NONE, new LinkedMultiValueMap<>()));
 
         assertThat(responseStatusException.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
         assertThat(responseStatusException.getReason(), equalTo("'" + profileId + "' is not a valid UUID"));
@@ -122,13 +162,40 @@ public class SearchControllerTest {
     Application application = createTestApplication(uuid,mockCreatorId);
     when(applicationService.findById(uuid)).thenReturn(Optional.of(application));
     when(authenticationService.getUser()).thenReturn(new AuthenticatedUser("mockUser",mockCreatorId, ""));
-    when(searchService.searchByProfileDTO(searchProfileDto, searchValue)).thenReturn(new SearchResults());
+    when(searchService.searchByProfileDTO(searchProfileDto, searchValue, false)).thenReturn(new SearchResults());
 
     //Assert
-    ResponseEntity<SearchResults> response1 = searchController.postTestSearchProfile(searchProfileDto, searchValue);
+    ResponseEntity<SearchResults> response1 = searchController.postTestSearchProfile(searchProfileDto, searchValue, false);
     assertThat(response1.getStatusCode(), equalTo(HttpStatus.OK));
   }
 
+  @Test
+  public void postTestSearchProfile_profiled_returnsQueryTimings(){
+    final UUID uuid = UUID.randomUUID();
+    final String mockCreatorId = "mockUserId";
+
+    String searchValue = "name";
+
+    SearchProfileDto searchProfileDto = SearchProfileDto.builder()
+            .applicationId(uuid)
+            .creatorId(mockCreatorId)
+            .name("test profile")
+            .build();
+    SearchResults searchResults = new SearchResults();
+    searchResults.setQueryTimings(new QueryTimings());
+
+    //Config
+    Application application = createTestApplication(uuid,mockCreatorId);
+    when(applicationService.findById(uuid)).thenReturn(Optional.of(application));
+    when(authenticationService.getUser()).thenReturn(new AuthenticatedUser("mockUser",mockCreatorId, ""));
+    when(searchService.searchByProfileDTO(searchProfileDto, searchValue, true)).thenReturn(searchResults);
+
+    //Assert
+    ResponseEntity<SearchResults> response = searchController.postTestSearchProfile(searchProfileDto, searchValue, true);
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    assertThat(response.getBody().getQueryTimings(), notNullValue());
+  }
+
   private Application createTestApplication(UUID uuid, String creatorId){
     return Application.builder()
 			.id(uuid)
@@ -0,0 +1,93 @@
+package com.github.searchprofileservice.api;
+
+import com.github.searchprofileservice.model.SlowQueryStatistics;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+import com.github.searchprofileservice.persistence.mongo.repository.UserRepository;
+import com.github.searchprofileservice.service.SlowQueryLogService;
+import com.github.searchprofileservice.support.SecurityDummyUser;
+import lombok.SneakyThrows;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static com.github.searchprofileservice.api.routes.Routes.Api.V1.SlowQueries.*;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SlowQueryLogControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private SlowQueryLogService slowQueryLogService;
+
+  @MockBean
+  private UserRepository userRepository;
+
+  @SneakyThrows
+  @Test
+  @WithMockUser(value = SecurityDummyUser.TEST_USER_NAME, roles = { "ADMIN", "USER" })
+  void getSlowest_Admin_ReturnsRecords() {
+    ObjectId id = new ObjectId();
+    when(slowQueryLogService.getSlowest(5)).thenReturn(List.of(SlowQueryRecord.builder()
+        .id(id)
+        .profileId("profile")
+        .searchValue("value")
+        .totalMillis(812.5)
+        .slow(true)
+        .build()));
+
+    mockMvc.perform(get(GetSlowest).param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id", is(id.toHexString())))
+        .andExpect(jsonPath("$[0].searchValue", is("value")))
+        .andExpect(jsonPath("$[0].totalMillis", is(812.5)));
+  }
+
+  @SneakyThrows
+  @Test
+  @WithMockUser(value = SecurityDummyUser.TEST_USER_NAME, roles = { "ADMIN", "USER" })
+  void getMostFrequent_Admin_ReturnsStatistics() {
+    when(slowQueryLogService.getMostFrequent(10)).thenReturn(List.of(
+        new SlowQueryStatistics("profile", "value", 3, 700, 900)));
+
+    mockMvc.perform(get(GetMostFrequent))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].profileId", is("profile")))
+        .andExpect(jsonPath("$[0].count", is(3)));
+  }
+
+  @SneakyThrows
+  @Test
+  @WithMockUser(value = SecurityDummyUser.TEST_USER_NAME, roles = { "ADMIN", "USER" })
+  void getSlowest_InvalidLimit_ReturnsBadRequest() {
+    mockMvc.perform(get(GetSlowest).param("limit", "0"))
+        .andExpect(status().isBadRequest());
+
+    verify(slowQueryLogService, never()).getSlowest(anyInt());
+  }
+
+  @SneakyThrows
+  @Test
+  @WithMockUser(value = SecurityDummyUser.TEST_USER_NAME, roles = { "USER" })
+  void getSlowest_NoAdmin_IsForbidden() {
+    mockMvc.perform(get(GetSlowest))
+        .andExpect(status().isForbidden());
+
+    verify(slowQueryLogService, never()).getSlowest(anyInt());
+  }
+}
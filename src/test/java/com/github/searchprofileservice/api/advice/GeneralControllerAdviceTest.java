@@ -0,0 +1,57 @@
+package com.github.searchprofileservice.api.advice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.searchprofileservice.exception.ErrorDTO;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GeneralControllerAdviceTest {
+
+  private final GeneralControllerAdvice generalControllerAdvice = new GeneralControllerAdvice();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void messageNotReadable_MalformedJson_NotSatisfyingJson() {
+    Exception cause = assertThrows(Exception.class, () -> objectMapper.readTree("{\"name\": "));
+
+    ResponseEntity<ErrorDTO> response = generalControllerAdvice.messageNotReadable(notReadable(cause));
+
+    assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    assertThat(response.getBody().getMessage(), is("Request-body is not satisfying Json standard"));
+  }
+
+  @Test
+  public void messageNotReadable_UnknownEnumValue_PassesCauseOn() {
+    Exception cause = assertThrows(
+        Exception.class, () -> objectMapper.readValue("\"HUGE\"", IndexSettingsProfile.class));
+
+    ResponseEntity<ErrorDTO> response = generalControllerAdvice.messageNotReadable(notReadable(cause));
+
+    assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    assertThat(response.getBody().getMessage(), allOf(
+        startsWith("Request-body does not match the expected format: "),
+        containsString("HUGE"),
+        not(containsString("line:"))));
+  }
+
+  @Test
+  public void messageNotReadable_MissingBody_NotReadable() {
+    ResponseEntity<ErrorDTO> response =
+        generalControllerAdvice.messageNotReadable(notReadable(null));
+
+    assertThat(response.getBody().getMessage(), is("Request-body is missing or not readable"));
+  }
+
+  private static HttpMessageNotReadableException notReadable(Throwable cause) {
+    return new HttpMessageNotReadableException("not readable", cause, new MockHttpInputMessage(new byte[0]));
+  }
+}
@@ -0,0 +1,58 @@
+package com.github.searchprofileservice.api.advice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.util.CountingInputStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RequestSizeControllerAdviceTest {
+
+  private final RequestSizeControllerAdvice requestSizeControllerAdvice = new RequestSizeControllerAdvice();
+
+  private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+  @BeforeEach
+  public void setUp() {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  public void supports_OnlyDocuments() {
+    assertThat(requestSizeControllerAdvice.supports(null, ObjectNode.class, MappingJackson2HttpMessageConverter.class), is(true));
+    assertThat(requestSizeControllerAdvice.supports(null, String.class, MappingJackson2HttpMessageConverter.class), is(false));
+  }
+
+  @Test
+  @SneakyThrows
+  public void beforeBodyRead_NonAsciiDocument_CountsBytesRead() {
+    byte[] body = "{\"title\": \"Größenänderung\"}".getBytes(StandardCharsets.UTF_8);
+
+    HttpInputMessage inputMessage = requestSizeControllerAdvice.beforeBodyRead(
+        new MockHttpInputMessage(body), null, ObjectNode.class, MappingJackson2HttpMessageConverter.class);
+    Object document = new ObjectMapper().readTree(inputMessage.getBody());
+
+    CountingInputStream countingBody =
+        (CountingInputStream) request.getAttribute(RequestSizeControllerAdvice.REQUEST_BODY_ATTRIBUTE);
+    assertThat(countingBody.getCount(), is((long) body.length));
+    assertThat(body.length, greaterThan(document.toString().length()));
+  }
+}
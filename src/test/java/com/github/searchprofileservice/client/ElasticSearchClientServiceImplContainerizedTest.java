@@ -57,8 +57,10 @@ class ElasticSearchClientServiceImplContainerizedTest extends AbstractElasticSea
 
     Map<String, ElasticSearchMappingType> expected = new HashMap<>();
     expected.put("name", ElasticSearchMappingType.TEXT);
+    expected.put("name.keyword", ElasticSearchMappingType.KEYWORD);
     expected.put("certificate.name", ElasticSearchMappingType.TEXT);
-    expected.put("certificate.available", ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put("certificate.name.keyword", ElasticSearchMappingType.KEYWORD);
+    expected.put("certificate.available", ElasticSearchMappingType.BOOLEAN);
     expected.put("object1.object2.object3.object4.object5", ElasticSearchMappingType.NOT_SUPPORTED);
 
     // act
@@ -1,8 +1,17 @@
 package com.github.searchprofileservice.client;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.SearchProfileServiceApplication;
+import com.github.searchprofileservice.client.impl.ElasticSearchStatefulClientImpl;
 import com.github.searchprofileservice.container.AbstractElasticSearchTestContainer;
+import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import com.github.searchprofileservice.util.ElasticSearchSearchRequestUtil;
 import com.github.searchprofileservice.util.IndexHelper;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
@@ -11,6 +20,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(classes = SearchProfileServiceApplication.class)
@@ -40,10 +53,62 @@ class ElasticSearchStatefulClientImplContainerizedTest extends AbstractElasticSe
     IndexHelper.deleteIndexIfExists(elasticsearchClient, indexName);
 
     // act
-    boolean successful = sut.createIndex(indexName);
+    boolean successful = sut.createIndex(indexName, IndexSettingsProfile.SMALL);
 
     // assert
     assertTrue(successful);
     assertTrue(IndexHelper.doesIndexExist(elasticsearchClient, indexName));
   }
+
+  @Test
+  @SneakyThrows
+  void bulk_upload_indexes_documents_into_both_indices() {
+
+    // arrange
+    String indexName = "test-bulk-index";
+    IndexHelper.deleteIndexIfExists(elasticsearchClient, indexName);
+    IndexHelper.deleteIndexIfExists(elasticsearchClient, indexName + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX);
+    sut.createIndex(indexName, IndexSettingsProfile.SMALL);
+    ObjectMapper objectMapper = new ObjectMapper();
+    ObjectNode first = objectMapper.createObjectNode().put("title", "first \"document\"\nwith a line break");
+    ObjectNode second = objectMapper.createObjectNode().put("title", "second document");
+
+    // act
+    List<String> ids = sut.bulkUploadRawJsonToIndex(indexName, List.of(first, second));
+
+    // assert
+    assertEquals(2, ids.size());
+    for (String index : List.of(indexName, indexName + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX)) {
+      GetResponse<ObjectNode> response = elasticsearchClient.get(g -> g.index(index).id(ids.get(0)), ObjectNode.class);
+      assertTrue(response.found());
+      assertEquals(first, response.source());
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void search_template_searches_with_escaped_search_value() {
+
+    // arrange
+    String indexName = "test-template-index";
+    String templateId = ElasticSearchSearchRequestUtil.getTemplateId("test-profile", 0L);
+    IndexHelper.deleteIndexIfExists(elasticsearchClient, indexName);
+    IndexHelper.deleteIndexIfExists(elasticsearchClient, indexName + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX);
+    sut.createIndex(indexName, IndexSettingsProfile.SMALL);
+    ObjectNode document = new ObjectMapper().createObjectNode().put("title", "wireless headphones");
+    sut.bulkUploadRawJsonToIndex(indexName, List.of(document));
+    elasticsearchClient.indices().refresh(r -> r.index(indexName));
+    List<SearchField> searchFields = List.of(new SearchField("title", true, 1.0));
+
+    // act
+    sut.putSearchTemplate(templateId, ElasticSearchSearchRequestUtil.createTemplateSource(searchFields, null, 0.0, new Analyser()));
+    SearchResponse<ObjectNode> response = sut.searchTemplate(
+        new ElasticSearchSearchRequestUtil(indexName, "\"headphones\"").createTemplateRequest(templateId));
+
+    // assert
+    assertEquals(1, response.hits().hits().size());
+    assertEquals(document, response.hits().hits().get(0).source());
+    assertTrue(sut.deleteSearchTemplate(templateId));
+    assertFalse(sut.deleteSearchTemplate(templateId));
+  }
 }
\ No newline at end of file
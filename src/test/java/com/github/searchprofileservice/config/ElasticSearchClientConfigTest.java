@@ -0,0 +1,164 @@
+package com.github.searchprofileservice.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ElasticSearchClientConfigTest {
+
+  private final ElasticSearchProperties elasticSearchProperties = new ElasticSearchProperties();
+
+  private final ElasticSearchClientConfig elasticSearchClientConfig =
+      new ElasticSearchClientConfig(elasticSearchProperties);
+
+  /** stand-in for the nodes api of the cluster */
+  private HttpServer elasticSearch;
+
+  /** a port nothing listens on */
+  private int deadPort;
+
+  /** one permit per sniff */
+  private final Semaphore sniffs = new Semaphore(0);
+
+  private String deadNodeRoles;
+
+  /** the client configuration, connected to the stand-in */
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withBean(ElasticSearchProperties.class, () -> {
+        elasticSearchProperties.setHost("127.0.0.1");
+        elasticSearchProperties.setPort(elasticSearch.getAddress().getPort());
+        return elasticSearchProperties;
+      })
+      .withUserConfiguration(ElasticSearchClientConfig.class);
+
+  @BeforeEach
+  @SneakyThrows
+  public void setUp() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      deadPort = socket.getLocalPort();
+    }
+    elasticSearch = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    elasticSearch.createContext("/_nodes/http", exchange -> {
+      respond(exchange, """
+          {
+            "nodes": {
+              "a": { "version": "8.2.2", "roles": ["data", "ingest"], "http": { "bound_address": ["127.0.0.1:%1$d"], "publish_address": "127.0.0.1:%1$d" } },
+              "b": { "version": "8.2.2", "roles": %2$s, "http": { "bound_address": ["127.0.0.1:%3$d"], "publish_address": "127.0.0.1:%3$d" } }
+            }
+          }
+          """.formatted(elasticSearch.getAddress().getPort(), deadNodeRoles, deadPort));
+      sniffs.release();
+    });
+    elasticSearch.createContext("/", exchange -> respond(exchange, "{}"));
+    elasticSearch.start();
+    elasticSearchProperties.setUsername("elastic");
+    elasticSearchProperties.setPassword("elastic");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    elasticSearch.stop(0);
+  }
+
+  @Test
+  public void httpHosts_NoNodes_HostAndPort() {
+    elasticSearchProperties.setHost("es");
+    elasticSearchProperties.setPort(9400);
+
+    assertThat(elasticSearchClientConfig.httpHosts(), contains(new HttpHost("es", 9400, "http")));
+  }
+
+  @Test
+  public void httpHosts_Nodes_ReplaceHostWithSchemeAndDefaultPort() {
+    elasticSearchProperties.setSsl(true);
+    elasticSearchProperties.setNodes(List.of("es-1:9201", " es-2"));
+
+    assertThat(elasticSearchClientConfig.httpHosts(), contains(
+        new HttpHost("es-1", 9201, "https"),
+        new HttpHost("es-2", 9200, "https")));
+  }
+
+  @Test
+  public void elasticSearchSniffer_SniffingDisabled_NotCreated() {
+    contextRunner.run(context -> {
+      assertThat(context.getBeansOfType(Sniffer.class).keySet(), empty());
+      assertThat(sniffs.tryAcquire(100, TimeUnit.MILLISECONDS), is(false));
+    });
+  }
+
+  @Test
+  public void elasticSearchSniffer_SniffingEnabled_DedicatedMastersSkipped() {
+    deadNodeRoles = "[\"master\"]";
+
+    contextRunner.withPropertyValues("elasticsearch.connection.sniffing.enabled=true").run(context -> {
+      RestClient restClient = context.getBean(RestClient.class);
+      assertThat(sniffs.tryAcquire(5, TimeUnit.SECONDS), is(true));
+      awaitNodes(restClient, 2);
+
+      assertThat(restClient.getNodes().stream().map(Node::getHost).toList(), contains(
+          new HttpHost("127.0.0.1", elasticSearch.getAddress().getPort(), "http"),
+          new HttpHost("127.0.0.1", deadPort, "http")));
+      for (int i = 0; i < 4; i++) {
+        restClient.performRequest(new Request("GET", "/"));
+      }
+      // a request sent to the unreachable master would have caused another sniff
+      assertThat(sniffs.tryAcquire(200, TimeUnit.MILLISECONDS), is(false));
+    });
+  }
+
+  @Test
+  public void elasticSearchSniffer_NodeFailed_SniffsAgain() {
+    deadNodeRoles = "[\"data\"]";
+
+    contextRunner.withPropertyValues("elasticsearch.connection.sniffing.enabled=true").run(context -> {
+      RestClient restClient = context.getBean(RestClient.class);
+      assertThat(sniffs.tryAcquire(5, TimeUnit.SECONDS), is(true));
+      awaitNodes(restClient, 2);
+
+      // round robin, one of the two is sent to the dead node first and retried on the other
+      restClient.performRequest(new Request("GET", "/"));
+      restClient.performRequest(new Request("GET", "/"));
+
+      assertThat(sniffs.tryAcquire(5, TimeUnit.SECONDS), is(true));
+    });
+  }
+
+  private static void respond(HttpExchange exchange, String json) throws IOException {
+    byte[] body = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      responseBody.write(body);
+    }
+  }
+
+  /** the sniffer replaces the nodes right after the response of the cluster has been read */
+  @SneakyThrows
+  private static void awaitNodes(RestClient restClient, int count) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (restClient.getNodes().size() != count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
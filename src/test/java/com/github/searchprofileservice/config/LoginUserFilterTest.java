@@ -0,0 +1,109 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.model.AuthenticatedUser;
+import com.github.searchprofileservice.persistence.mongo.model.User;
+import com.github.searchprofileservice.service.AuthenticationService;
+import com.github.searchprofileservice.service.UserService;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class LoginUserFilterTest {
+
+  private final AuthenticationService authenticationService = mock(AuthenticationService.class);
+  private final UserService userService = mock(UserService.class);
+  private final ConcurrentMapCacheManager cacheManager =
+      new ConcurrentMapCacheManager(CachingConfig.LOGIN_USER_CACHE);
+
+  private final LoginUserFilter loginUserFilter =
+      new LoginUserFilter(authenticationService, userService, cacheManager);
+
+  @BeforeEach
+  public void setUp() {
+    when(authenticationService.isUserAuthenticated()).thenReturn(true);
+  }
+
+  @Test
+  public void doFilter_KnownUser_SynchronizedOnlyOnce() {
+    loginAs(new AuthenticatedUser("testUser", "1", "picture"));
+    when(userService.findByUserId("1"))
+        .thenReturn(Optional.of(new User("1", "testUser", "picture", true)));
+
+    doFilter();
+    doFilter();
+    doFilter();
+
+    verify(userService, times(1)).findByUserId("1");
+    verify(userService, never()).updatePictureLink(anyString(), anyString());
+    verify(userService, never()).save(any());
+    verify(userService, never()).update(any());
+  }
+
+  @Test
+  public void doFilter_NewUser_Saved() {
+    loginAs(new AuthenticatedUser("testUser", "1", "picture"));
+    when(userService.findByUserId("1")).thenReturn(Optional.empty());
+
+    doFilter();
+    doFilter();
+
+    verify(userService, times(1)).save(any(User.class));
+  }
+
+  @Test
+  public void doFilter_ChangedPictureLink_OnlyPictureLinkUpdated() {
+    loginAs(new AuthenticatedUser("testUser", "1", "picture"));
+    when(userService.findByUserId("1"))
+        .thenReturn(Optional.of(new User("1", "testUser", "picture", true)));
+    doFilter();
+
+    loginAs(new AuthenticatedUser("testUser", "1", "new picture"));
+    doFilter();
+    doFilter();
+
+    verify(userService, times(2)).findByUserId("1");
+    verify(userService, times(1)).updatePictureLink("1", "new picture");
+    verify(userService, never()).update(any());
+  }
+
+  @Test
+  public void doFilter_EvictedUser_SynchronizedAgain() {
+    loginAs(new AuthenticatedUser("testUser", "1", "picture"));
+    when(userService.findByUserId("1")).thenReturn(Optional.empty());
+    doFilter();
+
+    cacheManager.getCache(CachingConfig.LOGIN_USER_CACHE).evict("1");
+    doFilter();
+
+    verify(userService, times(2)).save(any(User.class));
+  }
+
+  @Test
+  public void doFilter_Unauthenticated_NoUserLookup() {
+    when(authenticationService.isUserAuthenticated()).thenReturn(false);
+
+    doFilter();
+
+    verifyNoInteractions(userService);
+  }
+
+  private void loginAs(AuthenticatedUser authenticatedUser) {
+    when(authenticationService.getUser()).thenReturn(authenticatedUser);
+  }
+
+  @SneakyThrows
+  private void doFilter() {
+    loginUserFilter.doFilter(
+        new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+  }
+}
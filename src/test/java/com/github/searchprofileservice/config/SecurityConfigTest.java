@@ -0,0 +1,71 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.persistence.mongo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * The actuator is served on the management port, where the prometheus endpoint and the probes need
+ * no login.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+class SecurityConfigTest {
+
+  @LocalServerPort
+  private int port;
+
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @MockBean
+  private UserRepository userRepository;
+
+  @Test
+  void prometheus_AnonymousOnManagementPort_ReturnsMetrics() {
+    var response = restTemplate.getForEntity(managementUrl("/actuator/prometheus"), String.class);
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    assertThat(response.getBody(), containsString("# TYPE jvm_memory_used_bytes gauge"));
+  }
+
+  @Test
+  void liveness_AnonymousOnManagementPort_ReturnsOk() {
+    var response = restTemplate.getForEntity(managementUrl("/actuator/health/liveness"), String.class);
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+  }
+
+  @Test
+  void metrics_AnonymousOnManagementPort_ReturnsUnauthorized() {
+    var response = restTemplate.getForEntity(managementUrl("/actuator/metrics"), String.class);
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.UNAUTHORIZED));
+  }
+
+  @Test
+  void prometheus_AnonymousOnServerPort_ReturnsNotFound() {
+    var response = restTemplate.getForEntity(
+        "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+    assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+  }
+
+  private String managementUrl(String path) {
+    return "http://localhost:" + managementPort + path;
+  }
+}
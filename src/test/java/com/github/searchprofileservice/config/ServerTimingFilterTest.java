@@ -0,0 +1,98 @@
+package com.github.searchprofileservice.config;
+
+import com.github.searchprofileservice.api.routes.Routes;
+import com.github.searchprofileservice.model.ServerTiming;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ServerTimingFilterTest {
+
+  private final InstrumentationProperties instrumentationProperties = new InstrumentationProperties();
+
+  private final ServerTimingFilter serverTimingFilter = new ServerTimingFilter(instrumentationProperties);
+
+  @Test
+  @SneakyThrows
+  public void doFilter_TimedRoute_HeaderWithStagesAndBody() {
+    instrumentationProperties.setServerTiming(true);
+
+    MockHttpServletResponse response = doFilter(
+        Routes.Api.V1.externalServices.query.getQueryResult, (serverTiming) -> {
+          serverTiming.add(ServerTiming.Metric.ES, TimeUnit.MICROSECONDS.toNanos(12_034));
+          serverTiming.add(ServerTiming.Metric.ES_TOOK, TimeUnit.MILLISECONDS.toNanos(3));
+          serverTiming.markSerializationStart();
+        });
+
+    String header = response.getHeader(ServerTimingFilter.HEADER);
+    assertThat(header, startsWith("es;dur=12.034, es-took;dur=3.000, serialize;dur="));
+    assertThat(header, matchesPattern(".*, total;dur=\\d+\\.\\d{3}$"));
+    assertThat(header, not(containsString("auth")));
+    assertThat(response.getContentAsString(StandardCharsets.UTF_8), equalTo("body"));
+  }
+
+  @Test
+  public void doFilter_IngestRouteWithPathVariables_Timed() {
+    instrumentationProperties.setServerTiming(true);
+
+    MockHttpServletResponse response = doFilter(Routes.withParams(
+        Routes.Api.V1.Applications.GetOne.PostBulkUpload,
+        Routes.Api.V1.Applications.GetOne.PathParams.applicationId, UUID.randomUUID().toString()),
+        (serverTiming) -> { });
+
+    assertThat(response.getHeader(ServerTimingFilter.HEADER), startsWith("total;dur="));
+  }
+
+  @Test
+  public void doFilter_UntimedRoute_NoHeader() {
+    instrumentationProperties.setServerTiming(true);
+
+    MockHttpServletResponse response = doFilter(Routes.Api.V1.Users.GetAll,
+        (serverTiming) -> assertThat(serverTiming, nullValue()));
+
+    assertThat(response.getHeader(ServerTimingFilter.HEADER), nullValue());
+  }
+
+  @Test
+  public void doFilter_Disabled_NoHeaderAndNoTiming() {
+    MockHttpServletResponse response = doFilter(Routes.Api.V1.externalServices.query.getQueryResult,
+        (serverTiming) -> assertThat(serverTiming, nullValue()));
+
+    assertThat(response.getHeader(ServerTimingFilter.HEADER), nullValue());
+    assertThat(ServerTiming.current(), nullValue());
+  }
+
+  @Test
+  public void doFilter_TimingEndsWithRequest() {
+    instrumentationProperties.setServerTiming(true);
+
+    doFilter(Routes.Api.V1.externalServices.query.getQueryResult,
+        (serverTiming) -> assertThat(serverTiming, notNullValue()));
+
+    assertThat(ServerTiming.current(), nullValue());
+  }
+
+  /**
+   * Runs a request through the filter, the handler receives the timing of the request and writes
+   * a body
+   */
+  @SneakyThrows
+  private MockHttpServletResponse doFilter(String path, Consumer<ServerTiming> handler) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    serverTimingFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+      handler.accept(ServerTiming.current());
+      filteredResponse.getOutputStream().write("body".getBytes(StandardCharsets.UTF_8));
+    });
+    return response;
+  }
+}
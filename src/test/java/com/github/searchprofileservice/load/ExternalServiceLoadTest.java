@@ -0,0 +1,245 @@
+package com.github.searchprofileservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.api.routes.Routes;
+import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
+import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
+import com.github.searchprofileservice.persistence.mongo.repository.ApplicationRepository;
+import com.github.searchprofileservice.persistence.mongo.repository.SearchProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the external search and ingest endpoints of the full application at fixed arrival rates
+ * and reports throughput, latency percentiles and the time spent in each stage of the service.
+ *
+ * Mongodb is embedded and elasticsearch is replaced by {@link FakeElasticSearchStatefulClient},
+ * so the numbers are the overhead of the service on top of the configured elasticsearch latency.
+ * Only runs with {@code ./mvnw test -Pload-test}, settings are in {@code application-load-test.yml}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load-test")
+@EnabledIfSystemProperty(named = "load-test.enabled", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExternalServiceLoadTest {
+
+  private static final String API_KEY = "load-test-api-key";
+
+  /** origin of the frontend, which passes the csrf check of the document endpoints */
+  private static final String ORIGIN = "http://localhost:8080";
+
+  /** distinct request bodies, sent round robin */
+  private static final int BODIES = 100;
+
+  @TestConfiguration
+  @EnableConfigurationProperties(LoadTestProperties.class)
+  static class FakeElasticSearchConfig {
+
+    @Bean
+    @Primary
+    FakeElasticSearchStatefulClient fakeElasticSearchStatefulClient(LoadTestProperties properties) {
+      LoadTestProperties.ElasticSearch elasticsearch = properties.getElasticsearch();
+      return new FakeElasticSearchStatefulClient(
+          elasticsearch.getLatency(), elasticsearch.getHits(), elasticsearch.getDocumentFields());
+    }
+  }
+
+  /**
+   * The search endpoint asks for a login, which the load generator has none of. Its requests go
+   * past the security filter chain, the api key of the application is still checked.
+   */
+  @TestConfiguration
+  static class SearchWithoutLoginConfig {
+
+    @Bean
+    WebSecurityCustomizer searchWithoutLogin() {
+      return web -> web.ignoring().antMatchers(Routes.Api.V1.externalServices.query.getQueryResult);
+    }
+  }
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private LoadTestProperties properties;
+
+  @Autowired
+  private FakeElasticSearchStatefulClient elasticSearch;
+
+  @Autowired
+  private ApplicationRepository applicationRepository;
+
+  @Autowired
+  private SearchProfileRepository searchProfileRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private final LoadGenerator loadGenerator = new LoadGenerator();
+
+  private UUID applicationId;
+  private String profileId;
+
+  @BeforeAll
+  void setUp() {
+    Application application = applicationRepository.save(Application.builder()
+        .id(UUID.randomUUID())
+        .applicationName("load-test-" + UUID.randomUUID())
+        .creatorId("load-test")
+        .active(true)
+        .apiKeys(List.of(new ApiKey(
+            UUID.randomUUID(),
+            "load-test",
+            BCrypt.hashpw(API_KEY, BCrypt.gensalt(properties.getApiKeyCost())))))
+        .build());
+    applicationId = application.getId();
+
+    profileId = UUID.randomUUID().toString();
+    searchProfileRepository.save(SearchProfileDocument.builder()
+        .profileId(profileId)
+        .applicationId(applicationId.toString())
+        .creatorId("load-test")
+        .lastEditorId("load-test")
+        .name("load-test")
+        .analyser(new Analyser())
+        .searchFields(elasticSearch.getFieldNames().stream()
+            .map(field -> new SearchField(field, true, 1.0))
+            .toList())
+        .minScore(0.0)
+        .queryable(true)
+        .build());
+  }
+
+  @Test
+  void search() {
+    run("search", properties.getSearchRate(), i -> request(
+        Routes.Api.V1.externalServices.query.getQueryResult
+            + "?profileId=" + profileId
+            + "&searchValue=" + URLEncoder.encode("value " + i, StandardCharsets.UTF_8))
+        .GET()
+        .build());
+  }
+
+  @Test
+  void ingest() {
+    byte[][] bodies = new byte[BODIES][];
+    for (int i = 0; i < BODIES; i++) {
+      bodies[i] = toJson(elasticSearch.createDocument(objectMapper, i));
+    }
+
+    run("ingest", properties.getIngestRate(), i -> documentRequest(
+        Routes.Api.V1.externalServices.Applications.GetOne.PostDocument, bodies[i % BODIES]));
+  }
+
+  @Test
+  void bulkUpload() {
+    byte[][] bodies = new byte[BODIES][];
+    for (int i = 0; i < BODIES; i++) {
+      ObjectNode bulk = objectMapper.createObjectNode();
+      ArrayNode documents = bulk.putArray("Documents");
+      for (int document = 0; document < properties.getBulkSize(); document++) {
+        documents.add(elasticSearch.createDocument(objectMapper, i * properties.getBulkSize() + document));
+      }
+      bodies[i] = toJson(bulk);
+    }
+
+    run("bulk-upload", properties.getBulkRate(), i -> documentRequest(
+        Routes.Api.V1.externalServices.Applications.GetOne.PostBulkUpload, bodies[i % BODIES]));
+  }
+
+  /**
+   * Warms up, then measures a scenario and prints its report with the mean time of every stage
+   */
+  private void run(String scenario, double rate, IntFunction<HttpRequest> requests) {
+    loadGenerator.run(scenario, rate, properties.getWarmup(), requests);
+
+    Map<String, long[]> stagesBefore = snapshotStages();
+    LoadReport report = loadGenerator.run(scenario, rate, properties.getDuration(), requests);
+    Map<String, long[]> stagesAfter = snapshotStages();
+
+    StringBuilder output = new StringBuilder(report.toString());
+    stagesAfter.forEach((stage, after) -> {
+      long[] before = stagesBefore.getOrDefault(stage, new long[2]);
+      long count = after[0] - before[0];
+      if (count > 0) {
+        output.append(String.format(Locale.ROOT, "%n  %-36s count %6d  mean %8.3fms",
+            stage, count, (after[1] - before[1]) / (double) count / TimeUnit.MILLISECONDS.toNanos(1)));
+      }
+    });
+    System.out.println(output);
+
+    assertEquals(0, report.getErrors(), "failed requests of scenario '" + scenario + "'");
+  }
+
+  /** @return count and total time in nanoseconds of every operation and stage */
+  private Map<String, long[]> snapshotStages() {
+    Map<String, long[]> stages = new TreeMap<>();
+    for (Timer timer : meterRegistry.find("request.stage").timers()) {
+      long[] values = stages.computeIfAbsent(
+          timer.getId().getTag("operation") + "/" + timer.getId().getTag("stage"),
+          stage -> new long[2]);
+      values[0] += timer.count();
+      values[1] += (long) timer.totalTime(TimeUnit.NANOSECONDS);
+    }
+    return stages;
+  }
+
+  private HttpRequest documentRequest(String route, byte[] body) {
+    return request(route.replace("{applicationId}", applicationId.toString()))
+        .header("Content-Type", "application/json")
+        .header("Origin", ORIGIN)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+        .build();
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .timeout(Duration.ofSeconds(30))
+        .header("Application-Api-Key", API_KEY);
+  }
+
+  private byte[] toJson(ObjectNode node) {
+    try {
+      return objectMapper.writeValueAsBytes(node);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
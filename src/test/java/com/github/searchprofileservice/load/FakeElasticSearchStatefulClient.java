@@ -0,0 +1,253 @@
+package com.github.searchprofileservice.load;
+
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearch;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearchDocumentResponseBase;
+import co.elastic.clients.elasticsearch.async_search.GetAsyncSearchRequest;
+import co.elastic.clients.elasticsearch.async_search.GetAsyncSearchResponse;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
+import co.elastic.clients.elasticsearch.async_search.SubmitResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchTemplateRequest;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.security.ClusterPrivilege;
+import co.elastic.clients.elasticsearch.security.GetRoleResponse;
+import co.elastic.clients.elasticsearch.security.GetUserResponse;
+import co.elastic.clients.elasticsearch.security.IndicesPrivileges;
+import co.elastic.clients.elasticsearch.security.PutRoleResponse;
+import co.elastic.clients.elasticsearch.security.PutUserResponse;
+import co.elastic.clients.util.DateTime;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.model.IndexStatistics;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory stand-in for elasticsearch. Search and ingest calls wait for a fixed latency and
+ * answer with canned responses, so that a load test measures the service and nothing else.
+ *
+ * Every index has the same mapping, fields 'field0' to 'fieldN' of type text, and every search
+ * returns the same hits with documents of these fields.
+ */
+public class FakeElasticSearchStatefulClient implements ElasticSearchStatefulClient {
+
+  private final long latencyNanos;
+  private final int documentFields;
+  private final SearchResponse<ObjectNode> searchResponse;
+  private final Map<String, Property> indexMapping;
+
+  /**
+   * @param latency the time every search and ingest call takes
+   * @param hits the number of hits of every search
+   * @param documentFields the number of fields of every document and index mapping
+   */
+  public FakeElasticSearchStatefulClient(Duration latency, int hits, int documentFields) {
+    this.latencyNanos = latency.toNanos();
+    this.documentFields = documentFields;
+    this.searchResponse = createSearchResponse(hits);
+    this.indexMapping = createIndexMapping();
+  }
+
+  /**
+   * @param objectMapper the object mapper to create the document with
+   * @param id a number to tell documents apart
+   * @return a document matching the index mapping
+   */
+  public ObjectNode createDocument(ObjectMapper objectMapper, int id) {
+    ObjectNode document = objectMapper.createObjectNode();
+    for (int field = 0; field < documentFields; field++) {
+      document.put("field" + field, "Value " + field + " of document " + id);
+    }
+    return document;
+  }
+
+  /**
+   * @return the names of all fields of the index mapping
+   */
+  public List<String> getFieldNames() {
+    return new ArrayList<>(indexMapping.keySet());
+  }
+
+  @Override
+  public GetRoleResponse getRole(String roleName) {
+    return null;
+  }
+
+  @Override
+  public PutRoleResponse putRole(
+      String roleName, List<ClusterPrivilege> clusterPrivileges, List<IndicesPrivileges> indicesPrivileges) {
+    return null;
+  }
+
+  @Override
+  public PutUserResponse createElasticUser(String userName, char[] password) {
+    return null;
+  }
+
+  @Override
+  public GetUserResponse getAllUser() {
+    return null;
+  }
+
+  @Override
+  public boolean isConnectionAvailable() {
+    return true;
+  }
+
+  @Override
+  public boolean createIndex(String name, IndexSettingsProfile profile) {
+    return true;
+  }
+
+  @Override
+  public void deleteIndex(String name) {
+  }
+
+  @Override
+  public String uploadRawJsonToIndex(String indexName, ObjectNode document) {
+    await();
+    return UUID.randomUUID().toString();
+  }
+
+  @Override
+  public void updateDocument(String indexName, String documentId, ObjectNode document) {
+    await();
+  }
+
+  @Override
+  public List<String> bulkUploadRawJsonToIndex(String indexName, List<ObjectNode> documents) {
+    await();
+    List<String> ids = new ArrayList<>(documents.size());
+    for (int i = 0; i < documents.size(); i++) {
+      ids.add(UUID.randomUUID().toString());
+    }
+    return ids;
+  }
+
+  @Override
+  public Map<String, Property> getIndexMapping(String indexName) {
+    return indexMapping;
+  }
+
+  @Override
+  public boolean isIndexExistent(String indexName) {
+    return true;
+  }
+
+  @Override
+  public SearchResponse<ObjectNode> search(SearchRequest request) {
+    await();
+    return searchResponse;
+  }
+
+  @Override
+  public SearchResponse<ObjectNode> searchTemplate(SearchTemplateRequest request) {
+    await();
+    return searchResponse;
+  }
+
+  @Override
+  public void putSearchTemplate(String templateId, String source) {
+  }
+
+  @Override
+  public boolean deleteSearchTemplate(String templateId) {
+    return true;
+  }
+
+  /** the search finishes within the wait for completion timeout, its results are not kept */
+  @Override
+  public AsyncSearchDocumentResponseBase<ObjectNode> submitAsyncSearch(SubmitRequest request) {
+    await();
+    long now = System.currentTimeMillis();
+    return SubmitResponse.of(r -> r
+        .isPartial(false)
+        .isRunning(false)
+        .startTimeInMillis(DateTime.ofEpochMilli(now))
+        .expirationTimeInMillis(DateTime.ofEpochMilli(now))
+        .response(createAsyncSearch()));
+  }
+
+  @Override
+  public AsyncSearchDocumentResponseBase<ObjectNode> getAsyncSearch(GetAsyncSearchRequest request) {
+    long now = System.currentTimeMillis();
+    return GetAsyncSearchResponse.of(r -> r
+        .id(request.id())
+        .isPartial(false)
+        .isRunning(false)
+        .startTimeInMillis(DateTime.ofEpochMilli(now))
+        .expirationTimeInMillis(DateTime.ofEpochMilli(now))
+        .response(createAsyncSearch()));
+  }
+
+  @Override
+  public boolean deleteAsyncSearch(String id) {
+    return true;
+  }
+
+  private AsyncSearch<ObjectNode> createAsyncSearch() {
+    return AsyncSearch.of(a -> a
+        .took(searchResponse.took())
+        .timedOut(searchResponse.timedOut())
+        .shards(searchResponse.shards())
+        .hits(searchResponse.hits()));
+  }
+
+  @Override
+  public IndexSettings getCustomPartialWordAnalyzerSettings() {
+    return IndexSettings.of(s -> s);
+  }
+
+  @Override
+  public Map<String, IndexStatistics> getIndicesStatistics(List<String> indices) {
+    return Map.of();
+  }
+
+  private void await() {
+    if (latencyNanos > 0) {
+      LockSupport.parkNanos(latencyNanos);
+    }
+  }
+
+  private Map<String, Property> createIndexMapping() {
+    Map<String, Property> mapping = new LinkedHashMap<>();
+    for (int field = 0; field < documentFields; field++) {
+      mapping.put("field" + field, Property.of(p -> p.text(t -> t)));
+    }
+    return mapping;
+  }
+
+  /** hits with slowly decreasing scores, each with a highlight of its first field */
+  private SearchResponse<ObjectNode> createSearchResponse(int hits) {
+    ObjectMapper objectMapper = new ObjectMapper();
+    List<Hit<ObjectNode>> hitList = new ArrayList<>(hits);
+    for (int i = 0; i < hits; i++) {
+      ObjectNode source = createDocument(objectMapper, i);
+      double score = 100 - i * 0.1;
+      String id = Integer.toString(i);
+      hitList.add(Hit.of(h -> h
+          .index("load-test")
+          .id(id)
+          .score(score)
+          .source(source)
+          .highlight(Map.of("field0", List.of("<em>Value</em> 0 of document " + id)))));
+    }
+
+    return SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(hitList).maxScore(100.0)));
+  }
+}
@@ -0,0 +1,76 @@
+package com.github.searchprofileservice.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Sends requests at a fixed arrival rate, no matter how long earlier requests take (open model).
+ *
+ * Latencies are measured from the time a request was due, not from the time it was sent, so a
+ * stalled service or client shows up in the percentiles instead of silently lowering the rate.
+ */
+public class LoadGenerator {
+
+  /** how long to wait for outstanding responses once all requests are sent */
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+
+  /**
+   * @param scenario the name of the scenario for the report
+   * @param requestsPerSecond the arrival rate
+   * @param duration how long to send requests
+   * @param requests creates the request with the given sequence number
+   * @return the report of all requests sent
+   */
+  public LoadReport run(
+      String scenario, double requestsPerSecond, Duration duration, IntFunction<HttpRequest> requests) {
+
+    int count = (int) (requestsPerSecond * duration.toNanos() / 1e9);
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    long[] latencies = new long[count];
+    AtomicInteger errors = new AtomicInteger();
+    AtomicLong lastResponse = new AtomicLong();
+    CompletableFuture<?>[] responses = new CompletableFuture<?>[count];
+
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      long due = start + i * intervalNanos;
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+
+      int index = i;
+      responses[i] = httpClient.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, e) -> {
+            long now = System.nanoTime();
+            latencies[index] = now - due;
+            lastResponse.accumulateAndGet(now, Math::max);
+            if (null != e || response.statusCode() / 100 != 2) {
+              errors.incrementAndGet();
+            }
+          });
+    }
+
+    try {
+      CompletableFuture.allOf(responses).handle((result, e) -> null)
+          .get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      throw new IllegalStateException("Responses of scenario '" + scenario + "' did not arrive", e);
+    }
+
+    return new LoadReport(scenario, requestsPerSecond, errors.get(), lastResponse.get() - start, latencies);
+  }
+}
@@ -0,0 +1,69 @@
+package com.github.searchprofileservice.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of a single load test scenario.
+ */
+public class LoadReport {
+
+  private final String scenario;
+  private final double targetRate;
+  private final int errors;
+  private final long elapsedNanos;
+  private final long[] sortedLatencies;
+
+  /**
+   * @param scenario the name of the scenario
+   * @param targetRate the requests per second the scenario was run at
+   * @param errors the number of failed requests, i.e. exceptions and non 2xx responses
+   * @param elapsedNanos the time from the first request until the last response
+   * @param latencies the latencies of all requests in nanoseconds
+   */
+  public LoadReport(String scenario, double targetRate, int errors, long elapsedNanos, long[] latencies) {
+    this.scenario = scenario;
+    this.targetRate = targetRate;
+    this.errors = errors;
+    this.elapsedNanos = elapsedNanos;
+    this.sortedLatencies = latencies.clone();
+    Arrays.sort(this.sortedLatencies);
+  }
+
+  public int getRequests() {
+    return sortedLatencies.length;
+  }
+
+  public int getErrors() {
+    return errors;
+  }
+
+  /** @return completed requests per second */
+  public double getThroughput() {
+    return elapsedNanos > 0 ? sortedLatencies.length / (elapsedNanos / 1e9) : 0;
+  }
+
+  /**
+   * @param quantile the quantile between 0 and 1
+   * @return the latency of the quantile in milliseconds, by nearest rank
+   */
+  public double getLatencyMillis(double quantile) {
+    if (sortedLatencies.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(quantile * sortedLatencies.length);
+    long nanos = sortedLatencies[Math.min(sortedLatencies.length, Math.max(1, rank)) - 1];
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT,
+        "%-12s target %7.1f/s  achieved %7.1f/s  requests %6d  errors %4d  "
+            + "p50 %8.2fms  p90 %8.2fms  p99 %8.2fms  p99.9 %8.2fms  max %8.2fms",
+        scenario, targetRate, getThroughput(), getRequests(), errors,
+        getLatencyMillis(0.5), getLatencyMillis(0.9), getLatencyMillis(0.99),
+        getLatencyMillis(0.999), getLatencyMillis(1));
+  }
+}
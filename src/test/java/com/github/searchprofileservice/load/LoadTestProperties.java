@@ -0,0 +1,55 @@
+package com.github.searchprofileservice.load;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link ExternalServiceLoadTest}, bound from {@code load-test.*} of
+ * {@code application-load-test.yml}. System properties take precedence, e.g.
+ * {@code ./mvnw test -Pload-test -Dload-test.search-rate=200}.
+ */
+@ConfigurationProperties(prefix = "load-test")
+@Getter
+@Setter
+public class LoadTestProperties {
+
+  /** load before every scenario, which is not measured */
+  private Duration warmup = Duration.ofSeconds(5);
+
+  /** how long every scenario is measured */
+  private Duration duration = Duration.ofSeconds(15);
+
+  /** searches per second */
+  private double searchRate = 50;
+
+  /** single document uploads per second */
+  private double ingestRate = 50;
+
+  /** bulk uploads per second */
+  private double bulkRate = 5;
+
+  /** documents per bulk upload */
+  private int bulkSize = 100;
+
+  /** bcrypt cost of the api key of the test application */
+  private int apiKeyCost = 4;
+
+  private ElasticSearch elasticsearch = new ElasticSearch();
+
+  @Getter
+  @Setter
+  public static class ElasticSearch {
+
+    /** the time every search and ingest call takes */
+    private Duration latency = Duration.ofMillis(5);
+
+    /** hits of every search */
+    private int hits = 10;
+
+    /** fields of every document */
+    private int documentFields = 10;
+  }
+}
@@ -0,0 +1,191 @@
+package com.github.searchprofileservice.persistence.mongo.migration;
+
+import com.github.cloudyrock.mongock.driver.api.lock.guard.invoker.LockGuardInvoker;
+import com.github.cloudyrock.mongock.driver.api.lock.guard.invoker.VoidSupplier;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import com.github.searchprofileservice.util.TestContainerImageConstants;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Asserts that the repository queries are answered through the indices of {@link Changelog002}.
+ */
+@Testcontainers
+class Changelog002ContainerizedTest {
+
+  private static final Document BASIC_PROJECTION = Document.parse(
+      "{_id: 1, applicationId: 1, creatorId: 1, lastEditorId: 1, lastModifiedDate: 1, name: 1}");
+
+  @Container
+  static GenericContainer MONGO_CONTAINER
+      = new GenericContainer(TestContainerImageConstants.MONGO_IMAGE_NAME)
+      .withExposedPorts(27017);
+
+  private static MongoClient mongoClient;
+  private static MongoTemplate mongoTemplate;
+
+  @BeforeAll
+  static void setUp() {
+    mongoClient = MongoClients.create(
+        "mongodb://" + MONGO_CONTAINER.getHost() + ":" + MONGO_CONTAINER.getFirstMappedPort());
+    mongoTemplate = new MongoTemplate(mongoClient, "changelog-test");
+
+    for (int i = 0; i < 100; i++) {
+      String applicationId = UUID.randomUUID().toString();
+      mongoTemplate.getCollection("search_profile").insertOne(new Document("_id", UUID.randomUUID().toString())
+          .append("applicationId", applicationId)
+          .append("creatorId", "creator-" + i)
+          .append("name", "profile " + i));
+      mongoTemplate.getCollection("application").insertOne(new Document("_id", applicationId)
+          .append("creatorId", "creator-" + i)
+          .append("allowedUserIds", List.of("user-" + i, "user-" + (i + 1))));
+      mongoTemplate.getCollection("user").insertOne(new Document("_id", "user-" + i)
+          .append("name", "user " + i)
+          .append("activated", i % 2 == 0));
+    }
+
+    MongockTemplate mongockTemplate = new MongockTemplate(mongoTemplate, new PassThroughLockGuardInvoker());
+    Changelog002 changelog = new Changelog002();
+    changelog.createSearchProfileIndices(mongockTemplate);
+    changelog.createApplicationIndices(mongockTemplate);
+    changelog.createUserIndices(mongockTemplate);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    mongoClient.close();
+  }
+
+  @Test
+  void searchProfilesByApplicationId_UseIndex() {
+    List<String> stages = winningPlanStages(
+        "search_profile", new Document("applicationId", "some-application"), null);
+
+    assertThat(stages, hasItem("IXSCAN"));
+    assertThat(stages, not(hasItem("COLLSCAN")));
+  }
+
+  @Test
+  void searchProfileBasicProjections_AreCoveredByIndex() {
+    List<String> byApplication = winningPlanStages(
+        "search_profile", new Document("applicationId", "some-application"), BASIC_PROJECTION);
+    List<String> all = winningPlanStages(
+        "search_profile",
+        Document.parse("{ 'applicationId': { '$gte': { '$minKey': 1 } } }"),
+        BASIC_PROJECTION);
+
+    for (List<String> stages : List.of(byApplication, all)) {
+      assertThat(stages, hasItem("IXSCAN"));
+      assertThat(stages, not(hasItem("COLLSCAN")));
+      assertThat(stages, not(hasItem("FETCH")));
+    }
+  }
+
+  @Test
+  void applicationsByCreatorAndAllowedUser_UseIndex() {
+    assertThat(
+        winningPlanStages("application", new Document("creatorId", "creator-1"), null),
+        not(hasItem("COLLSCAN")));
+    assertThat(
+        winningPlanStages("application", new Document("allowedUserIds", "user-1"), null),
+        not(hasItem("COLLSCAN")));
+  }
+
+  @Test
+  void searchProfileBasicProjectionPages_AreCoveredByIndex() {
+    Document after = Document.parse(
+        "{ '$or': [ { 'applicationId': { '$gt': 'a' } }, { 'applicationId': 'a', '_id': { '$gt': 'b' } } ] }");
+    List<String> stages = winningPlanStages(
+        "search_profile", after, BASIC_PROJECTION, new Document("applicationId", 1).append("_id", 1));
+
+    assertThat(stages, not(hasItem("COLLSCAN")));
+    assertThat(stages, not(hasItem("FETCH")));
+  }
+
+  @Test
+  void applicationPages_AreReadInIndexOrder() {
+    Document byCreator = new Document("creatorId", "creator-1")
+        .append("_id", new Document("$gt", "0"));
+    Document byAllowedUser = new Document("allowedUserIds", "user-1")
+        .append("_id", new Document("$gt", "0"));
+
+    for (Document filter : List.of(byCreator, byAllowedUser)) {
+      List<String> stages = winningPlanStages("application", filter, null, new Document("_id", 1));
+      assertThat(stages, hasItem("IXSCAN"));
+      assertThat(stages, not(hasItem("COLLSCAN")));
+      assertThat(stages, not(hasItem("SORT")));
+    }
+  }
+
+  @Test
+  void activatedUserBasicProjection_IsCoveredByIndex() {
+    List<String> stages = winningPlanStages(
+        "user", new Document("activated", true), Document.parse("{_id: 1, name: 1}"));
+
+    assertThat(stages, hasItem("IXSCAN"));
+    assertThat(stages, not(hasItem("COLLSCAN")));
+    assertThat(stages, not(hasItem("FETCH")));
+  }
+
+  private static List<String> winningPlanStages(String collection, Document filter, Document projection) {
+    return winningPlanStages(collection, filter, projection, null);
+  }
+
+  private static List<String> winningPlanStages(
+      String collection, Document filter, Document projection, Document sort) {
+
+    Document explain = mongoTemplate.getCollection(collection)
+        .find(filter)
+        .projection(projection)
+        .sort(sort)
+        .explain();
+
+    List<String> stages = new ArrayList<>();
+    collectStages(explain.get("queryPlanner", Document.class).get("winningPlan", Document.class), stages);
+    return stages;
+  }
+
+  private static void collectStages(Document plan, List<String> stages) {
+    if (plan.containsKey("queryPlan")) {
+      // plans of the slot based execution engine wrap the classic plan
+      plan = plan.get("queryPlan", Document.class);
+    }
+    stages.add(plan.getString("stage"));
+    if (plan.containsKey("inputStage")) {
+      collectStages(plan.get("inputStage", Document.class), stages);
+    }
+    if (plan.containsKey("inputStages")) {
+      plan.getList("inputStages", Document.class).forEach(stage -> collectStages(stage, stages));
+    }
+  }
+
+  /** runs everything directly, there is no mongock lock in this test */
+  private static class PassThroughLockGuardInvoker implements LockGuardInvoker {
+
+    @Override
+    public <T> T invoke(Supplier<T> supplier) {
+      return supplier.get();
+    }
+
+    @Override
+    public void invoke(VoidSupplier supplier) {
+      supplier.execute();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.github.searchprofileservice.persistence.mongo.repository;
+
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
+import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs the partial updates of the repository fragments against a real mongodb, as they would
+ * interleave with concurrent edits. Only runs with {@code ./mvnw test -Pload-test}, which brings
+ * in the embedded mongodb.
+ */
+@DataMongoTest
+@ActiveProfiles("load-test")
+@EnabledIfSystemProperty(named = "embedded-mongo.enabled", matches = "true")
+class UpdateFragmentEmbeddedMongoTest {
+
+  @Autowired
+  private ApplicationRepository applicationRepository;
+
+  @Autowired
+  private SearchProfileRepository searchProfileRepository;
+
+  private final ApiKey firstKey = new ApiKey(UUID.randomUUID(), "first", "hash-1");
+
+  private final ApiKey secondKey = new ApiKey(UUID.randomUUID(), "second", "hash-2");
+
+  @BeforeEach
+  public void setUp() {
+    applicationRepository.deleteAll();
+    searchProfileRepository.deleteAll();
+  }
+
+  @Test
+  public void updateEditableFields_ApiKeysChangedSinceRead_KeepsApiKeys() {
+    UUID id = UUID.randomUUID();
+    applicationRepository.save(Application.builder()
+        .id(id)
+        .applicationName("before")
+        .creatorId("creator")
+        .apiKeys(new ArrayList<>(List.of(firstKey)))
+        .build());
+    Application stale = applicationRepository.findById(id).orElseThrow();
+
+    // another request revokes the first key and adds a second one in between
+    assertThat(applicationRepository.pullApiKey(id, firstKey.getId()), is(1L));
+    assertThat(applicationRepository.pushApiKey(id, secondKey), is(1L));
+
+    Optional<Application> updated =
+        applicationRepository.updateEditableFields(id, "after", List.of("user"));
+
+    assertThat(stale.getApiKeys(), hasSize(1));
+    assertThat(updated.orElseThrow().getApplicationName(), is("after"));
+    assertThat(updated.orElseThrow().getAllowedUserIds(), contains("user"));
+    Application stored = applicationRepository.findById(id).orElseThrow();
+    assertThat(stored.getApplicationName(), is("after"));
+    assertThat(stored.getCreatorId(), is("creator"));
+    assertThat(stored.getApiKeys(), hasSize(1));
+    assertThat(stored.getApiKeys().get(0).getId(), is(secondKey.getId()));
+  }
+
+  @Test
+  public void updateEditableFields_ApplicationDoesNotExist_Empty() {
+    assertThat(
+        applicationRepository.updateEditableFields(UUID.randomUUID(), "name", List.of()),
+        is(Optional.empty()));
+  }
+
+  @Test
+  public void pullApiKey_UnknownKey_ModifiesNothing() {
+    UUID id = UUID.randomUUID();
+    applicationRepository.save(Application.builder()
+        .id(id)
+        .applicationName("app")
+        .apiKeys(new ArrayList<>(List.of(firstKey)))
+        .build());
+
+    assertThat(applicationRepository.pullApiKey(id, secondKey.getId()), is(0L));
+    assertThat(applicationRepository.findById(id).orElseThrow().getApiKeys(), hasSize(1));
+  }
+
+  @Test
+  public void updateEditableFields_SearchProfile_IncrementsVersion() {
+    SearchProfileDocument profile = searchProfileRepository.save(SearchProfileDocument.builder()
+        .profileId(UUID.randomUUID().toString())
+        .applicationId(UUID.randomUUID().toString())
+        .name("before")
+        .build());
+
+    Optional<SearchProfileDocument> updated = searchProfileRepository.updateEditableFields(
+        profile.getProfileId(), profile.getVersion(), SearchProfileDocument.builder().name("after").build());
+
+    assertThat(updated.orElseThrow().getName(), is("after"));
+    assertThat(updated.orElseThrow().getVersion(), is(profile.getVersion() + 1));
+    assertThat(updated.orElseThrow().getApplicationId(), is(profile.getApplicationId()));
+  }
+
+  @Test
+  public void updateEditableFields_SearchProfileChangedSinceRead_Empty() {
+    SearchProfileDocument profile = searchProfileRepository.save(SearchProfileDocument.builder()
+        .profileId(UUID.randomUUID().toString())
+        .applicationId(UUID.randomUUID().toString())
+        .name("before")
+        .build());
+    searchProfileRepository.updateEditableFields(
+        profile.getProfileId(), profile.getVersion(), SearchProfileDocument.builder().name("first").build());
+
+    Optional<SearchProfileDocument> updated = searchProfileRepository.updateEditableFields(
+        profile.getProfileId(), profile.getVersion(), SearchProfileDocument.builder().name("second").build());
+
+    assertThat(updated, is(Optional.empty()));
+    assertThat(searchProfileRepository.findById(profile.getProfileId()).orElseThrow().getName(), is("first"));
+  }
+}
@@ -1,5 +1,8 @@
 package com.github.searchprofileservice.service;
 
+import com.github.searchprofileservice.api.model.ApplicationDto;
+import com.github.searchprofileservice.model.IndexStatistics;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.service.impl.ApplicationConverterServiceImpl;
 import org.junit.jupiter.api.Test;
@@ -8,21 +11,24 @@ import org.mockito.InjectMocks;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ApplicationConverterServiceTest {
 
-    private final ElasticSearchClientService elasticSearchService = mock(ElasticSearchClientService.class);
+    private final IndexStatisticsService indexStatisticsService = mock(IndexStatisticsService.class);
 
     @InjectMocks
     private final ApplicationConverterService applicationconverter
-            = new ApplicationConverterServiceImpl(elasticSearchService);
+            = new ApplicationConverterServiceImpl(indexStatisticsService);
 
     @Test
     void convertToApplicationDto(){
@@ -37,7 +43,8 @@ public class ApplicationConverterServiceTest {
         );
 
         long zero = 0;
-        when(elasticSearchService.getDocumentCountForIndex(any(String.class))).thenReturn(zero);
+        when(indexStatisticsService.getStatisticsForApplications(any()))
+                .thenReturn(Map.of(app.getId(), new IndexStatistics(zero, zero)));
 
         var result = applicationconverter.convertToApplicationDto(app);
 
@@ -48,6 +55,26 @@ public class ApplicationConverterServiceTest {
         assertThat(result.getNumberOfDocuments(), equalTo(zero));
     }
 
+    @Test
+    void convertToApplicationDtos_FetchesStatisticsOnce(){
+        Application app1 = Application.builder().id(UUID.randomUUID()).applicationName("app1").build();
+        Application app2 = Application.builder().id(UUID.randomUUID()).applicationName("app2").build();
+
+        when(indexStatisticsService.getStatisticsForApplications(any()))
+                .thenReturn(Map.of(
+                        app1.getId(), new IndexStatistics(3, 1024),
+                        app2.getId(), new IndexStatistics(5, 2048)));
+
+        var result = applicationconverter.convertToApplicationDtos(List.of(app1, app2));
+
+        verify(indexStatisticsService, times(1)).getStatisticsForApplications(any());
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getName(), equalTo("app1"));
+        assertThat(result.get(0).getNumberOfDocuments(), equalTo(3L));
+        assertThat(result.get(0).getStoreSizeInBytes(), equalTo(1024L));
+        assertThat(result.get(1).getNumberOfDocuments(), equalTo(5L));
+    }
+
     @Test
     void convertToApplication(){
         Application app = new Application(
@@ -61,7 +88,8 @@ public class ApplicationConverterServiceTest {
         );
 
         long zero = 0;
-        when(elasticSearchService.getDocumentCountForIndex(any(String.class))).thenReturn(zero);
+        when(indexStatisticsService.getStatisticsForApplications(any()))
+                .thenReturn(Map.of(app.getId(), new IndexStatistics(zero, zero)));
 
         var dto = applicationconverter.convertToApplicationDto(app);
 
@@ -73,4 +101,17 @@ public class ApplicationConverterServiceTest {
 
     }
 
+    @Test
+    void convertToApplication_KeepsIndexSettings(){
+        ApplicationDto dto = new ApplicationDto();
+        dto.setName("app1");
+        dto.setIndexSettingsProfile(IndexSettingsProfile.WRITE_HEAVY);
+        dto.setExpectedDocumentCount(50_000L);
+
+        var result = applicationconverter.convertToApplication(dto);
+
+        assertThat(result.getIndexSettingsProfile(), equalTo(IndexSettingsProfile.WRITE_HEAVY));
+        assertThat(result.getExpectedDocumentCount(), equalTo(50_000L));
+    }
+
 }
@@ -1,5 +1,11 @@
 package com.github.searchprofileservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.exception.InvalidPageRequestException;
+import com.github.searchprofileservice.model.CursorPage;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
 import com.github.searchprofileservice.persistence.mongo.model.base.ApiKey;
 import com.github.searchprofileservice.persistence.mongo.model.Application;
 import com.github.searchprofileservice.persistence.mongo.repository.ApplicationRepository;
@@ -10,6 +16,10 @@ import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.util.*;
@@ -19,6 +29,7 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class ApplicationServiceTest {
@@ -33,12 +44,17 @@ public class ApplicationServiceTest {
           mock(ElasticSearchClientService.class);
   private final AuthenticationService authenticationService =
           mock(AuthenticationService.class);
+  private final CacheInvalidationService cacheInvalidationService =
+          mock(CacheInvalidationService.class);
+
+  private final CacheManager cacheManager = new ConcurrentMapCacheManager();
 
   private final ArrayList<ApiKey> apiKeys = new ArrayList<ApiKey>();
 
   @InjectMocks
   private final ApplicationService applicationService =
-    new ApplicationServiceImpl(applicationRepository, searchProfileService, elasticSearchService, authenticationService);
+    new ApplicationServiceImpl(applicationRepository, searchProfileService, elasticSearchService, authenticationService, new ObjectMapper(), cacheInvalidationService,
+      cacheManager);
 
   @BeforeEach
   public void SetUp(){
@@ -75,6 +91,33 @@ public class ApplicationServiceTest {
     verify(applicationRepository, times(1)).findAll();
   }
 
+  @Test
+  public void findPageByUserId_FirstPage_StartsBeforeAllIdsAndReturnsCursor() {
+    List<Application> applications = List.of(
+        Application.builder().id(UUID.randomUUID()).applicationName("foo").build(),
+        Application.builder().id(UUID.randomUUID()).applicationName("bar").build());
+
+    when(applicationRepository.findAllByCreatorIdAndIdGreaterThanOrderByIdAsc(
+        eq("111"), eq(new UUID(0, 0)), any()))
+      .thenReturn(applications);
+
+    CursorPage<Application> page = applicationService.findPageByUserId("111", null, 1);
+
+    assertThat(page.getItems(), equalTo(applications.subList(0, 1)));
+    assertThat(page.getNextCursor(), is(notNullValue()));
+
+    applicationService.findPageByUserId("111", page.getNextCursor(), 1);
+    verify(applicationRepository, times(1)).findAllByCreatorIdAndIdGreaterThanOrderByIdAsc(
+        eq("111"), eq(applications.get(0).getId()), any());
+  }
+
+  @Test
+  public void findPageByAllowedUserIdsContains_InvalidCursor_Throws() {
+    assertThrows(
+        InvalidPageRequestException.class,
+        () -> applicationService.findPageByAllowedUserIdsContains("111", "Zm9v", 10));
+  }
+
   @Test
   public void existsById() {
     final UUID uuid1 = UUID.randomUUID();
@@ -244,7 +287,7 @@ public class ApplicationServiceTest {
   @SneakyThrows
   public void uploadDocument_ApplicationNotExistingInDb_Throws_IllegalArgumentException() {
 
-    String documentData = "1";
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
 
     when(applicationRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
@@ -258,7 +301,7 @@ public class ApplicationServiceTest {
   @Test
   @SneakyThrows
   public void uploadDocument_uploadRawJsonToApplicationFailed_Throws_IOException() {
-    String inputOne = "1";
+    ObjectNode inputOne = toJson("{\"Hello\": \"World\"}");
     var inputTwo = UUID.randomUUID();
 
     var app = new Application(
@@ -272,20 +315,20 @@ public class ApplicationServiceTest {
     Optional<Application> mockReturn = Optional.ofNullable(app);
 
     when(applicationRepository.findById(any(UUID.class))).thenReturn(mockReturn);
-    doThrow(IOException.class).when(elasticSearchService).uploadRawJsonToApplication(any(UUID.class), any(String.class));
+    doThrow(IOException.class).when(elasticSearchService).uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class));
 
     assertThrows(
       IOException.class,
       () -> applicationService.uploadDocument(inputOne, inputTwo));
 
     verify(applicationRepository, times(1)).findById(any(UUID.class));
-    verify(elasticSearchService, times(1)).uploadRawJsonToApplication(any(UUID.class), any(String.class));
+    verify(elasticSearchService, times(1)).uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class));
   }
 
   @Test
   @SneakyThrows
   public void uploadDocument_uploadRawJsonToApplicationSuccess_ReturnsOptionalWithDocumentID() {
-    String documentData = "1";
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
     var documentId = UUID.randomUUID().toString();
 
@@ -301,12 +344,12 @@ public class ApplicationServiceTest {
 
     when(applicationRepository.findById(any(UUID.class)))
       .thenReturn(mockReturn);
-    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(String.class)))
+    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class)))
       .thenReturn(documentId);
 
     var result = applicationService.uploadDocument(documentData, applicationId);
     verify(applicationRepository, times(1)).findById(any(UUID.class));
-    verify(elasticSearchService, times(1)).uploadRawJsonToApplication(any(UUID.class), any(String.class));
+    verify(elasticSearchService, times(1)).uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class));
     assertThat(result, is(documentId));
   }
 
@@ -314,7 +357,7 @@ public class ApplicationServiceTest {
   @Test
   @SneakyThrows
   public void uploadDocument_ApplicationActivityIsFalse_ApplicationGetsUpdated() {
-    String documentData = "1";
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
     var documentId = UUID.randomUUID().toString();
 
@@ -332,20 +375,58 @@ public class ApplicationServiceTest {
     when(applicationRepository.findById(any(UUID.class)))
             .thenReturn(mockReturn);
 
-    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(String.class)))
+    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class)))
             .thenReturn(documentId);
 
+    when(applicationRepository.activateById(applicationId)).thenReturn(1L);
+
     var result = applicationService.uploadDocument(documentData, applicationId);
     verify(applicationRepository, times(1)).findById(app.getId());
-    verify(applicationRepository, times(1)).save(app);
+    verify(applicationRepository, times(1)).activateById(app.getId());
+    verify(applicationRepository, never()).save(app);
+    verify(cacheInvalidationService, times(1))
+      .publish(CacheInvalidationType.APPLICATION_UPDATED, applicationId.toString());
     verify(elasticSearchService, times(1)).uploadRawJsonToApplication(app.getId(), documentData);
     assertThat(result, is(documentId));
+    // the instance may be shared through the near cache, the evicted entry is reloaded instead
+    assertThat(app.isActive(), is(false));
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadDocument_CachedInactiveButAlreadyActive_EvictsCachedApplication() {
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
+    var applicationId = UUID.randomUUID();
+
+    var app = new Application(
+            applicationId,
+            Calendar.getInstance().getTime(),
+            apiKeys,
+            "foo",
+            "foo",
+            false,
+            List.of("111"));
+    Cache cache = cacheManager.getCache(CachingConfig.APPLICATION_CACHE);
+    cache.put(applicationId.toString(), app);
+
+    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class)))
+            .thenReturn(UUID.randomUUID().toString());
+
+    // another instance activated the application already
+    when(applicationRepository.activateById(applicationId)).thenReturn(0L);
+
+    applicationService.uploadDocument(documentData, applicationId);
+    verify(applicationRepository, never()).findById(any(UUID.class));
+    verify(applicationRepository, times(1)).activateById(applicationId);
+    verify(cacheInvalidationService, never())
+      .publish(any(CacheInvalidationType.class), any(String.class));
+    assertThat(cache.get(applicationId.toString()), is(nullValue()));
   }
 
   @Test
   @SneakyThrows
   public void uploadDocument_ApplicationActivityIsFalse_ApplicationGetsNotUpdated() {
-    String documentData = "1";
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
     var documentId = UUID.randomUUID().toString();
 
@@ -363,12 +444,13 @@ public class ApplicationServiceTest {
     when(applicationRepository.findById(any(UUID.class)))
             .thenReturn(mockReturn);
 
-    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(String.class)))
+    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class)))
             .thenReturn(documentId);
 
     var result = applicationService.uploadDocument(documentData, applicationId);
     verify(applicationRepository, times(1)).findById(app.getId());
     verify(applicationRepository, times(0)).save(app);
+    verify(applicationRepository, never()).activateById(any(UUID.class));
     verify(elasticSearchService, times(1)).uploadRawJsonToApplication(app.getId(), documentData);
     assertThat(result, is(documentId));
   }
@@ -376,7 +458,7 @@ public class ApplicationServiceTest {
   @Test
   @SneakyThrows
   public void bulkUploadDocuments_DocumentsIsNotSatisfyingJsonStandard_Throws_JSONException() {
-    String failingJson = "failed";
+    ObjectNode failingJson = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
 
     assertThrows(
@@ -388,7 +470,7 @@ public class ApplicationServiceTest {
   @SneakyThrows
   public void bulkUploadDocuments_ApplicationNotExistingInDb_Throws_IllegalArgumentException() {
     String jsonDoc = "{\"Hello\": \"World\"}";
-    String legalJsonDoc = "{\"Documents\":[ " + jsonDoc +" ]}";
+    ObjectNode legalJsonDoc = toJson("{\"Documents\":[ " + jsonDoc +" ]}");
     var applicationId = UUID.randomUUID();
 
     when(applicationRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
@@ -403,7 +485,7 @@ public class ApplicationServiceTest {
   @SneakyThrows
   public void bulkUploadDocuments_DocumentsUploadedSuccessful_ReturnDocIds() {
     String jsonDoc = "{\"Hello\": \"World\"}";
-    String legalJsonDoc = "{\"Documents\":[ " + jsonDoc +" ]}";
+    ObjectNode legalJsonDoc = toJson("{\"Documents\":[ " + jsonDoc +" ]}");
     var applicationId = UUID.randomUUID();
 
     var app = new Application(
@@ -427,38 +509,75 @@ public class ApplicationServiceTest {
 
 
 
+  @Test
+  @SneakyThrows
+  public void uploadDocument_RepeatedUploads_LookUpApplicationOnce() {
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
+    var applicationId = UUID.randomUUID();
+
+    var app = Application.builder().id(applicationId).applicationName("foo").active(true).build();
+
+    when(applicationRepository.findById(applicationId)).thenReturn(Optional.of(app));
+    when(elasticSearchService.uploadRawJsonToApplication(any(UUID.class), any(ObjectNode.class)))
+      .thenReturn("1");
+
+    applicationService.uploadDocument(documentData, applicationId);
+    applicationService.uploadDocument(documentData, applicationId);
+
+    verify(applicationRepository, times(1)).findById(applicationId);
+    verify(elasticSearchService, times(2)).uploadRawJsonToApplication(applicationId, documentData);
+  }
+
+  @Test
+  @SneakyThrows
+  public void update_PublishesApplicationUpdated() {
+    var applicationId = UUID.randomUUID();
+    var app = Application.builder()
+      .id(applicationId).applicationName("foo").creatorId("123").build();
+
+    when(applicationRepository.findOneByApplicationName("foo")).thenReturn(Optional.of(app));
+    when(applicationRepository.updateEditableFields(applicationId, "foo", app.getAllowedUserIds()))
+      .thenReturn(Optional.of(app));
+
+    applicationService.update(app);
+
+    verify(cacheInvalidationService, times(1))
+      .publish(CacheInvalidationType.APPLICATION_UPDATED, applicationId.toString());
+  }
+
   @Test
   @SneakyThrows
   public void updateDocument_ApplicationNotExistingInDb_Throws_IllegalArgumentException() {
 
-    String documentData = "1";
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
     var documentId = "1";
 
-    when(applicationRepository.existsById(any(UUID.class))).thenReturn(false);
+    when(applicationRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
 
     assertThrows(
       IllegalArgumentException.class,
       () -> applicationService.updateDocument(documentData, applicationId, documentId));
 
-    verify(applicationRepository, times(1)).existsById(any(UUID.class));
-    verify(elasticSearchService, never()).updateDocument(any(UUID.class), anyString(), anyString());
+    verify(applicationRepository, times(1)).findById(any(UUID.class));
+    verify(elasticSearchService, never()).updateDocument(any(UUID.class), anyString(), any(ObjectNode.class));
   }
 
   @Test
   @SneakyThrows
   public void updateDocument_Sucess() {
 
-    String documentData = "1";
+    ObjectNode documentData = toJson("{\"Hello\": \"World\"}");
     var applicationId = UUID.randomUUID();
     var documentId = "1";
 
-    when(applicationRepository.existsById(any(UUID.class))).thenReturn(true);
+    when(applicationRepository.findById(any(UUID.class)))
+      .thenReturn(Optional.of(Application.builder().id(applicationId).active(true).build()));
 
     assertDoesNotThrow(
       () -> applicationService.updateDocument(documentData, applicationId, documentId));
 
-    verify(applicationRepository, times(1)).existsById(any(UUID.class));
+    verify(applicationRepository, times(1)).findById(any(UUID.class));
     verify(elasticSearchService, times(1)).updateDocument(applicationId, documentId, documentData);
   }
 
@@ -476,14 +595,28 @@ public class ApplicationServiceTest {
         false,
               List.of("111"));
 
-    when(applicationRepository.save(any(Application.class)))
-      .thenAnswer(i -> i.getArgument(0));
+    when(applicationRepository.updateEditableFields(id, "foo", List.of("111")))
+      .thenReturn(Optional.of(a1));
 
     Application result = applicationService.update(a1);
     assertThat(result.getId(), equalTo(id));
     assertThat(result.getApiKeys(), equalTo(apiKeys));
     assertThat(result.getCreatedDate(), equalTo(createdDate));
-    verify(applicationRepository, times(1)).save(any(Application.class));
+    verify(applicationRepository, times(1)).updateEditableFields(id, "foo", List.of("111"));
+    verify(applicationRepository, never()).save(any(Application.class));
+  }
+
+  @Test
+  public void update_DeletedConcurrently_Throws() {
+    Application a1 = Application.builder()
+      .id(UUID.randomUUID()).applicationName("foo").creatorId("foo").build();
+
+    when(applicationRepository.updateEditableFields(any(UUID.class), anyString(), any()))
+      .thenReturn(Optional.empty());
+
+    assertThrows(IllegalArgumentException.class, () -> applicationService.update(a1));
+    verify(cacheInvalidationService, never())
+      .publish(eq(CacheInvalidationType.APPLICATION_UPDATED), anyString());
   }
 
   @Test
@@ -567,6 +700,8 @@ public class ApplicationServiceTest {
 
     applicationService.deleteById(uuid);
     verify(applicationRepository, times(1)).deleteById(uuid);
+    verify(cacheInvalidationService, times(1))
+      .publish(CacheInvalidationType.APPLICATION_DELETED, uuid.toString());
   }
 
   @Test
@@ -717,10 +852,31 @@ public class ApplicationServiceTest {
             false,
             List.of("111")
     );
-    when(applicationRepository.save(any(Application.class))).thenReturn(mockApplication);
-    applicationService.addNewApiKeyToApp(mockApplication, new ApiKey(UUID.randomUUID(), "newApiKey", UUID.randomUUID().toString()));
+    ApiKey newApiKey = new ApiKey(UUID.randomUUID(), "newApiKey", UUID.randomUUID().toString());
+    when(applicationRepository.pushApiKey(mockApplication.getId(), newApiKey)).thenReturn(1L);
+    applicationService.addNewApiKeyToApp(mockApplication, newApiKey);
 
     assertThat(mockApplication.getApiKeys().stream().findFirst().get().getName(), equalTo("newApiKey"));
+    verify(applicationRepository, never()).save(any(Application.class));
+  }
+
+  @Test
+  public void addNewApiKeyToApp_whenApplicationIsGone_ThrowsException(){
+    Application mockApplication = new Application(
+            UUID.randomUUID(),
+            new Date(),
+            new ArrayList<ApiKey>(),
+            "name",
+            "foo",
+            false,
+            List.of("111")
+    );
+    ApiKey newApiKey = new ApiKey(UUID.randomUUID(), "newApiKey", UUID.randomUUID().toString());
+    when(applicationRepository.pushApiKey(mockApplication.getId(), newApiKey)).thenReturn(0L);
+
+    assertThrows(ResponseStatusException.class, () -> applicationService
+            .addNewApiKeyToApp(mockApplication, newApiKey));
+    assertThat(mockApplication.getApiKeys(), hasSize(0));
   }
 
   @Test
@@ -730,12 +886,14 @@ public class ApplicationServiceTest {
     UUID apiKeyId = UUID.fromString("ea252733-81e3-40d7-9dfd-5f4dda10dc49");
     apiKeys.add(new ApiKey(apiKeyId, "apiKeyOne", UUID.randomUUID().toString()));
     Application mockApplication = new Application(UUID.randomUUID(), new Date(), apiKeys, "name", "foo",false, List.of("111"));
-    when(applicationRepository.save(any(Application.class))).thenReturn(new Application());
+    when(applicationRepository.pullApiKey(mockApplication.getId(), apiKeyId)).thenReturn(1L);
 
     applicationService.deleteApiKeyFromApp(mockApplication, apiKeyId);
 
     List<ApiKey> resultApiKeys = mockApplication.getApiKeys();
     assertThat(resultApiKeys, hasSize(0));
+    verify(cacheInvalidationService, times(1))
+      .publish(CacheInvalidationType.API_KEY_REVOKED, mockApplication.getId().toString());
   }
 
   @Test
@@ -748,7 +906,7 @@ public class ApplicationServiceTest {
     apiKeys.add(new ApiKey(idOfApiKeyToDelete, "apiKeyThree", UUID.randomUUID().toString()));
     apiKeys.add(new ApiKey(UUID.randomUUID(), "apiKeyFive", UUID.randomUUID().toString()));
     Application mockApplication = new Application(UUID.randomUUID(), new Date(), apiKeys, "name", "foo",false, List.of("111"));
-    when(applicationRepository.save(any(Application.class))).thenReturn(new Application());
+    when(applicationRepository.pullApiKey(mockApplication.getId(), idOfApiKeyToDelete)).thenReturn(1L);
 
     applicationService.deleteApiKeyFromApp(mockApplication, idOfApiKeyToDelete);
 
@@ -768,4 +926,23 @@ public class ApplicationServiceTest {
     assertThrows(NotFoundException.class, () -> applicationService
             .deleteApiKeyFromApp(mockApplication, UUID.randomUUID()));
   }
+
+  @Test
+  public void deleteApiKeyFromApp_whenRemovedConcurrently_ThrowsException(){
+    ArrayList<ApiKey> apiKeys = new ArrayList<>();
+    UUID apiKeyId = UUID.randomUUID();
+    apiKeys.add(new ApiKey(apiKeyId, "apiKeyOne", UUID.randomUUID().toString()));
+    Application mockApplication = new Application(UUID.randomUUID(), new Date(), apiKeys, "name", "foo",false, List.of("111"));
+    when(applicationRepository.pullApiKey(mockApplication.getId(), apiKeyId)).thenReturn(0L);
+
+    assertThrows(NotFoundException.class, () -> applicationService
+            .deleteApiKeyFromApp(mockApplication, apiKeyId));
+    verify(cacheInvalidationService, never())
+      .publish(CacheInvalidationType.API_KEY_REVOKED, mockApplication.getId().toString());
+  }
+
+  @SneakyThrows
+  private static ObjectNode toJson(String rawJson) {
+    return (ObjectNode) new ObjectMapper().readTree(rawJson);
+  }
 }
@@ -0,0 +1,93 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
+import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
+import com.github.searchprofileservice.persistence.mongo.model.CacheInvalidationEvent;
+import com.github.searchprofileservice.service.impl.CacheInvalidationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationServiceTest {
+
+  private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+  private final ConcurrentMapCacheManager cacheManager =
+      new ConcurrentMapCacheManager(CachingConfig.INDEX_MAPPING_CACHE);
+
+  private final CachingProperties cachingProperties = new CachingProperties();
+
+  private final CacheInvalidationService cacheInvalidationService =
+      new CacheInvalidationServiceImpl(mongoTemplate, cacheManager, cachingProperties);
+
+  private final String applicationId = UUID.randomUUID().toString();
+
+  private Cache cache;
+
+  @BeforeEach
+  public void setUp() {
+    cache = cacheManager.getCache(CachingConfig.INDEX_MAPPING_CACHE);
+    cache.put(applicationId, Map.of("name", ElasticSearchMappingType.TEXT));
+  }
+
+  @Test
+  public void publish_EvictsLocallyAndInsertsEvent() {
+    when(mongoTemplate.collectionExists(CacheInvalidationEvent.class)).thenReturn(true);
+
+    cacheInvalidationService.publish(CacheInvalidationType.INDEX_MAPPING_CHANGED, applicationId);
+
+    ArgumentCaptor<CacheInvalidationEvent> event =
+        ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+    verify(mongoTemplate, times(1)).insert(event.capture());
+    assertThat(event.getValue().getType(), is(CacheInvalidationType.INDEX_MAPPING_CHANGED));
+    assertThat(event.getValue().getKey(), is(applicationId));
+    assertThat(event.getValue().getOriginNodeId(), is(notNullValue()));
+    assertThat(cache.get(applicationId), is(nullValue()));
+  }
+
+  @Test
+  public void publish_MissingCollection_CreatesCappedCollectionFirst() {
+    when(mongoTemplate.collectionExists(CacheInvalidationEvent.class)).thenReturn(false);
+
+    cacheInvalidationService.publish(CacheInvalidationType.APPLICATION_DELETED, applicationId);
+
+    verify(mongoTemplate, times(1))
+        .createCollection(eq(CacheInvalidationEvent.class), any(CollectionOptions.class));
+    verify(mongoTemplate, times(1)).insert(any(CacheInvalidationEvent.class));
+  }
+
+  @Test
+  public void publish_MongoUnavailable_StillEvictsLocally() {
+    when(mongoTemplate.collectionExists(CacheInvalidationEvent.class))
+        .thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+    cacheInvalidationService.publish(CacheInvalidationType.APPLICATION_DELETED, applicationId);
+
+    assertThat(cache.get(applicationId), is(nullValue()));
+  }
+
+  @Test
+  public void publish_Disabled_OnlyEvictsLocally() {
+    cachingProperties.getInvalidation().setEnabled(false);
+
+    cacheInvalidationService.publish(CacheInvalidationType.INDEX_MAPPING_CHANGED, applicationId);
+
+    verifyNoInteractions(mongoTemplate);
+    assertThat(cache.get(applicationId), is(nullValue()));
+  }
+}
@@ -0,0 +1,217 @@
+package com.github.searchprofileservice.service;
+
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.config.IndexSettingsProperties;
+import com.github.searchprofileservice.exception.ElasticSearchRejectedException;
+import com.github.searchprofileservice.model.enums.CacheInvalidationType;
+import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.service.impl.ElasticSearchClientServiceImpl;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ElasticSearchClientServiceTest {
+
+  private static final Property TYPE_TEXT = Property.of(b -> b.text(t -> t.boost(1.0)));
+
+  private final ElasticSearchStatefulClient client = mock(ElasticSearchStatefulClient.class);
+
+  private final ConcurrentMapCacheManager cacheManager =
+      new ConcurrentMapCacheManager(CachingConfig.INDEX_MAPPING_CACHE);
+
+  private final CacheInvalidationService cacheInvalidationService =
+      mock(CacheInvalidationService.class);
+
+  private final CachingProperties cachingProperties = new CachingProperties();
+
+  private final ElasticSearchClientService elasticSearchClientService =
+      new ElasticSearchClientServiceImpl(
+          client, cacheManager, new SyncTaskExecutor(), cacheInvalidationService,
+          new IndexSettingsProperties(), cachingProperties);
+
+  private final UUID applicationId = UUID.randomUUID();
+
+  private Cache cache;
+
+  @BeforeEach
+  @SneakyThrows
+  public void setUp() {
+    cache = cacheManager.getCache(CachingConfig.INDEX_MAPPING_CACHE);
+    cache.put(applicationId.toString(), Map.of("name", ElasticSearchMappingType.TEXT));
+
+    when(client.isIndexExistent(anyString())).thenReturn(true);
+    when(client.getIndexMapping(anyString()))
+        .thenReturn(Map.of("name", TYPE_TEXT, "description", TYPE_TEXT));
+    when(client.uploadRawJsonToIndex(anyString(), any(ObjectNode.class))).thenReturn("id");
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadRawJsonToApplication_KnownFieldsOnly_KeepsCachedMapping() {
+    elasticSearchClientService.uploadRawJsonToApplication(applicationId, toJson("{\"name\": \"foo\"}"));
+
+    verify(client, never()).getIndexMapping(anyString());
+    verify(cacheInvalidationService, never()).publish(eq(CacheInvalidationType.INDEX_MAPPING_CHANGED), anyString());
+    verify(cacheInvalidationService).publish(CacheInvalidationType.INDEX_CHANGED, applicationId.toString());
+    assertThat(
+        cache.get(applicationId.toString()).get(),
+        is(Map.of("name", ElasticSearchMappingType.TEXT)));
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadRawJsonToApplication_WritesWithinRefreshInterval_PublishesIndexChangeOnce() {
+    cachingProperties.setIndexRefreshInterval(Duration.ofHours(1));
+    when(client.bulkUploadRawJsonToIndex(anyString(), any())).thenReturn(List.of("1"));
+
+    elasticSearchClientService.uploadRawJsonToApplication(applicationId, toJson("{\"name\": \"foo\"}"));
+    elasticSearchClientService.bulkUploadRawJsonToApplication(applicationId, List.of(toJson("{\"name\": \"bar\"}")));
+    elasticSearchClientService.updateDocument(applicationId, "id", toJson("{\"name\": \"baz\"}"));
+
+    verify(cacheInvalidationService, times(1)).publish(CacheInvalidationType.INDEX_CHANGED, applicationId.toString());
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadRawJsonToApplication_WritesAfterRefreshInterval_PublishesEveryIndexChange() {
+    cachingProperties.setIndexRefreshInterval(Duration.ZERO);
+    UUID otherApplicationId = UUID.randomUUID();
+
+    elasticSearchClientService.uploadRawJsonToApplication(applicationId, toJson("{\"name\": \"foo\"}"));
+    elasticSearchClientService.uploadRawJsonToApplication(applicationId, toJson("{\"name\": \"bar\"}"));
+    elasticSearchClientService.uploadRawJsonToApplication(otherApplicationId, toJson("{\"name\": \"baz\"}"));
+
+    verify(cacheInvalidationService, times(2)).publish(CacheInvalidationType.INDEX_CHANGED, applicationId.toString());
+    verify(cacheInvalidationService, times(1)).publish(CacheInvalidationType.INDEX_CHANGED, otherApplicationId.toString());
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadRawJsonToApplication_NewField_RefreshesCachedMapping() {
+    elasticSearchClientService.uploadRawJsonToApplication(
+        applicationId, toJson("{\"name\": \"foo\", \"description\": \"bar\"}"));
+
+    verify(cacheInvalidationService, times(1))
+        .publish(CacheInvalidationType.INDEX_MAPPING_CHANGED, applicationId.toString());
+    verify(client, times(1)).getIndexMapping(applicationId.toString());
+    assertThat(
+        cache.get(applicationId.toString()).get(),
+        is(Map.of(
+            "name", ElasticSearchMappingType.TEXT,
+            "description", ElasticSearchMappingType.TEXT)));
+  }
+
+  @Test
+  @SneakyThrows
+  public void bulkUploadRawJsonToApplication_NewFieldInAnyDocument_RefreshesCachedMapping() {
+    when(client.bulkUploadRawJsonToIndex(anyString(), any())).thenReturn(List.of("1", "2"));
+
+    elasticSearchClientService.bulkUploadRawJsonToApplication(
+        applicationId,
+        List.of(toJson("{\"name\": \"foo\"}"), toJson("{\"description\": \"bar\"}")));
+
+    verify(client, times(1)).getIndexMapping(applicationId.toString());
+  }
+
+  @Test
+  @SneakyThrows
+  public void updateDocument_NothingCached_DoesNotLoadMapping() {
+    cache.clear();
+
+    elasticSearchClientService.updateDocument(
+        applicationId, "id", toJson("{\"description\": \"bar\"}"));
+
+    verify(client, never()).getIndexMapping(anyString());
+    assertThat(cache.get(applicationId.toString()), is(nullValue()));
+  }
+
+  @Test
+  @SneakyThrows
+  public void uploadRawJsonToApplication_NothingInLoadingCache_DoesNotLoadMapping() {
+    AtomicInteger loads = new AtomicInteger();
+    CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+    caffeineCacheManager.registerCustomCache(CachingConfig.INDEX_MAPPING_CACHE, Caffeine.newBuilder()
+        .build(indexName -> {
+          loads.incrementAndGet();
+          return Map.of();
+        }));
+    ElasticSearchClientService service = new ElasticSearchClientServiceImpl(
+        client, caffeineCacheManager, new SyncTaskExecutor(), cacheInvalidationService,
+        new IndexSettingsProperties(), cachingProperties);
+
+    service.uploadRawJsonToApplication(applicationId, toJson("{\"name\": \"foo\"}"));
+
+    assertThat(loads.get(), is(0));
+    verify(client, never()).getIndexMapping(anyString());
+    verify(cacheInvalidationService, never()).publish(eq(CacheInvalidationType.INDEX_MAPPING_CHANGED), anyString());
+  }
+
+  @Test
+  @SneakyThrows
+  public void createIndex_ElasticSearchRejectsCall_Rethrows() {
+    Application application = Application.builder().id(applicationId).build();
+    when(client.createIndex(applicationId.toString(), IndexSettingsProfile.SMALL))
+        .thenThrow(new ElasticSearchRejectedException(ElasticSearchRejectedException.REASON_CIRCUIT_OPEN, 30));
+
+    assertThrows(
+        ElasticSearchRejectedException.class,
+        () -> elasticSearchClientService.createIndex(application));
+  }
+
+  @Test
+  @SneakyThrows
+  public void createIndex_NoProfile_SelectsProfileFromExpectedDocumentCount() {
+    Application application = Application.builder().id(applicationId).expectedDocumentCount(5_000_000L).build();
+    when(client.createIndex(anyString(), any(IndexSettingsProfile.class))).thenReturn(true);
+
+    elasticSearchClientService.createIndex(application);
+
+    verify(client).createIndex(applicationId.toString(), IndexSettingsProfile.LARGE);
+    assertThat(application.getIndexSettingsProfile(), is(IndexSettingsProfile.LARGE));
+  }
+
+  @Test
+  @SneakyThrows
+  public void createIndex_ProfileChosen_KeepsProfile() {
+    Application application = Application.builder()
+        .id(applicationId)
+        .expectedDocumentCount(5_000_000L)
+        .indexSettingsProfile(IndexSettingsProfile.WRITE_HEAVY)
+        .build();
+    when(client.createIndex(anyString(), any(IndexSettingsProfile.class))).thenReturn(true);
+
+    elasticSearchClientService.createIndex(application);
+
+    verify(client).createIndex(applicationId.toString(), IndexSettingsProfile.WRITE_HEAVY);
+  }
+
+  @SneakyThrows
+  private static ObjectNode toJson(String rawJson) {
+    return (ObjectNode) new ObjectMapper().readTree(rawJson);
+  }
+}
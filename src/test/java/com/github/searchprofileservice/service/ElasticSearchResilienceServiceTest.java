@@ -0,0 +1,194 @@
+package com.github.searchprofileservice.service;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import com.github.searchprofileservice.config.ElasticSearchResilienceProperties;
+import com.github.searchprofileservice.exception.ElasticSearchRejectedException;
+import com.github.searchprofileservice.model.ElasticSearchCall;
+import com.github.searchprofileservice.model.enums.ElasticSearchCallType;
+import com.github.searchprofileservice.service.impl.ElasticSearchResilienceServiceImpl;
+import com.github.searchprofileservice.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ElasticSearchResilienceServiceTest {
+
+  private final ElasticSearchResilienceProperties properties = new ElasticSearchResilienceProperties();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  @BeforeEach
+  public void setUp() {
+    properties.getRetry().setInitialBackoff(Duration.ZERO);
+  }
+
+  @Test
+  public void call_IdempotentCallFails_RetriedUntilSuccess() throws IOException {
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+
+    String result = resilienceService.call(ElasticSearchCallType.SEARCH, true, failing(2, new SocketTimeoutException()));
+
+    assertThat(result, is("ok"));
+    assertThat(attempts.get(), is(3));
+    assertThat(meterRegistry.counter("elasticsearch.calls.retried", "type", "search").count(), is(2.0));
+  }
+
+  @Test
+  public void call_IdempotentCallKeepsFailing_ThrowsAfterMaxAttempts() {
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+
+    assertThrows(
+        SocketTimeoutException.class,
+        () -> resilienceService.call(ElasticSearchCallType.SEARCH, true, failing(5, new SocketTimeoutException())));
+    assertThat(attempts.get(), is(3));
+  }
+
+  @Test
+  public void call_NonIdempotentCallTimesOut_NotRetried() {
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+
+    assertThrows(
+        SocketTimeoutException.class,
+        () -> resilienceService.call(ElasticSearchCallType.INGEST, false, failing(1, new SocketTimeoutException())));
+    assertThat(attempts.get(), is(1));
+  }
+
+  @Test
+  public void call_NonIdempotentCallNotConnected_Retried() throws IOException {
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+
+    String result = resilienceService.call(ElasticSearchCallType.INGEST, false, failing(1, new ConnectException()));
+
+    assertThat(result, is("ok"));
+    assertThat(attempts.get(), is(2));
+  }
+
+  @Test
+  public void call_NotFound_NeitherRetriedNorCountedAsFailure() {
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+
+    for (int i = 0; i < 3; i++) {
+      assertThrows(
+          ElasticsearchException.class,
+          () -> resilienceService.call(ElasticSearchCallType.ADMIN, true, failing(1, elasticsearchException(404))));
+      attempts.set(0);
+    }
+
+    assertThat(resilienceService.getFailureRate(), is(0.0));
+    assertThat(resilienceService.getCircuitState(), is(CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void call_CircuitOpen_RejectedWithoutCall() {
+    properties.getRetry().setMaxAttempts(1);
+    properties.getCircuitBreaker().setMinimumCalls(2);
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+    for (int i = 0; i < 2; i++) {
+      assertThrows(
+          ElasticsearchException.class,
+          () -> resilienceService.call(ElasticSearchCallType.SEARCH, true, failing(1, elasticsearchException(503))));
+      attempts.set(0);
+    }
+
+    ElasticSearchRejectedException exception = assertThrows(
+        ElasticSearchRejectedException.class,
+        () -> resilienceService.call(ElasticSearchCallType.SEARCH, true, failing(0, null)));
+
+    assertThat(resilienceService.getCircuitState(), is(CircuitBreaker.State.OPEN));
+    assertThat(attempts.get(), is(0));
+    assertThat(exception.getReason(), is(ElasticSearchRejectedException.REASON_CIRCUIT_OPEN));
+    assertThat(exception.getRetryAfterSeconds(), is(30L));
+    assertThat(
+        meterRegistry.counter("elasticsearch.calls.rejected", "type", "search", "reason", "circuit-open").count(),
+        is(1.0));
+  }
+
+  @Test
+  public void call_BulkheadFull_Rejected() throws Exception {
+    properties.setAdmin(new ElasticSearchResilienceProperties.Bulkhead(1, Duration.ZERO));
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> resilienceService.call(ElasticSearchCallType.ADMIN, true, () -> {
+        started.countDown();
+        awaitUninterruptibly(release);
+        return "ok";
+      }));
+      assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+      ElasticSearchRejectedException exception = assertThrows(
+          ElasticSearchRejectedException.class,
+          () -> resilienceService.call(ElasticSearchCallType.ADMIN, true, failing(0, null)));
+      assertThat(exception.getReason(), is(ElasticSearchRejectedException.REASON_BULKHEAD_FULL));
+
+      // other call types have their own bulkheads
+      assertThat(resilienceService.call(ElasticSearchCallType.SEARCH, true, failing(0, null)), is("ok"));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void call_Disabled_CalledOnceWithoutRetry() {
+    properties.setEnabled(false);
+    ElasticSearchResilienceService resilienceService = newResilienceService();
+
+    assertThrows(
+        ConnectException.class,
+        () -> resilienceService.call(ElasticSearchCallType.SEARCH, true, failing(1, new ConnectException())));
+    assertThat(attempts.get(), is(1));
+  }
+
+  private ElasticSearchResilienceService newResilienceService() {
+    return new ElasticSearchResilienceServiceImpl(properties, meterRegistry);
+  }
+
+  /**
+   * @return a call that throws the exception the given number of times and answers "ok" afterwards
+   */
+  private ElasticSearchCall<String> failing(int failures, Exception exception) {
+    return () -> {
+      if (attempts.incrementAndGet() <= failures) {
+        if (exception instanceof IOException ioException) {
+          throw ioException;
+        }
+        throw (RuntimeException) exception;
+      }
+      return "ok";
+    };
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ElasticsearchException elasticsearchException(int status) {
+    return new ElasticsearchException("test", ErrorResponse.of(e -> e
+        .status(status)
+        .error(c -> c.type("test_exception").reason("test"))));
+  }
+}
@@ -0,0 +1,101 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.model.IndexStatistics;
+import com.github.searchprofileservice.service.impl.IndexStatisticsServiceImpl;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class IndexStatisticsServiceTest {
+
+  private final ElasticSearchStatefulClient client = mock(ElasticSearchStatefulClient.class);
+
+  private final IndexStatisticsService indexStatisticsService = new IndexStatisticsServiceImpl(
+      client, new ConcurrentMapCacheManager(CachingConfig.INDEX_STATISTICS_CACHE));
+
+  private final UUID firstApplicationId = UUID.randomUUID();
+  private final UUID secondApplicationId = UUID.randomUUID();
+
+  @Test
+  @SneakyThrows
+  public void getStatisticsForApplications_ManyApplications_SingleRequest() {
+    when(client.getIndicesStatistics(any())).thenReturn(Map.of(
+        firstApplicationId.toString(), new IndexStatistics(3, 100),
+        firstApplicationId + "_partial_word", new IndexStatistics(3, 50),
+        secondApplicationId.toString(), new IndexStatistics(7, 200)));
+
+    var result = indexStatisticsService.getStatisticsForApplications(
+        List.of(firstApplicationId, secondApplicationId));
+
+    verify(client, times(1)).getIndicesStatistics(List.of(firstApplicationId + "*", secondApplicationId + "*"));
+    assertThat(result.get(firstApplicationId), is(new IndexStatistics(3, 150)));
+    assertThat(result.get(secondApplicationId), is(new IndexStatistics(7, 200)));
+  }
+
+  @Test
+  @SneakyThrows
+  public void getStatisticsForApplications_CachedStatistics_NoFurtherRequest() {
+    when(client.getIndicesStatistics(any())).thenReturn(Map.of(
+        firstApplicationId.toString(), new IndexStatistics(3, 100)));
+
+    indexStatisticsService.getStatisticsForApplications(List.of(firstApplicationId));
+    var result = indexStatisticsService.getStatisticsForApplications(List.of(firstApplicationId));
+
+    verify(client, times(1)).getIndicesStatistics(any());
+    assertThat(result.get(firstApplicationId).getDocumentCount(), is(3L));
+  }
+
+  @Test
+  @SneakyThrows
+  public void getStatisticsForApplications_SomeCached_RequestsIndicesOfOthersOnly() {
+    when(client.getIndicesStatistics(any())).thenReturn(Map.of(
+        firstApplicationId.toString(), new IndexStatistics(3, 100),
+        secondApplicationId.toString(), new IndexStatistics(7, 200)));
+    indexStatisticsService.getStatisticsForApplications(List.of(firstApplicationId));
+
+    var result = indexStatisticsService.getStatisticsForApplications(
+        List.of(firstApplicationId, secondApplicationId));
+
+    verify(client, times(1)).getIndicesStatistics(List.of(secondApplicationId + "*"));
+    assertThat(result.get(firstApplicationId), is(new IndexStatistics(3, 100)));
+    assertThat(result.get(secondApplicationId), is(new IndexStatistics(7, 200)));
+  }
+
+  @Test
+  @SneakyThrows
+  public void getStatisticsForApplications_MoreApplicationsThanPerRequest_SplitIntoRequests() {
+    when(client.getIndicesStatistics(any())).thenReturn(Map.of());
+    List<UUID> applicationIds = Stream.generate(UUID::randomUUID)
+        .limit(IndexStatisticsServiceImpl.APPLICATIONS_PER_REQUEST * 2 + 1)
+        .toList();
+
+    var result = indexStatisticsService.getStatisticsForApplications(applicationIds);
+
+    verify(client, times(2)).getIndicesStatistics(argThat(indices ->
+        indices.size() == IndexStatisticsServiceImpl.APPLICATIONS_PER_REQUEST));
+    verify(client, times(1)).getIndicesStatistics(List.of(applicationIds.get(applicationIds.size() - 1) + "*"));
+    assertThat(result.keySet(), hasSize(applicationIds.size()));
+  }
+
+  @Test
+  @SneakyThrows
+  public void getStatisticsForApplications_MissingIndexOrError_EmptyStatistics() {
+    when(client.getIndicesStatistics(any())).thenThrow(new IOException("unavailable"));
+
+    var result = indexStatisticsService.getStatisticsForApplications(List.of(firstApplicationId));
+
+    assertThat(result.get(firstApplicationId), is(IndexStatistics.EMPTY));
+  }
+}
@@ -0,0 +1,177 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.client.impl.ElasticSearchStatefulClientImpl;
+import com.github.searchprofileservice.config.InstrumentationProperties;
+import com.github.searchprofileservice.model.ServerTiming;
+import com.github.searchprofileservice.model.StageTimer;
+import com.github.searchprofileservice.service.impl.InstrumentationServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class InstrumentationServiceTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final InstrumentationProperties instrumentationProperties = new InstrumentationProperties();
+
+  private final InstrumentationService instrumentationService =
+      new InstrumentationServiceImpl(meterRegistry, instrumentationProperties);
+
+  @Test
+  public void startStage_RecordedOnceOnClose() {
+    instrumentationProperties.setApplicationTags(true);
+    String applicationId = UUID.randomUUID().toString();
+
+    StageTimer stage = instrumentationService.startStage(
+        InstrumentationService.OPERATION_SEARCH, InstrumentationService.STAGE_ELASTICSEARCH,
+        applicationId, "profile");
+    stage.close();
+    stage.close();
+
+    assertThat(meterRegistry.get("request.stage")
+        .tag("operation", InstrumentationService.OPERATION_SEARCH)
+        .tag("stage", InstrumentationService.STAGE_ELASTICSEARCH)
+        .tag("application", applicationId)
+        .tag("profile", InstrumentationServiceImpl.TAG_ALL)
+        .timer().count(), equalTo(1L));
+  }
+
+  @Test
+  public void startStage_TagsFollowProperties() {
+    instrumentationProperties.setProfileTags(true);
+
+    instrumentationService.startStage(
+        InstrumentationService.OPERATION_SEARCH, InstrumentationService.STAGE_PROFILE_LOOKUP,
+        UUID.randomUUID().toString(), null).close();
+
+    assertThat(meterRegistry.get("request.stage")
+        .tag("application", InstrumentationServiceImpl.TAG_ALL)
+        .tag("profile", InstrumentationServiceImpl.TAG_UNKNOWN)
+        .timer().count(), equalTo(1L));
+  }
+
+  @Test
+  public void startStage_ApplicationTagsDisabled_TimerRegisteredOnce() {
+    MeterRegistry spiedMeterRegistry = spy(new SimpleMeterRegistry());
+    InstrumentationService spiedInstrumentationService =
+        new InstrumentationServiceImpl(spiedMeterRegistry, instrumentationProperties);
+
+    for (int i = 0; i < 3; i++) {
+      spiedInstrumentationService.startStage(
+          InstrumentationService.OPERATION_SEARCH, InstrumentationService.STAGE_ELASTICSEARCH,
+          UUID.randomUUID().toString(), "profile").close();
+    }
+
+    verify(spiedMeterRegistry, times(1)).timer(eq("request.stage"), any(Tags.class));
+    assertThat(spiedMeterRegistry.get("request.stage").timer().count(), equalTo(3L));
+  }
+
+  @Test
+  public void recordSearch_TookAndRoundTripOfApplication() {
+    instrumentationProperties.setApplicationTags(true);
+    String applicationId = UUID.randomUUID().toString();
+
+    instrumentationService.recordSearch(
+        applicationId + ElasticSearchStatefulClientImpl.PARTIAL_WORD_INDEXNAME_POSTFIX,
+        5, TimeUnit.MILLISECONDS.toNanos(8));
+
+    assertThat(meterRegistry.get("elasticsearch.search.took")
+        .tag("application", applicationId)
+        .tag("index", "partial-word")
+        .timer().totalTime(TimeUnit.MILLISECONDS), equalTo(5.0));
+    assertThat(meterRegistry.get("elasticsearch.search.round.trip")
+        .tag("application", applicationId)
+        .tag("index", "partial-word")
+        .timer().totalTime(TimeUnit.MILLISECONDS), equalTo(8.0));
+  }
+
+  @Test
+  public void recordBulk_SizeAndFailures() {
+    instrumentationProperties.setApplicationTags(true);
+    String applicationId = UUID.randomUUID().toString();
+
+    instrumentationService.recordBulk(applicationId, 10, 2, 4);
+    instrumentationService.recordBulk(applicationId, 30, 0, 6);
+
+    assertThat(meterRegistry.get("elasticsearch.bulk.documents")
+        .tag("application", applicationId)
+        .tag("index", "standard")
+        .summary().totalAmount(), equalTo(40.0));
+    assertThat(meterRegistry.get("elasticsearch.bulk.failures")
+        .tag("application", applicationId)
+        .counter().count(), equalTo(2.0));
+    assertThat(meterRegistry.get("elasticsearch.bulk.took")
+        .tag("application", applicationId)
+        .timer().totalTime(TimeUnit.MILLISECONDS), equalTo(10.0));
+  }
+
+  @Test
+  public void recordBulk_ApplicationTagsEnabled_MetersRegisteredOncePerApplication() {
+    instrumentationProperties.setApplicationTags(true);
+    MeterRegistry spiedMeterRegistry = spy(new SimpleMeterRegistry());
+    InstrumentationService spiedInstrumentationService =
+        new InstrumentationServiceImpl(spiedMeterRegistry, instrumentationProperties);
+    String applicationId = UUID.randomUUID().toString();
+    String otherApplicationId = UUID.randomUUID().toString();
+
+    spiedInstrumentationService.recordBulk(applicationId, 10, 1, 4);
+    spiedInstrumentationService.recordBulk(applicationId, 10, 1, 4);
+    spiedInstrumentationService.recordBulk(otherApplicationId, 10, 1, 4);
+
+    verify(spiedMeterRegistry, times(2)).counter(eq("elasticsearch.bulk.failures"), any(Tags.class));
+    verify(spiedMeterRegistry, times(2)).timer(eq("elasticsearch.bulk.took"), any(Tags.class));
+    assertThat(spiedMeterRegistry.get("elasticsearch.bulk.failures")
+        .tag("application", applicationId)
+        .counter().count(), equalTo(2.0));
+    assertThat(spiedMeterRegistry.get("elasticsearch.bulk.failures")
+        .tag("application", otherApplicationId)
+        .counter().count(), equalTo(1.0));
+  }
+
+  @Test
+  public void startStage_ServerTimingEnabled_AddsToTimingOfRequest() {
+    instrumentationProperties.setServerTiming(true);
+    ServerTiming serverTiming = ServerTiming.start();
+    try {
+      instrumentationService.startStage(
+          InstrumentationService.OPERATION_SEARCH, InstrumentationService.STAGE_PROFILE_LOOKUP,
+          null, null).close();
+      instrumentationService.recordSearch(UUID.randomUUID().toString(), 7, TimeUnit.MILLISECONDS.toNanos(9));
+    } finally {
+      serverTiming.end();
+    }
+
+    String header = serverTiming.toHeaderValue();
+    assertThat(header, containsString("mongo;dur="));
+    assertThat(header, containsString("es-took;dur=7.000"));
+    assertThat(header, not(containsString("query-build")));
+  }
+
+  @Test
+  public void startStage_ServerTimingDisabled_TimingOfRequestUntouched() {
+    ServerTiming serverTiming = ServerTiming.start();
+    try {
+      instrumentationService.startStage(
+          InstrumentationService.OPERATION_SEARCH, InstrumentationService.STAGE_PROFILE_LOOKUP,
+          null, null).close();
+    } finally {
+      serverTiming.end();
+    }
+
+    assertThat(serverTiming.toHeaderValue(), not(containsString("mongo")));
+  }
+}
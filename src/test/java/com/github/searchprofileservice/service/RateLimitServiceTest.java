@@ -0,0 +1,125 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.config.RateLimitProperties;
+import com.github.searchprofileservice.exception.RateLimitExceededException;
+import com.github.searchprofileservice.model.RateLimitPermit;
+import com.github.searchprofileservice.model.RateLimitState;
+import com.github.searchprofileservice.service.impl.RateLimitServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RateLimitServiceTest {
+
+  private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final UUID applicationId = UUID.randomUUID();
+  private final UUID apiKeyId = UUID.randomUUID();
+
+  @Test
+  public void acquireIngest_ApplicationLimitExceeded_ThrowsWithRetryAfter() {
+    rateLimitProperties.getApplication().setDocumentsPerSecond(2.0);
+    RateLimitService rateLimitService = newRateLimitService();
+
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 2, 10, false);
+
+    RateLimitExceededException exception = assertThrows(
+        RateLimitExceededException.class,
+        () -> rateLimitService.acquireIngest(applicationId, UUID.randomUUID(), 1, 10, false));
+    assertThat(exception.getScope(), is("application"));
+    assertThat(exception.getLimit(), is("documents"));
+    assertThat(exception.getRetryAfterSeconds(), is(1L));
+    assertThat(
+        meterRegistry.counter(
+            "ingest.rate.limit.rejections", "scope", "application", "limit", "documents").count(),
+        is(1.0));
+  }
+
+  @Test
+  public void acquireIngest_ApiKeyLimitExceeded_RevertsApplicationLimit() {
+    rateLimitProperties.getApplication().setBytesPerSecond(100L);
+    rateLimitProperties.getApiKey().setBytesPerSecond(50L);
+    RateLimitService rateLimitService = newRateLimitService();
+
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 1, 50, false);
+    assertThrows(
+        RateLimitExceededException.class,
+        () -> rateLimitService.acquireIngest(applicationId, apiKeyId, 1, 50, false));
+
+    // the bytes of the rejected request were given back to the application
+    rateLimitService.acquireIngest(applicationId, UUID.randomUUID(), 1, 50, false);
+  }
+
+  @Test
+  public void acquireIngest_ConcurrentBulks_LimitedUntilPermitIsClosed() {
+    rateLimitProperties.getApiKey().setConcurrentBulks(1);
+    RateLimitService rateLimitService = newRateLimitService();
+
+    RateLimitPermit permit = rateLimitService.acquireIngest(applicationId, apiKeyId, 10, 10, true);
+
+    RateLimitExceededException exception = assertThrows(
+        RateLimitExceededException.class,
+        () -> rateLimitService.acquireIngest(applicationId, apiKeyId, 10, 10, true));
+    assertThat(exception.getScope(), is("api-key"));
+    assertThat(exception.getLimit(), is("concurrent-bulks"));
+
+    permit.close();
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 10, 10, true);
+  }
+
+  @Test
+  public void acquireIngest_ApplicationOverride_TakesPrecedence() {
+    rateLimitProperties.getApplication().setDocumentsPerSecond(1.0);
+    RateLimitProperties.Limits override = new RateLimitProperties.Limits();
+    override.setDocumentsPerSecond(100.0);
+    rateLimitProperties.setApplications(Map.of(applicationId.toString(), override));
+    RateLimitService rateLimitService = newRateLimitService();
+
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 50, 10, false);
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 50, 10, false);
+  }
+
+  @Test
+  public void acquireIngest_Disabled_NeverThrows() {
+    rateLimitProperties.setEnabled(false);
+    rateLimitProperties.getApplication().setDocumentsPerSecond(1.0);
+    RateLimitService rateLimitService = newRateLimitService();
+
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 5, 10, false);
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 5, 10, false);
+
+    assertThat(rateLimitService.getStates(), is(empty()));
+  }
+
+  @Test
+  public void getStates_ListsApplicationsAndApiKeys() {
+    rateLimitProperties.getApplication().setDocumentsPerSecond(10.0);
+    RateLimitService rateLimitService = newRateLimitService();
+
+    rateLimitService.acquireIngest(applicationId, apiKeyId, 4, 10, false);
+
+    List<RateLimitState> states = rateLimitService.getStates();
+    assertThat(states, hasSize(2));
+
+    RateLimitState applicationState = states.stream()
+        .filter(state -> "application".equals(state.getScope()))
+        .findFirst()
+        .orElseThrow();
+    assertThat(applicationState.getId(), is(applicationId.toString()));
+    assertThat(applicationState.getAvailableDocuments(), is(both(greaterThanOrEqualTo(6.0)).and(lessThan(10.0))));
+    assertThat(applicationState.getAvailableBytes(), is(nullValue()));
+  }
+
+  private RateLimitService newRateLimitService() {
+    return new RateLimitServiceImpl(rateLimitProperties, meterRegistry);
+  }
+}
@@ -2,22 +2,36 @@ package com.github.searchprofileservice.service;
 
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.model.AuthenticatedUser;
+import com.github.searchprofileservice.model.CursorPage;
+import com.github.searchprofileservice.model.SearchFacet;
 import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchFilter;
+import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
 import com.github.searchprofileservice.persistence.mongo.model.SearchProfileDocument;
 import com.github.searchprofileservice.persistence.mongo.repository.SearchProfileRepository;
 import com.github.searchprofileservice.service.impl.SearchProfileServiceImpl;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 public class SearchProfileServiceTest {
@@ -43,6 +57,31 @@ public class SearchProfileServiceTest {
     assertThat(searchProfiles.size(), equalTo(listOfSearchProfiles.size()));
   }
 
+  @Test
+  public void getSearchProfilesAsBasicProjection_ContinuesAfterCursor() {
+    List<SearchProfileDocument> listOfSearchProfiles = getListOfSearchProfiles();
+    when(searchProfileRepository.findAllAsBasicProjectionAfter(eq(""), eq(""), any()))
+        .thenReturn(listOfSearchProfiles.subList(0, 3));
+
+    CursorPage<SearchProfileDto.BasicProjection> firstPage =
+        searchProfileService.getSearchProfilesAsBasicProjection(null, 2);
+
+    assertThat(firstPage.getItems().size(), equalTo(2));
+    assertNotNull(firstPage.getNextCursor());
+    verify(searchProfileRepository).findAllAsBasicProjectionAfter("", "", PageRequest.of(0, 3));
+
+    SearchProfileDocument lastOfFirstPage = listOfSearchProfiles.get(1);
+    when(searchProfileRepository.findAllAsBasicProjectionAfter(
+        eq(lastOfFirstPage.getApplicationId()), eq(lastOfFirstPage.getProfileId()), any()))
+        .thenReturn(listOfSearchProfiles.subList(2, 4));
+
+    CursorPage<SearchProfileDto.BasicProjection> secondPage =
+        searchProfileService.getSearchProfilesAsBasicProjection(firstPage.getNextCursor(), 2);
+
+    assertThat(secondPage.getItems().size(), equalTo(2));
+    assertThat(secondPage.getNextCursor(), equalTo(null));
+  }
+
   @Test
   public void getAllSearchProfilesByApplicationId() {
     String applicationId = "1313cf79-9d4b-4d11-8a51-ac5417c00b66";
@@ -75,6 +114,73 @@ public class SearchProfileServiceTest {
     assertThat(profileDto.getApplicationId(), equalTo(searchProfileDto.getApplicationId()));
   }
 
+  @Test
+  public void postNewSearchProfile_FilterOnFilterableFields_Saved() {
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    searchProfileDto.setFilters(List.of(
+        new SearchFilter("published", List.of("true"), null, null, null),
+        new SearchFilter("price", null, 5.0, null, null)));
+    when(elasticSearchService.getIndexMapping(searchProfileDto.getApplicationId().toString())).thenReturn(Map.of(
+        "published", ElasticSearchMappingType.BOOLEAN,
+        "price", ElasticSearchMappingType.NUMERIC));
+    when(searchProfileRepository.save(any())).thenReturn(SearchProfileDocument.of(searchProfileDto));
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    SearchProfileDto profileDto = searchProfileService.postNewSearchProfile(searchProfileDto);
+
+    assertThat(profileDto.getFilters(), equalTo(searchProfileDto.getFilters()));
+  }
+
+  @Test
+  public void postNewSearchProfile_FilterOnTextField_BadRequest() {
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    searchProfileDto.setFilters(List.of(new SearchFilter("name", List.of("a"), null, null, null)));
+    when(elasticSearchService.getIndexMapping(searchProfileDto.getApplicationId().toString()))
+        .thenReturn(Map.of("name", ElasticSearchMappingType.TEXT));
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    ResponseStatusException exception = assertThrows(
+        ResponseStatusException.class,
+        () -> searchProfileService.postNewSearchProfile(searchProfileDto));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+    verify(searchProfileRepository, never()).save(any());
+  }
+
+  @Test
+  public void postNewSearchProfile_FacetOnUnknownField_BadRequest() {
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    searchProfileDto.setFacets(List.of(new SearchFacet("category", null, null)));
+    when(elasticSearchService.getIndexMapping(searchProfileDto.getApplicationId().toString()))
+        .thenReturn(Map.of("name", ElasticSearchMappingType.TEXT));
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    ResponseStatusException exception = assertThrows(
+        ResponseStatusException.class,
+        () -> searchProfileService.postNewSearchProfile(searchProfileDto));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+  }
+
+  @Test
+  public void postNewSearchProfile_RangeOnKeywordField_BadRequest() {
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    searchProfileDto.setFilters(List.of(new SearchFilter("category", null, 1.0, null, null)));
+    when(elasticSearchService.getIndexMapping(searchProfileDto.getApplicationId().toString()))
+        .thenReturn(Map.of("category", ElasticSearchMappingType.KEYWORD));
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    ResponseStatusException exception = assertThrows(
+        ResponseStatusException.class,
+        () -> searchProfileService.postNewSearchProfile(searchProfileDto));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+  }
+
   @Test
   public void updateSearchProfile() {
     UUID applicationId = UUID.randomUUID();
@@ -86,12 +192,15 @@ public class SearchProfileServiceTest {
     searchProfileDto.setSearchFields(List.of(new SearchField("name", true, 1.0)));
     searchProfileDto.setMinScore(3.14159);
 
-    when(searchProfileRepository.save(any()))
-        .thenAnswer(i -> i.getArguments()[0]);
-    when(searchProfileRepository.findById(profileId))
+    when(searchProfileRepository.updateEditableFields(eq(profileId), isNull(), any()))
         .thenAnswer(i -> {
+          SearchProfileDocument values = i.getArgument(2);
           var searchProfileDocument =
             getSearchProfileDocument(profileId.toString(), applicationId.toString(), "");
+          searchProfileDocument.setName(values.getName());
+          searchProfileDocument.setMinScore(values.getMinScore());
+          searchProfileDocument.setSearchFields(values.getSearchFields());
+          searchProfileDocument.setVersion(1L);
           return Optional.of(searchProfileDocument);
         });
     when(authenticationService.getUser())
@@ -106,6 +215,83 @@ public class SearchProfileServiceTest {
     assertThat(resultDto.getName(), equalTo(searchProfileDto.getName()));
     assertThat(resultDto.getMinScore(), equalTo(searchProfileDto.getMinScore()));
     assertThat(resultDto.getSearchFields(), equalTo(searchProfileDto.getSearchFields()));
+    assertThat(resultDto.getVersion(), equalTo(1L));
+    verify(searchProfileRepository, never()).save(any());
+  }
+
+  @Test
+  @SneakyThrows
+  public void updateSearchProfile_ReplacesSearchTemplateOfPreviousVersion() {
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    SearchProfileDocument searchProfileDocument =
+        getSearchProfileDocument(profileId, UUID.randomUUID().toString(), "");
+    searchProfileDocument.setVersion(4L);
+
+    when(searchProfileRepository.updateEditableFields(eq(profileId), isNull(), any()))
+        .thenReturn(Optional.of(searchProfileDocument));
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    searchProfileService.updateSearchProfile(searchProfileDto, profileId);
+
+    ArgumentCaptor<SearchProfileDto> storedSearchProfile = ArgumentCaptor.forClass(SearchProfileDto.class);
+    verify(elasticSearchService, times(1)).putSearchTemplate(storedSearchProfile.capture());
+    assertThat(storedSearchProfile.getValue().getVersion(), equalTo(4L));
+    verify(elasticSearchService, times(1)).deleteSearchTemplate(profileId, 3L);
+  }
+
+  @Test
+  @SneakyThrows
+  public void postNewSearchProfile_StoringSearchTemplateFails_StillCreated() {
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    SearchProfileDocument searchProfileDocument = SearchProfileDocument.of(searchProfileDto);
+    searchProfileDocument.setProfileId(UUID.randomUUID().toString());
+    when(searchProfileRepository.save(any())).thenReturn(searchProfileDocument);
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+    doThrow(new IOException()).when(elasticSearchService).putSearchTemplate(any());
+
+    SearchProfileDto profileDto = searchProfileService.postNewSearchProfile(searchProfileDto);
+
+    assertThat(profileDto.getProfileId(), equalTo(searchProfileDocument.getProfileId()));
+  }
+
+  @Test
+  public void updateSearchProfile_ChangedSinceVersion_Conflict() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    searchProfileDto.setVersion(3L);
+
+    when(searchProfileRepository.updateEditableFields(eq(profileId), eq(3L), any()))
+        .thenReturn(Optional.empty());
+    when(searchProfileRepository.existsById(profileId)).thenReturn(true);
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> searchProfileService.updateSearchProfile(searchProfileDto, profileId));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.CONFLICT));
+    verify(elasticSearchService, never()).putSearchTemplate(any());
+  }
+
+  @Test
+  public void updateSearchProfile_UnknownProfile_NotFound() {
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDto searchProfileDto = getSearchProfileDto();
+    searchProfileDto.setVersion(3L);
+
+    when(searchProfileRepository.updateEditableFields(eq(profileId), eq(3L), any()))
+        .thenReturn(Optional.empty());
+    when(searchProfileRepository.existsById(profileId)).thenReturn(false);
+    when(authenticationService.getUser())
+        .thenReturn(new AuthenticatedUser("testUser", "1", ""));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> searchProfileService.updateSearchProfile(searchProfileDto, profileId));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.NOT_FOUND));
   }
 
   @Test
@@ -118,6 +304,20 @@ public class SearchProfileServiceTest {
     verify(searchProfileRepository, times(1)).deleteById(profileId);
   }
 
+  @Test
+  @SneakyThrows
+  public void deleteSearchProfile_DeletesSearchTemplate() {
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDocument searchProfileDocument =
+        getSearchProfileDocument(profileId, UUID.randomUUID().toString(), "");
+    searchProfileDocument.setVersion(2L);
+    when(searchProfileRepository.findById(profileId)).thenReturn(Optional.of(searchProfileDocument));
+
+    searchProfileService.deleteSearchProfile(profileId);
+
+    verify(elasticSearchService, times(1)).deleteSearchTemplate(profileId, 2L);
+  }
+
   @Test
   public void existsSearchProfile() {
     String profileId = UUID.randomUUID().toString();
@@ -1,41 +1,103 @@
 package com.github.searchprofileservice.service;
 
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
+import co.elastic.clients.elasticsearch.async_search.SubmitResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchTemplateRequest;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import co.elastic.clients.util.DateTime;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.searchprofileservice.api.model.SearchProfileDto;
 import com.github.searchprofileservice.client.ElasticSearchStatefulClient;
+import com.github.searchprofileservice.config.AsyncSearchProperties;
+import com.github.searchprofileservice.config.InstrumentationProperties;
+import com.github.searchprofileservice.config.CachingConfig;
+import com.github.searchprofileservice.config.CachingProperties;
+import com.github.searchprofileservice.config.IndexSettingsProperties;
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.AsyncSearchResults;
+import com.github.searchprofileservice.model.FacetBucket;
+import com.github.searchprofileservice.model.IndexGeneration;
+import com.github.searchprofileservice.model.SearchFacet;
+import com.github.searchprofileservice.model.SearchFilter;
+import com.github.searchprofileservice.model.SearchResults;
+import com.github.searchprofileservice.model.enums.FacetMode;
+import com.github.searchprofileservice.model.enums.IndexSettingsProfile;
+import com.github.searchprofileservice.persistence.mongo.model.Application;
+import com.github.searchprofileservice.persistence.mongo.model.AsyncSearchDocument;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+import com.github.searchprofileservice.persistence.mongo.repository.AsyncSearchRepository;
+import com.github.searchprofileservice.service.impl.InstrumentationServiceImpl;
 import com.github.searchprofileservice.service.impl.SearchServiceImpl;
+import com.github.searchprofileservice.support.ElasticSearchProfileSample;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SearchServiceTest {
 
   SearchProfileService searchProfileService = mock(SearchProfileService.class);
   ElasticSearchStatefulClient elasticSearchStatefulClient = mock(ElasticSearchStatefulClient.class);
+  ElasticSearchClientService elasticSearchService = mock(ElasticSearchClientService.class);
+  SlowQueryLogService slowQueryLogService = mock(SlowQueryLogService.class);
+  CacheManager cacheManager = new ConcurrentMapCacheManager();
+  CachingProperties cachingProperties = new CachingProperties();
+  AsyncSearchRepository asyncSearchRepository = mock(AsyncSearchRepository.class);
+  AsyncSearchProperties asyncSearchProperties = new AsyncSearchProperties();
+  ApplicationService applicationService = mock(ApplicationService.class);
+  IndexSettingsProperties indexSettingsProperties = new IndexSettingsProperties();
 
   @InjectMocks
   private final SearchService searchService = new SearchServiceImpl(searchProfileService,
-      elasticSearchStatefulClient);
+      elasticSearchStatefulClient,
+      elasticSearchService,
+      new InstrumentationServiceImpl(new SimpleMeterRegistry(), new InstrumentationProperties()),
+      slowQueryLogService,
+      cacheManager,
+      cachingProperties,
+      asyncSearchRepository,
+      asyncSearchProperties,
+      applicationService,
+      indexSettingsProperties);
 
   @Test
   public void search() throws IOException {
     String profileId = UUID.randomUUID().toString();
     String searchValue = "searchText";
     mockCreateSearchRequest(profileId, true);
-    when(elasticSearchStatefulClient.search(any())).thenThrow(new IOException());
+    when(elasticSearchStatefulClient.searchTemplate(any())).thenThrow(new IOException());
 
     ResponseStatusException exception = assertThrows(
         ResponseStatusException.class,
@@ -44,6 +106,341 @@ public class SearchServiceTest {
     assertThat(exception.getStatus(), equalTo(HttpStatus.INTERNAL_SERVER_ERROR));
   }
 
+  @Test
+  public void search_Recorded_PassesRecordToSlowQueryLog() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    String searchValue = "searchText";
+    mockCreateSearchRequest(profileId, true);
+    when(elasticSearchStatefulClient.searchTemplate(any())).thenReturn(SearchResponse.of(r -> r
+        .took(42)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()).total(t -> t.value(7).relation(TotalHitsRelation.Eq)))));
+    when(slowQueryLogService.isRecorded(anyLong())).thenReturn(true);
+
+    searchService.search(profileId, searchValue);
+
+    ArgumentCaptor<SlowQueryRecord> record = ArgumentCaptor.forClass(SlowQueryRecord.class);
+    verify(slowQueryLogService, times(1)).record(record.capture());
+    assertThat(record.getValue().getSearchValue(), equalTo(searchValue));
+    assertThat(record.getValue().getQuery(), containsString(searchValue));
+    assertThat(record.getValue().getTookMillis(), equalTo(42L));
+    assertThat(record.getValue().getHits(), equalTo(7L));
+    assertThat(record.getValue().getStages().keySet(), containsInAnyOrder(
+        InstrumentationService.STAGE_PROFILE_LOOKUP,
+        InstrumentationService.STAGE_REQUEST_BUILD,
+        InstrumentationService.STAGE_ELASTICSEARCH,
+        InstrumentationService.STAGE_POST_PROCESS));
+  }
+
+  @Test
+  public void search_NotRecorded_SkipsSlowQueryLog() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    when(elasticSearchStatefulClient.searchTemplate(any())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "searchText");
+
+    verify(slowQueryLogService, never()).record(any());
+  }
+
+  @Test
+  public void search_TemplateMissing_StoresTemplateAndSearchesAgain() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    ArgumentCaptor<SearchTemplateRequest> request = ArgumentCaptor.forClass(SearchTemplateRequest.class);
+    when(elasticSearchStatefulClient.searchTemplate(request.capture()))
+        .thenThrow(new ElasticsearchException("search_template", ErrorResponse.of(e -> e
+            .status(404)
+            .error(c -> c.type("resource_not_found_exception").reason("unable to find script")))))
+        .thenReturn(SearchResponse.of(r -> r
+            .took(1)
+            .timedOut(false)
+            .shards(s -> s.total(1).successful(1).failed(0))
+            .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "searchText");
+
+    ArgumentCaptor<SearchProfileDto> storedSearchProfile = ArgumentCaptor.forClass(SearchProfileDto.class);
+    verify(elasticSearchService, times(1)).putSearchTemplate(storedSearchProfile.capture());
+    verify(elasticSearchStatefulClient, times(2)).searchTemplate(any());
+    verify(elasticSearchStatefulClient, never()).search(any());
+    assertThat(request.getValue().id(), equalTo("search-profile-" + profileId + "-3"));
+    assertThat(storedSearchProfile.getValue().getProfileId(), equalTo(profileId));
+    assertThat(storedSearchProfile.getValue().getVersion(), equalTo(3L));
+    assertThat(request.getValue().params().get("search_value").to(String.class), equalTo("searchText"));
+  }
+
+  @Test
+  public void search_TemplateOfChangedVersionMissing_SearchesWithoutStoringTemplate() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDto readVersion = getSearchProfileDto(true);
+    readVersion.setProfileId(profileId);
+    readVersion.setVersion(3L);
+    SearchProfileDto currentVersion = getSearchProfileDto(true);
+    currentVersion.setProfileId(profileId);
+    currentVersion.setVersion(4L);
+    // another instance changed the search profile and removed the template of version 3
+    when(searchProfileService.getSearchProfileByProfileId(profileId))
+        .thenReturn(readVersion)
+        .thenReturn(currentVersion);
+    when(elasticSearchStatefulClient.searchTemplate(any()))
+        .thenThrow(new ElasticsearchException("search_template", ErrorResponse.of(e -> e
+            .status(404)
+            .error(c -> c.type("resource_not_found_exception").reason("unable to find script")))));
+    ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+    when(elasticSearchStatefulClient.search(request.capture())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "searchText");
+
+    verify(elasticSearchService, never()).putSearchTemplate(any());
+    verify(elasticSearchStatefulClient, times(1)).searchTemplate(any());
+    assertThat(request.getValue().index(), equalTo(List.of(readVersion.getApplicationId().toString())));
+  }
+
+  @Test
+  public void search_TemplateOfDeletedSearchProfileMissing_SearchesWithoutStoringTemplate() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    SearchProfileDto readVersion = getSearchProfileDto(true);
+    readVersion.setProfileId(profileId);
+    readVersion.setVersion(3L);
+    when(searchProfileService.getSearchProfileByProfileId(profileId))
+        .thenReturn(readVersion)
+        .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+    when(elasticSearchStatefulClient.searchTemplate(any()))
+        .thenThrow(new ElasticsearchException("search_template", ErrorResponse.of(e -> e
+            .status(404)
+            .error(c -> c.type("resource_not_found_exception").reason("unable to find script")))));
+    when(elasticSearchStatefulClient.search(any())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "searchText");
+
+    verify(elasticSearchService, never()).putSearchTemplate(any());
+    verify(elasticSearchStatefulClient, times(1)).search(any());
+  }
+
+  @Test
+  public void search_WithFilterParameters_SearchesWithoutTemplate() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    searchProfileService.getSearchProfileByProfileId(profileId)
+        .setFilters(List.of(new SearchFilter("category", List.of("books"), null, null, "category")));
+    ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+    when(elasticSearchStatefulClient.search(request.capture())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "searchText", Map.of("category", List.of("music")));
+
+    verify(elasticSearchStatefulClient, never()).searchTemplate(any());
+    assertThat(request.getValue().query().bool().filter().get(0).term().value().stringValue(), equalTo("music"));
+  }
+
+  @Test
+  public void search_WithUnusedFilterParameters_SearchesWithTemplate() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    when(elasticSearchStatefulClient.searchTemplate(any())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "searchText", Map.of("category", List.of("music")));
+
+    verify(elasticSearchStatefulClient, times(1)).searchTemplate(any());
+    verify(elasticSearchStatefulClient, never()).search(any());
+  }
+
+  @Test
+  public void search_FacetsOnly_CachedUntilIndexChanges() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
+    searchProfileDto.setFacets(List.of(new SearchFacet("category", null, null)));
+    cachingProperties.setIndexRefreshInterval(Duration.ZERO);
+    indexSettingsProperties.getProfile(IndexSettingsProfile.SMALL).setRefreshInterval(Duration.ZERO);
+    ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+    when(elasticSearchStatefulClient.search(request.capture())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))
+        .aggregations("category", a -> a.sterms(t -> t
+            .sumOtherDocCount(0)
+            .buckets(b -> b.array(List.of(StringTermsBucket.of(k -> k.key("books").docCount(4)))))))));
+
+    SearchResults first = searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+    SearchResults second = searchService.search(profileId, " ", Map.of(), FacetMode.ONLY);
+    cacheManager.getCache(CachingConfig.INDEX_GENERATION_CACHE).evict(searchProfileDto.getApplicationId().toString());
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+
+    verify(elasticSearchStatefulClient, times(2)).search(any());
+    verify(elasticSearchStatefulClient, never()).searchTemplate(any());
+    assertThat(first.getFacets(), equalTo(Map.of("category", List.of(new FacetBucket("books", 4)))));
+    assertThat(second.getFacets(), equalTo(first.getFacets()));
+    assertThat(request.getValue().size(), equalTo(0));
+    assertThat(request.getValue().requestCache(), equalTo(true));
+    assertThat(request.getValue().aggregations().get("category").terms().field(), equalTo("category"));
+  }
+
+  @Test
+  public void search_FacetsOnlyRightAfterIndexChange_NotCached() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    cachingProperties.setIndexRefreshInterval(Duration.ofHours(1));
+    when(elasticSearchStatefulClient.search(any())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+
+    verify(elasticSearchStatefulClient, times(2)).search(any());
+  }
+
+  @Test
+  public void search_FacetsOnlyWithinUnpublishedWritesOfGeneration_NotCached() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
+    cachingProperties.setIndexRefreshInterval(Duration.ofHours(1));
+    when(elasticSearchStatefulClient.search(any())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+    // writes up to an interval after the one that started the generation may not be published
+    cacheManager.getCache(CachingConfig.INDEX_GENERATION_CACHE).put(
+        searchProfileDto.getApplicationId().toString(),
+        new IndexGeneration("generation", System.nanoTime() - Duration.ofMinutes(30).toNanos()));
+
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+
+    verify(elasticSearchStatefulClient, times(2)).search(any());
+  }
+
+  @Test
+  public void search_FacetsOnlyWithinRefreshIntervalOfApplication_NotCached() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
+    cachingProperties.setIndexRefreshInterval(Duration.ZERO);
+    when(applicationService.findCachedById(searchProfileDto.getApplicationId())).thenReturn(Optional.of(
+        Application.builder()
+            .id(searchProfileDto.getApplicationId())
+            .indexSettingsProfile(IndexSettingsProfile.WRITE_HEAVY)
+            .build()));
+    when(elasticSearchStatefulClient.search(any())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+    // older than the refresh interval of the default profile, younger than the one of write heavy
+    cacheManager.getCache(CachingConfig.INDEX_GENERATION_CACHE).put(
+        searchProfileDto.getApplicationId().toString(),
+        new IndexGeneration("generation", System.nanoTime() - Duration.ofSeconds(10).toNanos()));
+
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+    searchService.search(profileId, "", Map.of(), FacetMode.ONLY);
+
+    verify(elasticSearchStatefulClient, times(2)).search(any());
+  }
+
+  @Test
+  public void search_IncludeFacets_SearchesWithoutTemplate() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    searchProfileService.getSearchProfileByProfileId(profileId)
+        .setFacets(List.of(new SearchFacet("price", null, List.of(new SearchFacet.Range(null, null, 10.0)))));
+    ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+    when(elasticSearchStatefulClient.search(request.capture())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    SearchResults results = searchService.search(profileId, "searchText", Map.of(), FacetMode.INCLUDE);
+
+    verify(elasticSearchStatefulClient, never()).searchTemplate(any());
+    assertThat(results.getFacets(), equalTo(Map.of()));
+    assertThat(request.getValue().size(), nullValue());
+    assertThat(request.getValue().aggregations().get("price").range().ranges().get(0).to(), equalTo("10.0"));
+  }
+
+  @Test
+  public void search_IndexMissing_Throws() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    when(elasticSearchStatefulClient.searchTemplate(any()))
+        .thenThrow(new ElasticsearchException("search_template", ErrorResponse.of(e -> e
+            .status(404)
+            .error(c -> c.type("index_not_found_exception").reason("no such index")))));
+
+    assertThrows(ElasticsearchException.class, () -> searchService.search(profileId, "searchText"));
+
+    verify(elasticSearchService, never()).putSearchTemplate(any());
+  }
+
+  @Test
+  public void searchByProfileDTO_Profiled_ReturnsQueryTimings() throws IOException {
+    ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+    when(elasticSearchStatefulClient.search(request.capture())).thenReturn(SearchResponse.of(r -> r
+        .took(12)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))
+        .profile(p -> p.shards(shard -> shard
+            .id("[node][index][0]")
+            .aggregations(List.of())
+            .searches(search -> search
+                .rewriteTime(1000)
+                .collector(List.of())
+                .query(ElasticSearchProfileSample.query("BooleanQuery", "name:searchtext", 2_000_000)))))));
+
+    SearchResults results = searchService.searchByProfileDTO(getSearchProfileDto(true), "searchText", true);
+
+    assertThat(request.getValue().profile(), equalTo(true));
+    assertThat(results.getQueryTimings().getTookMillis(), equalTo(12L));
+    assertThat(results.getQueryTimings().getShards().get(0).getQueryMillis(), equalTo(2.0));
+    assertThat(results.getQueryTimings().getStages().keySet(), containsInAnyOrder(
+        InstrumentationService.STAGE_REQUEST_BUILD,
+        InstrumentationService.STAGE_ELASTICSEARCH,
+        InstrumentationService.STAGE_POST_PROCESS));
+  }
+
+  @Test
+  public void searchByProfileDTO_NotProfiled_ReturnsNoQueryTimings() throws IOException {
+    ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+    when(elasticSearchStatefulClient.search(request.capture())).thenReturn(SearchResponse.of(r -> r
+        .took(1)
+        .timedOut(false)
+        .shards(s -> s.total(1).successful(1).failed(0))
+        .hits(h -> h.hits(List.of()))));
+
+    SearchResults results = searchService.searchByProfileDTO(getSearchProfileDto(true), "searchText");
+
+    assertThat(request.getValue().profile(), nullValue());
+    assertThat(results.getQueryTimings(), nullValue());
+  }
+
   @Test
   public void getSearchQueryOptional() {
     String placeholderSearchValue = "{{placeholder}}";
@@ -64,6 +461,20 @@ public class SearchServiceTest {
     assertThat(searchQuery, containsString(searchValue));
   }
 
+  @Test
+  public void getSearchTemplateQuery_ReferencesTemplateWithoutStoringIt() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+
+    String searchQuery = searchService.getSearchTemplateQuery(profileId);
+
+    verify(elasticSearchService, never()).putSearchTemplate(any());
+    verify(elasticSearchStatefulClient, never()).putSearchTemplate(any(), any());
+    assertThat(searchQuery, containsString("/_search/template"));
+    assertThat(searchQuery, containsString("\"id\":\"search-profile-" + profileId + "-3\""));
+    assertThat(searchQuery, containsString("{{placeholder}}"));
+  }
+
   @Test
   public void getSearchQuery_SearchprofileIsNotQueryable_throwsException() {
     String profileId = UUID.randomUUID().toString();
@@ -75,9 +486,102 @@ public class SearchServiceTest {
     );
   }
 
+  @Test
+  public void submitAsyncSearch_FinishedInTime_NotKept() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    ArgumentCaptor<SubmitRequest> request = ArgumentCaptor.forClass(SubmitRequest.class);
+    when(elasticSearchStatefulClient.submitAsyncSearch(request.capture())).thenReturn(asyncSearchResponse(null, false));
+
+    AsyncSearchResults results = searchService.submitAsyncSearch(profileId, "searchText", Map.of(), FacetMode.NONE);
+
+    assertThat(results.getId(), nullValue());
+    assertThat(results.getExpiresAt(), nullValue());
+    assertThat(results.isRunning(), equalTo(false));
+    assertThat(results.getResults().getNumberOfResults(), equalTo(0));
+    assertThat(request.getValue().keepOnCompletion(), equalTo(false));
+    assertThat(request.getValue().keepAlive().time(), equalTo("600000ms"));
+    verify(asyncSearchRepository, never()).save(any());
+  }
+
+  @Test
+  public void submitAsyncSearch_StillRunning_KeptForApplication() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    SearchProfileDto searchProfileDto = searchProfileService.getSearchProfileByProfileId(profileId);
+    when(elasticSearchStatefulClient.submitAsyncSearch(any())).thenReturn(asyncSearchResponse("async-id", true));
+
+    AsyncSearchResults results = searchService.submitAsyncSearch(profileId, "searchText", Map.of(), FacetMode.NONE);
+
+    ArgumentCaptor<AsyncSearchDocument> document = ArgumentCaptor.forClass(AsyncSearchDocument.class);
+    verify(asyncSearchRepository, times(1)).save(document.capture());
+    assertThat(document.getValue().getId(), equalTo("async-id"));
+    assertThat(document.getValue().getApplicationId(), equalTo(searchProfileDto.getApplicationId().toString()));
+    assertThat(document.getValue().getExpiresAt(), equalTo(results.getExpiresAt()));
+    assertThat(results.getId(), equalTo("async-id"));
+    assertThat(results.isRunning(), equalTo(true));
+  }
+
+  @Test
+  public void getAsyncSearchApplicationId_Expired_NotFound() {
+    when(asyncSearchRepository.findById("async-id")).thenReturn(Optional.of(AsyncSearchDocument.builder()
+        .id("async-id")
+        .applicationId(UUID.randomUUID().toString())
+        .expiresAt(Instant.now().minusSeconds(1))
+        .build()));
+
+    ResponseStatusException exception = assertThrows(
+        ResponseStatusException.class,
+        () -> searchService.getAsyncSearchApplicationId("async-id"));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.NOT_FOUND));
+  }
+
+  @Test
+  public void getAsyncSearch_RemovedByElasticsearch_ForgottenAndNotFound() throws IOException {
+    String profileId = UUID.randomUUID().toString();
+    mockCreateSearchRequest(profileId, true);
+    when(asyncSearchRepository.findById("async-id")).thenReturn(Optional.of(AsyncSearchDocument.builder()
+        .id("async-id")
+        .applicationId(UUID.randomUUID().toString())
+        .profileId(profileId)
+        .facetMode(FacetMode.NONE)
+        .expiresAt(Instant.now().plusSeconds(60))
+        .build()));
+    when(elasticSearchStatefulClient.getAsyncSearch(any()))
+        .thenThrow(new ElasticsearchException("async_search.get", ErrorResponse.of(e -> e
+            .status(404)
+            .error(c -> c.type("resource_not_found_exception").reason("async-id")))));
+
+    ResponseStatusException exception = assertThrows(
+        ResponseStatusException.class,
+        () -> searchService.getAsyncSearch("async-id"));
+
+    assertThat(exception.getStatus(), equalTo(HttpStatus.NOT_FOUND));
+    verify(asyncSearchRepository, times(1)).deleteById("async-id");
+  }
+
+  private static SubmitResponse<ObjectNode> asyncSearchResponse(String id, boolean running) {
+    long now = System.currentTimeMillis();
+    return SubmitResponse.of(r -> r
+        .id(id)
+        .isPartial(running)
+        .isRunning(running)
+        .startTimeInMillis(DateTime.ofEpochMilli(now))
+        .expirationTimeInMillis(DateTime.ofEpochMilli(now))
+        .response(a -> a
+            .took(1)
+            .timedOut(false)
+            .shards(s -> s.total(1).successful(1).failed(0))
+            .hits(h -> h.hits(List.of()))));
+  }
+
   private void mockCreateSearchRequest(String profileId, boolean queryable) {
+    SearchProfileDto searchProfileDto = getSearchProfileDto(queryable);
+    searchProfileDto.setProfileId(profileId);
+    searchProfileDto.setVersion(3L);
     when(searchProfileService.getSearchProfileByProfileId(profileId))
-        .thenReturn(getSearchProfileDto(queryable));
+        .thenReturn(searchProfileDto);
   }
 
   private SearchProfileDto getSearchProfileDto(boolean queryable) {
@@ -0,0 +1,134 @@
+package com.github.searchprofileservice.service;
+
+import com.github.searchprofileservice.config.SlowQueryLogProperties;
+import com.github.searchprofileservice.model.SlowQueryStatistics;
+import com.github.searchprofileservice.persistence.mongo.model.SlowQueryRecord;
+import com.github.searchprofileservice.service.impl.SlowQueryLogServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class SlowQueryLogServiceTest {
+
+  private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final SlowQueryLogProperties slowQueryLogProperties = new SlowQueryLogProperties();
+
+  private SlowQueryLogServiceImpl createService(double sampleRate, int bufferSize) {
+    slowQueryLogProperties.setThreshold(Duration.ofMillis(100));
+    slowQueryLogProperties.setSampleRate(sampleRate);
+    slowQueryLogProperties.setBufferSize(bufferSize);
+    return new SlowQueryLogServiceImpl(mongoTemplate, slowQueryLogProperties, meterRegistry);
+  }
+
+  @Test
+  public void isRecorded_SlowSearch_IsRecorded() {
+    SlowQueryLogService slowQueryLogService = createService(0, 16);
+
+    assertThat(slowQueryLogService.isRecorded(Duration.ofMillis(100).toNanos()), is(true));
+    assertThat(slowQueryLogService.isRecorded(Duration.ofMillis(99).toNanos()), is(false));
+  }
+
+  @Test
+  public void isRecorded_FullSampleRate_RecordsFastSearches() {
+    SlowQueryLogService slowQueryLogService = createService(1, 16);
+
+    assertThat(slowQueryLogService.isRecorded(0), is(true));
+  }
+
+  @Test
+  public void isRecorded_Disabled_RecordsNothing() {
+    SlowQueryLogService slowQueryLogService = createService(1, 16);
+    slowQueryLogProperties.setEnabled(false);
+
+    assertThat(slowQueryLogService.isRecorded(Duration.ofSeconds(10).toNanos()), is(false));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void flush_WritesRecordsInOneBatchToCappedCollection() {
+    SlowQueryLogServiceImpl slowQueryLogService = createService(0, 16);
+    when(mongoTemplate.collectionExists(SlowQueryRecord.class)).thenReturn(false);
+
+    slowQueryLogService.record(SlowQueryRecord.builder().totalMillis(150).build());
+    slowQueryLogService.record(SlowQueryRecord.builder().totalMillis(5).build());
+    slowQueryLogService.flush();
+
+    ArgumentCaptor<Collection<SlowQueryRecord>> records = ArgumentCaptor.forClass(Collection.class);
+    verify(mongoTemplate, times(1))
+        .createCollection(eq(SlowQueryRecord.class), any(CollectionOptions.class));
+    verify(mongoTemplate, times(1)).insert(records.capture(), eq(SlowQueryRecord.class));
+    assertThat(records.getValue().stream().map(SlowQueryRecord::isSlow).toList(), contains(true, false));
+  }
+
+  @Test
+  public void flush_NothingRecorded_DoesNotTouchMongo() {
+    SlowQueryLogServiceImpl slowQueryLogService = createService(0, 16);
+
+    slowQueryLogService.flush();
+
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  public void record_FullBuffer_DropsAndCountsRecords() {
+    SlowQueryLogServiceImpl slowQueryLogService = createService(0, 2);
+
+    for (int i = 0; i < 5; i++) {
+      slowQueryLogService.record(SlowQueryRecord.builder().totalMillis(150).build());
+    }
+
+    assertThat(meterRegistry.counter("slow.query.log.dropped").count(), is(3.0));
+  }
+
+  @Test
+  public void flush_MongoUnavailable_DropsAndCountsRecords() {
+    SlowQueryLogServiceImpl slowQueryLogService = createService(0, 16);
+    when(mongoTemplate.collectionExists(SlowQueryRecord.class)).thenReturn(true);
+    when(mongoTemplate.insert(anyCollection(), eq(SlowQueryRecord.class)))
+        .thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+    slowQueryLogService.record(SlowQueryRecord.builder().totalMillis(150).build());
+    slowQueryLogService.flush();
+
+    assertThat(meterRegistry.counter("slow.query.log.dropped").count(), is(1.0));
+  }
+
+  @Test
+  public void getMostFrequent_GroupsSlowSearchesByProfileAndSearchValue() {
+    SlowQueryLogService slowQueryLogService = createService(0, 16);
+    when(mongoTemplate.aggregate(
+        any(Aggregation.class), eq(SlowQueryRecord.class), eq(SlowQueryStatistics.class)))
+        .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+    slowQueryLogService.getMostFrequent(10);
+
+    ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+    verify(mongoTemplate).aggregate(
+        aggregation.capture(), eq(SlowQueryRecord.class), eq(SlowQueryStatistics.class));
+    String pipeline = aggregation.getValue().toString();
+    assertThat(pipeline, containsString("{ \"$match\" : { \"slow\" : true}}"));
+    assertThat(pipeline, containsString(
+        "\"_id\" : { \"profileId\" : \"$profileId\", \"searchValue\" : \"$searchValue\"}"));
+    assertThat(pipeline, containsString("\"searchValue\" : \"$_id.searchValue\""));
+    assertThat(pipeline, containsString("{ \"$limit\" : 10}"));
+  }
+}
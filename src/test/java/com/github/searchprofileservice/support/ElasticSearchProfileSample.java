@@ -0,0 +1,38 @@
+package com.github.searchprofileservice.support;
+
+import co.elastic.clients.elasticsearch.core.search.QueryBreakdown;
+import co.elastic.clients.elasticsearch.core.search.QueryProfile;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ElasticSearchProfileSample {
+
+  /**
+   * @return a profiled query clause, the low level breakdown is all zeros
+   */
+  public static QueryProfile query(
+      String type, String description, long timeInNanos, QueryProfile... children) {
+    return QueryProfile.of(q -> q
+        .type(type)
+        .description(description)
+        .timeInNanos(timeInNanos)
+        .breakdown(emptyBreakdown())
+        .children(List.of(children)));
+  }
+
+  private static QueryBreakdown emptyBreakdown() {
+    return QueryBreakdown.of(b -> b
+        .advance(0).advanceCount(0)
+        .buildScorer(0).buildScorerCount(0)
+        .createWeight(0).createWeightCount(0)
+        .match(0).matchCount(0)
+        .shallowAdvance(0).shallowAdvanceCount(0)
+        .nextDoc(0).nextDocCount(0)
+        .score(0).scoreCount(0)
+        .computeMaxScore(0).computeMaxScoreCount(0)
+        .setMinCompetitiveScore(0).setMinCompetitiveScoreCount(0));
+  }
+}
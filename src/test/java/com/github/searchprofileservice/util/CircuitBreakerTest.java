@@ -0,0 +1,97 @@
+package com.github.searchprofileservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CircuitBreakerTest {
+
+  private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final AtomicLong clock = new AtomicLong(1_000L);
+
+  private final CircuitBreaker circuitBreaker = new CircuitBreaker(0.5, 10, 4, OPEN_NANOS, 2, clock::get);
+
+  @Test
+  public void onFailure_BelowMinimumCalls_StaysClosed() {
+    fail(3);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    assertThat(circuitBreaker.getFailureRate(), is(1.0));
+    assertThat(circuitBreaker.tryAcquirePermission(), is(true));
+  }
+
+  @Test
+  public void onFailure_FailureRateReached_OpensAndRejects() {
+    succeed(2);
+    fail(2);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+    assertThat(circuitBreaker.tryAcquirePermission(), is(false));
+    assertThat(circuitBreaker.getRemainingOpenNanos(), is(OPEN_NANOS));
+  }
+
+  @Test
+  public void onSuccess_OldFailuresLeaveWindow_StaysClosed() {
+    fail(1);
+    succeed(10);
+    fail(4);
+
+    assertThat(circuitBreaker.getFailureRate(), is(closeTo(0.4, 0.001)));
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void getState_OpenDurationOver_HalfOpenWithLimitedTrialCalls() {
+    fail(4);
+
+    clock.addAndGet(OPEN_NANOS);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+    assertThat(circuitBreaker.getRemainingOpenNanos(), is(0L));
+    assertThat(circuitBreaker.tryAcquirePermission(), is(true));
+    assertThat(circuitBreaker.tryAcquirePermission(), is(true));
+    assertThat(circuitBreaker.tryAcquirePermission(), is(false));
+  }
+
+  @Test
+  public void onSuccess_AllTrialCallsSucceed_ClosesWithFreshWindow() {
+    fail(4);
+    clock.addAndGet(OPEN_NANOS);
+    circuitBreaker.tryAcquirePermission();
+    circuitBreaker.tryAcquirePermission();
+
+    succeed(2);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    assertThat(circuitBreaker.getFailureRate(), is(0.0));
+  }
+
+  @Test
+  public void onFailure_TrialCallFails_OpensAgain() {
+    fail(4);
+    clock.addAndGet(OPEN_NANOS);
+    circuitBreaker.tryAcquirePermission();
+
+    fail(1);
+
+    assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+    assertThat(circuitBreaker.tryAcquirePermission(), is(false));
+  }
+
+  private void succeed(int calls) {
+    for (int i = 0; i < calls; i++) {
+      circuitBreaker.onSuccess();
+    }
+  }
+
+  private void fail(int calls) {
+    for (int i = 0; i < calls; i++) {
+      circuitBreaker.onFailure();
+    }
+  }
+}
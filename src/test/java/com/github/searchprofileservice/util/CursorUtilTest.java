@@ -0,0 +1,57 @@
+package com.github.searchprofileservice.util;
+
+import com.github.searchprofileservice.exception.InvalidPageRequestException;
+import com.github.searchprofileservice.model.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorUtilTest {
+
+  @Test
+  public void decode_EncodedKeys_ReturnsKeys() {
+    String cursor = CursorUtil.encode("a.b", "ö/+");
+
+    assertThat(CursorUtil.decode(cursor, 2), is(new String[] { "a.b", "ö/+" }));
+  }
+
+  @Test
+  public void decode_BlankCursor_ReturnsNull() {
+    assertThat(CursorUtil.decode(null, 1), is(nullValue()));
+    assertThat(CursorUtil.decode(" ", 1), is(nullValue()));
+  }
+
+  @Test
+  public void decode_MalformedCursor_Throws() {
+    assertThrows(InvalidPageRequestException.class, () -> CursorUtil.decode("a.b", 1));
+    assertThrows(InvalidPageRequestException.class, () -> CursorUtil.decode("%%%", 1));
+  }
+
+  @Test
+  public void toPageRequest_LimitOutOfRange_Throws() {
+    assertThrows(InvalidPageRequestException.class, () -> CursorUtil.toPageRequest(0));
+    assertThrows(
+        InvalidPageRequestException.class, () -> CursorUtil.toPageRequest(CursorUtil.MAX_LIMIT + 1));
+    assertThat(CursorUtil.toPageRequest(10).getPageSize(), is(11));
+  }
+
+  @Test
+  public void toPage_MoreItemsThanLimit_TrimsAndReturnsCursorOfLastItem() {
+    CursorPage<String> page = CursorUtil.toPage(List.of("a", "b", "c"), 2, item -> new String[] { item });
+
+    assertThat(page.getItems(), is(List.of("a", "b")));
+    assertThat(CursorUtil.decode(page.getNextCursor(), 1), is(new String[] { "b" }));
+  }
+
+  @Test
+  public void toPage_LastPage_ReturnsNoCursor() {
+    CursorPage<String> page = CursorUtil.toPage(List.of("a", "b"), 2, item -> new String[] { item });
+
+    assertThat(page.getItems(), is(List.of("a", "b")));
+    assertThat(page.getNextCursor(), is(nullValue()));
+  }
+}
@@ -1,11 +1,16 @@
 package com.github.searchprofileservice.util;
 
 import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.json.JsonData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.searchprofileservice.model.enums.ElasticSearchMappingType;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -35,9 +40,9 @@ class ElasticSearchMappingFlattenerUtilTest {
     elasticSearchMapping.put(descriptionField, TYPE_TEXT);
 
     Map<String, ElasticSearchMappingType> expected = new HashMap<>();
-    expected.put(idField, ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put(idField, ElasticSearchMappingType.KEYWORD);
     expected.put(nameField, ElasticSearchMappingType.TEXT);
-    expected.put(costsField, ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put(costsField, ElasticSearchMappingType.NUMERIC);
     expected.put(descriptionField, ElasticSearchMappingType.TEXT);
 
     // act
@@ -70,14 +75,14 @@ class ElasticSearchMappingFlattenerUtilTest {
     elasticSearchMapping.put("person", getObjectProperty(personFields));
 
     Map<String, ElasticSearchMappingType> expected = new HashMap<>();
-    expected.put("id", ElasticSearchMappingType.NOT_SUPPORTED);
-    expected.put("person.id", ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put("id", ElasticSearchMappingType.KEYWORD);
+    expected.put("person.id", ElasticSearchMappingType.KEYWORD);
     expected.put("person.name", ElasticSearchMappingType.TEXT);
-    expected.put("person.age", ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put("person.age", ElasticSearchMappingType.NUMERIC);
     expected.put("person.description", ElasticSearchMappingType.TEXT);
-    expected.put("person.certificates.microsoft", ElasticSearchMappingType.NOT_SUPPORTED);
-    expected.put("person.certificates.oracle", ElasticSearchMappingType.NOT_SUPPORTED);
-    expected.put("person.certificates.amazon", ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put("person.certificates.microsoft", ElasticSearchMappingType.BOOLEAN);
+    expected.put("person.certificates.oracle", ElasticSearchMappingType.BOOLEAN);
+    expected.put("person.certificates.amazon", ElasticSearchMappingType.BOOLEAN);
 
     // act
     Map<String, ElasticSearchMappingType> result
@@ -116,7 +121,7 @@ class ElasticSearchMappingFlattenerUtilTest {
     elasticSearchMapping.put("object1", getObjectProperty(object1));
 
     Map<String, ElasticSearchMappingType> expected = new HashMap<>();
-    expected.put("id", ElasticSearchMappingType.NOT_SUPPORTED);
+    expected.put("id", ElasticSearchMappingType.KEYWORD);
     expected.put("description", ElasticSearchMappingType.TEXT);
     expected.put("object1.object2.object3.object4.object5", ElasticSearchMappingType.NOT_SUPPORTED);
 
@@ -129,6 +134,82 @@ class ElasticSearchMappingFlattenerUtilTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  void flattener_returns_multi_fields_and_filterable_types() {
+
+    // arrange
+    Map<String, Property> elasticSearchMapping = new HashMap<>();
+    elasticSearchMapping.put("name", Property.of(b -> b.text(t -> t
+        .fields("keyword", Property.of(f -> f.keyword(k -> k.ignoreAbove(256)))))));
+    elasticSearchMapping.put("price", Property.of(b -> b.scaledFloat(f -> f.scalingFactor(100.0))));
+    elasticSearchMapping.put("views", Property.of(b -> b.long_(l -> l.index(true))));
+    elasticSearchMapping.put("tenant", Property.of(b -> b.constantKeyword(k -> k.value(JsonData.of("a")))));
+    elasticSearchMapping.put("location", Property.of(b -> b.geoPoint(g -> g.ignoreMalformed(true))));
+
+    Map<String, ElasticSearchMappingType> expected = new HashMap<>();
+    expected.put("name", ElasticSearchMappingType.TEXT);
+    expected.put("name.keyword", ElasticSearchMappingType.KEYWORD);
+    expected.put("price", ElasticSearchMappingType.NUMERIC);
+    expected.put("views", ElasticSearchMappingType.NUMERIC);
+    expected.put("tenant", ElasticSearchMappingType.KEYWORD);
+    expected.put("location", ElasticSearchMappingType.NOT_SUPPORTED);
+
+    // act
+    Map<String, ElasticSearchMappingType> result
+        = ElasticSearchMappingFlattenerUtil.flattenElasticSearchIndexMapping(
+        elasticSearchMapping, 5);
+
+    // assert
+    assertEquals(expected, result);
+  }
+
+  @Test
+  @SneakyThrows
+  void document_flattener_returns_paths_matching_the_flattened_mapping() {
+
+    // arrange
+    JsonNode document = new ObjectMapper().readTree(
+        "{\"id\": \"1\", \"person\": {\"name\": \"Max\", \"age\": 42,"
+            + " \"certificates\": [{\"microsoft\": true}, {\"oracle\": false}]},"
+            + " \"tags\": [\"a\", \"b\"], \"nothing\": null, \"empty\": [], \"void\": {}}");
+
+    Set<String> expected = Set.of(
+        "id",
+        "person.name",
+        "person.age",
+        "person.certificates.microsoft",
+        "person.certificates.oracle",
+        "tags");
+
+    // act
+    Set<String> result =
+        ElasticSearchMappingFlattenerUtil.flattenDocumentFieldPaths(document, 5);
+
+    // assert
+    assertEquals(expected, result);
+  }
+
+  @Test
+  @SneakyThrows
+  void document_flattener_cuts_paths_on_exceeded_mapping_depth() {
+
+    // arrange
+    JsonNode document = new ObjectMapper().readTree(
+        "{\"description\": \"text\", \"object1\": {\"object2\": {\"object3\": {\"object4\":"
+            + " {\"object5\": {\"object6\": {\"name\": \"deep\"}}}}}}}");
+
+    Set<String> expected = Set.of(
+        "description",
+        "object1.object2.object3.object4.object5");
+
+    // act
+    Set<String> result =
+        ElasticSearchMappingFlattenerUtil.flattenDocumentFieldPaths(document, 5);
+
+    // assert
+    assertEquals(expected, result);
+  }
+
   private Property getObjectProperty(Map<String, Property> object) {
     return Property.of(b -> b.object(o -> o.properties(object)));
   }
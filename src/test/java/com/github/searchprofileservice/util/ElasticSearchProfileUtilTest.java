@@ -0,0 +1,60 @@
+package com.github.searchprofileservice.util;
+
+import co.elastic.clients.elasticsearch.core.search.Profile;
+import com.github.searchprofileservice.model.QueryTimings;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.searchprofileservice.support.ElasticSearchProfileSample.query;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ElasticSearchProfileUtilTest {
+
+  @Test
+  public void condense_NoProfile_ReturnsNoShards() {
+    assertThat(ElasticSearchProfileUtil.condense(null), is(empty()));
+  }
+
+  @Test
+  public void condense_FlattensClausesWithShareOfQueryTime() {
+    Profile profile = Profile.of(p -> p.shards(shard -> shard
+        .id("[node][index][0]")
+        .aggregations(List.of())
+        .searches(search -> search
+            .rewriteTime(500_000)
+            .collector(collector -> collector
+                .name("SimpleTopScoreDocCollector")
+                .reason("search_top_hits")
+                .timeInNanos(1_000_000))
+            .query(query("BooleanQuery", "name:headphones~2 brand:headphones", 10_000_000,
+                query("BoostQuery", "(name:headphones~2)^3.0", 8_000_000,
+                    query("FuzzyQuery", "name:headphones~2", 7_900_000)),
+                query("TermQuery", "brand:headphones", 2_000_000))))
+        .fetch(fetch -> fetch
+            .type("fetch")
+            .description("")
+            .timeInNanos(250_000)
+            .breakdown(breakdown -> breakdown))));
+
+    List<QueryTimings.Shard> shards = ElasticSearchProfileUtil.condense(profile);
+
+    assertThat(shards, hasSize(1));
+    QueryTimings.Shard shard = shards.get(0);
+    assertThat(shard.getId(), is("[node][index][0]"));
+    assertThat(shard.getQueryMillis(), is(10.0));
+    assertThat(shard.getRewriteMillis(), is(0.5));
+    assertThat(shard.getCollectorMillis(), is(1.0));
+    assertThat(shard.getFetchMillis(), is(0.25));
+
+    List<QueryTimings.Clause> clauses = shard.getClauses();
+    assertThat(clauses.stream().map(QueryTimings.Clause::getType).toList(),
+        contains("BooleanQuery", "BoostQuery", "FuzzyQuery", "TermQuery"));
+    assertThat(clauses.stream().map(QueryTimings.Clause::getDepth).toList(), contains(0, 1, 2, 1));
+    assertThat(clauses.stream().map(QueryTimings.Clause::getPercentOfQuery).toList(),
+        contains(100.0, 80.0, 79.0, 20.0));
+    assertThat(clauses.get(2).getDescription(), is("name:headphones~2"));
+    assertThat(clauses.get(2).getMillis(), is(7.9));
+  }
+}
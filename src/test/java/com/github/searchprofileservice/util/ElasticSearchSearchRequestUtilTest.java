@@ -2,13 +2,19 @@ package com.github.searchprofileservice.util;
 
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import com.github.searchprofileservice.model.Analyser;
+import com.github.searchprofileservice.model.SearchFacet;
 import com.github.searchprofileservice.model.SearchField;
+import com.github.searchprofileservice.model.SearchFilter;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 
@@ -34,6 +40,117 @@ public class ElasticSearchSearchRequestUtilTest {
     assertThat(requestAsString, containsString("id^0.5"));
   }
 
+  @Test
+  public void createTemplateSource() {
+    String source = ElasticSearchSearchRequestUtil.createTemplateSource(getSearchFields(), null, 3.0, new Analyser());
+
+    assertThat(source, startsWith("{"));
+    assertThat(source, not(containsString(index)));
+    assertThat(source, containsString("\"min_score\":3.0"));
+    assertThat(source, containsString("\"query\":\"{{search_value}}\""));
+    assertThat(source, containsString("title^2.0"));
+    assertThat(source, not(containsString("filter")));
+  }
+
+  @Test
+  public void createTemplateSource_withFilters() {
+    String source = ElasticSearchSearchRequestUtil.createTemplateSource(
+        getSearchFields(), getFilters(), null, new Analyser());
+
+    assertThat(source, containsString("\"filter\":[{\"term\":{\"published\":{\"value\":\"true\"}}}"));
+    assertThat(source, containsString("\"minimum_should_match\":\"1\""));
+  }
+
+  @Test
+  public void createRequest_withFilters_inFilterContext() {
+    SearchRequest request = new ElasticSearchSearchRequestUtil(index, searchValue, getFilters(), null)
+        .createRequest(getSearchFields(), new Analyser());
+    String requestAsString = request.toString();
+
+    assertThat(requestAsString, containsString("\"filter\":[{\"term\":{\"published\":{\"value\":\"true\"}}},"
+        + "{\"terms\":{\"category\":[\"books\",\"music\"]}},"
+        + "{\"range\":{\"price\":{\"gte\":5.0,\"lte\":20.0}}}]"));
+    assertThat(requestAsString, containsString("\"minimum_should_match\":\"1\""));
+    assertThat(requestAsString, not(containsString("tenant")));
+  }
+
+  @Test
+  public void createRequest_withFilterParameters_replaceValues() {
+    SearchRequest request = new ElasticSearchSearchRequestUtil(
+        index, searchValue, getFilters(), Map.of("category", List.of("games"), "tenant", List.of("a", "b")))
+        .createRequest(getSearchFields(), new Analyser());
+    String requestAsString = request.toString();
+
+    assertThat(requestAsString, containsString("{\"term\":{\"category\":{\"value\":\"games\"}}}"));
+    assertThat(requestAsString, containsString("{\"terms\":{\"tenant\":[\"a\",\"b\"]}}"));
+    assertThat(requestAsString, not(containsString("books")));
+  }
+
+  @Test
+  public void createRequest_facetsOnly_withoutSearchValue_matchesFilteredDocuments() {
+    SearchRequest request = new ElasticSearchSearchRequestUtil(index, "", getFilters(), null)
+        .createRequest(getSearchFields(), 2.0, new Analyser(), List.of(
+            new SearchFacet("category", 5, null),
+            new SearchFacet("price", null, List.of(new SearchFacet.Range("cheap", null, 10.0)))), true, false);
+    String requestAsString = request.toString();
+
+    assertThat(requestAsString, containsString("\"size\":0"));
+    assertThat(requestAsString, containsString("request_cache=true"));
+    assertThat(requestAsString, containsString("\"category\":{\"terms\":{\"field\":\"category\",\"size\":5}}"));
+    assertThat(requestAsString, containsString("\"price\":{\"range\":{\"field\":\"price\",\"ranges\":[{\"key\":\"cheap\",\"to\":\"10.0\"}]}}"));
+    assertThat(requestAsString, containsString("\"filter\":["));
+    assertThat(requestAsString, not(containsString("should")));
+    assertThat(requestAsString, not(containsString("min_score")));
+    assertThat(requestAsString, not(containsString("highlight")));
+  }
+
+  @Test
+  public void createRequest_withoutFacets_noAggregations() {
+    SearchRequest request = elasticSearchSearchRequestUtil.createRequest(getSearchFields(), new Analyser());
+
+    assertThat(request.toString(), not(containsString("aggregations")));
+    assertThat(request.toString(), not(containsString("request_cache")));
+  }
+
+  @Test
+  public void getFilterParameters_onlyPrefixedParameters() {
+    Map<String, List<String>> filterParameters = ElasticSearchSearchRequestUtil.getFilterParameters(Map.of(
+        "value", List.of(searchValue),
+        "filter.category", List.of("books"),
+        "filter.", List.of("none")));
+
+    assertThat(filterParameters, equalTo(Map.of("category", List.of("books"))));
+  }
+
+  @Test
+  public void createTemplateRequest() {
+    String request = elasticSearchSearchRequestUtil.createTemplateRequest("template").toString();
+
+    assertThat(request, containsString("/" + index + "/_search/template"));
+    assertThat(request, containsString("\"id\":\"template\""));
+    assertThat(request, containsString("\"search_value\":\"" + searchValue + "\""));
+  }
+
+  @Test
+  public void getTemplateId_ChangesWithVersion() {
+    assertThat(ElasticSearchSearchRequestUtil.getTemplateId("profile", 2L), equalTo("search-profile-profile-2"));
+    assertThat(ElasticSearchSearchRequestUtil.getTemplateId("profile", null), equalTo("search-profile-profile-0"));
+  }
+
+  @Test
+  public void createRequest_profiled() {
+    SearchRequest request =
+        elasticSearchSearchRequestUtil.createRequest(getSearchFields(), null, new Analyser(), true);
+    assertThat(request.toString(), containsString("\"profile\":true"));
+  }
+
+  @Test
+  public void createRequest_not_profiled() {
+    SearchRequest request = elasticSearchSearchRequestUtil.createRequest(getSearchFields(),
+        new Analyser());
+    assertThat(request.toString(), not(containsString("profile")));
+  }
+
   @Test
   public void createRequest_with_min_score() {
     List<SearchField> searchFields = getSearchFields();
@@ -80,4 +197,13 @@ public class ElasticSearchSearchRequestUtilTest {
         new SearchField("id", true, 0.5)
     );
   }
+
+  private List<SearchFilter> getFilters() {
+    return List.of(
+        new SearchFilter("published", List.of("true"), null, null, null),
+        new SearchFilter("category", List.of("books", "music"), null, null, "category"),
+        new SearchFilter("price", null, 5.0, 20.0, null),
+        new SearchFilter("tenant", null, null, null, "tenant")
+    );
+  }
 }
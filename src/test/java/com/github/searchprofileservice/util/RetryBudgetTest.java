@@ -0,0 +1,47 @@
+package com.github.searchprofileservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RetryBudgetTest {
+
+  private final RetryBudget retryBudget = new RetryBudget(0.1, 2);
+
+  @Test
+  public void tryWithdraw_StartsFull_AllowsMaxRetries() {
+    assertThat(retryBudget.tryWithdraw(), is(true));
+    assertThat(retryBudget.tryWithdraw(), is(true));
+    assertThat(retryBudget.tryWithdraw(), is(false));
+  }
+
+  @Test
+  public void onCall_DepositsShareOfARetry() {
+    withdrawAll();
+
+    for (int i = 0; i < 9; i++) {
+      retryBudget.onCall();
+    }
+    assertThat(retryBudget.getAvailableRetries(), is(closeTo(0.9, 0.001)));
+    assertThat(retryBudget.tryWithdraw(), is(false));
+
+    retryBudget.onCall();
+    assertThat(retryBudget.tryWithdraw(), is(true));
+  }
+
+  @Test
+  public void onCall_FullBudget_StaysAtMaxRetries() {
+    for (int i = 0; i < 100; i++) {
+      retryBudget.onCall();
+    }
+
+    assertThat(retryBudget.getAvailableRetries(), is(closeTo(2, 0.001)));
+  }
+
+  private void withdrawAll() {
+    while (retryBudget.tryWithdraw()) {
+      // empty the budget
+    }
+  }
+}
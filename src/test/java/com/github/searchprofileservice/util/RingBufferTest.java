@@ -0,0 +1,84 @@
+package com.github.searchprofileservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RingBufferTest {
+
+  @Test
+  public void constructor_CapacityIsRoundedUpToPowerOfTwo() {
+    assertThat(new RingBuffer<>(1).capacity(), is(1));
+    assertThat(new RingBuffer<>(5).capacity(), is(8));
+    assertThat(new RingBuffer<>(1024).capacity(), is(1024));
+  }
+
+  @Test
+  public void offer_FullBuffer_RejectsElements() {
+    RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(ringBuffer.offer(i), is(true));
+    }
+
+    assertThat(ringBuffer.offer(4), is(false));
+    assertThat(ringBuffer.size(), is(4));
+  }
+
+  @Test
+  public void drain_TakesElementsInOrderAndFreesSlots() {
+    RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+    List<Integer> drained = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      ringBuffer.offer(i);
+    }
+
+    assertThat(ringBuffer.drain(drained::add, 3), is(3));
+    assertThat(ringBuffer.offer(4), is(true));
+    assertThat(ringBuffer.offer(5), is(true));
+    assertThat(ringBuffer.drain(drained::add, 10), is(3));
+
+    assertThat(drained, contains(0, 1, 2, 3, 4, 5));
+    assertThat(ringBuffer.size(), is(0));
+  }
+
+  @Test
+  public void offer_ConcurrentProducers_NoElementIsLostOrDuplicated() throws InterruptedException {
+    int producers = 4;
+    int elementsPerProducer = 10_000;
+    RingBuffer<Integer> ringBuffer = new RingBuffer<>(64);
+    Set<Integer> drained = new HashSet<>();
+    CountDownLatch done = new CountDownLatch(producers);
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+    for (int producer = 0; producer < producers; producer++) {
+      int first = producer * elementsPerProducer;
+      executor.execute(() -> {
+        for (int i = first; i < first + elementsPerProducer; i++) {
+          while (!ringBuffer.offer(i)) {
+            Thread.onSpinWait();
+          }
+        }
+        done.countDown();
+      });
+    }
+
+    while (done.getCount() > 0 || ringBuffer.size() > 0) {
+      ringBuffer.drain(element -> assertThat(drained.add(element), is(true)), 16);
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+
+    assertThat(drained, hasSize(producers * elementsPerProducer));
+  }
+}
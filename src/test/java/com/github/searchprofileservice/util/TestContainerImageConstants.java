@@ -12,6 +12,9 @@ public final class TestContainerImageConstants {
   public static final DockerImageName ELASTIC_SEARCH_IMAGE_NAME
       = DockerImageName.parse("docker.elastic.co/elasticsearch/elasticsearch:8.2.2");
 
+  public static final DockerImageName MONGO_IMAGE_NAME
+      = DockerImageName.parse("mongo:5.0");
+
   public static final Map<String, String> ELASTIC_SEARCH_ENVIRONMENT_VARIABLES = Map.of(
       "discovery.type",                     "single-node",
       "node.name",                          "es01",
@@ -0,0 +1,50 @@
+package com.github.searchprofileservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TokenBucketTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000L);
+
+  private final TokenBucket tokenBucket = new TokenBucket(10, 10, clock::get);
+
+  @Test
+  public void tryTake_FullBucket_TakesUpToCapacity() {
+    assertThat(tokenBucket.tryTake(4), is(0L));
+    assertThat(tokenBucket.tryTake(6), is(0L));
+    assertThat(tokenBucket.tryTake(1), is(TimeUnit.MILLISECONDS.toNanos(100)));
+  }
+
+  @Test
+  public void tryTake_EmptyBucket_RefillsOverTime() {
+    tokenBucket.tryTake(10);
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+    assertThat(tokenBucket.getAvailableTokens(), is(closeTo(5, 0.001)));
+    assertThat(tokenBucket.tryTake(5), is(0L));
+    assertThat(tokenBucket.tryTake(1), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void tryTake_MoreThanCapacity_PassesOnFullBucketAndLeavesDebt() {
+    assertThat(tokenBucket.tryTake(15), is(0L));
+
+    assertThat(tokenBucket.getAvailableTokens(), is(closeTo(-5, 0.001)));
+    assertThat(tokenBucket.tryTake(1), is(TimeUnit.MILLISECONDS.toNanos(600)));
+  }
+
+  @Test
+  public void giveBack_RestoresTakenTokens() {
+    tokenBucket.tryTake(10);
+    tokenBucket.giveBack(10);
+
+    assertThat(tokenBucket.getAvailableTokens(), is(closeTo(10, 0.001)));
+  }
+}